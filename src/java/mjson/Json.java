@@ -395,30 +395,196 @@ public class Json
     	 */
     	//Json generate(Json options);
     }
-
-    static String fetchContent(URL url)
+    
+    /**
+     * <p>
+     * Receives the content of a JSON document as a sequence of callbacks, in document order, 
+     * as it is being parsed with one of the <code>Json.parse</code> methods. Nothing is 
+     * allocated per value on behalf of the handler: keys, strings and numbers that need their 
+     * literal text are passed as <code>CharSequence</code>s that are only valid during the call.
+     * Call <code>toString()</code> on them to keep their value.
+     * </p>
+     * 
+     * <p>
+     * Numbers are reported through one of three methods, following the representation 
+     * {@link Json#read(String)} would pick: integers that fit in a <code>long</code>
+     * go to {@link #number(long)}, floating point numbers with less than 17 significant
+     * digits go to {@link #number(double)} and all others are passed as text to 
+     * {@link #number(CharSequence)}. A handler whose {@link #wantsNumberText()} is
+     * <code>true</code> gets every number but those integers as text.
+     * </p>
+     */
+    public static interface JsonHandler
     {
-    	java.io.Reader reader = null;
-    	try
-    	{
-	    	reader = new java.io.InputStreamReader((java.io.InputStream)url.getContent());
-	    	StringBuilder content = new StringBuilder();
-	    	char [] buf = new char[1024];
-	    	for (int n = reader.read(buf); n > -1; n = reader.read(buf))
-	    	    content.append(buf, 0, n);
-//	    	System.out.println("last reaad: " + new StringBuilder(buf))
-	    	return content.toString();
+    	void startObject();
+    	
+    	/**
+    	 * The name of the next property of the current object. It is followed by the 
+    	 * property's value. The built-in parsers pass a <code>String</code>, the same
+    	 * instance each time a name repeats, so <code>toString()</code> on it is free.
+    	 */
+    	void key(CharSequence name);
+    	
+    	void endObject();
+    	
+    	void startArray();
+    	
+    	void endArray();
+    	
+    	void string(CharSequence value);
+    	
+    	void number(long value);
+    	
+    	void number(double value);
+    	
+    	/**
+    	 * A number whose precision doesn't fit in a <code>long</code> or <code>double</code>,
+    	 * as it appears in the input.
+    	 */
+    	void number(CharSequence literal);
+    	
+    	void bool(boolean value);
+    	
+    	void nil();
+    	
+    	/**
+    	 * Whether numbers other than integers that fit in a <code>long</code> are to be
+    	 * reported with their literal through {@link #number(CharSequence)}, instead of
+    	 * as a <code>double</code> when that is precise enough. A handler that keeps the
+    	 * text of the input, or builds exact values, returns <code>true</code>. The
+    	 * default is <code>false</code>.
+    	 */
+    	default boolean wantsNumberText() { return false; }
+    }
+    
+    /**
+     * <p>
+     * Marks the field, or record component, of type <code>Json</code> that collects the 
+     * properties without a matching field when a JSON object is bound to a class with 
+     * {@link Json#read(String, Class)}. Without such a field, unknown properties are ignored.
+     * </p>
+     */
+    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+    @java.lang.annotation.Target(java.lang.annotation.ElementType.FIELD)
+    public static @interface UnknownProperties { }
+    
+    /**
+     * <p>
+     * Settings for the <code>read</code> methods that take them, such as 
+     * {@link Json#read(String, ReadOptions)}. They are looked at once when a read starts, so 
+     * the same instance can be shared by concurrent reads as long as it isn't modified 
+     * meanwhile. A new instance has the settings the other <code>read</code> methods use:
+     * </p>
+     * 
+     * <ul>
+     * <li><code>factory</code>: <code>null</code>, for the {@link Factory} in effect when the 
+     * read starts. Either way, it's looked up once per read rather than once per value.</li>
+     * <li><code>strict</code>: <code>false</code>. When <code>true</code>, the input must 
+     * follow RFC 8259: comments and trailing commas in arrays and objects are errors instead 
+     * of being skipped, and white space is scanned without looking out for comments.</li>
+     * <li><code>numbers</code>: {@link Numbers#LAZY}.</li>
+     * <li><code>keyCaching</code>: <code>true</code>, property names that repeat within a 
+     * document, or across the documents read by the same thread, share one 
+     * <code>String</code> instance. Turn it off when keys are mostly unique, like ids, to spare 
+     * the cache lookups.</li>
+     * </ul>
+     */
+    public static final class ReadOptions
+    {
+    	/**
+    	 * How the numbers of a document are represented.
+    	 */
+    	public static enum Numbers 
+    	{ 
+    		/**
+    		 * Integers with less than 19 digits are <code>Long</code>s. Other numbers keep their 
+    		 * literal until first accessed, and are then a <code>Double</code> when they have less 
+    		 * than 17 significant digits or else a <code>BigDecimal</code> or 
+    		 * <code>BigInteger</code>. Literals are only kept with the {@link DefaultFactory}, 
+    		 * other factories get the converted number right away.
+    		 */
+    		LAZY, 
+    		/**
+    		 * Every number is a <code>Double</code>, as in JavaScript. 
+    		 */
+    		DOUBLE, 
+    		/**
+    		 * Integers are <code>Long</code>s, or <code>BigInteger</code>s when out of range, and
+    		 * every other number is a <code>BigDecimal</code> with the exact value of its literal.
+    		 */
+    		EXACT 
     	}
-    	catch (Exception ex)
-    	{
-    		throw new MJsonException(ex);
+    	
+    	static final ReadOptions DEFAULTS = new ReadOptions();
+    	
+    	Factory factory = null;
+    	boolean strict = false;
+    	Numbers numbers = Numbers.LAZY;
+    	boolean keyCaching = true;
+    	
+    	/** @return this */
+    	public ReadOptions setFactory(Factory factory) { this.factory = factory; return this; }
+    	/** @return this */
+    	public ReadOptions setStrict(boolean strict) { this.strict = strict; return this; }
+    	/** @return this */
+    	public ReadOptions setNumbers(Numbers numbers) 
+    	{ 
+    		if (numbers == null)
+    			throw new IllegalArgumentException("Number mode can't be null");
+    		this.numbers = numbers; 
+    		return this; 
     	}
-    	finally
+    	/** @return this */
+    	public ReadOptions setKeyCaching(boolean keyCaching) { this.keyCaching = keyCaching; return this; }
+    	
+    	Factory factory() { return factory != null ? factory : Json.factory(); }
+    	
+    	/**
+    	 * Convert a number literal according to a mode other than the lazy one.
+    	 */
+    	static Number number(String literal, Numbers numbers)
     	{
-    		if (reader != null) try { reader.close(); } catch (IOException iox) { throw new MJsonException(iox); }
-        }
+    		if (numbers == Numbers.DOUBLE)
+    			return DoubleConversion.parse(literal);
+    		else if (numbers == Numbers.EXACT)
+    		{
+    			for (int i = 0; i < literal.length(); i++)
+    			{
+    				char c = literal.charAt(i);
+    				if (c == '.' || c == 'e' || c == 'E')
+    					return new BigDecimal(literal);
+    			}
+    		}
+    		return Scanner.numberValue(literal);
+    	}
     }
-    
+
+    /**
+     * <p>
+     * Settings for the <code>writeTo</code> and <code>writeUtf8</code> methods that take them,
+     * such as {@link Json#writeTo(Appendable, WriteOptions)}. A new instance writes the same
+     * text as {@link Json#toString()}:
+     * </p>
+     *
+     * <ul>
+     * <li><code>htmlSafe</code>: <code>false</code>. When <code>true</code>, the characters
+     * <code>&lt; &gt; &amp; = '</code> in strings and property names are written as
+     * <code>&#92;uXXXX</code> escapes, so that the text can be embedded in an HTML page or
+     * attribute as is.</li>
+     * </ul>
+     */
+    public static final class WriteOptions
+    {
+    	static final WriteOptions DEFAULTS = new WriteOptions();
+
+    	boolean htmlSafe = false;
+
+    	/** @return this */
+    	public WriteOptions setHtmlSafe(boolean htmlSafe) { this.htmlSafe = htmlSafe; return this; }
+
+    	Escaper escaper() { return htmlSafe ? Escaper.HTML_SAFE : Escaper.PLAIN; }
+    }
+
     static Json resolvePointer(String pointerRepresentation, Json top)
     {
     	String [] parts = pointerRepresentation.split("/");
@@ -1023,7 +1189,7 @@ public class Json
         		this.uri = uri == null ? new URI("") : uri;
     			if (relativeReferenceResolver == null)
 					relativeReferenceResolver = docuri -> {
-						try { return Json.read(fetchContent(docuri.toURL())); } 
+						try { return Json.read(docuri.toURL()); } 
 						catch(Exception ex) { throw new MJsonException(ex); }
 					};
     			this.theschema = expandReferences(theschema, 
@@ -1063,7 +1229,7 @@ public class Json
     
     public static Schema schema(URI uri, Function<URI, Json> relativeReferenceResolver)
     {
-    	try { return new DefaultSchema(uri, Json.read(Json.fetchContent(uri.toURL())), relativeReferenceResolver); }
+    	try { return new DefaultSchema(uri, Json.read(uri.toURL()), relativeReferenceResolver); }
     	catch (Exception ex) { throw new MJsonException(ex); }    	
     }
     
@@ -1184,6 +1350,35 @@ public class Json
      */
     public static void detachFactory() { threadFactory.remove(); }
     
+    private static volatile boolean parserPooling = true;
+    private static final ThreadLocal<ReusableParser> threadParser = new ThreadLocal<ReusableParser>();
+    
+    /**
+     * <p>
+     * Specify whether {@link #read(String)}, {@link #read(char[], int, int)} and 
+     * {@link #read(byte[], int, int)} reuse a {@link ReusableParser} attached to the calling 
+     * thread, which is the default, or create a new parser each time. 
+     * </p>
+     */
+    public static void setParserPooling(boolean enabled) { parserPooling = enabled; }
+    
+    /**
+     * <p>
+     * Return the {@link ReusableParser} attached to the calling thread, or a new one if 
+     * pooling is disabled or the thread's parser is in use (e.g. by a {@link Factory} that 
+     * reads JSON itself). 
+     * </p>
+     */
+    public static ReusableParser reusableParser()
+    {
+    	if (!parserPooling)
+    		return new ReusableParser();
+    	ReusableParser parser = threadParser.get();
+    	if (parser == null)
+    		threadParser.set(parser = new ReusableParser());
+    	return parser.busy ? new ReusableParser() : parser;
+    }
+    
 	/**
 	 * <p>
 	 * Parse a JSON entity from its string representation. 
@@ -1194,1501 +1389,3126 @@ public class Json
 	 * @return The JSON entity parsed: an object, array, string, number or boolean, or null. Note that
 	 * this method will never return the actual Java <code>null</code>.
 	 */
-	public static Json read(String jsonAsString) { return (Json)new Reader().read(jsonAsString); }
-
+	public static Json read(String jsonAsString) { return reusableParser().read(jsonAsString); }
+	
 	/**
 	 * <p>
-	 * Parse a JSON entity from a <code>URL</code>. 
+	 * Same as {@link #read(String)}, with the given {@link ReadOptions}.
 	 * </p>
-	 * 
-	 * @param location A valid URL where to load a JSON document from. Cannot be <code>null</code>.
-	 * @return The JSON entity parsed: an object, array, string, number or boolean, or null. Note that
-	 * this method will never return the actual Java <code>null</code>.
 	 */
-	public static Json read(URL location) { return (Json)new Reader().read(fetchContent(location)); }
+	public static Json read(String jsonAsString, ReadOptions options) 
+	{ 
+		return reusableParser().read(jsonAsString, options); 
+	}
 	
 	/**
 	 * <p>
-	 * Parse a JSON entity from a {@link CharacterIterator}. 
+	 * Parse only the parts of a JSON entity designated by a set of JSON pointers, with the 
+	 * same syntax as the <code>$ref</code> fragments resolved during schema validation (e.g. 
+	 * <code>"/items/0/name"</code>). The result is a sparse copy of the document: objects 
+	 * only have the members leading to a requested value and arrays stop at the last 
+	 * requested index, skipped elements before it being <code>null</code>. Thus a pointer 
+	 * designates the same value in the result as in the whole document. Requested paths that
+	 * don't exist are left out.
 	 * </p>
-	 * @see #read(String)
-	 */
-	public static Json read(CharacterIterator it) { return (Json)new Reader().read(it); }
-	/**
-	 * <p>Return the <code>null Json</code> instance.</p> 
+	 * 
+	 * <p>
+	 * Everything else is only scanned for matching brackets: no <code>Json</code> instance or
+	 * <code>String</code> is created for it. Syntax errors outside of the requested values 
+	 * may therefore go unnoticed.
+	 * </p>
+	 * 
+	 * @param jsonAsString The JSON text.
+	 * @param pointers The JSON pointers of the values to keep. The empty pointer designates
+	 * the whole document.
+	 * @return The sparse document. Json <code>null</code> if the document is neither an object
+	 * nor an array and the whole of it wasn't requested.
 	 */
-	public static Json nil() { return factory().nil(); }	
+	public static Json read(String jsonAsString, String... pointers)
+	{
+		return Projection.read(new JsonParser(new CharScanner(jsonAsString)), pointers);
+	}
+	
 	/**
-	 * <p>Return a newly constructed, empty JSON object.</p>
+	 * <p>
+	 * Same as {@link #read(String, String...)}, from a character stream. The reader is not 
+	 * closed by this method.
+	 * </p>
 	 */
-	public static Json object()	{ return factory().object();	}
+	public static Json read(java.io.Reader reader, String... pointers)
+	{
+		return Projection.read(new JsonParser(new CharScanner(reader)), pointers);
+	}
+	
 	/**
-	 * <p>Return a new JSON object initialized from the passed list of
-	 * name/value pairs. The number of arguments must
-	 * be even. Each argument at an even position is taken to be a name
-	 * for the following value. The name arguments are normally of type
-	 * Java String, but they can be of any other type having an appropriate
-	 * <code>toString</code> method. Each value is first converted
-	 * to a <code>Json</code> instance using the {@link #make(Object)} method.
+	 * <p>
+	 * Same as {@link #read(String, String...)}, from a range of UTF-8 encoded bytes.
 	 * </p>
-	 * @param args A sequence of name value pairs.   
 	 */
-	public static Json object(Object...args)
+	public static Json read(byte [] bytes, int offset, int length, String... pointers)
 	{
-		Json j = object();
-		if (args.length % 2 != 0)
-			throw new MJsonException("An even number of arguments is expected.");
-		for (int i = 0; i < args.length; i++)
-			j.set(args[i].toString(), factory().make(args[++i]));
-		return j;
+		return Projection.read(new JsonParser(new Utf8Scanner(bytes, offset, length)), pointers);
 	}
 	
 	/**
-	 * <p>Return a new constructed, empty JSON array.</p>
+	 * <p>
+	 * Parse a JSON entity from a range of characters. The array is scanned in place.
+	 * </p>
+	 * 
+	 * @param chars The array holding the JSON text.
+	 * @param offset The index of the first character to parse.
+	 * @param length The number of characters available for parsing.
+	 * @see #read(String)
 	 */
-	public static Json array() { return factory().array(); }
+	public static Json read(char [] chars, int offset, int length) 
+	{ 
+		return reusableParser().read(chars, offset, length); 
+	}
 	
 	/**
-	 * <p>Return a new JSON array filled up with the list of arguments.</p>
-	 *  
-	 * @param args The initial content of the array. 
+	 * <p>
+	 * Same as {@link #read(char[], int, int)}, with the given {@link ReadOptions}.
+	 * </p>
 	 */
-	public static Json array(Object...args) 
-	{
-		Json A = array();
-		for (Object x : args)
-			A.add(factory().make(x));
-		return A;
+	public static Json read(char [] chars, int offset, int length, ReadOptions options) 
+	{ 
+		return reusableParser().read(chars, offset, length, options); 
 	}
 	
 	/**
 	 * <p>
-	 * Convert an arbitrary Java instance to a {@link Json} instance.   
+	 * Parse a JSON entity on demand. Only the brackets of the document are indexed upfront.
+	 * The members of an object or an array are parsed the first time it is accessed, and a 
+	 * container that hasn't been accessed yet serializes with <code>toString</code> as a 
+	 * verbatim copy of its text. This pays off when only small parts of a large document 
+	 * are used, as in <code>Json.readLazy(body).at("meta").at("id")</code>. 
 	 * </p>
 	 * 
 	 * <p>
-	 * Maps, Collections and arrays are recursively copied where each of 
-	 * their elements concerted into <code>Json</code> instances as well. The keys
-	 * of a {@link Map} parameter are normally strings, but anything with a meaningful
-	 * <code>toString</code> implementation will work as well. 
+	 * As a consequence, syntax errors are only reported when the region that contains them 
+	 * gets accessed, and the whole text is kept in memory for as long as any of its lazy 
+	 * containers is reachable. Lazy containers are only created with the {@link DefaultFactory},
+	 * with any other factory this is the same as {@link #read(String)}.
 	 * </p>
 	 * 
-	 * @param anything
-	 * @return The <code>Json</code>. This method will never return <code>null</code>. It will
-	 * throw an {@link MJsonException} if it doesn't know how to convert the argument
-	 * to a <code>Json</code> instance.
-	 * @throws MJsonException when unable to handle the concrete type of the parameter
+	 * @param jsonAsString The JSON text.
 	 */
-	public static Json make(Object anything) 
+	public static Json readLazy(String jsonAsString)
 	{
-	    return factory().make(anything);
+		char [] chars = jsonAsString.toCharArray();
+		return readLazy(chars, 0, chars.length);
 	}
-		
-	// end of static utility method section
-
-	Json enclosing = null;
-	
-	protected Json() { }
-	protected Json(Json enclosing) { this.enclosing = enclosing; }
 	
 	/**
-	 * <p>Return a string representation of <code>this</code> that does 
-	 * not exceed a certain maximum length. This is useful in constructing
-	 * error messages or any other place where only a "preview" of the
-	 * JSON element should be displayed. Some JSON structures can get 
-	 * very large and this method will help avoid string serializing 
-	 * the whole of them. </p>
-	 * @param maxCharacters The maximum number of characters for
-	 * the string representation.
-	 */
-	public String toString(int maxCharacters) { return toString(); }
-
-    /**
-	 * <p>Explicitly set the parent of this element. The parent is presumably an array
-	 * or an object. Normally, there's no need to call this method as the parent is
-	 * automatically set by the framework. You may need to call it however, if you implement
-	 * your own {@link Factory} with your own implementations of the Json types.
+	 * <p>
+	 * Same as {@link #readLazy(String)}, over a range of characters. The array must not be 
+	 * modified while the result is in use.
 	 * </p>
-	 *  
-	 * @param enclosing The parent element.
-	 */
-	public void attachTo(Json enclosing) { this.enclosing = enclosing; }
-	
-	/**
-	 * <p>Return the <code>Json</code> entity, if any, enclosing this 
-	 * <code>Json</code>. The returned value can be <code>null</code> or
-	 * a <code>Json</code> object or list, but not one of the primitive types.</p>
 	 */
-	public final Json up() { return enclosing; }
-	
+	public static Json readLazy(char [] chars, int offset, int length)
+	{
+		if (factory().getClass() != DefaultFactory.class)
+			return read(chars, offset, length);
+		return new LazyDocument(chars, offset, length).root();
+	}
+
 	/**
-	 * <p>Return a clone (a duplicate) of this <code>Json</code> entity. Note that cloning
-	 * is deep if array and objects. Primitives are also cloned, even though their values are immutable
-	 * because the new enclosing entity (the result of the {@link #up()} method) may be different.
-	 * since they are immutable.</p>
+	 * <p>
+	 * Parse a JSON entity into a compact, read-only form meant for documents that are kept
+	 * around and read often, like configuration snapshots or cached responses. Instead of 
+	 * an object graph, the whole document is held in one <code>long[]</code> with an entry 
+	 * per value and one <code>byte[]</code> with the text of all keys, strings and numbers, 
+	 * so it takes several times less memory than with {@link #read(String)} and the garbage 
+	 * collector has only two arrays to trace.
+	 * </p>
+	 * 
+	 * <p>
+	 * The objects and arrays of the result work as usual for reading: <code>at</code>, 
+	 * <code>has</code>, <code>is</code>, <code>asJsonMap</code>, <code>asJsonList</code>,
+	 * <code>getValue</code>, <code>toString</code>, <code>equals</code> and <code>up</code>.
+	 * The <code>Json</code> instances they return are created on each call, so looking up a 
+	 * property means scanning the object's members and the maps and lists returned can't be 
+	 * modified. Members keep their document order. All mutators throw an {@link MJsonException}: call <code>dup()</code> on any 
+	 * value to get a regular, modifiable copy of it. The result is safe to share between 
+	 * threads. 
+	 * </p>
+	 * 
+	 * <p>
+	 * Like with {@link #readLazy(String)}, this only applies with the {@link DefaultFactory},
+	 * with any other factory it's the same as {@link #read(String)}. A top-level value that's 
+	 * not an object or an array is returned as usual.
+	 * </p>
+	 * 
+	 * @param jsonAsString The JSON text.
 	 */
-	public Json dup() { return this; }
+	public static Json readTape(String jsonAsString)
+	{
+		if (factory().getClass() != DefaultFactory.class)
+			return read(jsonAsString);
+		return new JsonParser(new CharScanner(jsonAsString)).readTape().root();
+	}
 	
 	/**
-	 * <p>Return the <code>Json</code> element at the specified index of this
-	 * <code>Json</code> array. This method applies only to Json arrays.
+	 * <p>
+	 * Same as {@link #readTape(String)}, over a range of UTF-8 encoded bytes.
 	 * </p>
-	 * 
-	 * @param index The index of the desired element.
 	 */
-	public Json at(int index) { throw unsupportedOperation(); }
+	public static Json readTape(byte [] bytes, int offset, int length)
+	{
+		if (factory().getClass() != DefaultFactory.class)
+			return read(bytes, offset, length);
+		return new JsonParser(new Utf8Scanner(bytes, offset, length)).readTape().root();
+	}
 	
 	/**
 	 * <p>
-	 * Return the specified property of a <code>Json</code> object or <code>null</code>
-	 * if there's no such property. This method applies only to Json objects.  
+	 * Parse a JSON entity from a <code>URL</code>. 
 	 * </p>
+	 * 
+	 * @param location A valid URL where to load a JSON document from. Cannot be <code>null</code>.
+	 * @return The JSON entity parsed: an object, array, string, number or boolean, or null. Note that
+	 * this method will never return the actual Java <code>null</code>.
 	 */
-	public Json at(String property)	{ throw unsupportedOperation(); }
+	public static Json read(URL location) { return read(location, ReadOptions.DEFAULTS); }
 	
 	/**
 	 * <p>
-	 * Return the specified property of a <code>Json</code> object if it exists.
-	 * If it doesn't, then create a new property with value the <code>def</code> 
-	 * parameter and return that parameter. 
+	 * Same as {@link #read(URL)}, with the given {@link ReadOptions}.
 	 * </p>
-	 * 
-	 * @param property The property to return.
-	 * @param def The default value to set and return in case the property doesn't exist.
 	 */
-	public final Json at(String property, Json def)	
+	public static Json read(URL location, ReadOptions options) 
 	{
-		Json x = at(property);
-		if (x == null)
+		java.io.InputStream in;
+		try
 		{
-			set(property, def);
-			return def;
+			in = (java.io.InputStream)location.getContent();
 		}
-		else
-			return x; 
-	}	
+		catch (Exception ex)
+		{
+			throw new MJsonException(ex);
+		}
+		// A failure to close the stream is added to the one of parsing, if any, rather than
+		// replacing it.
+		try (java.io.InputStream stream = in)
+		{
+			return read(new java.io.InputStreamReader(stream), options);
+		}
+		catch (IOException iox)
+		{
+			throw new MJsonException(iox);
+		}
+	}
 	
 	/**
 	 * <p>
-	 * Return the specified property of a <code>Json</code> object if it exists.
-	 * If it doesn't, then create a new property with value the <code>def</code> 
-	 * parameter and return that parameter. 
+	 * Parse a JSON entity from a byte stream, decoding it with the given character set. The
+	 * stream is consumed through a fixed-size buffer so the whole text is never held in memory at
+	 * once. The stream is not closed by this method.
 	 * </p>
 	 * 
-	 * @param property The property to return.
-	 * @param def The default value to set and return in case the property doesn't exist.
+	 * @param in The input stream. Cannot be <code>null</code>.
+	 * @param charset The character encoding of the stream, e.g. <code>UTF-8</code>.
+	 * @see #read(String)
 	 */
-	public final Json at(String property, Object def)
+	public static Json read(java.io.InputStream in, java.nio.charset.Charset charset)
 	{
-		return at(property, make(def));
+		return read(in, charset, ReadOptions.DEFAULTS);
 	}
 	
 	/**
 	 * <p>
-	 * Return true if this <code>Json</code> object has the specified property
-	 * and false otherwise. 
+	 * Same as {@link #read(java.io.InputStream, java.nio.charset.Charset)}, with the given {@link ReadOptions}.
 	 * </p>
-	 * 
-	 * @param property The name of the property.
 	 */
-	public boolean has(String property)	{ throw unsupportedOperation(); }
+	public static Json read(java.io.InputStream in, java.nio.charset.Charset charset, ReadOptions options)
+	{
+		if (charset.equals(java.nio.charset.StandardCharsets.UTF_8))
+			return new JsonParser(new InputStreamScanner(in)).setOptions(options).readValue();
+		return read(new java.io.InputStreamReader(in, charset), options);
+	}
 	
 	/**
 	 * <p>
-	 * Return <code>true</code> if and only if this <code>Json</code> object has a property with
-	 * the specified value. In particular, if the object has no such property <code>false</code> is returned. 
+	 * Parse a JSON entity from a character stream. The stream is consumed through a fixed-size 
+	 * buffer so the whole text is never held in memory at once. The reader is not closed by 
+	 * this method.
 	 * </p>
 	 * 
-	 * @param property The property name.
-	 * @param value The value to compare with. Comparison is done via the equals method. 
-	 * If the value is not an instance of <code>Json</code>, it is first converted to
-	 * such an instance. 
-	 * @return
+	 * @param reader The character stream. Cannot be <code>null</code>.
+	 * @see #read(String)
 	 */
-	public boolean is(String property, Object value) { throw unsupportedOperation(); }
-
-    /**
-     * <p>
-     * Return <code>true</code> if and only if this <code>Json</code> array has an element with
-     * the specified value at the specified index. In particular, if the array has no element at
-     * this index, <code>false</code> is returned. 
-     * </p>
-     * 
-     * @param property The property name.
-     * @param value The value to compare with. Comparison is done via the equals method. 
-     * If the value is not an instance of <code>Json</code>, it is first converted to
-     * such an instance. 
-     * @return
-     */
-    public boolean is(int index, Object value) { throw unsupportedOperation(); }
+	public static Json read(java.io.Reader reader) { return read(reader, ReadOptions.DEFAULTS); }
 	
 	/**
 	 * <p>
-	 * Add the specified <code>Json</code> element to this array. 
+	 * Same as {@link #read(java.io.Reader)}, with the given {@link ReadOptions}.
 	 * </p>
-	 * 
-	 * @return this
 	 */
-	public Json add(Json el) { throw unsupportedOperation(); }
+	public static Json read(java.io.Reader reader, ReadOptions options) 
+	{ 
+		return new JsonParser(new CharScanner(reader)).setOptions(options).readValue(); 
+	}
 	
 	/**
 	 * <p>
-	 * Add an arbitrary Java object to this <code>Json</code> array. The object
-	 * is first converted to a <code>Json</code> instance by calling the static
-	 * {@link #make} method.
+	 * Parse a JSON entity from a UTF-8 encoded file. Large files are memory mapped in 
+	 * successive regions and parsed directly from the mapped bytes, so neither the text nor
+	 * its bytes are ever held on the heap as a whole. There is no limit to the file size.
 	 * </p>
 	 * 
-	 * @param anything Any Java object that can be converted to a Json instance.
-	 * @return this
+	 * @param file The location of the file.
+	 * @see #read(String)
 	 */
-	public final Json add(Object anything) { return add(make(anything)); }
+	public static Json read(java.nio.file.Path file) { return read(file, ReadOptions.DEFAULTS); }
 	
 	/**
 	 * <p>
-	 * Remove the specified property from a <code>Json</code> object and return
-	 * that property.
+	 * Same as {@link #read(java.nio.file.Path)}, with the given {@link ReadOptions}.
+	 * </p>
+	 */
+	public static Json read(java.nio.file.Path file, ReadOptions options)
+	{
+		java.nio.channels.FileChannel channel = null;
+		try
+		{
+			channel = java.nio.channels.FileChannel.open(file, java.nio.file.StandardOpenOption.READ);
+			if (channel.size() <= Utf8Scanner.WINDOW_SIZE)
+			{
+				java.nio.ByteBuffer bytes = java.nio.ByteBuffer.allocate((int)channel.size());
+				while (bytes.hasRemaining() && channel.read(bytes) >= 0);
+				return read(bytes.array(), 0, bytes.position(), options);
+			}
+			return new JsonParser(new MappedFileScanner(channel, MappedFileScanner.MAPPING_SIZE)).setOptions(options).readValue();
+		}
+		catch (IOException ex)
+		{
+			throw new MJsonException(ex);
+		}
+		finally
+		{
+			if (channel != null) try { channel.close(); } catch (IOException iox) { throw new MJsonException(iox); }
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Read newline delimited JSON (also known as JSON Lines) from a UTF-8 encoded stream.
+	 * Each line holds a single JSON value, blank lines are ignored. Records are parsed lazily 
+	 * as the returned stream is consumed, and a malformed record fails with an 
+	 * {@link MJsonException} giving its line number. The input stream is not closed 
+	 * when the returned stream is.
 	 * </p>
 	 * 
-	 * @param property The property to be removed.
-	 * @return The property value or <code>null</code> if the object didn't have such
-	 * a property to begin with.
+	 * @param in The input stream.
 	 */
-	public Json atDel(String property)	{ throw unsupportedOperation(); }
-
+	public static java.util.stream.Stream<Json> readLines(java.io.InputStream in)
+	{
+		return readLines(in, false);
+	}
+	
 	/**
 	 * <p>
-	 * Remove the element at the specified index from a <code>Json</code> array and return
-	 * that element.
+	 * Read newline delimited JSON from a UTF-8 encoded stream, optionally skipping malformed lines.
 	 * </p>
 	 * 
-	 * @param index The index of the element to delete.
-	 * @return The element value.
+	 * @param in The input stream.
+	 * @param skipMalformed Whether lines that don't hold a valid JSON value are silently skipped. 
+	 * When <code>false</code>, they fail with an {@link MJsonException}.
+	 * @see #readLines(java.io.InputStream)
 	 */
-	public Json atDel(int index)	{ throw unsupportedOperation(); }
+	public static java.util.stream.Stream<Json> readLines(java.io.InputStream in, boolean skipMalformed)
+	{
+		return lineStream(new LineIterator(new InputStreamScanner(in), skipMalformed), null);
+	}
 	
 	/**
 	 * <p>
-	 * Delete the specified property from a <code>Json</code> object.
+	 * Read newline delimited JSON from a UTF-8 encoded file, which is memory mapped as in
+	 * {@link #read(java.nio.file.Path)}. The file is closed when the returned stream is closed.
 	 * </p>
 	 * 
-	 * @param property The property to be removed.
-	 * @return this
+	 * @param file The location of the file.
+	 * @see #readLines(java.io.InputStream)
 	 */
-	public Json delAt(String property)	{ throw unsupportedOperation(); }
+	public static java.util.stream.Stream<Json> readLines(java.nio.file.Path file)
+	{
+		return readLines(file, false);
+	}
 	
 	/**
 	 * <p>
-	 * Remove the element at the specified index from a <code>Json</code> array.
+	 * Read newline delimited JSON from a UTF-8 encoded file, optionally skipping malformed lines.
 	 * </p>
 	 * 
-	 * @param index The index of the element to delete.
-	 * @return this
+	 * @see #readLines(java.nio.file.Path)
+	 * @see #readLines(java.io.InputStream, boolean)
 	 */
-	public Json delAt(int index) { throw unsupportedOperation(); }
+	public static java.util.stream.Stream<Json> readLines(java.nio.file.Path file, boolean skipMalformed)
+	{
+		try
+		{
+			java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, 
+					java.nio.file.StandardOpenOption.READ);
+			return lineStream(new LineSpliterator(channel, 0, channel.size(), skipMalformed), channel);
+		}
+		catch (IOException ex)
+		{
+			throw new MJsonException(ex);
+		}
+	}
 	
 	/**
 	 * <p>
-	 * Remove the specified element from a <code>Json</code> array.
+	 * Parse newline delimited JSON from a UTF-8 encoded file on multiple threads and pass 
+	 * each record to a consumer. The file is cut into chunks at line boundaries and the 
+	 * chunks are parsed concurrently on the common fork-join pool.
 	 * </p>
 	 * 
-	 * @param el The element to delete.
-	 * @return this
+	 * <p>
+	 * When <code>ordered</code> is <code>true</code>, the consumer is called on the calling thread 
+	 * with the records in file order. Only a bounded number of chunks are parsed ahead of the
+	 * consumer, so a slow consumer holds back parsing and memory use stays bounded. When 
+	 * <code>ordered</code> is <code>false</code>, each worker thread hands its records to the consumer 
+	 * as soon as they are parsed: the consumer must then be thread-safe. Malformed records 
+	 * fail the whole operation with an {@link MJsonException}.
+	 * </p>
+	 * 
+	 * <p>
+	 * For a parallel stream of the records, call <code>parallel()</code> on the result of 
+	 * {@link #readLines(java.nio.file.Path)}.
+	 * </p>
+	 * 
+	 * @param file The location of the file.
+	 * @param consumer What to do with each record.
+	 * @param ordered Whether the records must be passed to the consumer in file order.
 	 */
-	public Json remove(Json el)	{ throw unsupportedOperation(); }
+	public static void readLines(java.nio.file.Path file, 
+								 java.util.function.Consumer<? super Json> consumer, 
+								 boolean ordered)
+	{
+		if (!ordered)
+		{
+			try (java.util.stream.Stream<Json> records = readLines(file)) 
+			{ 
+				records.parallel().unordered().forEach(consumer); 
+			}
+			return;
+		}
+		java.util.concurrent.ForkJoinPool pool = java.util.concurrent.ForkJoinPool.commonPool();
+		java.util.ArrayDeque<java.util.concurrent.ForkJoinTask<List<Json>>> pending = 
+				new java.util.ArrayDeque<java.util.concurrent.ForkJoinTask<List<Json>>>();
+		int window = 2 * pool.getParallelism() + 1;
+		try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, 
+					java.nio.file.StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			for (long start = 0; start < size; )
+			{
+				long end = LineSpliterator.lineBoundary(channel, 
+						Math.min(size, start + 4 * LineSpliterator.MIN_SPLIT_SIZE), size);
+				final LineSpliterator chunk = new LineSpliterator(channel, start, end, false);
+				if (pending.size() == window)
+					pending.poll().join().forEach(consumer);
+				pending.add(pool.submit(() -> {
+					List<Json> L = new ArrayList<Json>();
+					chunk.forEachRemaining(L::add);
+					return L;
+				}));
+				start = end;
+			}
+			while (!pending.isEmpty())
+				pending.poll().join().forEach(consumer);
+		}
+		catch (IOException ex)
+		{
+			throw new MJsonException(ex);
+		}
+		finally
+		{
+			for (java.util.concurrent.ForkJoinTask<?> task : pending)
+				task.cancel(false);
+		}
+	}
+	
+	static java.util.stream.Stream<Json> lineStream(Iterator<Json> records, final java.io.Closeable input)
+	{
+		return lineStream(java.util.Spliterators.spliteratorUnknownSize(records, 
+								java.util.Spliterator.ORDERED | java.util.Spliterator.NONNULL), 
+						  input);
+	}
+	
+	static java.util.stream.Stream<Json> lineStream(java.util.Spliterator<Json> records, final java.io.Closeable input)
+	{
+		java.util.stream.Stream<Json> stream = java.util.stream.StreamSupport.stream(records, false);
+		return input == null ? stream : stream.onClose(() -> {
+			try { input.close(); } 
+			catch (IOException ex) { throw new MJsonException(ex); }
+		});
+	}
 	
 	/**
 	 * <p>
-	 * Remove the specified Java object (converted to a Json instance) 
-	 * from a <code>Json</code> array. This is equivalent to 
-	 * <code>remove({@link #make(anything)})</code>.
+	 * Parse a JSON entity from a range of UTF-8 encoded bytes. The bytes are scanned directly,
+	 * without decoding the whole range to characters first.  
 	 * </p>
 	 * 
-	 * @param anything The object to delete.
-	 * @return this
+	 * @param bytes The array holding the UTF-8 encoded JSON text.
+	 * @param offset The index of the first byte to parse.
+	 * @param length The number of bytes available for parsing.
+	 * @see #read(String)
 	 */
-	public final Json remove(Object anything) { return remove(make(anything)); }
+	public static Json read(byte [] bytes, int offset, int length)
+	{
+		return reusableParser().read(bytes, offset, length);
+	}
 	
 	/**
 	 * <p>
-	 * Set a <code>Json</code> objects's property.
+	 * Same as {@link #read(byte[], int, int)}, with the given {@link ReadOptions}.
+	 * </p>
+	 */
+	public static Json read(byte [] bytes, int offset, int length, ReadOptions options)
+	{
+		return reusableParser().read(bytes, offset, length, options);
+	}
+	
+	/**
+	 * <p>
+	 * Parse a JSON entity from a range of UTF-8 encoded bytes with the indexed engine. A first
+	 * pass locates every string, structural character and scalar eight bytes at a time and a 
+	 * second pass builds the <code>Json</code> tree from those positions only. The result is 
+	 * the same as {@link #read(byte[], int, int)}. Documents containing comments, and ranges 
+	 * too short to be worth the word-at-a-time pass, go through the regular scanner.
 	 * </p>
 	 * 
-	 * @param property The property name.
-	 * @param value The value of the property.
-	 * @return this
+	 * @param bytes The array holding the UTF-8 encoded JSON text.
+	 * @param offset The index of the first byte to parse.
+	 * @param length The number of bytes available for parsing.
+	 * @see #read(byte[], int, int)
 	 */
-	public Json set(String property, Json value) { throw unsupportedOperation();	}
+	public static Json readIndexed(byte [] bytes, int offset, int length)
+	{
+		StructuralIndex index = StructuralIndex.build(bytes, offset, offset + length, length >= 64);
+		return new JsonParser(index == null ? new Utf8Scanner(bytes, offset, length)
+											: new IndexedScanner(bytes, offset, length, index)).readValue();
+	}
 	
 	/**
 	 * <p>
-	 * Set a <code>Json</code> objects's property.
+	 * Parse a JSON entity from the remaining UTF-8 encoded bytes of a {@link java.nio.ByteBuffer}. 
+	 * The position of the buffer is not modified.
 	 * </p>
 	 * 
-	 * @param property The property name.
-	 * @param value The value of the property, converted to a <code>Json</code> representation
-	 * with {@link #make}.
-	 * @return this
+	 * @param bytes The buffer holding the UTF-8 encoded JSON text between its position and limit.
+	 * @see #read(byte[], int, int)
 	 */
-	public final Json set(String property, Object value) { return set(property, make(value)); }
+	public static Json read(java.nio.ByteBuffer bytes) { return read(bytes, ReadOptions.DEFAULTS); }
 	
 	/**
 	 * <p>
-	 * Change the value of a JSON array element. This must be an array. 
+	 * Same as {@link #read(java.nio.ByteBuffer)}, with the given {@link ReadOptions}.
 	 * </p>
-	 * @param index 0-based index of the element in the array. 
-	 * @param value the new value of the element
-	 * @return this 
 	 */
-	public Json set(int index, Object value) { throw unsupportedOperation(); }	
+	public static Json read(java.nio.ByteBuffer bytes, ReadOptions options)
+	{
+		return new JsonParser(new Utf8Scanner(bytes)).setOptions(options).readValue();
+	}
 	
 	/**
 	 * <p>
-	 * Combine this object or array with the passed in object or array. The types of 
-	 * <code>this</code> and the <code>object</code> argument must match. If both are
-	 * <code>Json</code> objects, all properties of the parameter are added to <code>this</code>.
-	 * If both are arrays, all elements of the parameter are appended to <code>this</code> 
+	 * Return a pull {@link JsonParser} over a JSON string.
 	 * </p>
-	 * @param object The object or array whose properties or elements must be added to this
-	 * Json object or array.
-	 * @return this
 	 */
-	public Json with(Json object, Json...options) { throw unsupportedOperation(); }
-
-    /**
-     * Same as <code>{}@link #with(Json,Json...options)}</code> with each option
-     * argument converted to <code>Json</code> first.
-     */
-    public Json with(Json object, Object...options)
-    {
-        Json [] jopts = new Json[options.length];
-        for (int i = 0; i < jopts.length; i++)
-            jopts[i] = make(options[i]);
-        return with(object, jopts);
-    }
-
+	public static JsonParser parser(String jsonAsString) { return new JsonParser(new CharScanner(jsonAsString)); }
+	
 	/**
-	 * <p>Return the underlying value of this <code>Json</code> entity. The actual value will 
-	 * be a Java Boolean, String, Number, Map, List or null. For complex entities (objects
-	 * or arrays), the method will perform a deep copy and extra underlying values recursively 
-	 * for all nested elements.</p>
+	 * <p>
+	 * Return a pull {@link JsonParser} over a character stream. The reader is not closed by the parser.
+	 * </p>
 	 */
-	public Object getValue() { throw unsupportedOperation(); }
+	public static JsonParser parser(java.io.Reader reader) { return new JsonParser(new CharScanner(reader)); }
 	
 	/**
-	 * <p>Return the boolean value of a boolean <code>Json</code> instance. Call
-	 * {@link #isBoolean()} first if you're not sure this instance is indeed a
-	 * boolean.</p>
+	 * <p>
+	 * Return a pull {@link JsonParser} over a range of UTF-8 encoded bytes.
+	 * </p>
 	 */
-	public boolean asBoolean() { throw unsupportedOperation(); }
+	public static JsonParser parser(byte [] bytes, int offset, int length) 
+	{ 
+		return new JsonParser(new Utf8Scanner(bytes, offset, length)); 
+	}
 	
 	/**
-	 * <p>Return the string value of a string <code>Json</code> instance. Call
-	 * {@link #isString()} first if you're not sure this instance is indeed a
-	 * string.</p>
+	 * <p>
+	 * Return a pull {@link JsonParser} over the remaining UTF-8 encoded bytes of a buffer. 
+	 * The position of the buffer is not modified.
+	 * </p>
 	 */
-	public String asString() { throw unsupportedOperation(); }
+	public static JsonParser parser(java.nio.ByteBuffer bytes) { return new JsonParser(new Utf8Scanner(bytes)); }
 	
 	/**
-	 * <p>Return the integer value of a number <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
+	 * <p>
+	 * Parse a JSON string, reporting its content to a {@link JsonHandler} instead of 
+	 * building a <code>Json</code> tree. If the input contains several top-level values 
+	 * separated by white space, all of them are reported.
+	 * </p>
 	 */
-	public int asInteger() { throw unsupportedOperation(); }
-
+	public static void parse(String jsonAsString, JsonHandler handler) { parser(jsonAsString).pushAll(handler); }
+	
 	/**
-	 * <p>Return the float value of a float <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
+	 * <p>
+	 * Parse a character stream, reporting its content to a {@link JsonHandler}.
+	 * </p>
+	 * @see #parse(String, JsonHandler)
 	 */
-	public float asFloat() { throw unsupportedOperation(); }
-
+	public static void parse(java.io.Reader reader, JsonHandler handler) { parser(reader).pushAll(handler); }
+	
 	/**
-	 * <p>Return the double value of a number <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
+	 * <p>
+	 * Parse a range of UTF-8 encoded bytes, reporting its content to a {@link JsonHandler}.
+	 * </p>
+	 * @see #parse(String, JsonHandler)
 	 */
-	public double asDouble() { throw unsupportedOperation(); }
-
+	public static void parse(byte [] bytes, int offset, int length, JsonHandler handler) 
+	{ 
+		parser(bytes, offset, length).pushAll(handler); 
+	}
+	
 	/**
-	 * <p>Return the long value of a number <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
+	 * <p>
+	 * Parse the remaining UTF-8 encoded bytes of a buffer, reporting its content to a 
+	 * {@link JsonHandler}.
+	 * </p>
+	 * @see #parse(String, JsonHandler)
 	 */
-	public long asLong() { throw unsupportedOperation(); }
-
+	public static void parse(java.nio.ByteBuffer bytes, JsonHandler handler) { parser(bytes).pushAll(handler); }
+	
 	/**
-	 * <p>Return the short value of a number <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
+	 * <p>
+	 * Parse a JSON entity directly into an instance of a Java type, without building a 
+	 * <code>Json</code> tree first. The type may be:
+	 * </p>
+	 * 
+	 * <ul>
+	 * <li>a <code>String</code>, a primitive type or its wrapper, <code>BigDecimal</code>, 
+	 * <code>BigInteger</code> or an enum, bound from the corresponding JSON scalar (enums by name),</li>
+	 * <li>an array, a <code>Collection</code> or a <code>Map</code> with <code>String</code> keys, 
+	 * whose elements are bound according to the declared type parameters, </li>
+	 * <li><code>Json</code>, in which case that part of the document is read as usual, or
+	 * <code>Object</code>, for the same Java representation {@link Json#getValue()} returns,</li>
+	 * <li>a record, created with its canonical constructor,</li>
+	 * <li>any other class with a constructor without arguments, whose non-static, non-transient
+	 * fields are set from the properties of the same name, whatever their visibility. </li>
+	 * </ul>
+	 * 
+	 * <p>
+	 * Properties without a matching field are skipped, unless the class has a <code>Json</code> 
+	 * field marked with {@link UnknownProperties}, which then receives an object with all of 
+	 * them. Fields without a matching property keep the value given by the constructor. A 
+	 * JSON <code>null</code> becomes Java <code>null</code>, or zero for primitives. The
+	 * accessors of a class are looked up once and cached.
+	 * </p>
+	 * 
+	 * @param jsonAsString The JSON text.
+	 * @param type The type of the result.
+	 * @throws MJsonException if the text isn't valid JSON or doesn't fit the type.
 	 */
-	public short asShort() { throw unsupportedOperation(); }
-
+	public static <T> T read(String jsonAsString, Class<T> type) 
+	{ 
+		return Binding.read(new JsonParser(new CharScanner(jsonAsString)), type); 
+	}
+	
 	/**
-	 * <p>Return the byte value of a number <code>Json</code> instance. Call
-	 * {@link #isNumber()} first if you're not sure this instance is indeed a
-	 * number.</p>
-	 */	
-	public byte asByte() { throw unsupportedOperation(); }
-
+	 * <p>
+	 * Same as {@link #read(String, Class)}, from a character stream. The reader is not closed 
+	 * by this method.
+	 * </p>
+	 */
+	public static <T> T read(java.io.Reader reader, Class<T> type) 
+	{ 
+		return Binding.read(new JsonParser(new CharScanner(reader)), type); 
+	}
+	
 	/**
-	 * <p>Return the first character of a string <code>Json</code> instance. Call
-	 * {@link #isString()} first if you're not sure this instance is indeed a
-	 * string.</p>
-	 */	
-	public char asChar() { throw unsupportedOperation(); }		
-
-	/**
-	 * <p>Return a map of the properties of an object <code>Json</code> instance. The map
-	 * is a clone of the object and can be modified safely without affecting it. Call
-	 * {@link #isObject()} first if you're not sure this instance is indeed a
-	 * <code>Json</code> object.</p>
-	 */	
-	public Map<String, Object> asMap() { throw unsupportedOperation(); }
-	
-	/**
-	 * <p>Return the underlying map of properties of a <code>Json</code> object. The returned
-	 * map is the actual object representation so any modifications to it are modifications
-	 * of the <code>Json</code> object itself. Call
-	 * {@link #isObject()} first if you're not sure this instance is indeed a
-	 * <code>Json</code> object.
+	 * <p>
+	 * Same as {@link #read(String, Class)}, from a range of UTF-8 encoded bytes.
 	 * </p>
 	 */
-	public Map<String, Json> asJsonMap() { throw unsupportedOperation(); }
+	public static <T> T read(byte [] bytes, int offset, int length, Class<T> type) 
+	{ 
+		return Binding.read(new JsonParser(new Utf8Scanner(bytes, offset, length)), type); 
+	}
 	
 	/**
-	 * <p>Return a list of the elements of a <code>Json</code> array. The list is a clone
-	 * of the array and can be modified safely without affecting it. Call
-	 * {@link #isArray()} first if you're not sure this instance is indeed a
-	 * <code>Json</code> array.
-	 * </p>  
+	 * <p>
+	 * Return an {@link IncrementalParser} reporting the content of the input it is fed to
+	 * a {@link JsonHandler}, event by event.
+	 * </p>
 	 */
-	public List<Object> asList()  { throw unsupportedOperation(); }
+	public static IncrementalParser incrementalParser(JsonHandler handler) 
+	{ 
+		return new IncrementalParser(handler, null); 
+	}
 	
 	/**
-	 * <p>Return the underlying {@link List} representation of a <code>Json</code> array.
-	 * The returned list is the actual array representation so any modifications to it 
-	 * are modifications of the <code>Json</code> array itself. Call
-	 * {@link #isArray()} first if you're not sure this instance is indeed a
-	 * <code>Json</code> array.
+	 * <p>
+	 * Return an {@link IncrementalParser} passing each top-level value of the input it is
+	 * fed to a consumer, as soon as the value is complete. Values are built with the 
+	 * current {@link Factory} of the thread creating the parser.
 	 * </p>
 	 */
-	public List<Json> asJsonList() { throw unsupportedOperation(); }
-
+	public static IncrementalParser incrementalParser(java.util.function.Consumer<? super Json> values) 
+	{ 
+		return new IncrementalParser(new TreeBuilder(), values); 
+	}
+	
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> null entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>
+	 * Parse a JSON entity from a {@link CharacterIterator}. This goes through the original,
+	 * character at a time parser, which is more lenient than the one behind the other
+	 * <code>read</code> methods. 
+	 * </p>
+	 * @see #read(String)
 	 */
-	public boolean isNull() { return false; }
+	public static Json read(CharacterIterator it) { return read(it, ReadOptions.DEFAULTS); }
+	
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> string entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>
+	 * Same as {@link #read(CharacterIterator)}, with the given {@link ReadOptions}.
+	 * </p>
 	 */
-	public boolean isString() { return false; }	
+	public static Json read(CharacterIterator it, ReadOptions options) { return (Json)new Reader(options).read(it); }
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> number entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>Return the <code>null Json</code> instance.</p> 
 	 */
-	public boolean isNumber() { return false; }	
+	public static Json nil() { return factory().nil(); }	
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> boolean entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>Return a newly constructed, empty JSON object.</p>
 	 */
-	public boolean isBoolean() { return false;	}	
+	public static Json object()	{ return factory().object();	}
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> array (i.e. list) entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>Return a new JSON object initialized from the passed list of
+	 * name/value pairs. The number of arguments must
+	 * be even. Each argument at an even position is taken to be a name
+	 * for the following value. The name arguments are normally of type
+	 * Java String, but they can be of any other type having an appropriate
+	 * <code>toString</code> method. Each value is first converted
+	 * to a <code>Json</code> instance using the {@link #make(Object)} method.
+	 * </p>
+	 * @param args A sequence of name value pairs.   
 	 */
-	public boolean isArray() { return false; }	
+	public static Json object(Object...args)
+	{
+		Json j = object();
+		if (args.length % 2 != 0)
+			throw new MJsonException("An even number of arguments is expected.");
+		for (int i = 0; i < args.length; i++)
+			j.set(args[i].toString(), factory().make(args[++i]));
+		return j;
+	}
+	
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> object entity 
-	 * and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>Return a new constructed, empty JSON array.</p>
 	 */
-	public boolean isObject(){ return false; }	
+	public static Json array() { return factory().array(); }
+	
 	/**
-	 * <p>Return <code>true</code> if this is a <code>Json</code> primitive entity 
-	 * (one of string, number or boolean) and <code>false</code> otherwise.
-	 * </p> 
+	 * <p>Return a new JSON array filled up with the list of arguments.</p>
+	 *  
+	 * @param args The initial content of the array. 
 	 */
-	public boolean isPrimitive() { return isString() || isNumber() || isBoolean(); }
+	public static Json array(Object...args) 
+	{
+		Json A = array();
+		for (Object x : args)
+			A.add(factory().make(x));
+		return A;
+	}
 	
 	/**
 	 * <p>
-	 * Json-pad this object as an argument to a callback function.  
+	 * Convert an arbitrary Java instance to a {@link Json} instance.   
 	 * </p>
 	 * 
-	 * @param callback The name of the callback function. Can be null or empty, 
-	 * in which case no padding is done.
-	 * @return The jsonpadded, stringified version of this object if the <code>callback</code>
-	 * is not null or empty, or just the stringified version of the object. 
+	 * <p>
+	 * Maps, Collections and arrays are recursively copied where each of 
+	 * their elements concerted into <code>Json</code> instances as well. The keys
+	 * of a {@link Map} parameter are normally strings, but anything with a meaningful
+	 * <code>toString</code> implementation will work as well. 
+	 * </p>
+	 * 
+	 * @param anything
+	 * @return The <code>Json</code>. This method will never return <code>null</code>. It will
+	 * throw an {@link MJsonException} if it doesn't know how to convert the argument
+	 * to a <code>Json</code> instance.
+	 * @throws MJsonException when unable to handle the concrete type of the parameter
 	 */
-	public String pad(String callback)
+	public static Json make(Object anything) 
 	{
-		return (callback != null && callback.length() > 0) 
-			? callback + "(" + toString() + ");"
-			: toString();		
+	    return factory().make(anything);
 	}
-	
-	//-------------------------------------------------------------------------
-	// END OF PUBLIC INTERFACE
-	//-------------------------------------------------------------------------
-
-    /**
-     * Return an object representing the complete configuration
-     * of a merge. The properties of the object represent paths
-     * of the JSON structure being merged and the values represent
-     * the set of options that apply to each path.
-     */
-    protected Json collectWithOptions(Json...options)
-    {
-        Json result = object();
-        for (Json opt : options)
-        {
-            if (opt.isString())
-                result.at("", object()).set(opt.asString(), true);
-            else
-            {
-                Json forPaths = opt.at("for", array(""));
-                if (!forPaths.isArray())
-                    forPaths = array(forPaths);
-                for (Json path : forPaths.asJsonList())
-                {
-                    Json at_path = result.at(path.asString(), object());
-                    at_path.set("merge", opt.is("merge", true));
-                    at_path.set("dup", opt.is("dup", true));
-                    at_path.set("sort", opt.is("sort", true));
-                    at_path.set("compareBy", opt.at("compareBy", nil()));
-                }
-            }
-        }
-        return result;
-    }
+		
+	// end of static utility method section
 
-	static class NullJson extends Json
+	Json enclosing = null;
+	
+	protected Json() { }
+	protected Json(Json enclosing) { this.enclosing = enclosing; }
+	
+	/**
+	 * <p>Return a string representation of <code>this</code> that does 
+	 * not exceed a certain maximum length. This is useful in constructing
+	 * error messages or any other place where only a "preview" of the
+	 * JSON element should be displayed. Some JSON structures can get 
+	 * very large and this method will help avoid string serializing 
+	 * the whole of them: serialization stops as soon as the maximum is
+	 * reached, however deep in the structure, so the cost depends on 
+	 * <code>maxCharacters</code> and not on the size of the element. 
+	 * Text that doesn't fit is cut short and marked with 
+	 * <code>"..."</code>.</p>
+	 * @param maxCharacters The maximum number of characters for
+	 * the string representation.
+	 */
+	public String toString(int maxCharacters) { return toString(); }
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code>, the same text as 
+	 * {@link #toString()}, to a character sink. The tree is walked once, without recursion,
+	 * and every value goes straight to the sink, so no intermediate <code>String</code> is 
+	 * built for the whole or any of its parts.</p>
+	 * 
+	 * @param out The sink, e.g. a <code>StringBuilder</code>.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the sink.
+	 */
+	public <T extends Appendable> T writeTo(T out) { return writeTo(out, WriteOptions.DEFAULTS); }
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a character sink, see 
+	 * {@link #writeTo(Appendable)}.</p>
+	 * 
+	 * @param out The sink, e.g. a <code>StringBuilder</code>.
+	 * @param options How to write it, not <code>null</code>.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the sink.
+	 */
+	public <T extends Appendable> T writeTo(T out, WriteOptions options)
 	{
-		NullJson() {}
-		NullJson(Json e) {super(e);}
-		
-		public Object getValue() { return null; }
-		public Json dup() { return new NullJson(); }
-		public boolean isNull() { return true; }
-		public String toString() { return "null"; }
-		public List<Object> asList() { return (List<Object>)Collections.singletonList(null); }
-		
-		public int hashCode() { return 0; }
-		public boolean equals(Object x)
+		try
 		{
-			return x instanceof NullJson;
+			write(this, out, options.escaper());
+			return out;
+		}
+		catch (IOException ex)
+		{
+			throw new MJsonException(ex);
 		}
 	}
 	
-	static NullJson topnull = new NullJson();
-
-	static class BooleanJson extends Json
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a character stream, see 
+	 * {@link #writeTo(Appendable)}. Output is gathered in chunks, so that an unbuffered
+	 * <code>Writer</code> isn't called once per token. The writer is neither flushed nor 
+	 * closed.</p>
+	 * 
+	 * @param out The character stream.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the writer.
+	 */
+	public <T extends java.io.Writer> T writeTo(T out) { return writeTo(out, WriteOptions.DEFAULTS); }
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a character stream, see 
+	 * {@link #writeTo(java.io.Writer)}.</p>
+	 * 
+	 * @param out The character stream.
+	 * @param options How to write it, not <code>null</code>.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the writer.
+	 */
+	public <T extends java.io.Writer> T writeTo(T out, WriteOptions options)
 	{
-		boolean val;
-		BooleanJson() {}
-		BooleanJson(Json e) {super(e);}
-		BooleanJson(Boolean val, Json e) { super(e); this.val = val; }
-		
-		public Object getValue() { return val; }
-        public Json dup() { return new BooleanJson(val, null); }		
-		public boolean asBoolean() { return val; }		
-		public boolean isBoolean() { return true;	}		
-		public String toString() { return val ? "true" : "false"; }
-		
-		@SuppressWarnings("unchecked")
-		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val); }
-		public int hashCode() { return val ? 1 : 0; }
-		public boolean equals(Object x)
+		try
 		{
-			return x instanceof BooleanJson && ((BooleanJson)x).val == val;
-		}		
+			ChunkedWriter chunks = new ChunkedWriter(out);
+			write(this, chunks, options.escaper());
+			chunks.drain();
+			return out;
+		}
+		catch (IOException ex)
+		{
+			throw new MJsonException(ex);
+		}
 	}
-
-	static class StringJson extends Json
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a byte stream, encoded in 
+	 * UTF-8. Escaping and encoding are done in the same pass over the text, into a buffer 
+	 * that is passed to the stream whenever it fills up. Integers and ASCII text are written
+	 * as bytes directly, without going through a <code>String</code> or a 
+	 * <code>char[]</code>. The stream is neither flushed nor closed.</p>
+	 * 
+	 * @param out The byte stream.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the stream.
+	 */
+	public <T extends java.io.OutputStream> T writeUtf8(T out) { return writeUtf8(out, WriteOptions.DEFAULTS); }
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a byte stream, encoded in 
+	 * UTF-8, see {@link #writeUtf8(java.io.OutputStream)}.</p>
+	 * 
+	 * @param out The byte stream.
+	 * @param options How to write it, not <code>null</code>.
+	 * @return <code>out</code>
+	 * @throws MJsonException wrapping any <code>IOException</code> thrown by the stream.
+	 */
+	public <T extends java.io.OutputStream> T writeUtf8(T out, WriteOptions options)
 	{
-		String val;
-
-		StringJson() {}
-		StringJson(Json e) {super(e);}		
-		StringJson(String val, Json e) { super(e); this.val = val; }
-		
-		public Json dup() { return new StringJson(val, null); }		
-		public boolean isString() { return true; }
-		public Object getValue() { return val; }
-		public String asString() { return val; }
-		public int asInteger() { return Integer.parseInt(val); }
-		public float asFloat() { return Float.parseFloat(val); }
-		public double asDouble() { return Double.parseDouble(val); }
-		public long asLong() { return Long.parseLong(val); }
-		public short asShort() { return Short.parseShort(val); }
-		public byte asByte() { return Byte.parseByte(val); }
-		public char asChar() { return val.charAt(0); }
-		@SuppressWarnings("unchecked")
-		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val); }
-		
-		public String toString()
+		try
 		{
-			return '"' + escaper.escapeJsonString(val) + '"'; 
+			Utf8Writer bytes = new Utf8Writer(out, null);
+			write(this, bytes, options.escaper());
+			bytes.finish();
+			return out;
 		}
-		public String toString(int maxCharacters) 
+		catch (IOException ex)
 		{
-			if (val.length() <= maxCharacters)
-				return toString();
-			else
-				return '"' + escaper.escapeJsonString(val.subSequence(0,  maxCharacters)) + "...\"";
+			throw new MJsonException(ex);
 		}
-
-        public int hashCode() { return val.hashCode(); }
-		public boolean equals(Object x)
-		{			
-			return x instanceof StringJson && ((StringJson)x).val.equals(val); 
-		}		
-	}
-
-	static class NumberJson extends Json
-	{
-		Number val;
-
-		NumberJson() {}
-		NumberJson(Json e) {super(e);}		
-		NumberJson(Number val, Json e) { super(e); this.val = val; }
-		
-		public Json dup() { return new NumberJson(val, null); }		
-		public boolean isNumber() { return true; }		
-		public Object getValue() { return val; }
-		public String asString() { return val.toString(); }
-		public int asInteger() { return val.intValue(); }
-		public float asFloat() { return val.floatValue(); }
-		public double asDouble() { return val.doubleValue(); }
-		public long asLong() { return val.longValue(); }
-		public short asShort() { return val.shortValue(); }
-		public byte asByte() { return val.byteValue(); }
-
-		@SuppressWarnings("unchecked")
-		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val); }
-		
-		public String toString() { return val.toString(); }
-		public int hashCode() { return val.hashCode(); }
-		public boolean equals(Object x)
-		{			
-			return x instanceof NumberJson && val.doubleValue() == ((NumberJson)x).val.doubleValue(); 
-		}				
 	}
 	
-	static class ArrayJson extends Json
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a buffer, encoded in UTF-8,
+	 * see {@link #writeUtf8(java.io.OutputStream)}. The bytes are put at the buffer's 
+	 * position, which is advanced past them.</p>
+	 * 
+	 * @param out The buffer.
+	 * @return <code>out</code>
+	 * @throws java.nio.BufferOverflowException if the text doesn't fit in the remaining 
+	 * space. Part of it may have been written by then.
+	 */
+	public java.nio.ByteBuffer writeUtf8(java.nio.ByteBuffer out) { return writeUtf8(out, WriteOptions.DEFAULTS); }
+	
+	/**
+	 * <p>Write the JSON representation of <code>this</code> to a buffer, encoded in UTF-8,
+	 * see {@link #writeUtf8(java.nio.ByteBuffer)}.</p>
+	 * 
+	 * @param out The buffer.
+	 * @param options How to write it, not <code>null</code>.
+	 * @return <code>out</code>
+	 * @throws java.nio.BufferOverflowException if the text doesn't fit in the remaining 
+	 * space. Part of it may have been written by then.
+	 */
+	public java.nio.ByteBuffer writeUtf8(java.nio.ByteBuffer out, WriteOptions options)
 	{
-		List<Json> L = new ArrayList<Json>();
-		
-		ArrayJson() { }
-		ArrayJson(Json e) { super(e); }
-		
-
-        public Json dup() 
-        { 
-            ArrayJson j = new ArrayJson();
-            for (Json e : L)
-            {
-                Json v = e.dup();
-                v.enclosing = j;
-                j.L.add(v);
-            }
-            return j;
-        }
-        
-        public Json set(int index, Object value) 
-        { 
-        	L.set(index, make(value));
-        	return this;
-        }
-        
-		public List<Json> asJsonList() { return L; }
-		public List<Object> asList() 
-		{
-			ArrayList<Object> A = new ArrayList<Object>();
-			for (Json x: L)
-				A.add(x.getValue());
-			return A; 
-		}
-        public boolean is(int index, Object value) 
-        { 
-            if (index < 0 || index >= L.size())
-                return false;
-            else
-                return L.get(index).equals(make(value));
-        }       		
-		public Object getValue() { return asList(); }
-		public boolean isArray() { return true; }
-		public Json at(int index) { return L.get(index); }
-		public Json add(Json el) { L.add(el); el.enclosing = this; return this; }
-		public Json remove(Json el) { L.remove(el); el.enclosing = null; return this; }
-
-        boolean isEqualJson(Json left, Json right)
-        {
-            if (left == null)
-                return right == null;
-            else
-                return left.equals(right);
-        }
-
-        boolean isEqualJson(Json left, Json right, Json fields)
-        {
-            if (fields.isNull())
-                return left.equals(right);
-            else if (fields.isString())
-                return isEqualJson(resolvePointer(fields.asString(), left),
-                                   resolvePointer(fields.asString(), right));
-            else if (fields.isArray())
-            {
-                for (Json field : fields.asJsonList())
-                    if (!isEqualJson(resolvePointer(field.asString(), left),
-                            resolvePointer(field.asString(), right)))
-                        return false;
-                return true;
-            }
-            else
-                throw new MJsonException("Compare by options should be either a property name or an array of property names: " + fields);
-        }
-
-        int compareJson(Json left, Json right, Json fields)
-        {
-            if (fields.isNull())
-                return ((Comparable)left.getValue()).compareTo(right.getValue());
-            else if (fields.isString())
-            {
-                Json leftProperty = resolvePointer(fields.asString(), left);
-                Json rightProperty = resolvePointer(fields.asString(), right);
-                return ((Comparable)leftProperty).compareTo(rightProperty);
-            }
-            else if (fields.isArray())
-            {
-                for (Json field : fields.asJsonList())
-                {
-                    Json leftProperty = resolvePointer(field.asString(), left);
-                    Json rightProperty = resolvePointer(field.asString(), right);
-                    int result = ((Comparable) leftProperty).compareTo(rightProperty);
-                    if (result != 0)
-                        return result;
-                }
-                return 0;
-            }
-            else
-                throw new MJsonException("Compare by options should be either a property name or an array of property names: " + fields);
-        }
-
-        Json withOptions(Json array, Json allOptions, String path)
-        {
-            Json opts = allOptions.at(path, object());
-            boolean dup = opts.is("dup", true);
-            Json compareBy = opts.at("compareBy", nil());
-            if (opts.is("sort", true))
-            {
-                int thisIndex = 0, thatIndex = 0;
-                while (thatIndex < array.asJsonList().size())
-                {
-                    Json thatElement = array.at(thatIndex);
-                    if (thisIndex == L.size())
-                    {
-                        L.add(dup ? thatElement.dup() : thatElement);
-                        thisIndex++;
-                        thatIndex++;
-                        continue;
-                    }
-                    int compared = compareJson(at(thisIndex), thatElement, compareBy);
-                    if (compared < 0) // this < that
-                        thisIndex++;
-                    else if (compared > 0) // this > that
-                    {
-                        L.add(thisIndex, dup ? thatElement.dup() : thatElement);
-                        thatIndex++;
-                    } else { // equal, ignore 
-                        thatIndex++;
-                    }
-                }
-            }
-            else
-            {
-                for (Json thatElement : array.asJsonList())
-                {
-                    boolean present = false;
-                    for (Json thisElement : L)
-                        if (isEqualJson(thisElement, thatElement, compareBy))
-                        {
-                            present = true;
-                            break;
-                        }
-                    if (!present)
-                        L.add(dup ? thatElement.dup() : thatElement);
-                }
-            }
-            return this;
-        }
-
-		public Json with(Json object, Json...options)
+		try
 		{
-			if (object == null) return this;
-			if (!object.isArray())
-				add(object);
-            else if (options.length > 0)
-            {
-                Json O = collectWithOptions(options);
-                return withOptions(object, O, "");
-            }
-			else
-				// what about "enclosing" here? we don't have a provision where a Json 
-				// element belongs to more than one enclosing elements...
-				L.addAll(((ArrayJson)object).L);
-			return this;
-		}
-		
-		public Json atDel(int index) 
-		{ 
-			Json el = L.remove(index); 
-			if (el != null) 
-				el.enclosing = null; 
-			return el; 
-		}
-		
-		public Json delAt(int index) 
-		{ 
-			Json el = L.remove(index); 
-			if (el != null) 
-				el.enclosing = null; 
-			return this; 
+			Utf8Writer bytes = new Utf8Writer(null, out);
+			write(this, bytes, options.escaper());
+			bytes.finish();
+			return out;
 		}
-		
-		public String toString()
+		catch (IOException ex)
 		{
-			return toString(Integer.MAX_VALUE);
+			throw new MJsonException(ex);
 		}
-		
-		public String toString(int maxCharacters) 
+	}
+	
+	// Append an integer without going through a String where the sink allows it.
+	static void write(long value, Appendable out) throws IOException
+	{
+		if (out instanceof Utf8Writer)
+			((Utf8Writer)out).write(value);
+		else if (out instanceof StringBuilder)
+			((StringBuilder)out).append(value);
+		else
+			out.append(Long.toString(value));
+	}
+	
+	/**
+	 * <p>Write this value to a sink when it has a serialized form of its own, and return
+	 * <code>true</code>. Return <code>false</code> for an object or array whose members
+	 * are to be written one by one, see {@link #write(Json, Appendable, Escaper)}.</p>
+	 */
+	boolean writeWhole(Appendable out, Escaper escaper) throws IOException 
+	{ 
+		out.append(toString()); 
+		return true; 
+	}
+	
+	// Write a value and everything in it, keeping the open containers on an explicit stack.
+	// The text of memoized objects and arrays that have none kept is collected on the way
+	// and kept as each of them closes, so nested levels are filled in the same walk.
+	static void write(Json x, Appendable out, Escaper escaper) throws IOException
+	{
+		Iterator<?> [] open = new Iterator<?>[16];
+		boolean [] objects = new boolean[16];
+		Json [] containers = new Json[16];
+		int [] starts = new int[16]; // where the text to keep starts, or -1
+		int depth = 0;
+		boolean first = false; // nothing written yet in the innermost container
+		Appendable sink = out;
+		StringBuilder text = null; // the text of the outermost container being memoized
+		int keeping = -1; // the depth of that container
+		for (;;)
 		{
-			StringBuilder sb = new StringBuilder("[");
-			for (Iterator<Json> i = L.iterator(); i.hasNext(); )
+			if (!x.writeWhole(out, escaper))
 			{
-				String s = i.next().toString(maxCharacters);
-				if (sb.length() + s.length() > maxCharacters)
-					s = s.substring(0, Math.max(0, maxCharacters - sb.length()));
+				if (depth == open.length)
+				{
+					open = java.util.Arrays.copyOf(open, depth * 2);
+					objects = java.util.Arrays.copyOf(objects, depth * 2);
+					containers = java.util.Arrays.copyOf(containers, depth * 2);
+					starts = java.util.Arrays.copyOf(starts, depth * 2);
+				}
+				starts[depth] = -1;
+				if (escaper == Escaper.PLAIN && !(sink instanceof Budget) && x.memoizing())
+				{
+					if (text == null)
+					{
+						out = text = new StringBuilder();
+						keeping = depth;
+					}
+					starts[depth] = text.length();
+				}
+				containers[depth] = x;
+				objects[depth] = x.isObject();
+				if (objects[depth])
+				{
+					out.append('{');
+					open[depth++] = x.asJsonMap().entrySet().iterator();
+				}
 				else
-					sb.append(s);
+				{
+					out.append('[');
+					open[depth++] = x.asJsonList().iterator();
+				}
+				first = true;
+			}
+			for (;;)
+			{
+				if (depth == 0)
+					return;
+				Iterator<?> i = open[depth - 1];
 				if (i.hasNext())
-					sb.append(",");
-				if (sb.length() >= maxCharacters)
 				{
-					sb.append("...");
+					if (!first)
+						out.append(',');
+					first = false;
+					if (objects[depth - 1])
+					{
+						@SuppressWarnings("unchecked")
+						Map.Entry<String, Json> member = (Map.Entry<String, Json>)i.next();
+						String key = member.getKey();
+						int n = clip(out, key.length());
+						out.append('"');
+						escaper.escapeJsonString(n == key.length() ? key : key.substring(0, n), out);
+						out.append("\":");
+						x = member.getValue();
+					}
+					else
+						x = (Json)i.next();
 					break;
 				}
-			}			
-			sb.append("]");
-			return sb.toString();			
+				out.append(objects[--depth] ? '}' : ']');
+				if (starts[depth] >= 0)
+					containers[depth].keep(text.substring(starts[depth]));
+				if (depth == keeping)
+				{
+					sink.append(text);
+					out = sink;
+					text = null;
+					keeping = -1;
+				}
+				open[depth] = null;
+				containers[depth] = null;
+				first = false;
+			}
 		}
-		
-		public int hashCode() { return L.hashCode(); }
-		public boolean equals(Object x)
-		{			
-			return x instanceof ArrayJson && ((ArrayJson)x).L.equals(L); 
-		}		
 	}
 	
-	static class ObjectJson extends Json
-	{
-		Map<String, Json> object = new HashMap<String, Json>();
+	/**
+	 * An <code>Appendable</code> encoding characters to UTF-8 as they come. A heap 
+	 * <code>ByteBuffer</code> is written in place, through its backing array. For a stream or
+	 * a direct buffer, the bytes go into a buffer of the calling thread that is passed on 
+	 * whenever it fills up. Unpaired surrogates are encoded as <code>'?'</code>, like 
+	 * <code>String.getBytes</code> does.
+	 */
+	static final class Utf8Writer implements Appendable
+	{
+		// The buffer of the thread's writers to streams, taken while one is in use so that a
+		// writer started meanwhile gets one of its own.
+		private static final ThreadLocal<byte[]> threadBuffer = new ThreadLocal<byte[]>();
 		
-		ObjectJson() { }
-		ObjectJson(Json e) { super(e); }
-
-		public Json dup() 
+		final java.io.OutputStream stream;
+		final java.nio.ByteBuffer target;
+		final boolean inPlace; // the bytes go straight to the target's array
+		final int base;        // the index in buffer of the target's first byte, if in place
+		byte [] buffer;
+		int length;            // the index of the next byte in buffer
+		int limit;             // the index in buffer past the last byte that can be written
+		char high = 0; // a high surrogate waiting for its low half
+		
+		Utf8Writer(java.io.OutputStream stream, java.nio.ByteBuffer target) 
 		{ 
-		    ObjectJson j = new ObjectJson();
-		    for (Map.Entry<String, Json> e : object.entrySet())
-		    {
-		        Json v = e.getValue().dup();
-		        v.enclosing = j;
-		        j.object.put(e.getKey(), v);
-		    }
-		    return j;
+			this.stream = stream; 
+			this.target = target;
+			this.inPlace = target != null && target.hasArray();
+			if (inPlace)
+			{
+				buffer = target.array();
+				base = target.arrayOffset();
+				length = base + target.position();
+				limit = base + target.limit();
+			}
+			else
+			{
+				buffer = threadBuffer.get();
+				if (buffer == null)
+					buffer = new byte[8192];
+				else
+					threadBuffer.remove();
+				base = 0;
+				length = 0;
+				limit = buffer.length;
+			}
 		}
 		
-		public boolean has(String property)
+		public Appendable append(char c) throws IOException
 		{
-			return object.containsKey(property);
+			if (c < 0x80 && high == 0)
+			{
+				if (length == limit)
+					drain();
+				buffer[length++] = (byte)c;
+			}
+			else
+				encode(c);
+			return this;
 		}
 		
-		public boolean is(String property, Object value) 
+		public Appendable append(CharSequence s) throws IOException 
 		{ 
-		    Json p = object.get(property);
-		    if (p == null)
-		        return false;
-		    else
-		        return p.equals(make(value));
-		}		
+			return append(s, 0, s.length()); 
+		}
 		
-		public Json at(String property)
+		public Appendable append(CharSequence s, int start, int end) throws IOException
 		{
-			return object.get(property);
+			for (int i = start; i < end; i++)
+			{
+				char c = s.charAt(i);
+				if (c < 0x80 && high == 0)
+				{
+					if (length == limit)
+						drain();
+					buffer[length++] = (byte)c;
+				}
+				else
+					encode(c);
+			}
+			return this;
 		}
-
-        protected Json withOptions(Json other, Json allOptions, String path)
-        {
-            Json options = allOptions.at(path, object());
-            boolean duplicate = options.is("dup", true);
-            if (options.is("merge", true))
-            {
-                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
-                {
-                    Json local = object.get(e.getKey());
-                    if (local instanceof ObjectJson)
-                        ((ObjectJson)local).withOptions(e.getValue(), allOptions, path + "/" + e.getKey());
-                    else if (local instanceof ArrayJson)
-                        ((ArrayJson)local).withOptions(e.getValue(), allOptions, path + "/" + e.getKey());
-                    else
-                        set(e.getKey(), duplicate ? e.getValue().dup() : e.getValue());
-                }
-            }
-            else if (duplicate)
-                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
-                    set(e.getKey(), e.getValue().dup());
-            else
-                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
-                    set(e.getKey(), e.getValue());
-            return this;
-        }
-
-		public Json with(Json x, Json...options)
+		
+		private void encode(char c) throws IOException
 		{
-			if (x == null) return this;			
-			if (!x.isObject())
-				throw unsupportedOperation();
-            if (options.length > 0)
-            {
-                Json O = collectWithOptions(options);
-                return withOptions(x, O, "");
-            }
-            else for (Map.Entry<String, Json> e : x.asJsonMap().entrySet())
-                set(e.getKey(), e.getValue());
-			return this;
+			if (high != 0)
+			{
+				char h = high;
+				high = 0;
+				if (Character.isLowSurrogate(c))
+				{
+					int codePoint = Character.toCodePoint(h, c);
+					reserve(4);
+					buffer[length++] = (byte)(0xF0 | codePoint >> 18);
+					buffer[length++] = (byte)(0x80 | codePoint >> 12 & 0x3F);
+					buffer[length++] = (byte)(0x80 | codePoint >> 6 & 0x3F);
+					buffer[length++] = (byte)(0x80 | codePoint & 0x3F);
+					return;
+				}
+				reserve(1);
+				buffer[length++] = '?';
+			}
+			if (c < 0x80)
+			{
+				reserve(1);
+				buffer[length++] = (byte)c;
+			}
+			else if (c < 0x800)
+			{
+				reserve(2);
+				buffer[length++] = (byte)(0xC0 | c >> 6);
+				buffer[length++] = (byte)(0x80 | c & 0x3F);
+			}
+			else if (Character.isHighSurrogate(c))
+				high = c;
+			else if (Character.isLowSurrogate(c))
+			{
+				reserve(1);
+				buffer[length++] = '?';
+			}
+			else
+			{
+				reserve(3);
+				buffer[length++] = (byte)(0xE0 | c >> 12);
+				buffer[length++] = (byte)(0x80 | c >> 6 & 0x3F);
+				buffer[length++] = (byte)(0x80 | c & 0x3F);
+			}
 		}
 		
-		public Json set(String property, Json el)
+		// Make room for count more bytes, at most 20.
+		private void reserve(int count) throws IOException
 		{
-			if (property == null)
-				throw new MJsonException("Property names cannot be null, value was " + el);
-			el.enclosing = this;
-			object.put(property, el);
-			return this;
+			if (length + count > limit)
+				drain();
 		}
-
-		public Json atDel(String property) 
+		
+		// Write the decimal digits of an integer.
+		void write(long value) throws IOException
 		{
-			Json el = object.remove(property);
-			if (el != null)
-				el.enclosing = null;
-			return el;
+			settle();
+			if (value == Long.MIN_VALUE)
+			{
+				append("-9223372036854775808");
+				return;
+			}
+			if (value < 0)
+			{
+				reserve(1);
+				buffer[length++] = '-';
+				value = -value;
+			}
+			int digits = 1;
+			for (long n = value; n >= 10; n /= 10)
+				digits++;
+			reserve(digits);
+			int end = length + digits;
+			for (int i = end - 1; i >= length; i--, value /= 10)
+				buffer[i] = (byte)('0' + value % 10);
+			length = end;
 		}
 		
-		public Json delAt(String property) 
+		// Write ASCII text that's already in bytes.
+		void write(byte [] ascii, int offset, int count) throws IOException
 		{
-			Json el = object.remove(property);
-			if (el != null)
-				el.enclosing = null;
-			return this;
+			settle();
+			for (int n; count > 0; offset += n, count -= n)
+			{
+				if (length == limit)
+					drain();
+				n = Math.min(count, limit - length);
+				System.arraycopy(ascii, offset, buffer, length, n);
+				length += n;
+			}
 		}
 		
-		public Object getValue() { return asMap(); }
-		public boolean isObject() { return true; }
-		public Map<String, Object> asMap() 
+		// Encode a high surrogate left without its low half.
+		private void settle() throws IOException
 		{
-			HashMap<String, Object> m = new HashMap<String, Object>();
-			for (Map.Entry<String, Json> e : object.entrySet())
-				m.put(e.getKey(), e.getValue().getValue());
-			return m; 
+			if (high != 0)
+			{
+				high = 0;
+				append('?');
+			}
 		}
-		@Override
-		public Map<String, Json> asJsonMap() { return object; }
 		
-		public String toString()
+		// Pass on what's left and give the thread's buffer back, unless it fails.
+		void finish() throws IOException
 		{
-			return toString(Integer.MAX_VALUE);
+			settle();
+			if (inPlace)
+				target.position(length - base);
+			else
+			{
+				drain();
+				threadBuffer.set(buffer);
+			}
 		}
 		
-		public String toString(int maxCharacters)
+		// Pass the bytes on to make room, or fail when they go in place, which is only 
+		// called for when the target is full. What's written so far is kept.
+		void drain() throws IOException
 		{
-			StringBuilder sb = new StringBuilder("{");
-			for (Iterator<Map.Entry<String, Json>> i = object.entrySet().iterator(); i.hasNext(); )
+			if (inPlace)
 			{
-				Map.Entry<String, Json> x  = i.next();
-				sb.append('"');				
-				sb.append(escaper.escapeJsonString(x.getKey()));
-				sb.append('"');
-				sb.append(":");
-				String s = x.getValue().toString(maxCharacters);
-				if (sb.length() + s.length() > maxCharacters)
-					s = s.substring(0, Math.max(0, maxCharacters - sb.length()));
-				sb.append(s);
-				if (i.hasNext())
-					sb.append(",");
-				if (sb.length() >= maxCharacters)
-				{
-					sb.append("...");
-					break;
-				}
+				target.position(length - base);
+				throw new java.nio.BufferOverflowException();
 			}
-			sb.append("}");
-			return sb.toString();
+			else if (stream != null)
+				stream.write(buffer, 0, length);
+			else
+				target.put(buffer, 0, length);
+			length = 0;
 		}
-		public int hashCode() { return object.hashCode(); }
-		public boolean equals(Object x)
-		{			
-			return x instanceof ObjectJson && ((ObjectJson)x).object.equals(object); 
-		}				
 	}
 	
-	// ------------------------------------------------------------------------
-	// Extra utilities, taken from around the internet:
-	// ------------------------------------------------------------------------
-	
-	/*
-	 * Copyright (C) 2008 Google Inc.
-	 *
-	 * Licensed under the Apache License, Version 2.0 (the "License");
-	 * you may not use this file except in compliance with the License.
-	 * You may obtain a copy of the License at
-	 *
-	 * http://www.apache.org/licenses/LICENSE-2.0
-	 *
-	 * Unless required by applicable law or agreed to in writing, software
-	 * distributed under the License is distributed on an "AS IS" BASIS,
-	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
-	 * See the License for the specific language governing permissions and
-	 * limitations under the License.
+	/**
+	 * An <code>Appendable</code> collecting characters in a fixed buffer that is passed to a 
+	 * <code>Writer</code> whenever it fills up.
 	 */
+	static final class ChunkedWriter implements Appendable
+	{
+		final java.io.Writer writer;
+		final char [] buffer = new char[8192];
+		int length = 0;
+		
+		ChunkedWriter(java.io.Writer writer) { this.writer = writer; }
+		
+		public Appendable append(char c) throws IOException
+		{
+			if (length == buffer.length)
+				drain();
+			buffer[length++] = c;
+			return this;
+		}
+		
+		public Appendable append(CharSequence s) throws IOException 
+		{ 
+			return append(s, 0, s.length()); 
+		}
+		
+		public Appendable append(CharSequence s, int start, int end) throws IOException
+		{
+			while (start < end)
+			{
+				if (length == buffer.length)
+					drain();
+				int n = Math.min(end - start, buffer.length - length);
+				if (s instanceof String)
+					((String)s).getChars(start, start + n, buffer, length);
+				else
+					for (int i = 0; i < n; i++)
+						buffer[length + i] = s.charAt(start + i);
+				length += n;
+				start += n;
+			}
+			return this;
+		}
+		
+		void drain() throws IOException
+		{
+			writer.write(buffer, 0, length);
+			length = 0;
+		}
+	}
 
 	/**
-	 * A utility class that is used to perform JSON escaping so that ", <, >, etc. characters are
-	 * properly encoded in the JSON string representation before returning to the client code.
-	 *
-	 * <p>This class contains a single method to escape a passed in string value:
-	 * <pre>
-	 *   String jsonStringValue = "beforeQuote\"afterQuote";
-	 *   String escapedValue = Escaper.escapeJsonString(jsonStringValue);
-	 * </pre></p>
-	 *
-	 * @author Inderjeet Singh
-	 * @author Joel Leitch
+	 * An <code>Appendable</code> taking up to a fixed number of characters, for
+	 * {@link Json#toString(int)}. Past that it throws {@link #EXHAUSTED}, which ends the
+	 * serialization wherever it is.
 	 */
-	static Escaper escaper = new Escaper(false);
-	
-	final static class Escaper {
-
-	  private static final char[] HEX_CHARS = {
-	    '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
-	  };
-
-	  private static final Set<Character> JS_ESCAPE_CHARS;
-	  private static final Set<Character> HTML_ESCAPE_CHARS;
-
-	  static {
-	    Set<Character> mandatoryEscapeSet = new HashSet<Character>();
-	    mandatoryEscapeSet.add('"');
-	    mandatoryEscapeSet.add('\\');
-	    JS_ESCAPE_CHARS = Collections.unmodifiableSet(mandatoryEscapeSet);
-
-	    Set<Character> htmlEscapeSet = new HashSet<Character>();
-	    htmlEscapeSet.add('<');
-	    htmlEscapeSet.add('>');
-	    htmlEscapeSet.add('&');
-	    htmlEscapeSet.add('=');
-	    htmlEscapeSet.add('\'');
-//	    htmlEscapeSet.add('/');  -- Removing slash for now since it causes some incompatibilities
-	    HTML_ESCAPE_CHARS = Collections.unmodifiableSet(htmlEscapeSet);
-	  }
-
-	  private final boolean escapeHtmlCharacters;
+	static final class Budget implements Appendable
+	{
+		// Control flow only, so there's no stack trace to fill in.
+		static final IOException EXHAUSTED = new IOException("Character budget exhausted")
+		{
+			private static final long serialVersionUID = 1L;
+			public synchronized Throwable fillInStackTrace() { return this; }
+		};
 
-	  Escaper(boolean escapeHtmlCharacters) {
-	    this.escapeHtmlCharacters = escapeHtmlCharacters;
-	  }
+		final StringBuilder text;
+		final int limit;
 
-	  public String escapeJsonString(CharSequence plainText) {
-	    StringBuilder escapedString = new StringBuilder(plainText.length() + 20);
-	    try {
-	      escapeJsonString(plainText, escapedString);
-	    } catch (IOException e) {
-	      throw new MJsonException(e);
-	    }
-	    return escapedString.toString();
-	  }
+		Budget(int limit)
+		{
+			this.limit = Math.max(0, limit);
+			this.text = new StringBuilder(Math.min(this.limit, 1024) + 4);
+		}
 
-	  private void escapeJsonString(CharSequence plainText, StringBuilder out) throws IOException {
-	    int pos = 0;  // Index just past the last char in plainText written to out.
-	    int len = plainText.length();
+		int room() { return limit - text.length(); }
 
-	    for (int charCount, i = 0; i < len; i += charCount) {
-	      int codePoint = Character.codePointAt(plainText, i);
-	      charCount = Character.charCount(codePoint);
+		public Appendable append(char c) throws IOException
+		{
+			if (text.length() == limit)
+				throw EXHAUSTED;
+			text.append(c);
+			return this;
+		}
 
-	       if (!isControlCharacter(codePoint) && !mustEscapeCharInJsString(codePoint)) {
-	          continue;
-	       }
-
-	       out.append(plainText, pos, i);
-	       pos = i + charCount;
-	       switch (codePoint) {
-	         case '\b':
-	           out.append("\\b");
-	           break;
-	         case '\t':
-	           out.append("\\t");
-	           break;
-	         case '\n':
-	           out.append("\\n");
-	           break;
-	         case '\f':
-	           out.append("\\f");
-	           break;
-	         case '\r':
-	           out.append("\\r");
-	           break;
-	         case '\\':
-	           out.append("\\\\");
-	           break;
-	         case '/':
-	           out.append("\\/");
-	           break;
-	         case '"':
-	           out.append("\\\"");
-	           break;
-	         default:
-	           appendHexJavaScriptRepresentation(codePoint, out);
-	           break;
-	       }
-	     }
-	     out.append(plainText, pos, len);
-	  }
+		public Appendable append(CharSequence s) throws IOException
+		{
+			return append(s, 0, s.length());
+		}
 
-	  private boolean mustEscapeCharInJsString(int codepoint) {
-	    if (!Character.isSupplementaryCodePoint(codepoint)) {
-	      char c = (char) codepoint;
-	      return JS_ESCAPE_CHARS.contains(c)
-	          || (escapeHtmlCharacters && HTML_ESCAPE_CHARS.contains(c));
-	    }
-	    return false;
-	  }
+		public Appendable append(CharSequence s, int start, int end) throws IOException
+		{
+			int room = room();
+			if (end - start <= room)
+			{
+				text.append(s, start, end);
+				return this;
+			}
+			text.append(s, start, start + room);
+			throw EXHAUSTED;
+		}
+	}
 
-	  private static boolean isControlCharacter(int codePoint) {
-	    // JSON spec defines these code points as control characters, so they must be escaped
-	    return codePoint < 0x20
-	        || codePoint == 0x2028  // Line separator
-	        || codePoint == 0x2029  // Paragraph separator
-	        || (codePoint >= 0x7f && codePoint <= 0x9f);
-	  }
+	/**
+	 * <p>How many of the <code>length</code> characters of a string are worth escaping for
+	 * a sink: all of them, unless the sink is a {@link Budget} that runs out sooner. Escaping
+	 * never makes text shorter, so a string cut one character past the budget still
+	 * exhausts it.</p>
+	 */
+	static int clip(Appendable out, int length)
+	{
+		return out instanceof Budget ? Math.min(length, ((Budget)out).room() + 1) : length;
+	}
 
-	  private static void appendHexJavaScriptRepresentation(int codePoint, Appendable out)
-	      throws IOException {
-	    if (Character.isSupplementaryCodePoint(codePoint)) {
-	      // Handle supplementary unicode values which are not representable in
-	      // javascript.  We deal with these by escaping them as two 4B sequences
-	      // so that they will round-trip properly when sent from java to javascript
-	      // and back.
-	      char[] surrogates = Character.toChars(codePoint);
-	      appendHexJavaScriptRepresentation(surrogates[0], out);
-	      appendHexJavaScriptRepresentation(surrogates[1], out);
-	      return;
-	    }
-	    out.append("\\u")
-	        .append(HEX_CHARS[(codePoint >>> 12) & 0xf])
-	        .append(HEX_CHARS[(codePoint >>> 8) & 0xf])
-	        .append(HEX_CHARS[(codePoint >>> 4) & 0xf])
-	        .append(HEX_CHARS[codePoint & 0xf]);
-	  }
-	}	
-	
-	private static class Reader
+	// The text of x, cut after maxCharacters characters, which are then followed by "...".
+	static String truncated(Json x, int maxCharacters)
 	{
-	    private static final Object OBJECT_END = new Object();
-	    private static final Object ARRAY_END = new Object();
-	    private static final Object COLON = new Object();
-	    private static final Object COMMA = new Object();
-	    public static final int FIRST = 0;
-	    public static final int CURRENT = 1;
-	    public static final int NEXT = 2;
+		Budget budget = new Budget(maxCharacters);
+		try
+		{
+			write(x, budget, Escaper.PLAIN);
+			return budget.text.toString();
+		}
+		catch (IOException ex)
+		{
+			if (ex != Budget.EXHAUSTED)
+				throw new MJsonException(ex);
+			return budget.text.append("...").toString();
+		}
+	}
 
-	    private static Map<Character, Character> escapes = new HashMap<Character, Character>();
-	    static 
-	    {
-	        escapes.put(new Character('"'), new Character('"'));
-	        escapes.put(new Character('\\'), new Character('\\'));
-	        escapes.put(new Character('/'), new Character('/'));
-	        escapes.put(new Character('b'), new Character('\b'));
-	        escapes.put(new Character('f'), new Character('\f'));
-	        escapes.put(new Character('n'), new Character('\n'));
-	        escapes.put(new Character('r'), new Character('\r'));
-	        escapes.put(new Character('t'), new Character('\t'));
-	    }
+    /**
+	 * <p>Explicitly set the parent of this element. The parent is presumably an array
+	 * or an object. Normally, there's no need to call this method as the parent is
+	 * automatically set by the framework. You may need to call it however, if you implement
+	 * your own {@link Factory} with your own implementations of the Json types.
+	 * </p>
+	 *  
+	 * @param enclosing The parent element.
+	 */
+	public void attachTo(Json enclosing) { this.enclosing = enclosing; }
+	
+	/**
+	 * <p>Return the <code>Json</code> entity, if any, enclosing this 
+	 * <code>Json</code>. The returned value can be <code>null</code> or
+	 * a <code>Json</code> object or list, but not one of the primitive types.</p>
+	 */
+	public final Json up() { return enclosing; }
 
-	    private CharacterIterator it;
-	    private char c;
-	    private Object token;
-	    private StringBuffer buf = new StringBuffer();
+	/**
+	 * <p>Turn on or off the memoization of the serialized form of this element and of every
+	 * object, array and string in it. A memoized element keeps its text once written and
+	 * copies it as is to {@link #toString()}, {@link #writeTo(Appendable)} or
+	 * {@link #writeUtf8(java.io.OutputStream)} afterwards. Changes made through
+	 * <code>set</code>, <code>add</code>, <code>remove</code>, <code>delAt</code>,
+	 * <code>atDel</code> and <code>with</code> drop the kept text of the changed element and
+	 * of the elements enclosing it, as found through {@link #up()}, so only the changed paths
+	 * get serialized again. Elements added to a memoized object or array are memoized as
+	 * well.</p>
+	 *
+	 * <p>This is meant for large documents that are written again and again with few changes
+	 * in between. The kept text of every level takes memory. Changes made otherwise, e.g.
+	 * to the collections returned by {@link #asJsonMap()} and {@link #asJsonList()}, are not
+	 * seen, and neither are those to an element added to more than one object or array
+	 * other than the last one. Turning memoization off for an element turns it off for the
+	 * elements enclosing it too. Values from {@link #readTape(String)} are always written
+	 * from their tape and aren't memoized.</p>
+	 *
+	 * @param on <code>true</code> to memoize, <code>false</code> to stop and drop the kept text.
+	 * @return this
+	 */
+	public Json memoize(boolean on)
+	{
+		ArrayList<Json> pending = new ArrayList<Json>();
+		pending.add(this);
+		while (!pending.isEmpty())
+		{
+			Json x = pending.remove(pending.size() - 1);
+			if (x.memo(on))
+			{
+				if (x.isObject())
+					pending.addAll(x.asJsonMap().values());
+				else
+					pending.addAll(x.asJsonList());
+			}
+		}
+		if (!on)
+			for (Json x = enclosing; x != null; x = x.enclosing)
+				x.memo(false);
+		return this;
+	}
 
-	    private char next() 
-	    {
-	        if (it.getIndex() == it.getEndIndex())
-	            throw new MJsonException("Reached end of input at the " + 
-	                                       it.getIndex() + "th character.");
-	        c = it.next();
-	        return c;
-	    }
+	/**
+	 * Turn memoization on or off for this element alone, and return whether the elements in
+	 * it are to follow.
+	 */
+	boolean memo(boolean on) { return false; }
 
-	    private char previous()
-	    {
-	    	c = it.previous();
-	    	return c;
-	    }
-	    
-	    private void skipWhiteSpace() 
-	    {
-	        do
-	        {
-	        	if (Character.isWhitespace(c))
-	        		;
-	        	else if (c == '/')
-	        	{
-	        		next();
-	        		if (c == '*')
-	        		{
-	        			// skip multiline comments
-	        			while (c != CharacterIterator.DONE)
-	        				if (next() == '*' && next() == '/')
-	        						break;
-	        			if (c == CharacterIterator.DONE)
-	        				throw new MJsonException("Unterminated comment while parsing JSON string.");
-	        		}
-	        		else if (c == '/')
-	        			while (c != '\n' && c != CharacterIterator.DONE)
-	        				next();
-	        		else
-	        		{
-	        			previous();
-	        			break;
-	        		}
-	        	}
-	        	else
-	        		break;
-	        } while (next() != CharacterIterator.DONE);
-	    }
+	/**
+	 * Return whether this is a memoized object or array with no kept text, whose text is to 
+	 * be kept once written, see {@link #keep(String)}.
+	 */
+	boolean memoizing() { return false; }
 
-	    public Object read(CharacterIterator ci, int start) 
-	    {
-	        it = ci;
-	        switch (start) 
-	        {
-	        	case FIRST:
-	        		c = it.first();
-	        		break;
-	        	case CURRENT:
-	        		c = it.current();
-	        		break;
-	        	case NEXT:
-	        		c = it.next();
-	        		break;
-	        }
-	        return read();
-	    }
+	/**
+	 * Keep the text just written for this memoized object or array.
+	 */
+	void keep(String text) { }
 
-	    public Object read(CharacterIterator it) 
-	    {
-	        return read(it, NEXT);
-	    }
+	/**
+	 * Drop the kept text of this element, and return whether it's memoized.
+	 */
+	boolean forget() { return false; }
 
-	    public Object read(String string) 
-	    {
-	        return read(new StringCharacterIterator(string), FIRST);
-	    }
+	/**
+	 * Called by the mutators of objects and arrays, with the element added if any. 
+	 * Everything in a memoized element is memoized as well, so once the walk up meets an
+	 * element that isn't, none of those above it is either.
+	 */
+	void changed(Json added)
+	{
+		if (forget())
+		{
+			if (added != null)
+				added.memoize(true);
+			for (Json x = enclosing; x != null && x.forget(); x = x.enclosing);
+		}
+	}
 
-	    @SuppressWarnings("unchecked")
-		private <T> T read() 
-	    {
-	        skipWhiteSpace();
-	        char ch = c;
-	        next();
-	        switch (ch) 
-	        {
-	            case '"': token = readString(); break;
-	            case '[': token = readArray(); break;
-	            case ']': token = ARRAY_END; break;
-	            case ',': token = COMMA; break;
-	            case '{': token = readObject(); break;
-	            case '}': token = OBJECT_END; break;
-	            case ':': token = COLON; break;
-	            case 't':
-	                if (c != 'r' || next() != 'u' || next() != 'e')
-	                	throw new MJsonException("Invalid JSON token: expected 'true' keyword.");
-	                next();
-	                token = factory().bool(Boolean.TRUE);
-	                break;
-	            case'f':
-	                if (c != 'a' || next() != 'l' || next() != 's' || next() != 'e')
-	                	throw new MJsonException("Invalid JSON token: expected 'false' keyword.");
-	                next();
-	                token = factory().bool(Boolean.FALSE);
-	                break;
-	            case 'n':
-	                if (c != 'u' || next() != 'l' || next() != 'l')
-	                	throw new MJsonException("Invalid JSON token: expected 'null' keyword.");
-	                next();
-	                token = nil();
-	                break;
-	            default:
-	                c = it.previous();
-	                if (Character.isDigit(c) || c == '-') {
-	                    token = readNumber();
-	                }
-	                else throw new MJsonException("Invalid JSON near position: " + it.getIndex());
-	        }
-	        return (T)token;
-	    }
-	    
-	    private String readObjectKey()
-	    {
-	    	Object key = read();
-	    	if (key == null)
-                throw new MJsonException(
-                        "Missing object key (don't forget to put quotes!).");
-	    	else if (key != OBJECT_END)
-	    		return ((Json)key).asString();
-	    	else
-	    		return key.toString();
-	    }
-	    
-	    private Json readObject() 
-	    {
-	        Json ret = object();
-	        String key = readObjectKey();
-	        while (token != OBJECT_END) 
-	        {
-	            read(); // should be a colon
-	            if (token != OBJECT_END) 
-	            {
-	            	Json value = read();
-	                ret.set(key, value);
-	                if (read() == COMMA) {
-	                    key = readObjectKey();
-	                }
-	            }
-	        }
-	        return ret;
-	    }
+	/**
+	 * <p>Return a clone (a duplicate) of this <code>Json</code> entity. Note that cloning
+	 * is deep if array and objects. Primitives are also cloned, even though their values are immutable
+	 * because the new enclosing entity (the result of the {@link #up()} method) may be different.
+	 * since they are immutable.</p>
+	 */
+	public Json dup() { return this; }
+	
+	/**
+	 * <p>Return the <code>Json</code> element at the specified index of this
+	 * <code>Json</code> array. This method applies only to Json arrays.
+	 * </p>
+	 * 
+	 * @param index The index of the desired element.
+	 */
+	public Json at(int index) { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Return the specified property of a <code>Json</code> object or <code>null</code>
+	 * if there's no such property. This method applies only to Json objects.  
+	 * </p>
+	 */
+	public Json at(String property)	{ throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Return the specified property of a <code>Json</code> object if it exists.
+	 * If it doesn't, then create a new property with value the <code>def</code> 
+	 * parameter and return that parameter. 
+	 * </p>
+	 * 
+	 * @param property The property to return.
+	 * @param def The default value to set and return in case the property doesn't exist.
+	 */
+	public final Json at(String property, Json def)	
+	{
+		Json x = at(property);
+		if (x == null)
+		{
+			set(property, def);
+			return def;
+		}
+		else
+			return x; 
+	}	
+	
+	/**
+	 * <p>
+	 * Return the specified property of a <code>Json</code> object if it exists.
+	 * If it doesn't, then create a new property with value the <code>def</code> 
+	 * parameter and return that parameter. 
+	 * </p>
+	 * 
+	 * @param property The property to return.
+	 * @param def The default value to set and return in case the property doesn't exist.
+	 */
+	public final Json at(String property, Object def)
+	{
+		return at(property, make(def));
+	}
+	
+	/**
+	 * <p>
+	 * Return true if this <code>Json</code> object has the specified property
+	 * and false otherwise. 
+	 * </p>
+	 * 
+	 * @param property The name of the property.
+	 */
+	public boolean has(String property)	{ throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Return <code>true</code> if and only if this <code>Json</code> object has a property with
+	 * the specified value. In particular, if the object has no such property <code>false</code> is returned. 
+	 * </p>
+	 * 
+	 * @param property The property name.
+	 * @param value The value to compare with. Comparison is done via the equals method. 
+	 * If the value is not an instance of <code>Json</code>, it is first converted to
+	 * such an instance. 
+	 * @return
+	 */
+	public boolean is(String property, Object value) { throw unsupportedOperation(); }
 
-	    private Json readArray() 
-	    {
-	        Json ret = array();
-	        Object value = read();
-	        while (token != ARRAY_END) 
-	        {
-	            ret.add((Json)value);
-	            if (read() == COMMA) 
-	                value = read();
-	            else if (token != ARRAY_END)
-	                throw new MJsonException("Unexpected token in array " + token);
-	        }
-	        return ret;
-	    }
-
-	    private Json readNumber() 
-	    {
-	        int length = 0;
-	        boolean isFloatingPoint = false;
-	        buf.setLength(0);
-	        
-	        if (c == '-') 
-	        {
-	            add();
-	        }
-	        length += addDigits();
-	        if (c == '.') 
-	        {
-	            add();
-	            length += addDigits();
-	            isFloatingPoint = true;
-	        }
-	        if (c == 'e' || c == 'E') 
-	        {
-	            add();
-	            if (c == '+' || c == '-') 
-	            {
-	                add();
-	            }
-	            addDigits();
-	            isFloatingPoint = true;
-	        }
-	 
-	        String s = buf.toString();
-	        Number n = isFloatingPoint 
-	            ? (length < 17) ? Double.valueOf(s) : new BigDecimal(s)
-	            : (length < 20) ? Long.valueOf(s) : new BigInteger(s);
-	        return factory().number(n);
-	    }
-	 
-	    private int addDigits() 
-	    {
-	        int ret;
-	        for (ret = 0; Character.isDigit(c); ++ret) 
-	        {
-	            add();
-	        }
-	        return ret;
-	    }
+    /**
+     * <p>
+     * Return <code>true</code> if and only if this <code>Json</code> array has an element with
+     * the specified value at the specified index. In particular, if the array has no element at
+     * this index, <code>false</code> is returned. 
+     * </p>
+     * 
+     * @param property The property name.
+     * @param value The value to compare with. Comparison is done via the equals method. 
+     * If the value is not an instance of <code>Json</code>, it is first converted to
+     * such an instance. 
+     * @return
+     */
+    public boolean is(int index, Object value) { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Add the specified <code>Json</code> element to this array. 
+	 * </p>
+	 * 
+	 * @return this
+	 */
+	public Json add(Json el) { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Add an arbitrary Java object to this <code>Json</code> array. The object
+	 * is first converted to a <code>Json</code> instance by calling the static
+	 * {@link #make} method.
+	 * </p>
+	 * 
+	 * @param anything Any Java object that can be converted to a Json instance.
+	 * @return this
+	 */
+	public final Json add(Object anything) { return add(make(anything)); }
+	
+	/**
+	 * <p>
+	 * Remove the specified property from a <code>Json</code> object and return
+	 * that property.
+	 * </p>
+	 * 
+	 * @param property The property to be removed.
+	 * @return The property value or <code>null</code> if the object didn't have such
+	 * a property to begin with.
+	 */
+	public Json atDel(String property)	{ throw unsupportedOperation(); }
 
-	    private Json readString() 
-	    {
-	        buf.setLength(0);
-	        while (c != '"') 
-	        {
-	            if (c == '\\') 
-	            {
-	                next();
-	                if (c == 'u') 
-	                {
-	                    add(unicode());
-	                } 
-	                else 
-	                {
-	                    Object value = escapes.get(new Character(c));
-	                    if (value != null) 
-	                    {
-	                        add(((Character) value).charValue());
-	                    }
-	                }
-	            } 
-	            else 
-	            {
-	                add();
-	            }
-	        }
-	        next();
-	        return factory().string(buf.toString());
-	    }
+	/**
+	 * <p>
+	 * Remove the element at the specified index from a <code>Json</code> array and return
+	 * that element.
+	 * </p>
+	 * 
+	 * @param index The index of the element to delete.
+	 * @return The element value.
+	 */
+	public Json atDel(int index)	{ throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Delete the specified property from a <code>Json</code> object.
+	 * </p>
+	 * 
+	 * @param property The property to be removed.
+	 * @return this
+	 */
+	public Json delAt(String property)	{ throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Remove the element at the specified index from a <code>Json</code> array.
+	 * </p>
+	 * 
+	 * @param index The index of the element to delete.
+	 * @return this
+	 */
+	public Json delAt(int index) { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Remove the specified element from a <code>Json</code> array.
+	 * </p>
+	 * 
+	 * @param el The element to delete.
+	 * @return this
+	 */
+	public Json remove(Json el)	{ throw unsupportedOperation(); }
+	
+	/**
+	 * <p>
+	 * Remove the specified Java object (converted to a Json instance) 
+	 * from a <code>Json</code> array. This is equivalent to 
+	 * <code>remove({@link #make(anything)})</code>.
+	 * </p>
+	 * 
+	 * @param anything The object to delete.
+	 * @return this
+	 */
+	public final Json remove(Object anything) { return remove(make(anything)); }
+	
+	/**
+	 * <p>
+	 * Set a <code>Json</code> objects's property.
+	 * </p>
+	 * 
+	 * @param property The property name.
+	 * @param value The value of the property.
+	 * @return this
+	 */
+	public Json set(String property, Json value) { throw unsupportedOperation();	}
+	
+	/**
+	 * <p>
+	 * Set a <code>Json</code> objects's property.
+	 * </p>
+	 * 
+	 * @param property The property name.
+	 * @param value The value of the property, converted to a <code>Json</code> representation
+	 * with {@link #make}.
+	 * @return this
+	 */
+	public final Json set(String property, Object value) { return set(property, make(value)); }
+	
+	/**
+	 * <p>
+	 * Change the value of a JSON array element. This must be an array. 
+	 * </p>
+	 * @param index 0-based index of the element in the array. 
+	 * @param value the new value of the element
+	 * @return this 
+	 */
+	public Json set(int index, Object value) { throw unsupportedOperation(); }	
+	
+	/**
+	 * <p>
+	 * Combine this object or array with the passed in object or array. The types of 
+	 * <code>this</code> and the <code>object</code> argument must match. If both are
+	 * <code>Json</code> objects, all properties of the parameter are added to <code>this</code>.
+	 * If both are arrays, all elements of the parameter are appended to <code>this</code> 
+	 * </p>
+	 * @param object The object or array whose properties or elements must be added to this
+	 * Json object or array.
+	 * @return this
+	 */
+	public Json with(Json object, Json...options) { throw unsupportedOperation(); }
 
-	    private void add(char cc) 
-	    {
-	        buf.append(cc);
-	        next();
-	    }
+    /**
+     * Same as <code>{}@link #with(Json,Json...options)}</code> with each option
+     * argument converted to <code>Json</code> first.
+     */
+    public Json with(Json object, Object...options)
+    {
+        Json [] jopts = new Json[options.length];
+        for (int i = 0; i < jopts.length; i++)
+            jopts[i] = make(options[i]);
+        return with(object, jopts);
+    }
 
-	    private void add() 
-	    {
-	        add(c);
-	    }
+	/**
+	 * <p>Return the underlying value of this <code>Json</code> entity. The actual value will 
+	 * be a Java Boolean, String, Number, Map, List or null. For complex entities (objects
+	 * or arrays), the method will perform a deep copy and extra underlying values recursively 
+	 * for all nested elements.</p>
+	 */
+	public Object getValue() { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return the boolean value of a boolean <code>Json</code> instance. Call
+	 * {@link #isBoolean()} first if you're not sure this instance is indeed a
+	 * boolean.</p>
+	 */
+	public boolean asBoolean() { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return the string value of a string <code>Json</code> instance. Call
+	 * {@link #isString()} first if you're not sure this instance is indeed a
+	 * string.</p>
+	 */
+	public String asString() { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return the integer value of a number <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */
+	public int asInteger() { throw unsupportedOperation(); }
 
-	    private char unicode() 
+	/**
+	 * <p>Return the float value of a float <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */
+	public float asFloat() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return the double value of a number <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */
+	public double asDouble() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return the long value of a number <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */
+	public long asLong() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return the short value of a number <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */
+	public short asShort() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return the byte value of a number <code>Json</code> instance. Call
+	 * {@link #isNumber()} first if you're not sure this instance is indeed a
+	 * number.</p>
+	 */	
+	public byte asByte() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return the first character of a string <code>Json</code> instance. Call
+	 * {@link #isString()} first if you're not sure this instance is indeed a
+	 * string.</p>
+	 */	
+	public char asChar() { throw unsupportedOperation(); }		
+
+	/**
+	 * <p>Return a map of the properties of an object <code>Json</code> instance. The map
+	 * is a clone of the object and can be modified safely without affecting it. Call
+	 * {@link #isObject()} first if you're not sure this instance is indeed a
+	 * <code>Json</code> object.</p>
+	 */	
+	public Map<String, Object> asMap() { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return the underlying map of properties of a <code>Json</code> object. The returned
+	 * map is the actual object representation so any modifications to it are modifications
+	 * of the <code>Json</code> object itself. Call
+	 * {@link #isObject()} first if you're not sure this instance is indeed a
+	 * <code>Json</code> object.
+	 * </p>
+	 */
+	public Map<String, Json> asJsonMap() { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return a list of the elements of a <code>Json</code> array. The list is a clone
+	 * of the array and can be modified safely without affecting it. Call
+	 * {@link #isArray()} first if you're not sure this instance is indeed a
+	 * <code>Json</code> array.
+	 * </p>  
+	 */
+	public List<Object> asList()  { throw unsupportedOperation(); }
+	
+	/**
+	 * <p>Return the underlying {@link List} representation of a <code>Json</code> array.
+	 * The returned list is the actual array representation so any modifications to it 
+	 * are modifications of the <code>Json</code> array itself. Call
+	 * {@link #isArray()} first if you're not sure this instance is indeed a
+	 * <code>Json</code> array.
+	 * </p>
+	 */
+	public List<Json> asJsonList() { throw unsupportedOperation(); }
+
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> null entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isNull() { return false; }
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> string entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isString() { return false; }	
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> number entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isNumber() { return false; }	
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> boolean entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isBoolean() { return false;	}	
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> array (i.e. list) entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isArray() { return false; }	
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> object entity 
+	 * and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isObject(){ return false; }	
+	/**
+	 * <p>Return <code>true</code> if this is a <code>Json</code> primitive entity 
+	 * (one of string, number or boolean) and <code>false</code> otherwise.
+	 * </p> 
+	 */
+	public boolean isPrimitive() { return isString() || isNumber() || isBoolean(); }
+	
+	/**
+	 * <p>
+	 * Json-pad this object as an argument to a callback function.  
+	 * </p>
+	 * 
+	 * @param callback The name of the callback function. Can be null or empty, 
+	 * in which case no padding is done.
+	 * @return The jsonpadded, stringified version of this object if the <code>callback</code>
+	 * is not null or empty, or just the stringified version of the object. 
+	 */
+	public String pad(String callback)
+	{
+		return (callback != null && callback.length() > 0) 
+			? callback + "(" + toString() + ");"
+			: toString();		
+	}
+	
+	//-------------------------------------------------------------------------
+	// END OF PUBLIC INTERFACE
+	//-------------------------------------------------------------------------
+
+    /**
+     * Return an object representing the complete configuration
+     * of a merge. The properties of the object represent paths
+     * of the JSON structure being merged and the values represent
+     * the set of options that apply to each path.
+     */
+    protected Json collectWithOptions(Json...options)
+    {
+        Json result = object();
+        for (Json opt : options)
+        {
+            if (opt.isString())
+                result.at("", object()).set(opt.asString(), true);
+            else
+            {
+                Json forPaths = opt.at("for", array(""));
+                if (!forPaths.isArray())
+                    forPaths = array(forPaths);
+                for (Json path : forPaths.asJsonList())
+                {
+                    Json at_path = result.at(path.asString(), object());
+                    at_path.set("merge", opt.is("merge", true));
+                    at_path.set("dup", opt.is("dup", true));
+                    at_path.set("sort", opt.is("sort", true));
+                    at_path.set("compareBy", opt.at("compareBy", nil()));
+                }
+            }
+        }
+        return result;
+    }
+
+	static class NullJson extends Json
+	{
+		NullJson() {}
+		NullJson(Json e) {super(e);}
+		
+		public Object getValue() { return null; }
+		public Json dup() { return new NullJson(); }
+		public boolean isNull() { return true; }
+		public String toString() { return "null"; }
+		public List<Object> asList() { return (List<Object>)Collections.singletonList(null); }
+		
+		public int hashCode() { return 0; }
+		public boolean equals(Object x)
+		{
+			return x instanceof NullJson;
+		}
+	}
+	
+	static NullJson topnull = new NullJson();
+
+	static class BooleanJson extends Json
+	{
+		boolean val;
+		BooleanJson() {}
+		BooleanJson(Json e) {super(e);}
+		BooleanJson(Boolean val, Json e) { super(e); this.val = val; }
+		
+		public Object getValue() { return val; }
+        public Json dup() { return new BooleanJson(val, null); }		
+		public boolean asBoolean() { return val; }		
+		public boolean isBoolean() { return true;	}		
+		public String toString() { return val ? "true" : "false"; }
+		
+		@SuppressWarnings("unchecked")
+		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val); }
+		public int hashCode() { return val ? 1 : 0; }
+		public boolean equals(Object x)
+		{
+			return x instanceof BooleanJson && ((BooleanJson)x).val == val;
+		}		
+	}
+
+	static class StringJson extends Json
+	{
+		String val;
+		String memo; // the quoted and escaped text, while memoized
+
+		StringJson() {}
+		StringJson(Json e) {super(e);}		
+		StringJson(String val, Json e) { super(e); this.val = val; }
+		
+		public Json dup() { return new StringJson(val, null); }		
+		public boolean isString() { return true; }
+		public Object getValue() { return val; }
+		public String asString() { return val; }
+		public int asInteger() { return Integer.parseInt(val); }
+		public float asFloat() { return Float.parseFloat(val); }
+		public double asDouble() { return Double.parseDouble(val); }
+		public long asLong() { return Long.parseLong(val); }
+		public short asShort() { return Short.parseShort(val); }
+		public byte asByte() { return Byte.parseByte(val); }
+		public char asChar() { return val.charAt(0); }
+		@SuppressWarnings("unchecked")
+		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val); }
+		
+		public String toString()
+		{
+			return '"' + Escaper.PLAIN.escapeJsonString(val) + '"'; 
+		}
+		boolean memo(boolean on) 
+		{ 
+			memo = !on ? null : memo != null ? memo : toString(); 
+			return false; 
+		}
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			String m = memo;
+			if (m != null && escaper == Escaper.PLAIN)
+			{
+				out.append(m);
+				return true;
+			}
+			int n = clip(out, val.length());
+			out.append('"');
+			escaper.escapeJsonString(n == val.length() ? val : val.substring(0, n), out);
+			out.append('"');
+			return true;
+		}
+		public String toString(int maxCharacters) 
+		{
+			if (val.length() <= maxCharacters)
+				return toString();
+			else
+				return '"' + Escaper.PLAIN.escapeJsonString(val.subSequence(0,  maxCharacters)) + "...\"";
+		}
+
+        public int hashCode() { return val.hashCode(); }
+		public boolean equals(Object x)
+		{			
+			return x instanceof StringJson && ((StringJson)x).val.equals(val); 
+		}		
+	}
+
+	static class NumberJson extends Json
+	{
+		Number val;
+		String literal; // the parsed text, when val hasn't been computed from it yet
+
+		NumberJson() {}
+		NumberJson(Json e) {super(e);}		
+		NumberJson(Number val, Json e) { super(e); this.val = val; }
+		NumberJson(String literal, Json e) { super(e); this.literal = literal; }
+		
+		// Benign race: the Number types produced are immutable, so at worst the
+		// literal gets converted more than once.
+		Number val() 
+		{
+			Number n = val;
+			if (n == null)
+				val = n = Scanner.numberValue(literal);
+			return n;
+		}
+		
+		public Json dup() { return literal != null ? new NumberJson(literal, null) : new NumberJson(val, null); }		
+		public boolean isNumber() { return true; }		
+		public Object getValue() { return val(); }
+		public String asString() { return format(val()); }
+		public int asInteger() { return val().intValue(); }
+		public float asFloat() { return val().floatValue(); }
+		public double asDouble() { return val().doubleValue(); }
+		public long asLong() { return val().longValue(); }
+		public short asShort() { return val().shortValue(); }
+		public byte asByte() { return val().byteValue(); }
+
+		@SuppressWarnings("unchecked")
+		public List<Object> asList() { return (List<Object>)(List<?>)Collections.singletonList(val()); }
+		
+		public String toString() { return literal != null ? literal : format(val); }
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			Number n = val;
+			if (literal == null && (n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte))
+				write(n.longValue(), out);
+			else
+				out.append(toString());
+			return true;
+		}
+		
+		static String format(Number n) 
+		{ 
+			return n instanceof Double ? DoubleConversion.toString(n.doubleValue()) : n.toString(); 
+		}
+		public int hashCode() { return val().hashCode(); }
+		public boolean equals(Object x)
+		{			
+			return x instanceof NumberJson && val().doubleValue() == ((NumberJson)x).val().doubleValue(); 
+		}				
+	}
+	
+	static class ArrayJson extends Json
+	{
+		List<Json> L = new ArrayList<Json>();
+		boolean memoized = false;
+		String memo = null; // the serialized text, while memoized and unchanged
+		
+		ArrayJson() { }
+		ArrayJson(Json e) { super(e); }
+		
+
+        public Json dup() 
+        { 
+            ArrayJson j = new ArrayJson();
+            for (Json e : L)
+            {
+                Json v = e.dup();
+                v.enclosing = j;
+                j.L.add(v);
+            }
+            return j;
+        }
+        
+        public Json set(int index, Object value) 
+        { 
+        	Json el = make(value);
+        	L.set(index, el);
+        	el.enclosing = this;
+        	changed(el);
+        	return this;
+        }
+        
+		public List<Json> asJsonList() { return L; }
+		public List<Object> asList() 
+		{
+			ArrayList<Object> A = new ArrayList<Object>();
+			for (Json x: L)
+				A.add(x.getValue());
+			return A; 
+		}
+        public boolean is(int index, Object value) 
+        { 
+            if (index < 0 || index >= L.size())
+                return false;
+            else
+                return L.get(index).equals(make(value));
+        }       		
+		public Object getValue() { return asList(); }
+		public boolean isArray() { return true; }
+		public Json at(int index) { return L.get(index); }
+		public Json add(Json el) { L.add(el); el.enclosing = this; changed(el); return this; }
+		public Json remove(Json el) { L.remove(el); el.enclosing = null; changed(null); return this; }
+		
+		// An element about to be added other than through add().
+		private Json adopt(Json el)
+		{
+			if (memoized)
+				el.memoize(true);
+			return el;
+		}
+
+        boolean isEqualJson(Json left, Json right)
+        {
+            if (left == null)
+                return right == null;
+            else
+                return left.equals(right);
+        }
+
+        boolean isEqualJson(Json left, Json right, Json fields)
+        {
+            if (fields.isNull())
+                return left.equals(right);
+            else if (fields.isString())
+                return isEqualJson(resolvePointer(fields.asString(), left),
+                                   resolvePointer(fields.asString(), right));
+            else if (fields.isArray())
+            {
+                for (Json field : fields.asJsonList())
+                    if (!isEqualJson(resolvePointer(field.asString(), left),
+                            resolvePointer(field.asString(), right)))
+                        return false;
+                return true;
+            }
+            else
+                throw new MJsonException("Compare by options should be either a property name or an array of property names: " + fields);
+        }
+
+        int compareJson(Json left, Json right, Json fields)
+        {
+            if (fields.isNull())
+                return ((Comparable)left.getValue()).compareTo(right.getValue());
+            else if (fields.isString())
+            {
+                Json leftProperty = resolvePointer(fields.asString(), left);
+                Json rightProperty = resolvePointer(fields.asString(), right);
+                return ((Comparable)leftProperty).compareTo(rightProperty);
+            }
+            else if (fields.isArray())
+            {
+                for (Json field : fields.asJsonList())
+                {
+                    Json leftProperty = resolvePointer(field.asString(), left);
+                    Json rightProperty = resolvePointer(field.asString(), right);
+                    int result = ((Comparable) leftProperty).compareTo(rightProperty);
+                    if (result != 0)
+                        return result;
+                }
+                return 0;
+            }
+            else
+                throw new MJsonException("Compare by options should be either a property name or an array of property names: " + fields);
+        }
+
+        Json withOptions(Json array, Json allOptions, String path)
+        {
+            Json opts = allOptions.at(path, object());
+            boolean dup = opts.is("dup", true);
+            Json compareBy = opts.at("compareBy", nil());
+            if (opts.is("sort", true))
+            {
+                int thisIndex = 0, thatIndex = 0;
+                while (thatIndex < array.asJsonList().size())
+                {
+                    Json thatElement = array.at(thatIndex);
+                    if (thisIndex == L.size())
+                    {
+                        L.add(adopt(dup ? thatElement.dup() : thatElement));
+                        thisIndex++;
+                        thatIndex++;
+                        continue;
+                    }
+                    int compared = compareJson(at(thisIndex), thatElement, compareBy);
+                    if (compared < 0) // this < that
+                        thisIndex++;
+                    else if (compared > 0) // this > that
+                    {
+                        L.add(thisIndex, adopt(dup ? thatElement.dup() : thatElement));
+                        thatIndex++;
+                    } else { // equal, ignore 
+                        thatIndex++;
+                    }
+                }
+            }
+            else
+            {
+                for (Json thatElement : array.asJsonList())
+                {
+                    boolean present = false;
+                    for (Json thisElement : L)
+                        if (isEqualJson(thisElement, thatElement, compareBy))
+                        {
+                            present = true;
+                            break;
+                        }
+                    if (!present)
+                        L.add(adopt(dup ? thatElement.dup() : thatElement));
+                }
+            }
+            changed(null);
+            return this;
+        }
+
+		public Json with(Json object, Json...options)
+		{
+			if (object == null) return this;
+			if (!object.isArray())
+				add(object);
+            else if (options.length > 0)
+            {
+                Json O = collectWithOptions(options);
+                return withOptions(object, O, "");
+            }
+			else
+			{
+				// what about "enclosing" here? we don't have a provision where a Json 
+				// element belongs to more than one enclosing elements...
+				for (Json el : object.asJsonList())
+					L.add(adopt(el));
+				changed(null);
+			}
+			return this;
+		}
+		
+		public Json atDel(int index) 
+		{ 
+			Json el = L.remove(index); 
+			if (el != null) 
+				el.enclosing = null; 
+			changed(null);
+			return el; 
+		}
+		
+		public Json delAt(int index) 
+		{ 
+			Json el = L.remove(index); 
+			if (el != null) 
+				el.enclosing = null; 
+			changed(null);
+			return this; 
+		}
+		
+		public String toString()
+		{
+			return writeTo(new StringBuilder()).toString();
+		}
+		
+		boolean memo(boolean on) { memoized = on; memo = null; return true; }
+		boolean forget() { memo = null; return memoized; }
+		boolean memoizing() { return memoized && memo == null; }
+		void keep(String text) { memo = text; }
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException 
+		{ 
+			// The kept text is only good for plain escaping.
+			if (memo == null || escaper != Escaper.PLAIN)
+				return false;
+			out.append(memo);
+			return true; 
+		}
+		
+		public String toString(int maxCharacters) { return truncated(this, maxCharacters); }
+		
+		public int hashCode() { return L.hashCode(); }
+		public boolean equals(Object x)
+		{			
+			return x instanceof ArrayJson && ((ArrayJson)x).asJsonList().equals(L); 
+		}		
+	}
+	
+	static class ObjectJson extends Json
+	{
+		Map<String, Json> object = new HashMap<String, Json>();
+		boolean memoized = false;
+		String memo = null; // the serialized text, while memoized and unchanged
+		
+		ObjectJson() { }
+		ObjectJson(Json e) { super(e); }
+
+		public Json dup() 
+		{ 
+		    ObjectJson j = new ObjectJson();
+		    for (Map.Entry<String, Json> e : object.entrySet())
+		    {
+		        Json v = e.getValue().dup();
+		        v.enclosing = j;
+		        j.object.put(e.getKey(), v);
+		    }
+		    return j;
+		}
+		
+		public boolean has(String property)
+		{
+			return object.containsKey(property);
+		}
+		
+		public boolean is(String property, Object value) 
+		{ 
+		    Json p = object.get(property);
+		    if (p == null)
+		        return false;
+		    else
+		        return p.equals(make(value));
+		}		
+		
+		public Json at(String property)
+		{
+			return object.get(property);
+		}
+
+        protected Json withOptions(Json other, Json allOptions, String path)
+        {
+            Json options = allOptions.at(path, object());
+            boolean duplicate = options.is("dup", true);
+            if (options.is("merge", true))
+            {
+                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
+                {
+                    Json local = object.get(e.getKey());
+                    if (local instanceof ObjectJson)
+                        ((ObjectJson)local).withOptions(e.getValue(), allOptions, path + "/" + e.getKey());
+                    else if (local instanceof ArrayJson)
+                        ((ArrayJson)local).withOptions(e.getValue(), allOptions, path + "/" + e.getKey());
+                    else
+                        set(e.getKey(), duplicate ? e.getValue().dup() : e.getValue());
+                }
+            }
+            else if (duplicate)
+                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
+                    set(e.getKey(), e.getValue().dup());
+            else
+                for (Map.Entry<String, Json> e : other.asJsonMap().entrySet())
+                    set(e.getKey(), e.getValue());
+            return this;
+        }
+
+		public Json with(Json x, Json...options)
+		{
+			if (x == null) return this;			
+			if (!x.isObject())
+				throw unsupportedOperation();
+            if (options.length > 0)
+            {
+                Json O = collectWithOptions(options);
+                return withOptions(x, O, "");
+            }
+            else for (Map.Entry<String, Json> e : x.asJsonMap().entrySet())
+                set(e.getKey(), e.getValue());
+			return this;
+		}
+		
+		public Json set(String property, Json el)
+		{
+			if (property == null)
+				throw new MJsonException("Property names cannot be null, value was " + el);
+			el.enclosing = this;
+			object.put(property, el);
+			changed(el);
+			return this;
+		}
+
+		public Json atDel(String property) 
+		{
+			Json el = object.remove(property);
+			if (el != null)
+				el.enclosing = null;
+			changed(null);
+			return el;
+		}
+		
+		public Json delAt(String property) 
+		{
+			Json el = object.remove(property);
+			if (el != null)
+				el.enclosing = null;
+			changed(null);
+			return this;
+		}
+		
+		public Object getValue() { return asMap(); }
+		public boolean isObject() { return true; }
+		public Map<String, Object> asMap() 
+		{
+			HashMap<String, Object> m = new HashMap<String, Object>();
+			for (Map.Entry<String, Json> e : object.entrySet())
+				m.put(e.getKey(), e.getValue().getValue());
+			return m; 
+		}
+		@Override
+		public Map<String, Json> asJsonMap() { return object; }
+		
+		public String toString()
+		{
+			return writeTo(new StringBuilder()).toString();
+		}
+		
+		boolean memo(boolean on) { memoized = on; memo = null; return true; }
+		boolean forget() { memo = null; return memoized; }
+		boolean memoizing() { return memoized && memo == null; }
+		void keep(String text) { memo = text; }
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException 
+		{ 
+			// The kept text is only good for plain escaping.
+			if (memo == null || escaper != Escaper.PLAIN)
+				return false;
+			out.append(memo);
+			return true; 
+		}
+		
+		public String toString(int maxCharacters) { return truncated(this, maxCharacters); }
+		public int hashCode() { return object.hashCode(); }
+		public boolean equals(Object x)
+		{			
+			return x instanceof ObjectJson && ((ObjectJson)x).asJsonMap().equals(object); 
+		}				
+	}
+	
+	/**
+	 * An object of a {@link LazyDocument} whose members are parsed on first access. Until 
+	 * then, it's serialized as a verbatim copy of its source text. 
+	 */
+	static class LazyObjectJson extends ObjectJson
+	{
+		private volatile LazyDocument document; // null once materialized
+		private final int node;
+		
+		LazyObjectJson(LazyDocument document, int node)
+		{
+			this.document = document;
+			this.node = node;
+		}
+		
+		private ObjectJson materialize()
+		{
+			LazyDocument d = document;
+			if (d != null)
+				synchronized (this)
+				{
+					if (document != null)
+					{
+						d.members(node, this);
+						document = null;
+					}
+				}
+			return this;
+		}
+		
+		public Json dup() 
+		{ 
+			LazyDocument d = document;
+			return d != null ? new LazyObjectJson(d, node) : super.dup(); 
+		}
+		public boolean has(String property) { materialize(); return super.has(property); }
+		public boolean is(String property, Object value) { materialize(); return super.is(property, value); }
+		public Json at(String property) { materialize(); return super.at(property); }
+		protected Json withOptions(Json other, Json allOptions, String path) 
+		{ 
+			materialize(); 
+			return super.withOptions(other, allOptions, path); 
+		}
+		public Json with(Json x, Json...options) { materialize(); return super.with(x, options); }
+		public Json set(String property, Json el) { materialize(); return super.set(property, el); }
+		public Json atDel(String property) { materialize(); return super.atDel(property); }
+		public Json delAt(String property) { materialize(); return super.delAt(property); }
+		public Map<String, Object> asMap() { materialize(); return super.asMap(); }
+		public Map<String, Json> asJsonMap() { materialize(); return super.asJsonMap(); }
+		public String toString()
+		{
+			LazyDocument d = document;
+			return d != null ? d.text(node) : super.toString();
+		}
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			LazyDocument d = document;
+			if (d == null || escaper != Escaper.PLAIN) // the source text is written as is
+				return super.writeWhole(out, escaper);
+			d.write(node, out);
+			return true;
+		}
+		public int hashCode() { materialize(); return super.hashCode(); }
+		public boolean equals(Object x) { materialize(); return super.equals(x); }
+	}
+	
+	/**
+	 * An array of a {@link LazyDocument} whose elements are parsed on first access. Until 
+	 * then, it's serialized as a verbatim copy of its source text.
+	 */
+	static class LazyArrayJson extends ArrayJson
+	{
+		private volatile LazyDocument document; // null once materialized
+		private final int node;
+		
+		LazyArrayJson(LazyDocument document, int node)
+		{
+			this.document = document;
+			this.node = node;
+		}
+		
+		private ArrayJson materialize()
+		{
+			LazyDocument d = document;
+			if (d != null)
+				synchronized (this)
+				{
+					if (document != null)
+					{
+						d.elements(node, this);
+						document = null;
+					}
+				}
+			return this;
+		}
+		
+		public Json dup() 
+		{ 
+			LazyDocument d = document;
+			return d != null ? new LazyArrayJson(d, node) : super.dup(); 
+		}
+		public Json set(int index, Object value) { materialize(); return super.set(index, value); }
+		public List<Json> asJsonList() { materialize(); return super.asJsonList(); }
+		public List<Object> asList() { materialize(); return super.asList(); }
+		public boolean is(int index, Object value) { materialize(); return super.is(index, value); }
+		public Json at(int index) { materialize(); return super.at(index); }
+		public Json add(Json el) { materialize(); return super.add(el); }
+		public Json remove(Json el) { materialize(); return super.remove(el); }
+		Json withOptions(Json array, Json allOptions, String path) 
+		{ 
+			materialize(); 
+			return super.withOptions(array, allOptions, path); 
+		}
+		public Json with(Json object, Json...options) { materialize(); return super.with(object, options); }
+		public Json atDel(int index) { materialize(); return super.atDel(index); }
+		public Json delAt(int index) { materialize(); return super.delAt(index); }
+		public String toString()
+		{
+			LazyDocument d = document;
+			return d != null ? d.text(node) : super.toString();
+		}
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			LazyDocument d = document;
+			if (d == null || escaper != Escaper.PLAIN) // the source text is written as is
+				return super.writeWhole(out, escaper);
+			d.write(node, out);
+			return true;
+		}
+		public int hashCode() { materialize(); return super.hashCode(); }
+		public boolean equals(Object x) { materialize(); return super.equals(x); }
+	}
+	
+	// ------------------------------------------------------------------------
+	// Extra utilities, taken from around the internet:
+	// ------------------------------------------------------------------------
+	
+	/*
+	 * Copyright (C) 2008 Google Inc.
+	 *
+	 * Licensed under the Apache License, Version 2.0 (the "License");
+	 * you may not use this file except in compliance with the License.
+	 * You may obtain a copy of the License at
+	 *
+	 * http://www.apache.org/licenses/LICENSE-2.0
+	 *
+	 * Unless required by applicable law or agreed to in writing, software
+	 * distributed under the License is distributed on an "AS IS" BASIS,
+	 * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	 * See the License for the specific language governing permissions and
+	 * limitations under the License.
+	 */
+
+	/**
+	 * A utility class that is used to perform JSON escaping so that ", <, >, etc. characters are
+	 * properly encoded in the JSON string representation before returning to the client code.
+	 *
+	 * <p>This class contains a single method to escape a passed in string value:
+	 * <pre>
+	 *   String jsonStringValue = "beforeQuote\"afterQuote";
+	 *   String escapedValue = Escaper.escapeJsonString(jsonStringValue);
+	 * </pre></p>
+	 *
+	 * <p>This version looks characters up in a table rather than in sets of boxed
+	 * <code>Character</code>s, and appends runs of characters that need no escaping in bulk. 
+	 * A string that needs no escaping at all is returned as is.</p>
+	 *
+	 * @author Inderjeet Singh
+	 * @author Joel Leitch
+	 */
+	final static class Escaper {
+
+	  private static final char[] HEX_CHARS = {
+	    '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+	  };
+
+	  static final Escaper PLAIN = new Escaper(false);
+	  static final Escaper HTML_SAFE = new Escaper(true);
+
+	  // What each ASCII character is written as, null when it is written as is.
+	  private final String[] ascii = new String[128];
+
+	  private Escaper(boolean escapeHtmlCharacters) {
+	    // JSON spec defines these code points as control characters, so they must be escaped
+	    for (int c = 0; c < 0x20; c++)
+	      ascii[c] = hex(c);
+	    ascii[0x7f] = hex(0x7f);
+	    ascii['\b'] = "\\b";
+	    ascii['\t'] = "\\t";
+	    ascii['\n'] = "\\n";
+	    ascii['\f'] = "\\f";
+	    ascii['\r'] = "\\r";
+	    ascii['"'] = "\\\"";
+	    ascii['\\'] = "\\\\";
+	    if (escapeHtmlCharacters)
+	      for (char c : "<>&='".toCharArray()) // not '/' for now since it causes some incompatibilities
+	        ascii[c] = hex(c);
+	  }
+
+	  public String escapeJsonString(CharSequence plainText) {
+	    int len = plainText.length();
+	    int i = scan(plainText, 0, len);
+	    if (i == len)
+	      return plainText.toString();
+	    StringBuilder escapedString = new StringBuilder(len + 16);
+	    escapedString.append(plainText, 0, i);
+	    try {
+	      escape(plainText, i, escapedString);
+	    } catch (IOException e) {
+	      throw new MJsonException(e);
+	    }
+	    return escapedString.toString();
+	  }
+
+	  void escapeJsonString(CharSequence plainText, Appendable out) throws IOException {
+	    int len = plainText.length();
+	    int i = scan(plainText, 0, len);
+	    if (i == len) {
+	      out.append(plainText);
+	    } else {
+	      out.append(plainText, 0, i);
+	      escape(plainText, i, out);
+	    }
+	  }
+	  
+	  // Write plainText from i on, where i is the index of a character that must be escaped.
+	  private void escape(CharSequence plainText, int i, Appendable out) throws IOException {
+	    int len = plainText.length();
+	    do {
+	      append(plainText.charAt(i), out);
+	      int pos = i + 1;  // Index just past the last char in plainText written to out.
+	      i = scan(plainText, pos, len);
+	      out.append(plainText, pos, i);
+	    } while (i < len);
+	  }
+
+	  // Return the index of the first character of s[from, to) that must be escaped, or to.
+	  private int scan(CharSequence s, int from, int to) {
+	    String[] ascii = this.ascii;
+	    for (int i = from; i < to; i++) {
+	      char c = s.charAt(i);
+	      if (c < 0x80 ? ascii[c] != null : c <= 0x9f || c == 0x2028 || c == 0x2029)
+	        return i;
+	    }
+	    return to;
+	  }
+
+	  // Append c, escaped when it must be. Surrogates are never escaped.
+	  void append(char c, Appendable out) throws IOException {
+	    if (c < 0x80) {
+	      String escaped = ascii[c];
+	      if (escaped != null)
+	        out.append(escaped);
+	      else
+	        out.append(c);
+	    } else if (c <= 0x9f || c == 0x2028 || c == 0x2029) {
+	      out.append("\\u")
+	          .append(HEX_CHARS[(c >>> 12) & 0xf])
+	          .append(HEX_CHARS[(c >>> 8) & 0xf])
+	          .append(HEX_CHARS[(c >>> 4) & 0xf])
+	          .append(HEX_CHARS[c & 0xf]);
+	    } else {
+	      out.append(c);
+	    }
+	  }
+
+	  /**
+	   * Write Latin-1 text, one character per byte of <code>bytes[from, to)</code>. Runs of 
+	   * printable ASCII that need no escaping are found 8 bytes at a time, SWAR style, and 
+	   * copied to the output as they are. <code>words</code> is a little endian view of 
+	   * <code>bytes</code>. Only for {@link #PLAIN}, the table isn't looked at.
+	   */
+	  static void escapeLatin1(byte[] bytes, java.nio.ByteBuffer words, int from, int to, Utf8Writer out) 
+	      throws IOException {
+	    int pos = from;  // Index just past the last byte written to out.
+	    int i = from;
+	    while (i < to) {
+	      if (i + 8 <= to) {
+	        long w = words.getLong(i);
+	        long plain = StructuralIndex.between(w, 0x20, 0x7e) 
+	            & ~(StructuralIndex.matches(w, '"') | StructuralIndex.matches(w, '\\'));
+	        if (plain == StructuralIndex.ONES) {
+	          i += 8;
+	          continue;
+	        }
+	        i += Long.numberOfTrailingZeros(~plain & StructuralIndex.ONES) >>> 3;
+	      } else {
+	        int b = bytes[i] & 0xff;
+	        if (b >= 0x20 && b < 0x7f && b != '"' && b != '\\') {
+	          i++;
+	          continue;
+	        }
+	      }
+	      out.write(bytes, pos, i - pos);
+	      PLAIN.append((char)(bytes[i] & 0xff), out);
+	      pos = ++i;
+	    }
+	    out.write(bytes, pos, to - pos);
+	  }
+
+	  private static String hex(int c) {
+	    return new String(new char[] {'\\', 'u', '0', '0', HEX_CHARS[c >>> 4], HEX_CHARS[c & 0xf]});
+	  }
+	}	
+	
+	private static class Reader
+	{
+	    private static final Object OBJECT_END = new Object();
+	    private static final Object ARRAY_END = new Object();
+	    private static final Object COLON = new Object();
+	    private static final Object COMMA = new Object();
+	    private static final Object OBJECT_START = new Object();
+	    private static final Object ARRAY_START = new Object();
+	    
+	    // What the innermost open container expects from the next token.
+	    private static final byte ELEMENT = 0, ELEMENT_SEPARATOR = 1, KEY = 2, KEY_SEPARATOR = 3, 
+	    						  MEMBER_VALUE = 4, MEMBER_SEPARATOR = 5;
+	    public static final int FIRST = 0;
+	    public static final int CURRENT = 1;
+	    public static final int NEXT = 2;
+
+
+	    private CharacterIterator it;
+	    private char c;
+	    private Object token;
+	    private StringBuilder buf = new StringBuilder();
+	    private final Factory factory;
+	    private final boolean strict;
+	    private final ReadOptions.Numbers numbers;
+	    private final boolean lazyNumbers;
+	    
+	    // The open containers, along with their state and current key, as an explicit 
+	    // stack rather than through recursion, so nesting is only limited by memory.
+	    private Json [] containers = new Json[16];
+	    private byte [] states = new byte[16];
+	    private String [] keys = new String[16];
+	    private int depth = 0;
+
+	    Reader(ReadOptions options)
+	    {
+	    	factory = options.factory();
+	    	strict = options.strict;
+	    	numbers = options.numbers;
+	    	lazyNumbers = numbers == ReadOptions.Numbers.LAZY && factory.getClass() == DefaultFactory.class;
+	    }
+	    
+	    private char next() 
+	    {
+	        if (it.getIndex() == it.getEndIndex())
+	            throw new MJsonException("Reached end of input at the " + 
+	                                       it.getIndex() + "th character.");
+	        c = it.next();
+	        return c;
+	    }
+
+	    private char previous()
+	    {
+	    	c = it.previous();
+	    	return c;
+	    }
+	    
+	    private void skipWhiteSpace() 
+	    {
+	    	if (strict)
+	    	{
+	    		while ((c == ' ' || c == '\n' || c == '\r' || c == '\t') && next() != CharacterIterator.DONE)
+	    			;
+	    		return;
+	    	}
+	        do
+	        {
+	        	if (Character.isWhitespace(c))
+	        		;
+	        	else if (c == '/')
+	        	{
+	        		next();
+	        		if (c == '*')
+	        		{
+	        			// skip multiline comments
+	        			while (c != CharacterIterator.DONE)
+	        				if (next() == '*' && next() == '/')
+	        						break;
+	        			if (c == CharacterIterator.DONE)
+	        				throw new MJsonException("Unterminated comment while parsing JSON string.");
+	        		}
+	        		else if (c == '/')
+	        			while (c != '\n' && c != CharacterIterator.DONE)
+	        				next();
+	        		else
+	        		{
+	        			previous();
+	        			break;
+	        		}
+	        	}
+	        	else
+	        		break;
+	        } while (next() != CharacterIterator.DONE);
+	    }
+
+	    public Object read(CharacterIterator ci, int start) 
+	    {
+	        it = ci;
+	        switch (start) 
+	        {
+	        	case FIRST:
+	        		c = it.first();
+	        		break;
+	        	case CURRENT:
+	        		c = it.current();
+	        		break;
+	        	case NEXT:
+	        		c = it.next();
+	        		break;
+	        }
+	        return read();
+	    }
+
+	    public Object read(CharacterIterator it) 
+	    {
+	        return read(it, NEXT);
+	    }
+
+	    public Object read(String string) 
+	    {
+	        return read(new StringCharacterIterator(string), FIRST);
+	    }
+
+	    // Read a complete value, or a punctuation token. Containers are read in a loop that
+	    // walks the same states the original recursive readArray and readObject did, 
+	    // including their leniency.
+	    @SuppressWarnings("unchecked")
+		private <T> T read() 
+	    {
+	    	int base = depth;
+	    	Object value = readToken();
+	    	for (;;)
+	    	{
+	    		if (value == ARRAY_START || value == OBJECT_START)
+	    		{
+	    			if (depth == containers.length)
+	    			{
+	    				containers = java.util.Arrays.copyOf(containers, depth * 2);
+	    				states = java.util.Arrays.copyOf(states, depth * 2);
+	    				keys = java.util.Arrays.copyOf(keys, depth * 2);
+	    			}
+	    			containers[depth] = value == ARRAY_START ? factory.array() : factory.object();
+	    			states[depth++] = value == ARRAY_START ? ELEMENT : KEY;
+	    			value = readToken();
+	    			continue;
+	    		}
+	    		token = value;
+	    		if (depth == base)
+	    			return (T)value;
+	    		int top = depth - 1;
+	    		switch (states[top])
+	    		{
+	    			case ELEMENT:
+	    				if (value == ARRAY_END)
+	    				{
+	    					if (strict && !containers[top].asJsonList().isEmpty())
+	    						throw new MJsonException("Trailing comma in array " + containers[top]);
+	    					value = pop();
+	    					continue;
+	    				}
+	    				containers[top].add((Json)value);
+	    				states[top] = ELEMENT_SEPARATOR;
+	    				break;
+	    			case ELEMENT_SEPARATOR:
+	    				if (value == COMMA)
+	    					states[top] = ELEMENT;
+	    				else if (value != ARRAY_END)
+	    	                throw new MJsonException("Unexpected token in array " + token);
+	    				else 
+	    				{
+	    					value = pop();
+	    					continue;
+	    				}
+	    				break;
+	    			case KEY:
+	    				if (value == OBJECT_END)
+	    				{
+	    					if (strict && !containers[top].asJsonMap().isEmpty())
+	    						throw new MJsonException("Trailing comma in object " + containers[top]);
+	    					value = pop();
+	    					continue;
+	    				}
+	    				keys[top] = ((Json)value).asString();
+	    				states[top] = KEY_SEPARATOR;
+	    				break;
+	    			case KEY_SEPARATOR: // should be a colon
+	    				if (value == OBJECT_END)
+	    				{
+	    					value = pop();
+	    					continue;
+	    				}
+	    				states[top] = MEMBER_VALUE;
+	    				break;
+	    			case MEMBER_VALUE:
+	    				containers[top].set(keys[top], (Json)value);
+	    				states[top] = MEMBER_SEPARATOR;
+	    				break;
+	    			case MEMBER_SEPARATOR:
+	    				if (value == COMMA)
+	    					states[top] = KEY;
+	    				else if (value != OBJECT_END)
+	    					states[top] = KEY_SEPARATOR; // the next token stands for the colon
+	    				else
+	    				{
+	    					value = pop();
+	    					continue;
+	    				}
+	    				break;
+	    		}
+	    		value = readToken();
+	    	}
+	    }
+	    
+	    private Json pop()
+	    {
+	    	Json container = containers[--depth];
+	    	containers[depth] = null;
+	    	keys[depth] = null;
+	    	return container;
+	    }
+	    
+	    // Read the next token, returning a marker for the start of a container.
+		private Object readToken() 
+	    {
+	        skipWhiteSpace();
+	        char ch = c;
+	        next();
+	        switch (ch) 
+	        {
+	            case '"': token = readString(); break;
+	            case '[': token = ARRAY_START; break;
+	            case ']': token = ARRAY_END; break;
+	            case ',': token = COMMA; break;
+	            case '{': token = OBJECT_START; break;
+	            case '}': token = OBJECT_END; break;
+	            case ':': token = COLON; break;
+	            case 't':
+	                if (c != 'r' || next() != 'u' || next() != 'e')
+	                	throw new MJsonException("Invalid JSON token: expected 'true' keyword.");
+	                next();
+	                token = factory.bool(Boolean.TRUE);
+	                break;
+	            case'f':
+	                if (c != 'a' || next() != 'l' || next() != 's' || next() != 'e')
+	                	throw new MJsonException("Invalid JSON token: expected 'false' keyword.");
+	                next();
+	                token = factory.bool(Boolean.FALSE);
+	                break;
+	            case 'n':
+	                if (c != 'u' || next() != 'l' || next() != 'l')
+	                	throw new MJsonException("Invalid JSON token: expected 'null' keyword.");
+	                next();
+	                token = factory.nil();
+	                break;
+	            default:
+	                c = it.previous();
+	                if (Character.isDigit(c) || c == '-') {
+	                    token = readNumber();
+	                }
+	                else throw new MJsonException("Invalid JSON near position: " + it.getIndex());
+	        }
+	        return token;
+	    }
+
+	    private Json readNumber() 
+	    {
+	        int length = 0;
+	        boolean isFloatingPoint = false;
+	        buf.setLength(0);
+	        
+	        if (c == '-') 
+	        {
+	            add();
+	        }
+	        length += addDigits();
+	        if (c == '.') 
+	        {
+	            add();
+	            int fraction = addDigits();
+	            if (fraction == 0)
+	            	throw new MJsonException("Invalid number, expected a digit after '.' near position: " + it.getIndex());
+	            length += fraction;
+	            isFloatingPoint = true;
+	        }
+	        if (c == 'e' || c == 'E') 
+	        {
+	            add();
+	            if (c == '+' || c == '-') 
+	            {
+	                add();
+	            }
+	            if (addDigits() == 0)
+	            	throw new MJsonException("Invalid number, expected a digit in the exponent near position: " + it.getIndex());
+	            isFloatingPoint = true;
+	        }
+	 
+	        String s = buf.toString();
+	        if (isFloatingPoint && lazyNumbers)
+	        	return new NumberJson(s, null);
+	        Number n = numbers == ReadOptions.Numbers.DOUBLE ? Double.valueOf(s)
+	        	: isFloatingPoint 
+	            ? (length < 17 && numbers != ReadOptions.Numbers.EXACT) ? Double.valueOf(s) : new BigDecimal(s)
+	            : (length < 20) ? Long.valueOf(s) : new BigInteger(s);
+	        return factory.number(n);
+	    }
+	 
+	    private int addDigits() 
+	    {
+	        int ret;
+	        for (ret = 0; Character.isDigit(c); ++ret) 
+	        {
+	            add();
+	        }
+	        return ret;
+	    }
+
+	    private Json readString() 
+	    {
+	        buf.setLength(0);
+	        while (c != '"') 
+	        {
+	            if (c == '\\') 
+	            {
+	                next();
+	                if (c == 'u') 
+	                {
+	                    add(unicode());
+	                } 
+	                else if (c < Scanner.ESCAPES.length)
+	                {
+	                    add(Scanner.ESCAPES[c]);
+	                }
+	            } 
+	            else 
+	            {
+	                add();
+	            }
+	        }
+	        next();
+	        return factory.string(buf.toString());
+	    }
+
+	    private void add(char cc) 
+	    {
+	        buf.append(cc);
+	        next();
+	    }
+
+	    private void add() 
+	    {
+	        add(c);
+	    }
+
+	    private char unicode() 
 	    {
 	        int value = 0;
 	        for (int i = 0; i < 4; ++i) 
@@ -2710,7 +4530,4741 @@ public class Json
 	        return (char) value;
 	    }
 	}
-	// END Reader
+	// END Reader
+	
+	/**
+	 * Token level scanner shared by the parsers that work on raw buffers rather than
+	 * through a {@link CharacterIterator}. Subclasses deal with the input representation
+	 * and produce one token per {@link #nextToken()} call. The text of the last string or 
+	 * number token is kept in a reusable <code>char</code> buffer. The grammar on top of the tokens 
+	 * is the same one {@link Reader} implements: comments are allowed as white space, and
+	 * so is a trailing comma in arrays and objects.
+	 */
+	static abstract class Scanner
+	{
+		static final int EOF = 0;
+		static final int BEGIN_OBJECT = 1;
+		static final int END_OBJECT = 2;
+		static final int BEGIN_ARRAY = 3;
+		static final int END_ARRAY = 4;
+		static final int COLON = 5;
+		static final int COMMA = 6;
+		static final int STRING = 7;
+		static final int NUMBER = 8;
+		static final int TRUE = 9;
+		static final int FALSE = 10;
+		static final int NULL = 11;
+		
+		char [] text = new char[64];
+		int textLength;
+		boolean floatingPoint; // valid after a NUMBER token
+		int digits;            // number of integer and fraction digits of a NUMBER token
+		boolean comments = true;  // whether comments count as white space
+		boolean cacheKeys = true; // whether keyValue() goes through the KeyCache
+		
+		/**
+		 * Scan the next token and return its type, one of the constants above.
+		 */
+		abstract int nextToken();
+		
+		/**
+		 * The offset in the input right after the last token scanned.
+		 */
+		abstract long position();
+		
+		/**
+		 * Skip the rest of an object or array whose opening bracket was the last token scanned,
+		 * up to and including the matching closing bracket. Only brackets are checked. 
+		 */
+		void skipContainer()
+		{
+			for (int level = 1; level > 0; )
+				switch (nextToken())
+				{
+					case BEGIN_OBJECT: case BEGIN_ARRAY: level++; break;
+					case END_OBJECT: case END_ARRAY: level--; break;
+					case EOF: throw error("Reached end of input");
+				}
+		}
+		
+		MJsonException error(String message)
+		{
+			return new MJsonException(message + " (at position " + position() + ")");
+		}
+		
+		// The largest text buffer kept by a scanner that is reused, see ReusableParser.
+		static final int MAX_RETAINED_TEXT = 1 << 16;
+		
+		/**
+		 * Drop the references to the input and any scratch buffer that grew past what is worth 
+		 * keeping, so the scanner can be retained for reuse.
+		 */
+		void release()
+		{
+			if (text.length > MAX_RETAINED_TEXT)
+				text = new char[64];
+			textLength = 0;
+		}
+		
+		final void append(char c)
+		{
+			if (textLength == text.length)
+				text = java.util.Arrays.copyOf(text, textLength * 2);
+			text[textLength++] = c;
+		}
+		
+		final String stringValue() { return new String(text, 0, textLength); }
+		
+		final KeyCache keys = new KeyCache();
+		
+		/**
+		 * The text of the last STRING token as an object key, canonicalized through 
+		 * the scanner's {@link KeyCache} unless key caching is off.
+		 */
+		final String keyValue() { return cacheKeys ? keys.get(text, 0, textLength) : stringValue(); }
+		
+		final Number numberValue()
+		{
+			if (!floatingPoint && digits < 19)
+				return longValue();
+			else if (floatingPoint && digits < 17)
+				return DoubleConversion.parse(textView);
+			else
+				return bigNumber(stringValue(), floatingPoint);
+		}
+		
+		/**
+		 * Convert a number literal to the same <code>Number</code> type {@link #numberValue()}
+		 * would have produced while scanning it.
+		 */
+		static Number numberValue(String literal)
+		{
+			boolean floatingPoint = false;
+			int digits = 0;
+			for (int i = 0; i < literal.length(); i++)
+			{
+				char c = literal.charAt(i);
+				if (c >= '0' && c <= '9')
+					digits++;
+				else if (c == '.')
+					floatingPoint = true;
+				else if (c == 'e' || c == 'E')
+				{
+					floatingPoint = true;
+					break;
+				}
+			}
+			if (!floatingPoint && digits < 19)
+				return Long.parseLong(literal);
+			else if (floatingPoint && digits < 17)
+				return DoubleConversion.parse(literal);
+			else
+				return bigNumber(literal, floatingPoint);
+		}
+		
+		/**
+		 * Convert the literal of a number that doesn't fit in a <code>long</code> or 
+		 * <code>double</code>, keeping 19 digit integers that are in range as <code>Long</code>s. 
+		 */
+		static Number bigNumber(String literal, boolean floatingPoint)
+		{
+			if (floatingPoint)
+				return new BigDecimal(literal);
+			BigInteger n = new BigInteger(literal);
+			return n.bitLength() < 64 ? (Number)n.longValue() : n;
+		}
+		
+		/**
+		 * Value of an integral NUMBER token with less than 19 digits, computed
+		 * without going through a <code>String</code>.
+		 */
+		final long longValue()
+		{
+			long value = 0;
+			int i = text[0] == '-' ? 1 : 0;
+			for (; i < textLength; i++)
+				value = value * 10 + (text[i] - '0');
+			return text[0] == '-' ? -value : value;
+		}
+		
+		final double doubleValue()
+		{
+			return !floatingPoint && digits < 19 ? longValue() : DoubleConversion.parse(textView);
+		}
+		
+		/**
+		 * A view of the text of the last token, valid until the next one is scanned.
+		 */
+		final CharSequence textView = new CharSequence()
+		{
+			public int length() { return textLength; }
+			public char charAt(int index) 
+			{ 
+				if (index >= textLength) 
+					throw new IndexOutOfBoundsException(Integer.toString(index)); 
+				return text[index]; 
+			}
+			public CharSequence subSequence(int start, int end) { return new String(text, start, end - start); }
+			public String toString() { return stringValue(); }
+		};
+		
+		static String describe(int token)
+		{
+			switch (token)
+			{
+				case EOF: return "end of input";
+				case BEGIN_OBJECT: return "'{'";
+				case END_OBJECT: return "'}'";
+				case BEGIN_ARRAY: return "'['";
+				case END_ARRAY: return "']'";
+				case COLON: return "':'";
+				case COMMA: return "','";
+				case STRING: return "string";
+				case NUMBER: return "number";
+				default: return "literal";
+			}
+		}
+		
+		final void append(char [] chars, int offset, int length)
+		{
+			if (textLength + length > text.length)
+				text = java.util.Arrays.copyOf(text, Math.max(textLength + length, textLength * 2));
+			System.arraycopy(chars, offset, text, textLength, length);
+			textLength += length;
+		}
+		
+		static int hexValue(int c)
+		{
+			return c >= 0 && c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+		}
+		
+		static final byte [] HEX_VALUES = new byte[128];
+		static
+		{
+			java.util.Arrays.fill(HEX_VALUES, (byte)-1);
+			for (int i = 0; i < 10; i++)
+				HEX_VALUES['0' + i] = (byte)i;
+			for (int i = 0; i < 6; i++)
+				HEX_VALUES['a' + i] = HEX_VALUES['A' + i] = (byte)(10 + i);
+		}
+		
+		// The character an escape sequence stands for, indexed by the char following
+		// the backslash. An unknown escape stands for the char itself: Reader doesn't move
+		// past it and takes it again as a plain char, so "\q" reads as "q".
+		static final char [] ESCAPES = new char[128];
+		static
+		{
+			for (char c = 0; c < ESCAPES.length; c++)
+				ESCAPES[c] = c;
+			ESCAPES['b'] = '\b';
+			ESCAPES['f'] = '\f';
+			ESCAPES['n'] = '\n';
+			ESCAPES['r'] = '\r';
+			ESCAPES['t'] = '\t';
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A bounded cache of object keys, so that the same property name repeated throughout a 
+	 * document (or a stream of documents) yields one canonical <code>String</code>. Lookups
+	 * hash and compare the raw characters of the key, so a hit allocates nothing.
+	 * </p>
+	 * 
+	 * <p>
+	 * The table is open addressed with a short linear probe. It starts small and doubles 
+	 * while it is half full, up to <code>MAX_SIZE</code> slots. Past that, a new key 
+	 * replaces whatever is in its home slot, which keeps memory bounded for documents with
+	 * unbounded sets of keys (e.g. maps keyed by ids). Long keys are never cached.
+	 * </p>
+	 */
+	static final class KeyCache
+	{
+		static final int INITIAL_SIZE = 16;
+		static final int MAX_SIZE = 1024;
+		static final int MAX_KEY_LENGTH = 64;
+		static final int MAX_PROBES = 4;
+		
+		String [] keys = new String[INITIAL_SIZE];
+		int [] hashes = new int[INITIAL_SIZE];
+		int count = 0;
+		
+		String get(char [] chars, int offset, int length)
+		{
+			if (length > MAX_KEY_LENGTH)
+				return new String(chars, offset, length);
+			int hash = 0; // same as String.hashCode
+			for (int i = offset; i < offset + length; i++)
+				hash = 31 * hash + chars[i];
+			int mask = keys.length - 1;
+			int home = (hash ^ (hash >>> 16)) & mask;
+			for (int probe = 0; probe < MAX_PROBES; probe++)
+			{
+				int slot = (home + probe) & mask;
+				String key = keys[slot];
+				if (key == null)
+					return insert(slot, hash, new String(chars, offset, length));
+				else if (hashes[slot] == hash && matches(key, chars, offset, length))
+					return key;
+			}
+			if (keys.length < MAX_SIZE)
+			{
+				grow();
+				return get(chars, offset, length);
+			}
+			String key = new String(chars, offset, length);
+			keys[home] = key;
+			hashes[home] = hash;
+			return key;
+		}
+		
+		private static boolean matches(String key, char [] chars, int offset, int length)
+		{
+			if (key.length() != length)
+				return false;
+			for (int i = 0; i < length; i++)
+				if (key.charAt(i) != chars[offset + i])
+					return false;
+			return true;
+		}
+		
+		private String insert(int slot, int hash, String key)
+		{
+			keys[slot] = key;
+			hashes[slot] = hash;
+			if (++count > keys.length / 2 && keys.length < MAX_SIZE)
+				grow();
+			return key;
+		}
+		
+		private void grow()
+		{
+			String [] oldKeys = keys;
+			int [] oldHashes = hashes;
+			keys = new String[oldKeys.length * 2];
+			hashes = new int[oldKeys.length * 2];
+			count = 0;
+			int mask = keys.length - 1;
+			for (int i = 0; i < oldKeys.length; i++)
+			{
+				if (oldKeys[i] == null)
+					continue;
+				int hash = oldHashes[i];
+				int home = (hash ^ (hash >>> 16)) & mask;
+				for (int probe = 0; probe < MAX_PROBES; probe++)
+				{
+					int slot = (home + probe) & mask;
+					if (keys[slot] == null)
+					{
+						keys[slot] = oldKeys[i];
+						hashes[slot] = hash;
+						count++;
+						break;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Conversions between <code>double</code>s and their decimal text that avoid the
+	 * allocation heavy <code>Double.parseDouble</code> and <code>Double.toString</code> in
+	 * the common cases.
+	 * </p>
+	 * 
+	 * <p>
+	 * Parsing accumulates up to 19 significant digits in a <code>long</code>, then uses
+	 * the exact fast path of Clinger when both the digits and the power of 10 are exactly
+	 * representable, and the algorithm of Eisel and Lemire otherwise. Whenever the result
+	 * can't be proven correctly rounded, it falls back to <code>Double.parseDouble</code>.
+	 * </p>
+	 * 
+	 * <p>
+	 * Formatting uses Giulietti's Schubfach algorithm to find the shortest decimal that 
+	 * rounds back to the same <code>double</code>, and lays it out the same way as 
+	 * <code>Double.toString</code>: plain notation for magnitudes in [10<sup>-3</sup>, 
+	 * 10<sup>7</sup>), computerized scientific notation otherwise.
+	 * </p>
+	 */
+	static final class DoubleConversion
+	{
+		private static final double [] EXACT_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+		};
+		
+		/**
+		 * Parse a JSON number literal, as accepted by the scanners. Other input isn't fully
+		 * validated, but a malformed exponent goes to <code>Double.parseDouble</code>, which 
+		 * rejects it, rather than being read past its end.
+		 */
+		static double parse(CharSequence s)
+		{
+			int length = s.length(), i = 0;
+			boolean negative = s.charAt(0) == '-';
+			if (negative)
+				i++;
+			long mantissa = 0;
+			int significant = 0, exponent = 0;
+			for (char c; i < length && (c = s.charAt(i)) >= '0' && c <= '9'; i++)
+				if (significant < 19)
+				{
+					mantissa = mantissa * 10 + (c - '0');
+					if (mantissa != 0)
+						significant++;
+				}
+				else
+					return Double.parseDouble(s.toString());
+			if (i < length && s.charAt(i) == '.')
+				for (char c; ++i < length && (c = s.charAt(i)) >= '0' && c <= '9'; )
+					if (significant < 19)
+					{
+						mantissa = mantissa * 10 + (c - '0');
+						if (mantissa != 0)
+							significant++;
+						exponent--;
+					}
+					else
+						return Double.parseDouble(s.toString());
+			if (i < length)
+			{
+				// The scanners only accept an 'e' or 'E', an optional sign and at least one 
+				// digit here. Anything else is left to Double.parseDouble to reject.
+				char c = s.charAt(i);
+				if (c != 'e' && c != 'E')
+					return Double.parseDouble(s.toString());
+				boolean negativeExponent = false;
+				if (++i < length && ((c = s.charAt(i)) == '-' || c == '+'))
+				{
+					negativeExponent = c == '-';
+					i++;
+				}
+				if (i == length)
+					return Double.parseDouble(s.toString());
+				int e = 0;
+				for (; i < length; i++)
+				{
+					c = s.charAt(i);
+					if (c < '0' || c > '9')
+						return Double.parseDouble(s.toString());
+					if (e < 100000)
+						e = e * 10 + (c - '0');
+				}
+				exponent += negativeExponent ? -e : e;
+			}
+			double value = toDouble(mantissa, exponent);
+			if (Double.isNaN(value))
+				return Double.parseDouble(s.toString());
+			return negative ? -value : value;
+		}
+		
+		/**
+		 * The <code>double</code> closest to <code>mantissa * 10^exponent</code>, or NaN
+		 * when the fast algorithms can't decide it.
+		 */
+		static double toDouble(long mantissa, int exponent)
+		{
+			if (mantissa == 0 || exponent < MIN_EXPONENT)
+				return 0.0;
+			else if (exponent > MAX_EXPONENT)
+				return Double.POSITIVE_INFINITY;
+			else if (mantissa >>> 53 == 0 && exponent >= -22 && exponent <= 22)
+				return exponent < 0 
+					? mantissa / EXACT_POWERS_OF_TEN[-exponent] 
+					: mantissa * EXACT_POWERS_OF_TEN[exponent];
+			int index = exponent - MIN_EXPONENT;
+			int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+			long w = mantissa << leadingZeros;
+			long exponent2 = (217706L * exponent >> 16) + 64 + 1023 - leadingZeros;
+			long [] powers = POWERS_OF_FIVE;
+			long high = unsignedMultiplyHigh(w, powers[2 * index]);
+			long low = w * powers[2 * index];
+			if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + w, w) < 0)
+			{
+				// The truncated product may be off by one in the last place: widen it
+				long high2 = unsignedMultiplyHigh(w, powers[2 * index + 1]);
+				long low2 = w * powers[2 * index + 1];
+				long mergedLow = low + high2;
+				if (Long.compareUnsigned(mergedLow, low) < 0)
+					high++;
+				if ((high & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && Long.compareUnsigned(low2 + w, w) < 0)
+					return Double.NaN;
+				low = mergedLow;
+			}
+			int upperBit = (int)(high >>> 63);
+			long m = high >>> (upperBit + 9);
+			exponent2 -= 1 ^ upperBit;
+			if (low == 0 && (high & 0x1FF) == 0 && (m & 3) == 1)
+				return Double.NaN; // exactly half way, let the slow path round to even
+			m += m & 1;
+			m >>>= 1;
+			if (m >>> 53 != 0)
+			{
+				m >>>= 1;
+				exponent2++;
+			}
+			if (exponent2 <= 0 || exponent2 >= 0x7FF)
+				return Double.NaN; // subnormal or overflow
+			return Double.longBitsToDouble(exponent2 << 52 | m & ((1L << 52) - 1));
+		}
+		
+		static final int MIN_EXPONENT = -342;
+		static final int MAX_EXPONENT = 308;
+		
+		private static final int K_MIN = -324;
+		private static final int K_MAX = 292;
+		
+		static long multiplyHigh(long x, long y)
+		{
+			long x1 = x >> 32, x2 = x & 0xFFFFFFFFL;
+			long y1 = y >> 32, y2 = y & 0xFFFFFFFFL;
+			long z2 = x2 * y2;
+			long t = x1 * y2 + (z2 >>> 32);
+			long z1 = t & 0xFFFFFFFFL;
+			long z0 = t >> 32;
+			z1 += x2 * y1;
+			return x1 * y1 + z0 + (z1 >> 32);
+		}
+		
+		static long unsignedMultiplyHigh(long x, long y)
+		{
+			return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+		}
+		
+		// floor(q log10(2)), floor(q log10(3/4 2)) and floor(e log2(10)) for the ranges used 
+		private static int flog10pow2(int q) { return (int)(q * 661971961083L >> 41); }
+		private static int flog10threeQuartersPow2(int q) { return (int)(q * 661971961083L - 274743187321L >> 41); }
+		private static int flog2pow10(int e) { return (int)(e * 913124641741L >> 38); }
+		
+		private static final int Q_MIN = -1074;
+		private static final long C_MIN = 1L << 52;
+		private static final long C_TINY = 3;
+		
+		/**
+		 * Format a <code>double</code> the way <code>Double.toString</code> is specified to, 
+		 * with the shortest digits that uniquely identify it.
+		 */
+		static String toString(double v)
+		{
+			char [] out = new char[32];
+			return new String(out, 0, toChars(v, out, 0));
+		}
+		
+		/**
+		 * Write the text of {@link #toString(double)} to <code>out</code>, which must have 
+		 * room for 25 characters after <code>offset</code>, and return the new offset.
+		 */
+		static int toChars(double v, char [] out, int offset)
+		{
+			long bits = Double.doubleToRawLongBits(v);
+			long t = bits & (C_MIN - 1);
+			int bq = (int)(bits >>> 52) & 0x7FF;
+			if (bq == 0x7FF)
+				return copy(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", out, offset);
+			if (bits < 0)
+				out[offset++] = '-';
+			if (bq != 0)
+			{
+				int mq = -Q_MIN + 1 - bq;
+				long c = C_MIN | t;
+				if (0 < mq && mq < 53)
+				{
+					// An integer
+					long f = c >> mq;
+					if (f << mq == c)
+						return format(f, 0, out, offset);
+				}
+				return toDecimal(-mq, c, 0, out, offset);
+			}
+			else if (t != 0)
+				return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, out, offset) : toDecimal(Q_MIN, t, 0, out, offset);
+			else
+				return copy("0.0", out, offset);
+		}
+		
+		private static int toDecimal(int q, long c, int dk, char [] out, int offset)
+		{
+			int parity = (int)c & 1;
+			long cb = c << 2;
+			long cbr = cb + 2;
+			long cbl;
+			int k;
+			if (c != C_MIN | q == Q_MIN)
+			{
+				cbl = cb - 2;
+				k = flog10pow2(q);
+			}
+			else
+			{
+				cbl = cb - 1;
+				k = flog10threeQuartersPow2(q);
+			}
+			int h = q + flog2pow10(-k) + 2;
+			long g1 = G[2 * (k - K_MIN)], g0 = G[2 * (k - K_MIN) + 1];
+			long vb = roundToOdd(g1, g0, cb << h);
+			long vbl = roundToOdd(g1, g0, cbl << h);
+			long vbr = roundToOdd(g1, g0, cbr << h);
+			long s = vb >> 2;
+			if (s >= 100)
+			{
+				// Try one digit less first
+				long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+				long tp10 = sp10 + 10;
+				boolean upin = vbl + parity <= sp10 << 2;
+				boolean wpin = (tp10 << 2) + parity <= vbr;
+				if (upin != wpin)
+					return format(upin ? sp10 : tp10, k, out, offset);
+			}
+			long t = s + 1;
+			boolean uin = vbl + parity <= s << 2;
+			boolean win = (t << 2) + parity <= vbr;
+			if (uin != win)
+				return format(uin ? s : t, k + dk, out, offset);
+			long cmp = vb - (s + t << 1);
+			return format(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, out, offset);
+		}
+		
+		private static long roundToOdd(long g1, long g0, long cp)
+		{
+			long x1 = multiplyHigh(g0, cp);
+			long y0 = g1 * cp;
+			long y1 = multiplyHigh(g1, cp);
+			long z = (y0 >>> 1) + x1;
+			long vbp = y1 + (z >>> 63);
+			return vbp | (z & Long.MAX_VALUE) + Long.MAX_VALUE >>> 63;
+		}
+		
+		private static final long [] POWERS_OF_TEN = new long[19];
+		static
+		{
+			POWERS_OF_TEN[0] = 1;
+			for (int i = 1; i < POWERS_OF_TEN.length; i++)
+				POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+		
+		// Lay out f * 10^e, where 0 < f < 10^17
+		private static int format(long f, int e, char [] out, int offset)
+		{
+			while (f % 10 == 0)
+			{
+				f /= 10;
+				e++;
+			}
+			int n = 1;
+			while (n < POWERS_OF_TEN.length && f >= POWERS_OF_TEN[n])
+				n++;
+			int scientific = n - 1 + e; // exponent of the first digit
+			if (scientific >= 0 && scientific < 7)
+			{
+				int fraction = n - 1 - scientific;
+				if (fraction <= 0)
+				{
+					offset = digits(f, n, out, offset);
+					for (int i = fraction; i < 0; i++)
+						out[offset++] = '0';
+					out[offset++] = '.';
+					out[offset++] = '0';
+				}
+				else
+				{
+					offset = digits(f / POWERS_OF_TEN[fraction], scientific + 1, out, offset);
+					out[offset++] = '.';
+					offset = digits(f % POWERS_OF_TEN[fraction], fraction, out, offset);
+				}
+			}
+			else if (scientific < 0 && scientific >= -3)
+			{
+				out[offset++] = '0';
+				out[offset++] = '.';
+				for (int i = -1; i > scientific; i--)
+					out[offset++] = '0';
+				offset = digits(f, n, out, offset);
+			}
+			else
+			{
+				offset = digits(f / POWERS_OF_TEN[n - 1], 1, out, offset);
+				out[offset++] = '.';
+				if (n == 1)
+					out[offset++] = '0';
+				else
+					offset = digits(f % POWERS_OF_TEN[n - 1], n - 1, out, offset);
+				out[offset++] = 'E';
+				if (scientific < 0)
+				{
+					out[offset++] = '-';
+					scientific = -scientific;
+				}
+				offset = digits(scientific, scientific >= 100 ? 3 : scientific >= 10 ? 2 : 1, out, offset);
+			}
+			return offset;
+		}
+		
+		// Write exactly count digits of x, padding with leading zeros
+		private static int digits(long x, int count, char [] out, int offset)
+		{
+			for (int i = offset + count - 1; i >= offset; i--)
+			{
+				out[i] = (char)('0' + x % 10);
+				x /= 10;
+			}
+			return offset + count;
+		}
+		
+		private static int copy(String s, char [] out, int offset)
+		{
+			s.getChars(0, s.length(), out, offset);
+			return offset + s.length();
+		}
+		
+		// The 128 most significant bits of 5^q for q in [MIN_EXPONENT, MAX_EXPONENT], high
+		// word first. Positive powers are truncated. Negative ones are rounded up for 
+		// q >= -27 and truncated from a 2z + 128 bit quotient below that, as in the
+		// reference implementation of Eisel-Lemire.
+		private static final long [] POWERS_OF_FIVE = {
+			0xEEF453D6923BD65AL, 0x113FAA2906A13B3FL, 0x9558B4661B6565F8L, 0x4AC7CA59A424C507L,
+			0xBAAEE17FA23EBF76L, 0x5D79BCF00D2DF649L, 0xE95A99DF8ACE6F53L, 0xF4D82C2C107973DCL,
+			0x91D8A02BB6C10594L, 0x79071B9B8A4BE869L, 0xB64EC836A47146F9L, 0x9748E2826CDEE284L,
+			0xE3E27A444D8D98B7L, 0xFD1B1B2308169B25L, 0x8E6D8C6AB0787F72L, 0xFE30F0F5E50E20F7L,
+			0xB208EF855C969F4FL, 0xBDBD2D335E51A935L, 0xDE8B2B66B3BC4723L, 0xAD2C788035E61382L,
+			0x8B16FB203055AC76L, 0x4C3BCB5021AFCC31L, 0xADDCB9E83C6B1793L, 0xDF4ABE242A1BBF3DL,
+			0xD953E8624B85DD78L, 0xD71D6DAD34A2AF0DL, 0x87D4713D6F33AA6BL, 0x8672648C40E5AD68L,
+			0xA9C98D8CCB009506L, 0x680EFDAF511F18C2L, 0xD43BF0EFFDC0BA48L, 0x0212BD1B2566DEF2L,
+			0x84A57695FE98746DL, 0x014BB630F7604B57L, 0xA5CED43B7E3E9188L, 0x419EA3BD35385E2DL,
+			0xCF42894A5DCE35EAL, 0x52064CAC828675B9L, 0x818995CE7AA0E1B2L, 0x7343EFEBD1940993L,
+			0xA1EBFB4219491A1FL, 0x1014EBE6C5F90BF8L, 0xCA66FA129F9B60A6L, 0xD41A26E077774EF6L,
+			0xFD00B897478238D0L, 0x8920B098955522B4L, 0x9E20735E8CB16382L, 0x55B46E5F5D5535B0L,
+			0xC5A890362FDDBC62L, 0xEB2189F734AA831DL, 0xF712B443BBD52B7BL, 0xA5E9EC7501D523E4L,
+			0x9A6BB0AA55653B2DL, 0x47B233C92125366EL, 0xC1069CD4EABE89F8L, 0x999EC0BB696E840AL,
+			0xF148440A256E2C76L, 0xC00670EA43CA250DL, 0x96CD2A865764DBCAL, 0x380406926A5E5728L,
+			0xBC807527ED3E12BCL, 0xC605083704F5ECF2L, 0xEBA09271E88D976BL, 0xF7864A44C633682EL,
+			0x93445B8731587EA3L, 0x7AB3EE6AFBE0211DL, 0xB8157268FDAE9E4CL, 0x5960EA05BAD82964L,
+			0xE61ACF033D1A45DFL, 0x6FB92487298E33BDL, 0x8FD0C16206306BABL, 0xA5D3B6D479F8E056L,
+			0xB3C4F1BA87BC8696L, 0x8F48A4899877186CL, 0xE0B62E2929ABA83CL, 0x331ACDABFE94DE87L,
+			0x8C71DCD9BA0B4925L, 0x9FF0C08B7F1D0B14L, 0xAF8E5410288E1B6FL, 0x07ECF0AE5EE44DD9L,
+			0xDB71E91432B1A24AL, 0xC9E82CD9F69D6150L, 0x892731AC9FAF056EL, 0xBE311C083A225CD2L,
+			0xAB70FE17C79AC6CAL, 0x6DBD630A48AAF406L, 0xD64D3D9DB981787DL, 0x092CBBCCDAD5B108L,
+			0x85F0468293F0EB4EL, 0x25BBF56008C58EA5L, 0xA76C582338ED2621L, 0xAF2AF2B80AF6F24EL,
+			0xD1476E2C07286FAAL, 0x1AF5AF660DB4AEE1L, 0x82CCA4DB847945CAL, 0x50D98D9FC890ED4DL,
+			0xA37FCE126597973CL, 0xE50FF107BAB528A0L, 0xCC5FC196FEFD7D0CL, 0x1E53ED49A96272C8L,
+			0xFF77B1FCBEBCDC4FL, 0x25E8E89C13BB0F7AL, 0x9FAACF3DF73609B1L, 0x77B191618C54E9ACL,
+			0xC795830D75038C1DL, 0xD59DF5B9EF6A2417L, 0xF97AE3D0D2446F25L, 0x4B0573286B44AD1DL,
+			0x9BECCE62836AC577L, 0x4EE367F9430AEC32L, 0xC2E801FB244576D5L, 0x229C41F793CDA73FL,
+			0xF3A20279ED56D48AL, 0x6B43527578C1110FL, 0x9845418C345644D6L, 0x830A13896B78AAA9L,
+			0xBE5691EF416BD60CL, 0x23CC986BC656D553L, 0xEDEC366B11C6CB8FL, 0x2CBFBE86B7EC8AA8L,
+			0x94B3A202EB1C3F39L, 0x7BF7D71432F3D6A9L, 0xB9E08A83A5E34F07L, 0xDAF5CCD93FB0CC53L,
+			0xE858AD248F5C22C9L, 0xD1B3400F8F9CFF68L, 0x91376C36D99995BEL, 0x23100809B9C21FA1L,
+			0xB58547448FFFFB2DL, 0xABD40A0C2832A78AL, 0xE2E69915B3FFF9F9L, 0x16C90C8F323F516CL,
+			0x8DD01FAD907FFC3BL, 0xAE3DA7D97F6792E3L, 0xB1442798F49FFB4AL, 0x99CD11CFDF41779CL,
+			0xDD95317F31C7FA1DL, 0x40405643D711D583L, 0x8A7D3EEF7F1CFC52L, 0x482835EA666B2572L,
+			0xAD1C8EAB5EE43B66L, 0xDA3243650005EECFL, 0xD863B256369D4A40L, 0x90BED43E40076A82L,
+			0x873E4F75E2224E68L, 0x5A7744A6E804A291L, 0xA90DE3535AAAE202L, 0x711515D0A205CB36L,
+			0xD3515C2831559A83L, 0x0D5A5B44CA873E03L, 0x8412D9991ED58091L, 0xE858790AFE9486C2L,
+			0xA5178FFF668AE0B6L, 0x626E974DBE39A872L, 0xCE5D73FF402D98E3L, 0xFB0A3D212DC8128FL,
+			0x80FA687F881C7F8EL, 0x7CE66634BC9D0B99L, 0xA139029F6A239F72L, 0x1C1FFFC1EBC44E80L,
+			0xC987434744AC874EL, 0xA327FFB266B56220L, 0xFBE9141915D7A922L, 0x4BF1FF9F0062BAA8L,
+			0x9D71AC8FADA6C9B5L, 0x6F773FC3603DB4A9L, 0xC4CE17B399107C22L, 0xCB550FB4384D21D3L,
+			0xF6019DA07F549B2BL, 0x7E2A53A146606A48L, 0x99C102844F94E0FBL, 0x2EDA7444CBFC426DL,
+			0xC0314325637A1939L, 0xFA911155FEFB5308L, 0xF03D93EEBC589F88L, 0x793555AB7EBA27CAL,
+			0x96267C7535B763B5L, 0x4BC1558B2F3458DEL, 0xBBB01B9283253CA2L, 0x9EB1AAEDFB016F16L,
+			0xEA9C227723EE8BCBL, 0x465E15A979C1CADCL, 0x92A1958A7675175FL, 0x0BFACD89EC191EC9L,
+			0xB749FAED14125D36L, 0xCEF980EC671F667BL, 0xE51C79A85916F484L, 0x82B7E12780E7401AL,
+			0x8F31CC0937AE58D2L, 0xD1B2ECB8B0908810L, 0xB2FE3F0B8599EF07L, 0x861FA7E6DCB4AA15L,
+			0xDFBDCECE67006AC9L, 0x67A791E093E1D49AL, 0x8BD6A141006042BDL, 0xE0C8BB2C5C6D24E0L,
+			0xAECC49914078536DL, 0x58FAE9F773886E18L, 0xDA7F5BF590966848L, 0xAF39A475506A899EL,
+			0x888F99797A5E012DL, 0x6D8406C952429603L, 0xAAB37FD7D8F58178L, 0xC8E5087BA6D33B83L,
+			0xD5605FCDCF32E1D6L, 0xFB1E4A9A90880A64L, 0x855C3BE0A17FCD26L, 0x5CF2EEA09A55067FL,
+			0xA6B34AD8C9DFC06FL, 0xF42FAA48C0EA481EL, 0xD0601D8EFC57B08BL, 0xF13B94DAF124DA26L,
+			0x823C12795DB6CE57L, 0x76C53D08D6B70858L, 0xA2CB1717B52481EDL, 0x54768C4B0C64CA6EL,
+			0xCB7DDCDDA26DA268L, 0xA9942F5DCF7DFD09L, 0xFE5D54150B090B02L, 0xD3F93B35435D7C4CL,
+			0x9EFA548D26E5A6E1L, 0xC47BC5014A1A6DAFL, 0xC6B8E9B0709F109AL, 0x359AB6419CA1091BL,
+			0xF867241C8CC6D4C0L, 0xC30163D203C94B62L, 0x9B407691D7FC44F8L, 0x79E0DE63425DCF1DL,
+			0xC21094364DFB5636L, 0x985915FC12F542E4L, 0xF294B943E17A2BC4L, 0x3E6F5B7B17B2939DL,
+			0x979CF3CA6CEC5B5AL, 0xA705992CEECF9C42L, 0xBD8430BD08277231L, 0x50C6FF782A838353L,
+			0xECE53CEC4A314EBDL, 0xA4F8BF5635246428L, 0x940F4613AE5ED136L, 0x871B7795E136BE99L,
+			0xB913179899F68584L, 0x28E2557B59846E3FL, 0xE757DD7EC07426E5L, 0x331AEADA2FE589CFL,
+			0x9096EA6F3848984FL, 0x3FF0D2C85DEF7621L, 0xB4BCA50B065ABE63L, 0x0FED077A756B53A9L,
+			0xE1EBCE4DC7F16DFBL, 0xD3E8495912C62894L, 0x8D3360F09CF6E4BDL, 0x64712DD7ABBBD95CL,
+			0xB080392CC4349DECL, 0xBD8D794D96AACFB3L, 0xDCA04777F541C567L, 0xECF0D7A0FC5583A0L,
+			0x89E42CAAF9491B60L, 0xF41686C49DB57244L, 0xAC5D37D5B79B6239L, 0x311C2875C522CED5L,
+			0xD77485CB25823AC7L, 0x7D633293366B828BL, 0x86A8D39EF77164BCL, 0xAE5DFF9C02033197L,
+			0xA8530886B54DBDEBL, 0xD9F57F830283FDFCL, 0xD267CAA862A12D66L, 0xD072DF63C324FD7BL,
+			0x8380DEA93DA4BC60L, 0x4247CB9E59F71E6DL, 0xA46116538D0DEB78L, 0x52D9BE85F074E608L,
+			0xCD795BE870516656L, 0x67902E276C921F8BL, 0x806BD9714632DFF6L, 0x00BA1CD8A3DB53B6L,
+			0xA086CFCD97BF97F3L, 0x80E8A40ECCD228A4L, 0xC8A883C0FDAF7DF0L, 0x6122CD128006B2CDL,
+			0xFAD2A4B13D1B5D6CL, 0x796B805720085F81L, 0x9CC3A6EEC6311A63L, 0xCBE3303674053BB0L,
+			0xC3F490AA77BD60FCL, 0xBEDBFC4411068A9CL, 0xF4F1B4D515ACB93BL, 0xEE92FB5515482D44L,
+			0x991711052D8BF3C5L, 0x751BDD152D4D1C4AL, 0xBF5CD54678EEF0B6L, 0xD262D45A78A0635DL,
+			0xEF340A98172AACE4L, 0x86FB897116C87C34L, 0x9580869F0E7AAC0EL, 0xD45D35E6AE3D4DA0L,
+			0xBAE0A846D2195712L, 0x8974836059CCA109L, 0xE998D258869FACD7L, 0x2BD1A438703FC94BL,
+			0x91FF83775423CC06L, 0x7B6306A34627DDCFL, 0xB67F6455292CBF08L, 0x1A3BC84C17B1D542L,
+			0xE41F3D6A7377EECAL, 0x20CABA5F1D9E4A93L, 0x8E938662882AF53EL, 0x547EB47B7282EE9CL,
+			0xB23867FB2A35B28DL, 0xE99E619A4F23AA43L, 0xDEC681F9F4C31F31L, 0x6405FA00E2EC94D4L,
+			0x8B3C113C38F9F37EL, 0xDE83BC408DD3DD04L, 0xAE0B158B4738705EL, 0x9624AB50B148D445L,
+			0xD98DDAEE19068C76L, 0x3BADD624DD9B0957L, 0x87F8A8D4CFA417C9L, 0xE54CA5D70A80E5D6L,
+			0xA9F6D30A038D1DBCL, 0x5E9FCF4CCD211F4CL, 0xD47487CC8470652BL, 0x7647C3200069671FL,
+			0x84C8D4DFD2C63F3BL, 0x29ECD9F40041E073L, 0xA5FB0A17C777CF09L, 0xF468107100525890L,
+			0xCF79CC9DB955C2CCL, 0x7182148D4066EEB4L, 0x81AC1FE293D599BFL, 0xC6F14CD848405530L,
+			0xA21727DB38CB002FL, 0xB8ADA00E5A506A7CL, 0xCA9CF1D206FDC03BL, 0xA6D90811F0E4851CL,
+			0xFD442E4688BD304AL, 0x908F4A166D1DA663L, 0x9E4A9CEC15763E2EL, 0x9A598E4E043287FEL,
+			0xC5DD44271AD3CDBAL, 0x40EFF1E1853F29FDL, 0xF7549530E188C128L, 0xD12BEE59E68EF47CL,
+			0x9A94DD3E8CF578B9L, 0x82BB74F8301958CEL, 0xC13A148E3032D6E7L, 0xE36A52363C1FAF01L,
+			0xF18899B1BC3F8CA1L, 0xDC44E6C3CB279AC1L, 0x96F5600F15A7B7E5L, 0x29AB103A5EF8C0B9L,
+			0xBCB2B812DB11A5DEL, 0x7415D448F6B6F0E7L, 0xEBDF661791D60F56L, 0x111B495B3464AD21L,
+			0x936B9FCEBB25C995L, 0xCAB10DD900BEEC34L, 0xB84687C269EF3BFBL, 0x3D5D514F40EEA742L,
+			0xE65829B3046B0AFAL, 0x0CB4A5A3112A5112L, 0x8FF71A0FE2C2E6DCL, 0x47F0E785EABA72ABL,
+			0xB3F4E093DB73A093L, 0x59ED216765690F56L, 0xE0F218B8D25088B8L, 0x306869C13EC3532CL,
+			0x8C974F7383725573L, 0x1E414218C73A13FBL, 0xAFBD2350644EEACFL, 0xE5D1929EF90898FAL,
+			0xDBAC6C247D62A583L, 0xDF45F746B74ABF39L, 0x894BC396CE5DA772L, 0x6B8BBA8C328EB783L,
+			0xAB9EB47C81F5114FL, 0x066EA92F3F326564L, 0xD686619BA27255A2L, 0xC80A537B0EFEFEBDL,
+			0x8613FD0145877585L, 0xBD06742CE95F5F36L, 0xA798FC4196E952E7L, 0x2C48113823B73704L,
+			0xD17F3B51FCA3A7A0L, 0xF75A15862CA504C5L, 0x82EF85133DE648C4L, 0x9A984D73DBE722FBL,
+			0xA3AB66580D5FDAF5L, 0xC13E60D0D2E0EBBAL, 0xCC963FEE10B7D1B3L, 0x318DF905079926A8L,
+			0xFFBBCFE994E5C61FL, 0xFDF17746497F7052L, 0x9FD561F1FD0F9BD3L, 0xFEB6EA8BEDEFA633L,
+			0xC7CABA6E7C5382C8L, 0xFE64A52EE96B8FC0L, 0xF9BD690A1B68637BL, 0x3DFDCE7AA3C673B0L,
+			0x9C1661A651213E2DL, 0x06BEA10CA65C084EL, 0xC31BFA0FE5698DB8L, 0x486E494FCFF30A62L,
+			0xF3E2F893DEC3F126L, 0x5A89DBA3C3EFCCFAL, 0x986DDB5C6B3A76B7L, 0xF89629465A75E01CL,
+			0xBE89523386091465L, 0xF6BBB397F1135823L, 0xEE2BA6C0678B597FL, 0x746AA07DED582E2CL,
+			0x94DB483840B717EFL, 0xA8C2A44EB4571CDCL, 0xBA121A4650E4DDEBL, 0x92F34D62616CE413L,
+			0xE896A0D7E51E1566L, 0x77B020BAF9C81D17L, 0x915E2486EF32CD60L, 0x0ACE1474DC1D122EL,
+			0xB5B5ADA8AAFF80B8L, 0x0D819992132456BAL, 0xE3231912D5BF60E6L, 0x10E1FFF697ED6C69L,
+			0x8DF5EFABC5979C8FL, 0xCA8D3FFA1EF463C1L, 0xB1736B96B6FD83B3L, 0xBD308FF8A6B17CB2L,
+			0xDDD0467C64BCE4A0L, 0xAC7CB3F6D05DDBDEL, 0x8AA22C0DBEF60EE4L, 0x6BCDF07A423AA96BL,
+			0xAD4AB7112EB3929DL, 0x86C16C98D2C953C6L, 0xD89D64D57A607744L, 0xE871C7BF077BA8B7L,
+			0x87625F056C7C4A8BL, 0x11471CD764AD4972L, 0xA93AF6C6C79B5D2DL, 0xD598E40D3DD89BCFL,
+			0xD389B47879823479L, 0x4AFF1D108D4EC2C3L, 0x843610CB4BF160CBL, 0xCEDF722A585139BAL,
+			0xA54394FE1EEDB8FEL, 0xC2974EB4EE658828L, 0xCE947A3DA6A9273EL, 0x733D226229FEEA32L,
+			0x811CCC668829B887L, 0x0806357D5A3F525FL, 0xA163FF802A3426A8L, 0xCA07C2DCB0CF26F7L,
+			0xC9BCFF6034C13052L, 0xFC89B393DD02F0B5L, 0xFC2C3F3841F17C67L, 0xBBAC2078D443ACE2L,
+			0x9D9BA7832936EDC0L, 0xD54B944B84AA4C0DL, 0xC5029163F384A931L, 0x0A9E795E65D4DF11L,
+			0xF64335BCF065D37DL, 0x4D4617B5FF4A16D5L, 0x99EA0196163FA42EL, 0x504BCED1BF8E4E45L,
+			0xC06481FB9BCF8D39L, 0xE45EC2862F71E1D6L, 0xF07DA27A82C37088L, 0x5D767327BB4E5A4CL,
+			0x964E858C91BA2655L, 0x3A6A07F8D510F86FL, 0xBBE226EFB628AFEAL, 0x890489F70A55368BL,
+			0xEADAB0ABA3B2DBE5L, 0x2B45AC74CCEA842EL, 0x92C8AE6B464FC96FL, 0x3B0B8BC90012929DL,
+			0xB77ADA0617E3BBCBL, 0x09CE6EBB40173744L, 0xE55990879DDCAABDL, 0xCC420A6A101D0515L,
+			0x8F57FA54C2A9EAB6L, 0x9FA946824A12232DL, 0xB32DF8E9F3546564L, 0x47939822DC96ABF9L,
+			0xDFF9772470297EBDL, 0x59787E2B93BC56F7L, 0x8BFBEA76C619EF36L, 0x57EB4EDB3C55B65AL,
+			0xAEFAE51477A06B03L, 0xEDE622920B6B23F1L, 0xDAB99E59958885C4L, 0xE95FAB368E45ECEDL,
+			0x88B402F7FD75539BL, 0x11DBCB0218EBB414L, 0xAAE103B5FCD2A881L, 0xD652BDC29F26A119L,
+			0xD59944A37C0752A2L, 0x4BE76D3346F0495FL, 0x857FCAE62D8493A5L, 0x6F70A4400C562DDBL,
+			0xA6DFBD9FB8E5B88EL, 0xCB4CCD500F6BB952L, 0xD097AD07A71F26B2L, 0x7E2000A41346A7A7L,
+			0x825ECC24C873782FL, 0x8ED400668C0C28C8L, 0xA2F67F2DFA90563BL, 0x728900802F0F32FAL,
+			0xCBB41EF979346BCAL, 0x4F2B40A03AD2FFB9L, 0xFEA126B7D78186BCL, 0xE2F610C84987BFA8L,
+			0x9F24B832E6B0F436L, 0x0DD9CA7D2DF4D7C9L, 0xC6EDE63FA05D3143L, 0x91503D1C79720DBBL,
+			0xF8A95FCF88747D94L, 0x75A44C6397CE912AL, 0x9B69DBE1B548CE7CL, 0xC986AFBE3EE11ABAL,
+			0xC24452DA229B021BL, 0xFBE85BADCE996168L, 0xF2D56790AB41C2A2L, 0xFAE27299423FB9C3L,
+			0x97C560BA6B0919A5L, 0xDCCD879FC967D41AL, 0xBDB6B8E905CB600FL, 0x5400E987BBC1C920L,
+			0xED246723473E3813L, 0x290123E9AAB23B68L, 0x9436C0760C86E30BL, 0xF9A0B6720AAF6521L,
+			0xB94470938FA89BCEL, 0xF808E40E8D5B3E69L, 0xE7958CB87392C2C2L, 0xB60B1D1230B20E04L,
+			0x90BD77F3483BB9B9L, 0xB1C6F22B5E6F48C2L, 0xB4ECD5F01A4AA828L, 0x1E38AEB6360B1AF3L,
+			0xE2280B6C20DD5232L, 0x25C6DA63C38DE1B0L, 0x8D590723948A535FL, 0x579C487E5A38AD0EL,
+			0xB0AF48EC79ACE837L, 0x2D835A9DF0C6D851L, 0xDCDB1B2798182244L, 0xF8E431456CF88E65L,
+			0x8A08F0F8BF0F156BL, 0x1B8E9ECB641B58FFL, 0xAC8B2D36EED2DAC5L, 0xE272467E3D222F3FL,
+			0xD7ADF884AA879177L, 0x5B0ED81DCC6ABB0FL, 0x86CCBB52EA94BAEAL, 0x98E947129FC2B4E9L,
+			0xA87FEA27A539E9A5L, 0x3F2398D747B36224L, 0xD29FE4B18E88640EL, 0x8EEC7F0D19A03AADL,
+			0x83A3EEEEF9153E89L, 0x1953CF68300424ACL, 0xA48CEAAAB75A8E2BL, 0x5FA8C3423C052DD7L,
+			0xCDB02555653131B6L, 0x3792F412CB06794DL, 0x808E17555F3EBF11L, 0xE2BBD88BBEE40BD0L,
+			0xA0B19D2AB70E6ED6L, 0x5B6ACEAEAE9D0EC4L, 0xC8DE047564D20A8BL, 0xF245825A5A445275L,
+			0xFB158592BE068D2EL, 0xEED6E2F0F0D56712L, 0x9CED737BB6C4183DL, 0x55464DD69685606BL,
+			0xC428D05AA4751E4CL, 0xAA97E14C3C26B886L, 0xF53304714D9265DFL, 0xD53DD99F4B3066A8L,
+			0x993FE2C6D07B7FABL, 0xE546A8038EFE4029L, 0xBF8FDB78849A5F96L, 0xDE98520472BDD033L,
+			0xEF73D256A5C0F77CL, 0x963E66858F6D4440L, 0x95A8637627989AADL, 0xDDE7001379A44AA8L,
+			0xBB127C53B17EC159L, 0x5560C018580D5D52L, 0xE9D71B689DDE71AFL, 0xAAB8F01E6E10B4A6L,
+			0x9226712162AB070DL, 0xCAB3961304CA70E8L, 0xB6B00D69BB55C8D1L, 0x3D607B97C5FD0D22L,
+			0xE45C10C42A2B3B05L, 0x8CB89A7DB77C506AL, 0x8EB98A7A9A5B04E3L, 0x77F3608E92ADB242L,
+			0xB267ED1940F1C61CL, 0x55F038B237591ED3L, 0xDF01E85F912E37A3L, 0x6B6C46DEC52F6688L,
+			0x8B61313BBABCE2C6L, 0x2323AC4B3B3DA015L, 0xAE397D8AA96C1B77L, 0xABEC975E0A0D081AL,
+			0xD9C7DCED53C72255L, 0x96E7BD358C904A21L, 0x881CEA14545C7575L, 0x7E50D64177DA2E54L,
+			0xAA242499697392D2L, 0xDDE50BD1D5D0B9E9L, 0xD4AD2DBFC3D07787L, 0x955E4EC64B44E864L,
+			0x84EC3C97DA624AB4L, 0xBD5AF13BEF0B113EL, 0xA6274BBDD0FADD61L, 0xECB1AD8AEACDD58EL,
+			0xCFB11EAD453994BAL, 0x67DE18EDA5814AF2L, 0x81CEB32C4B43FCF4L, 0x80EACF948770CED7L,
+			0xA2425FF75E14FC31L, 0xA1258379A94D028DL, 0xCAD2F7F5359A3B3EL, 0x096EE45813A04330L,
+			0xFD87B5F28300CA0DL, 0x8BCA9D6E188853FCL, 0x9E74D1B791E07E48L, 0x775EA264CF55347EL,
+			0xC612062576589DDAL, 0x95364AFE032A819EL, 0xF79687AED3EEC551L, 0x3A83DDBD83F52205L,
+			0x9ABE14CD44753B52L, 0xC4926A9672793543L, 0xC16D9A0095928A27L, 0x75B7053C0F178294L,
+			0xF1C90080BAF72CB1L, 0x5324C68B12DD6339L, 0x971DA05074DA7BEEL, 0xD3F6FC16EBCA5E04L,
+			0xBCE5086492111AEAL, 0x88F4BB1CA6BCF585L, 0xEC1E4A7DB69561A5L, 0x2B31E9E3D06C32E6L,
+			0x9392EE8E921D5D07L, 0x3AFF322E62439FD0L, 0xB877AA3236A4B449L, 0x09BEFEB9FAD487C3L,
+			0xE69594BEC44DE15BL, 0x4C2EBE687989A9B4L, 0x901D7CF73AB0ACD9L, 0x0F9D37014BF60A11L,
+			0xB424DC35095CD80FL, 0x538484C19EF38C95L, 0xE12E13424BB40E13L, 0x2865A5F206B06FBAL,
+			0x8CBCCC096F5088CBL, 0xF93F87B7442E45D4L, 0xAFEBFF0BCB24AAFEL, 0xF78F69A51539D749L,
+			0xDBE6FECEBDEDD5BEL, 0xB573440E5A884D1CL, 0x89705F4136B4A597L, 0x31680A88F8953031L,
+			0xABCC77118461CEFCL, 0xFDC20D2B36BA7C3EL, 0xD6BF94D5E57A42BCL, 0x3D32907604691B4DL,
+			0x8637BD05AF6C69B5L, 0xA63F9A49C2C1B110L, 0xA7C5AC471B478423L, 0x0FCF80DC33721D54L,
+			0xD1B71758E219652BL, 0xD3C36113404EA4A9L, 0x83126E978D4FDF3BL, 0x645A1CAC083126EAL,
+			0xA3D70A3D70A3D70AL, 0x3D70A3D70A3D70A4L, 0xCCCCCCCCCCCCCCCCL, 0xCCCCCCCCCCCCCCCDL,
+			0x8000000000000000L, 0x0000000000000000L, 0xA000000000000000L, 0x0000000000000000L,
+			0xC800000000000000L, 0x0000000000000000L, 0xFA00000000000000L, 0x0000000000000000L,
+			0x9C40000000000000L, 0x0000000000000000L, 0xC350000000000000L, 0x0000000000000000L,
+			0xF424000000000000L, 0x0000000000000000L, 0x9896800000000000L, 0x0000000000000000L,
+			0xBEBC200000000000L, 0x0000000000000000L, 0xEE6B280000000000L, 0x0000000000000000L,
+			0x9502F90000000000L, 0x0000000000000000L, 0xBA43B74000000000L, 0x0000000000000000L,
+			0xE8D4A51000000000L, 0x0000000000000000L, 0x9184E72A00000000L, 0x0000000000000000L,
+			0xB5E620F480000000L, 0x0000000000000000L, 0xE35FA931A0000000L, 0x0000000000000000L,
+			0x8E1BC9BF04000000L, 0x0000000000000000L, 0xB1A2BC2EC5000000L, 0x0000000000000000L,
+			0xDE0B6B3A76400000L, 0x0000000000000000L, 0x8AC7230489E80000L, 0x0000000000000000L,
+			0xAD78EBC5AC620000L, 0x0000000000000000L, 0xD8D726B7177A8000L, 0x0000000000000000L,
+			0x878678326EAC9000L, 0x0000000000000000L, 0xA968163F0A57B400L, 0x0000000000000000L,
+			0xD3C21BCECCEDA100L, 0x0000000000000000L, 0x84595161401484A0L, 0x0000000000000000L,
+			0xA56FA5B99019A5C8L, 0x0000000000000000L, 0xCECB8F27F4200F3AL, 0x0000000000000000L,
+			0x813F3978F8940984L, 0x4000000000000000L, 0xA18F07D736B90BE5L, 0x5000000000000000L,
+			0xC9F2C9CD04674EDEL, 0xA400000000000000L, 0xFC6F7C4045812296L, 0x4D00000000000000L,
+			0x9DC5ADA82B70B59DL, 0xF020000000000000L, 0xC5371912364CE305L, 0x6C28000000000000L,
+			0xF684DF56C3E01BC6L, 0xC732000000000000L, 0x9A130B963A6C115CL, 0x3C7F400000000000L,
+			0xC097CE7BC90715B3L, 0x4B9F100000000000L, 0xF0BDC21ABB48DB20L, 0x1E86D40000000000L,
+			0x96769950B50D88F4L, 0x1314448000000000L, 0xBC143FA4E250EB31L, 0x17D955A000000000L,
+			0xEB194F8E1AE525FDL, 0x5DCFAB0800000000L, 0x92EFD1B8D0CF37BEL, 0x5AA1CAE500000000L,
+			0xB7ABC627050305ADL, 0xF14A3D9E40000000L, 0xE596B7B0C643C719L, 0x6D9CCD05D0000000L,
+			0x8F7E32CE7BEA5C6FL, 0xE4820023A2000000L, 0xB35DBF821AE4F38BL, 0xDDA2802C8A800000L,
+			0xE0352F62A19E306EL, 0xD50B2037AD200000L, 0x8C213D9DA502DE45L, 0x4526F422CC340000L,
+			0xAF298D050E4395D6L, 0x9670B12B7F410000L, 0xDAF3F04651D47B4CL, 0x3C0CDD765F114000L,
+			0x88D8762BF324CD0FL, 0xA5880A69FB6AC800L, 0xAB0E93B6EFEE0053L, 0x8EEA0D047A457A00L,
+			0xD5D238A4ABE98068L, 0x72A4904598D6D880L, 0x85A36366EB71F041L, 0x47A6DA2B7F864750L,
+			0xA70C3C40A64E6C51L, 0x999090B65F67D924L, 0xD0CF4B50CFE20765L, 0xFFF4B4E3F741CF6DL,
+			0x82818F1281ED449FL, 0xBFF8F10E7A8921A4L, 0xA321F2D7226895C7L, 0xAFF72D52192B6A0DL,
+			0xCBEA6F8CEB02BB39L, 0x9BF4F8A69F764490L, 0xFEE50B7025C36A08L, 0x02F236D04753D5B4L,
+			0x9F4F2726179A2245L, 0x01D762422C946590L, 0xC722F0EF9D80AAD6L, 0x424D3AD2B7B97EF5L,
+			0xF8EBAD2B84E0D58BL, 0xD2E0898765A7DEB2L, 0x9B934C3B330C8577L, 0x63CC55F49F88EB2FL,
+			0xC2781F49FFCFA6D5L, 0x3CBF6B71C76B25FBL, 0xF316271C7FC3908AL, 0x8BEF464E3945EF7AL,
+			0x97EDD871CFDA3A56L, 0x97758BF0E3CBB5ACL, 0xBDE94E8E43D0C8ECL, 0x3D52EEED1CBEA317L,
+			0xED63A231D4C4FB27L, 0x4CA7AAA863EE4BDDL, 0x945E455F24FB1CF8L, 0x8FE8CAA93E74EF6AL,
+			0xB975D6B6EE39E436L, 0xB3E2FD538E122B44L, 0xE7D34C64A9C85D44L, 0x60DBBCA87196B616L,
+			0x90E40FBEEA1D3A4AL, 0xBC8955E946FE31CDL, 0xB51D13AEA4A488DDL, 0x6BABAB6398BDBE41L,
+			0xE264589A4DCDAB14L, 0xC696963C7EED2DD1L, 0x8D7EB76070A08AECL, 0xFC1E1DE5CF543CA2L,
+			0xB0DE65388CC8ADA8L, 0x3B25A55F43294BCBL, 0xDD15FE86AFFAD912L, 0x49EF0EB713F39EBEL,
+			0x8A2DBF142DFCC7ABL, 0x6E3569326C784337L, 0xACB92ED9397BF996L, 0x49C2C37F07965404L,
+			0xD7E77A8F87DAF7FBL, 0xDC33745EC97BE906L, 0x86F0AC99B4E8DAFDL, 0x69A028BB3DED71A3L,
+			0xA8ACD7C0222311BCL, 0xC40832EA0D68CE0CL, 0xD2D80DB02AABD62BL, 0xF50A3FA490C30190L,
+			0x83C7088E1AAB65DBL, 0x792667C6DA79E0FAL, 0xA4B8CAB1A1563F52L, 0x577001B891185938L,
+			0xCDE6FD5E09ABCF26L, 0xED4C0226B55E6F86L, 0x80B05E5AC60B6178L, 0x544F8158315B05B4L,
+			0xA0DC75F1778E39D6L, 0x696361AE3DB1C721L, 0xC913936DD571C84CL, 0x03BC3A19CD1E38E9L,
+			0xFB5878494ACE3A5FL, 0x04AB48A04065C723L, 0x9D174B2DCEC0E47BL, 0x62EB0D64283F9C76L,
+			0xC45D1DF942711D9AL, 0x3BA5D0BD324F8394L, 0xF5746577930D6500L, 0xCA8F44EC7EE36479L,
+			0x9968BF6ABBE85F20L, 0x7E998B13CF4E1ECBL, 0xBFC2EF456AE276E8L, 0x9E3FEDD8C321A67EL,
+			0xEFB3AB16C59B14A2L, 0xC5CFE94EF3EA101EL, 0x95D04AEE3B80ECE5L, 0xBBA1F1D158724A12L,
+			0xBB445DA9CA61281FL, 0x2A8A6E45AE8EDC97L, 0xEA1575143CF97226L, 0xF52D09D71A3293BDL,
+			0x924D692CA61BE758L, 0x593C2626705F9C56L, 0xB6E0C377CFA2E12EL, 0x6F8B2FB00C77836CL,
+			0xE498F455C38B997AL, 0x0B6DFB9C0F956447L, 0x8EDF98B59A373FECL, 0x4724BD4189BD5EACL,
+			0xB2977EE300C50FE7L, 0x58EDEC91EC2CB657L, 0xDF3D5E9BC0F653E1L, 0x2F2967B66737E3EDL,
+			0x8B865B215899F46CL, 0xBD79E0D20082EE74L, 0xAE67F1E9AEC07187L, 0xECD8590680A3AA11L,
+			0xDA01EE641A708DE9L, 0xE80E6F4820CC9495L, 0x884134FE908658B2L, 0x3109058D147FDCDDL,
+			0xAA51823E34A7EEDEL, 0xBD4B46F0599FD415L, 0xD4E5E2CDC1D1EA96L, 0x6C9E18AC7007C91AL,
+			0x850FADC09923329EL, 0x03E2CF6BC604DDB0L, 0xA6539930BF6BFF45L, 0x84DB8346B786151CL,
+			0xCFE87F7CEF46FF16L, 0xE612641865679A63L, 0x81F14FAE158C5F6EL, 0x4FCB7E8F3F60C07EL,
+			0xA26DA3999AEF7749L, 0xE3BE5E330F38F09DL, 0xCB090C8001AB551CL, 0x5CADF5BFD3072CC5L,
+			0xFDCB4FA002162A63L, 0x73D9732FC7C8F7F6L, 0x9E9F11C4014DDA7EL, 0x2867E7FDDCDD9AFAL,
+			0xC646D63501A1511DL, 0xB281E1FD541501B8L, 0xF7D88BC24209A565L, 0x1F225A7CA91A4226L,
+			0x9AE757596946075FL, 0x3375788DE9B06958L, 0xC1A12D2FC3978937L, 0x0052D6B1641C83AEL,
+			0xF209787BB47D6B84L, 0xC0678C5DBD23A49AL, 0x9745EB4D50CE6332L, 0xF840B7BA963646E0L,
+			0xBD176620A501FBFFL, 0xB650E5A93BC3D898L, 0xEC5D3FA8CE427AFFL, 0xA3E51F138AB4CEBEL,
+			0x93BA47C980E98CDFL, 0xC66F336C36B10137L, 0xB8A8D9BBE123F017L, 0xB80B0047445D4184L,
+			0xE6D3102AD96CEC1DL, 0xA60DC059157491E5L, 0x9043EA1AC7E41392L, 0x87C89837AD68DB2FL,
+			0xB454E4A179DD1877L, 0x29BABE4598C311FBL, 0xE16A1DC9D8545E94L, 0xF4296DD6FEF3D67AL,
+			0x8CE2529E2734BB1DL, 0x1899E4A65F58660CL, 0xB01AE745B101E9E4L, 0x5EC05DCFF72E7F8FL,
+			0xDC21A1171D42645DL, 0x76707543F4FA1F73L, 0x899504AE72497EBAL, 0x6A06494A791C53A8L,
+			0xABFA45DA0EDBDE69L, 0x0487DB9D17636892L, 0xD6F8D7509292D603L, 0x45A9D2845D3C42B6L,
+			0x865B86925B9BC5C2L, 0x0B8A2392BA45A9B2L, 0xA7F26836F282B732L, 0x8E6CAC7768D7141EL,
+			0xD1EF0244AF2364FFL, 0x3207D795430CD926L, 0x8335616AED761F1FL, 0x7F44E6BD49E807B8L,
+			0xA402B9C5A8D3A6E7L, 0x5F16206C9C6209A6L, 0xCD036837130890A1L, 0x36DBA887C37A8C0FL,
+			0x802221226BE55A64L, 0xC2494954DA2C9789L, 0xA02AA96B06DEB0FDL, 0xF2DB9BAA10B7BD6CL,
+			0xC83553C5C8965D3DL, 0x6F92829494E5ACC7L, 0xFA42A8B73ABBF48CL, 0xCB772339BA1F17F9L,
+			0x9C69A97284B578D7L, 0xFF2A760414536EFBL, 0xC38413CF25E2D70DL, 0xFEF5138519684ABAL,
+			0xF46518C2EF5B8CD1L, 0x7EB258665FC25D69L, 0x98BF2F79D5993802L, 0xEF2F773FFBD97A61L,
+			0xBEEEFB584AFF8603L, 0xAAFB550FFACFD8FAL, 0xEEAABA2E5DBF6784L, 0x95BA2A53F983CF38L,
+			0x952AB45CFA97A0B2L, 0xDD945A747BF26183L, 0xBA756174393D88DFL, 0x94F971119AEEF9E4L,
+			0xE912B9D1478CEB17L, 0x7A37CD5601AAB85DL, 0x91ABB422CCB812EEL, 0xAC62E055C10AB33AL,
+			0xB616A12B7FE617AAL, 0x577B986B314D6009L, 0xE39C49765FDF9D94L, 0xED5A7E85FDA0B80BL,
+			0x8E41ADE9FBEBC27DL, 0x14588F13BE847307L, 0xB1D219647AE6B31CL, 0x596EB2D8AE258FC8L,
+			0xDE469FBD99A05FE3L, 0x6FCA5F8ED9AEF3BBL, 0x8AEC23D680043BEEL, 0x25DE7BB9480D5854L,
+			0xADA72CCC20054AE9L, 0xAF561AA79A10AE6AL, 0xD910F7FF28069DA4L, 0x1B2BA1518094DA04L,
+			0x87AA9AFF79042286L, 0x90FB44D2F05D0842L, 0xA99541BF57452B28L, 0x353A1607AC744A53L,
+			0xD3FA922F2D1675F2L, 0x42889B8997915CE8L, 0x847C9B5D7C2E09B7L, 0x69956135FEBADA11L,
+			0xA59BC234DB398C25L, 0x43FAB9837E699095L, 0xCF02B2C21207EF2EL, 0x94F967E45E03F4BBL,
+			0x8161AFB94B44F57DL, 0x1D1BE0EEBAC278F5L, 0xA1BA1BA79E1632DCL, 0x6462D92A69731732L,
+			0xCA28A291859BBF93L, 0x7D7B8F7503CFDCFEL, 0xFCB2CB35E702AF78L, 0x5CDA735244C3D43EL,
+			0x9DEFBF01B061ADABL, 0x3A0888136AFA64A7L, 0xC56BAEC21C7A1916L, 0x088AAA1845B8FDD0L,
+			0xF6C69A72A3989F5BL, 0x8AAD549E57273D45L, 0x9A3C2087A63F6399L, 0x36AC54E2F678864BL,
+			0xC0CB28A98FCF3C7FL, 0x84576A1BB416A7DDL, 0xF0FDF2D3F3C30B9FL, 0x656D44A2A11C51D5L,
+			0x969EB7C47859E743L, 0x9F644AE5A4B1B325L, 0xBC4665B596706114L, 0x873D5D9F0DDE1FEEL,
+			0xEB57FF22FC0C7959L, 0xA90CB506D155A7EAL, 0x9316FF75DD87CBD8L, 0x09A7F12442D588F2L,
+			0xB7DCBF5354E9BECEL, 0x0C11ED6D538AEB2FL, 0xE5D3EF282A242E81L, 0x8F1668C8A86DA5FAL,
+			0x8FA475791A569D10L, 0xF96E017D694487BCL, 0xB38D92D760EC4455L, 0x37C981DCC395A9ACL,
+			0xE070F78D3927556AL, 0x85BBE253F47B1417L, 0x8C469AB843B89562L, 0x93956D7478CCEC8EL,
+			0xAF58416654A6BABBL, 0x387AC8D1970027B2L, 0xDB2E51BFE9D0696AL, 0x06997B05FCC0319EL,
+			0x88FCF317F22241E2L, 0x441FECE3BDF81F03L, 0xAB3C2FDDEEAAD25AL, 0xD527E81CAD7626C3L,
+			0xD60B3BD56A5586F1L, 0x8A71E223D8D3B074L, 0x85C7056562757456L, 0xF6872D5667844E49L,
+			0xA738C6BEBB12D16CL, 0xB428F8AC016561DBL, 0xD106F86E69D785C7L, 0xE13336D701BEBA52L,
+			0x82A45B450226B39CL, 0xECC0024661173473L, 0xA34D721642B06084L, 0x27F002D7F95D0190L,
+			0xCC20CE9BD35C78A5L, 0x31EC038DF7B441F4L, 0xFF290242C83396CEL, 0x7E67047175A15271L,
+			0x9F79A169BD203E41L, 0x0F0062C6E984D386L, 0xC75809C42C684DD1L, 0x52C07B78A3E60868L,
+			0xF92E0C3537826145L, 0xA7709A56CCDF8A82L, 0x9BBCC7A142B17CCBL, 0x88A66076400BB691L,
+			0xC2ABF989935DDBFEL, 0x6ACFF893D00EA435L, 0xF356F7EBF83552FEL, 0x0583F6B8C4124D43L,
+			0x98165AF37B2153DEL, 0xC3727A337A8B704AL, 0xBE1BF1B059E9A8D6L, 0x744F18C0592E4C5CL,
+			0xEDA2EE1C7064130CL, 0x1162DEF06F79DF73L, 0x9485D4D1C63E8BE7L, 0x8ADDCB5645AC2BA8L,
+			0xB9A74A0637CE2EE1L, 0x6D953E2BD7173692L, 0xE8111C87C5C1BA99L, 0xC8FA8DB6CCDD0437L,
+			0x910AB1D4DB9914A0L, 0x1D9C9892400A22A2L, 0xB54D5E4A127F59C8L, 0x2503BEB6D00CAB4BL,
+			0xE2A0B5DC971F303AL, 0x2E44AE64840FD61DL, 0x8DA471A9DE737E24L, 0x5CEAECFED289E5D2L,
+			0xB10D8E1456105DADL, 0x7425A83E872C5F47L, 0xDD50F1996B947518L, 0xD12F124E28F77719L,
+			0x8A5296FFE33CC92FL, 0x82BD6B70D99AAA6FL, 0xACE73CBFDC0BFB7BL, 0x636CC64D1001550BL,
+			0xD8210BEFD30EFA5AL, 0x3C47F7E05401AA4EL, 0x8714A775E3E95C78L, 0x65ACFAEC34810A71L,
+			0xA8D9D1535CE3B396L, 0x7F1839A741A14D0DL, 0xD31045A8341CA07CL, 0x1EDE48111209A050L,
+			0x83EA2B892091E44DL, 0x934AED0AAB460432L, 0xA4E4B66B68B65D60L, 0xF81DA84D5617853FL,
+			0xCE1DE40642E3F4B9L, 0x36251260AB9D668EL, 0x80D2AE83E9CE78F3L, 0xC1D72B7C6B426019L,
+			0xA1075A24E4421730L, 0xB24CF65B8612F81FL, 0xC94930AE1D529CFCL, 0xDEE033F26797B627L,
+			0xFB9B7CD9A4A7443CL, 0x169840EF017DA3B1L, 0x9D412E0806E88AA5L, 0x8E1F289560EE864EL,
+			0xC491798A08A2AD4EL, 0xF1A6F2BAB92A27E2L, 0xF5B5D7EC8ACB58A2L, 0xAE10AF696774B1DBL,
+			0x9991A6F3D6BF1765L, 0xACCA6DA1E0A8EF29L, 0xBFF610B0CC6EDD3FL, 0x17FD090A58D32AF3L,
+			0xEFF394DCFF8A948EL, 0xDDFC4B4CEF07F5B0L, 0x95F83D0A1FB69CD9L, 0x4ABDAF101564F98EL,
+			0xBB764C4CA7A4440FL, 0x9D6D1AD41ABE37F1L, 0xEA53DF5FD18D5513L, 0x84C86189216DC5EDL,
+			0x92746B9BE2F8552CL, 0x32FD3CF5B4E49BB4L, 0xB7118682DBB66A77L, 0x3FBC8C33221DC2A1L,
+			0xE4D5E82392A40515L, 0x0FABAF3FEAA5334AL, 0x8F05B1163BA6832DL, 0x29CB4D87F2A7400EL,
+			0xB2C71D5BCA9023F8L, 0x743E20E9EF511012L, 0xDF78E4B2BD342CF6L, 0x914DA9246B255416L,
+			0x8BAB8EEFB6409C1AL, 0x1AD089B6C2F7548EL, 0xAE9672ABA3D0C320L, 0xA184AC2473B529B1L,
+			0xDA3C0F568CC4F3E8L, 0xC9E5D72D90A2741EL, 0x8865899617FB1871L, 0x7E2FA67C7A658892L,
+			0xAA7EEBFB9DF9DE8DL, 0xDDBB901B98FEEAB7L, 0xD51EA6FA85785631L, 0x552A74227F3EA565L,
+			0x8533285C936B35DEL, 0xD53A88958F87275FL, 0xA67FF273B8460356L, 0x8A892ABAF368F137L,
+			0xD01FEF10A657842CL, 0x2D2B7569B0432D85L, 0x8213F56A67F6B29BL, 0x9C3B29620E29FC73L,
+			0xA298F2C501F45F42L, 0x8349F3BA91B47B8FL, 0xCB3F2F7642717713L, 0x241C70A936219A73L,
+			0xFE0EFB53D30DD4D7L, 0xED238CD383AA0110L, 0x9EC95D1463E8A506L, 0xF4363804324A40AAL,
+			0xC67BB4597CE2CE48L, 0xB143C6053EDCD0D5L, 0xF81AA16FDC1B81DAL, 0xDD94B7868E94050AL,
+			0x9B10A4E5E9913128L, 0xCA7CF2B4191C8326L, 0xC1D4CE1F63F57D72L, 0xFD1C2F611F63A3F0L,
+			0xF24A01A73CF2DCCFL, 0xBC633B39673C8CECL, 0x976E41088617CA01L, 0xD5BE0503E085D813L,
+			0xBD49D14AA79DBC82L, 0x4B2D8644D8A74E18L, 0xEC9C459D51852BA2L, 0xDDF8E7D60ED1219EL,
+			0x93E1AB8252F33B45L, 0xCABB90E5C942B503L, 0xB8DA1662E7B00A17L, 0x3D6A751F3B936243L,
+			0xE7109BFBA19C0C9DL, 0x0CC512670A783AD4L, 0x906A617D450187E2L, 0x27FB2B80668B24C5L,
+			0xB484F9DC9641E9DAL, 0xB1F9F660802DEDF6L, 0xE1A63853BBD26451L, 0x5E7873F8A0396973L,
+			0x8D07E33455637EB2L, 0xDB0B487B6423E1E8L, 0xB049DC016ABC5E5FL, 0x91CE1A9A3D2CDA62L,
+			0xDC5C5301C56B75F7L, 0x7641A140CC7810FBL, 0x89B9B3E11B6329BAL, 0xA9E904C87FCB0A9DL,
+			0xAC2820D9623BF429L, 0x546345FA9FBDCD44L, 0xD732290FBACAF133L, 0xA97C177947AD4095L,
+			0x867F59A9D4BED6C0L, 0x49ED8EABCCCC485DL, 0xA81F301449EE8C70L, 0x5C68F256BFFF5A74L,
+			0xD226FC195C6A2F8CL, 0x73832EEC6FFF3111L, 0x83585D8FD9C25DB7L, 0xC831FD53C5FF7EABL,
+			0xA42E74F3D032F525L, 0xBA3E7CA8B77F5E55L, 0xCD3A1230C43FB26FL, 0x28CE1BD2E55F35EBL,
+			0x80444B5E7AA7CF85L, 0x7980D163CF5B81B3L, 0xA0555E361951C366L, 0xD7E105BCC332621FL,
+			0xC86AB5C39FA63440L, 0x8DD9472BF3FEFAA7L, 0xFA856334878FC150L, 0xB14F98F6F0FEB951L,
+			0x9C935E00D4B9D8D2L, 0x6ED1BF9A569F33D3L, 0xC3B8358109E84F07L, 0x0A862F80EC4700C8L,
+			0xF4A642E14C6262C8L, 0xCD27BB612758C0FAL, 0x98E7E9CCCFBD7DBDL, 0x8038D51CB897789CL,
+			0xBF21E44003ACDD2CL, 0xE0470A63E6BD56C3L, 0xEEEA5D5004981478L, 0x1858CCFCE06CAC74L,
+			0x95527A5202DF0CCBL, 0x0F37801E0C43EBC8L, 0xBAA718E68396CFFDL, 0xD30560258F54E6BAL,
+			0xE950DF20247C83FDL, 0x47C6B82EF32A2069L, 0x91D28B7416CDD27EL, 0x4CDC331D57FA5441L,
+			0xB6472E511C81471DL, 0xE0133FE4ADF8E952L, 0xE3D8F9E563A198E5L, 0x58180FDDD97723A6L,
+			0x8E679C2F5E44FF8FL, 0x570F09EAA7EA7648L
+		};
+		
+		// Schubfach: g = floor(10^-k 2^(125 - flog2pow10(-k))) + 1 for k in [K_MIN, K_MAX], 
+		// split in its 63 most significant bits and its 63 least significant ones.
+		private static final long [] G = {
+			0x4F0CEDC95A718DD4L, 0x5B01E8B09AA0D1B5L, 0x7E7B160EF71C1621L, 0x119CA780F767B5EEL,
+			0x652F44D8C5B011B4L, 0x0E16EC672C52F7F2L, 0x50F29D7A37C00E29L, 0x581256B8F0425FF5L,
+			0x40C21794F96671BAL, 0x79A84560C0351991L, 0x679CF287F570B5F7L, 0x75DA089ACD21C281L,
+			0x52E3F5399126F7F9L, 0x44AE6D48A41B0201L, 0x424FF76140EBF994L, 0x36F1F106E9AF34CDL,
+			0x6A198BCECE465C20L, 0x57E981A4A918547BL, 0x54E13CA571D1E34DL, 0x2CBACE1D541376C9L,
+			0x43E763B78E4182A4L, 0x23C8A4E44342C56EL, 0x6CA56C58E39C043AL, 0x060DD4A06B9E08B0L,
+			0x56EABD13E9499CFBL, 0x1E7176E6BC7E6D59L, 0x458897432107B0C8L, 0x7EC12BEBC9FEBDE1L,
+			0x6F40F20501A5E7A7L, 0x7E01DFDFA9979635L, 0x5900C19D9AEB1FB9L, 0x4B34B319547944F7L,
+			0x4733CE17AF227FC7L, 0x55C3C27AA9FA9D93L, 0x71EC7CF2B1D0CC72L, 0x560603F7765DC8EAL,
+			0x5B2397288E40A38EL, 0x7804CFF92B7E3A55L, 0x48E945BA0B66E93FL, 0x13370CC755FE9511L,
+			0x74A86F90123E41FEL, 0x51F1AE0BBCCA881BL, 0x5D538C7341CB67FEL, 0x74C1580963D539AFL,
+			0x4AA93D29016F8665L, 0x43CDE0078310FAF3L, 0x77752EA8024C0A3CL, 0x0616333F381B2B1EL,
+			0x5F90F22001D66E96L, 0x3811C298F9AF55B1L, 0x4C73F4E667DEBEDEL, 0x600E35472E25DE28L,
+			0x7A532170A6313164L, 0x3349EED849D6303FL, 0x61DC1AC084F42783L, 0x42A18BE03B11C033L,
+			0x4E49AF006A5CEC69L, 0x1BB46FE695A7CCF5L, 0x7D42B19A43C7E0A8L, 0x2C53E63DBC3FAE55L,
+			0x64355AE1CFD31A20L, 0x237651CAFCFFBEAAL, 0x502AAF1B0CA8E1B3L, 0x35F8416F30CC9888L,
+			0x402225AF3D53E7C2L, 0x5E603458F3D6E06DL, 0x669D0918621FD937L, 0x4A3386F4B957CD7BL,
+			0x52173A79E8197A92L, 0x6E8F9F2A2DDFD796L, 0x41AC2EC7ECE12EDBL, 0x720C7F54F17FDFABL,
+			0x69137E0CAE3517C6L, 0x1CE0CBBB1BFFCC45L, 0x540F980A24F74638L, 0x171A3C95AFFFD69EL,
+			0x433FACD4EA5F6B60L, 0x127B63AAF3331218L, 0x6B991487DD657899L, 0x6A5F05DE51EB5026L,
+			0x5614106CB11DFA14L, 0x5518D17EA7EF7352L, 0x44DCD9F08DB194DDL, 0x2A7A41321FF2C2A8L,
+			0x6E2E2980E2B5BAFBL, 0x5D906850331E043FL, 0x5824EE00B55E2F2FL, 0x647386A68F4B3699L,
+			0x4683F19A2AB1BF59L, 0x36C2D21ED908F87BL, 0x70D31C29DDE93228L, 0x579E1CFE280E5A5DL,
+			0x5A427CEE4B20F4EDL, 0x2C7E7D98200B7B7EL, 0x483530BEA280C3F1L, 0x09FECAE019A2C932L,
+			0x73884DFDD0CE064EL, 0x43314499C29E0EB6L, 0x5C6D0B3173D8050BL, 0x4F5A9D47CEE4D891L,
+			0x49F0D5C129799DA2L, 0x72AEE4397250AD41L, 0x764E22CEA8C295D1L, 0x377E39F583B44868L,
+			0x5EA4E8A553CEDE41L, 0x12CB61913629D387L, 0x4BB72084430BE500L, 0x756F8140F8217605L,
+			0x792500D39E796E67L, 0x6F18CECE59CF233CL, 0x60EA670FB1FABEB9L, 0x3F470BD847D8E8FDL,
+			0x4D885272F4C89894L, 0x329F3CAD064720CAL, 0x7C0D50B7EE0DC0EDL, 0x37652DE1A3A50143L,
+			0x633DDA2CBE716724L, 0x2C50F1814FB73436L, 0x4F64AE8A31F45283L, 0x3D0D8E010C92902BL,
+			0x7F077DA9E986EA6BL, 0x7B48E334E0EA8045L, 0x659F97BB2138BB89L, 0x49071C2A4D88669DL,
+			0x514C796280FA2FA1L, 0x20D27CEEA46D1EE4L, 0x4109FAB533FB594DL, 0x670ECA58838A7F1DL,
+			0x680FF788532BC216L, 0x0B4ADD5A6C10CB62L, 0x533FF939DC2301ABL, 0x22A24AAEBCDA3C4EL,
+			0x4299942E49B59AEFL, 0x354EA22563E1C9D8L, 0x6A8F537D42BC2B18L, 0x554A9D089FCFA95AL,
+			0x553F75FDCEFCEF46L, 0x776EE406E63FBAAEL, 0x4432C4CB0BFD8C38L, 0x5F8BE99F1E996225L,
+			0x6D1E07AB466279F4L, 0x327975CB64289D08L, 0x574B3955D1E86190L, 0x28612B091CED4A6DL,
+			0x45D5C777DB204E0DL, 0x06B4226DB0BDD524L, 0x6FBC72595E9A167BL, 0x24536A491AC95506L,
+			0x59638EADE54811FCL, 0x1D0F883A7BD44405L, 0x4782D88B1DD34196L, 0x4A72D361FCA9D004L,
+			0x726AF411C952028AL, 0x43EAEBCFFAA94CD3L, 0x5B88C3416DDB353BL, 0x4FEF230CC88770A9L,
+			0x493A35CDF17C2A96L, 0x0CBF4F3D6D3926EEL, 0x7529EFAFE8C6AA89L, 0x61321862485B717CL,
+			0x5DBB262653D22207L, 0x675B46B506AF8DFDL, 0x4AFC1E850FDB4E6CL, 0x52AF6BC405593E64L,
+			0x77F9CA6E7FC54A47L, 0x377F12D33BC1FD6DL, 0x5FFB085866376E9FL, 0x45FF42429634CABDL,
+			0x4CC8D379EB5F8BB2L, 0x6B329B68782A3BCBL, 0x7ADAEBF64565AC51L, 0x2B842BDA59DD2C77L,
+			0x6248BCC5045156A7L, 0x3C69BCAEAE4A89F9L, 0x4EA0970403744552L, 0x6387CA25583BA194L,
+			0x7DCDBE6CD253A21EL, 0x05A6103BC05F68EDL, 0x64A498570EA94E7EL, 0x37B80CFC99E5ED8AL,
+			0x5083AD1272210B98L, 0x2C933D96E184BE08L, 0x40695741F4E73C79L, 0x7075CADF1AD09807L,
+			0x670EF2032171FA5CL, 0x4D8944982AE759A4L, 0x52725B35B45B2EB0L, 0x3E076A135585E150L,
+			0x41F515C49048F226L, 0x64D2BB42AAD1810DL, 0x698822D41A0E503EL, 0x07B7920444826815L,
+			0x546CE8A9AE71D9CBL, 0x1FC60E69D0685344L, 0x438A53BAF1F4AE3CL, 0x196B3EBB0D20429DL,
+			0x6C1085F7E9877D2DL, 0x0F11FDF815006A94L, 0x56739E5FEE05FDBDL, 0x58DB319344005543L,
+			0x45294B7FF19E6497L, 0x60AF5ADC3666AA9CL, 0x6EA878CCB5CA3A8CL, 0x344BC4938A3DDDC7L,
+			0x5886C70A2B082ED6L, 0x5D096A0FA1CB17D2L, 0x46D238D4EF39BF12L, 0x173ABB3FB4A27975L,
+			0x71505AEE4B8F981DL, 0x0B912B992103F588L, 0x5AA6AF25093FACE4L, 0x0940EFADB4032AD3L,
+			0x488558EA6DCC8A50L, 0x07672624900288A9L, 0x74088E43E2E0DD4CL, 0x723EA36DB337410EL,
+			0x5CD3A5031BE71770L, 0x5B654F8AF5C5CDA5L, 0x4A42EA68E31F45F3L, 0x62B772D5916B0AEBL,
+			0x76D1770E38320986L, 0x0458B7BC1BDE77DDL, 0x5F0DF8D82CF4D46BL, 0x1D13C630164B9318L,
+			0x4C0B2D79BD90A9EFL, 0x30DC9E8CDEA2DC13L, 0x79AB7BF5FC1AA97FL, 0x0160FDAE31049351L,
+			0x6155FCC4C9AEEDFFL, 0x1AB3FE24F403A90EL, 0x4DDE63D0A158BE65L, 0x6229981D9002EDA5L,
+			0x7C97061A9BC130A2L, 0x69DC2695B337E2A1L, 0x63AC04E2163426E8L, 0x54B01EDE28F9821BL,
+			0x4FBCD0B4DE901F20L, 0x43C018B1BA6134E2L, 0x7F9481216419CB67L, 0x1F99C11C5D68549DL,
+			0x6610674DE9AE3C52L, 0x4C7B00E37DED107EL, 0x51A6B90B21583042L, 0x09FC00B5FE574065L,
+			0x41522DA2811359CEL, 0x3B3000919845CD1DL, 0x68837C3734EBC2E3L, 0x784CCDB5C06FAE95L,
+			0x539C635F5D8968B6L, 0x2D0A3E2B00595877L, 0x42E382B2B13ABA2BL, 0x3DA1CB5599E11393L,
+			0x6B059DEAB52AC378L, 0x629C7888F634EC1EL, 0x559E17EEF755692DL, 0x3549FA072B5D89B1L,
+			0x447E798BF91120F1L, 0x1107FB38EF7E07C1L, 0x6D9728DFF4E834B5L, 0x01A65EC17F300C68L,
+			0x57AC20B32A535D5DL, 0x4E1EB23465C009EDL, 0x46234D5C21DC4AB1L, 0x24E55B5D1E333B24L,
+			0x70387BC69C93AAB5L, 0x216EF894FD1EC506L, 0x59C6C96BB076222AL, 0x4DF2607730E56A6CL,
+			0x47D23ABC8D2B4E88L, 0x3E5B805F5A5121F0L, 0x72E9F79415121740L, 0x63C59A322A1B697FL,
+			0x5BEE5FA9AA74DF67L, 0x03047B5B54E2BACCL, 0x498B7FBAEEC3E5ECL, 0x0269FC4910B5623DL,
+			0x75ABFF917E063CACL, 0x6A432D41B45569FBL, 0x5E2332DACB38308AL, 0x21CF5767C37787FCL,
+			0x4B4F5BE23C2CF3A1L, 0x67D912B9692C6CCAL, 0x787EF969F9E185CFL, 0x595B5128A8471476L,
+			0x60659454C7E79E3FL, 0x6115DA86ED05A9F8L, 0x4D1E1043D31FB1CCL, 0x4DAB1538BD9E2193L,
+			0x7B634D3951CC4FADL, 0x62AB552795C9CF52L, 0x62B5D7610E3D0C8BL, 0x0222AA86116E3F75L,
+			0x4EF7DF80D830D6D5L, 0x4E822204DABE992AL, 0x7E59659AF38157BCL, 0x17369CD49130F510L,
+			0x65145148C2CDDFC9L, 0x5F5EE3DD40F3F740L, 0x50DD0DD3CF0B196EL, 0x1918B64A9A5CC5CDL,
+			0x40B0D7DCA5A27ABEL, 0x4746F83BAEB09E3EL, 0x678159610903F797L, 0x253E59F91780FD2FL,
+			0x52CDE11A6D9CC612L, 0x50FEAE60DF9A6426L, 0x423E4DAEBE1704DBL, 0x5A65584D7FAEB685L,
+			0x69FD4917968B3AF9L, 0x10A226E265E4573BL, 0x54CAA0DFABA29594L, 0x0D4E8581EB1D1295L,
+			0x43D54D7FBC821143L, 0x243ED134BC174211L, 0x6C887BFF94034ED2L, 0x06CAE85460253682L,
+			0x56D396661002A574L, 0x6BD586A9E6842B9BL, 0x457611EB40021DF7L, 0x09779EEE52035616L,
+			0x6F234FDECCD02FF1L, 0x5BF297E3B66BBCEFL, 0x58E90CB23D73598EL, 0x165BACB62B8963F3L,
+			0x4720D6F4FDF5E13EL, 0x451623C4EFA11CC2L, 0x71CE24BB2FEFCECAL, 0x3B569FA17F682E03L,
+			0x5B0B5095BFF30BD5L, 0x15DEE61ACC535803L, 0x48D5DA11665C0977L, 0x2B18B8157042ACCFL,
+			0x74895CE8A3C6758BL, 0x5E8DF355806AAE18L, 0x5D3AB0BA1C9EC46FL, 0x653E5C4466BBBE7AL,
+			0x4A955A2E7D4BD059L, 0x3765169D1EFC9861L, 0x77555D172EDFB3C2L, 0x256E8A94FE60F3CFL,
+			0x5F777DAC257FC301L, 0x6ABED543FEB3F63FL, 0x4C5F97BCEACC9C01L, 0x3BCBDDCFFEF65E99L,
+			0x7A328C6177ADC668L, 0x5FAC961997F0975BL, 0x61C209E792F16B86L, 0x7FBD44E1465A12AFL,
+			0x4E34D4B9425ABC6BL, 0x7FCA9D810514DBBFL, 0x7D21545B9D5DFA46L, 0x32DDC8CE6E87C5FFL,
+			0x641AA9E2E44B2E9EL, 0x5BE4A0A525396B32L, 0x501554B5836F587EL, 0x7CB6E6EA842DEF5CL,
+			0x4011109135F2AD32L, 0x30925255368B25E3L, 0x6681B41B89844850L, 0x4DB6EA21F0DEA304L,
+			0x52015CE2D469D373L, 0x57C5881B2718826AL, 0x419AB0B576BB0F8FL, 0x5FD139AF527A01EFL,
+			0x68F781225791B27FL, 0x4C81F5E550C3364AL, 0x53F9341B79415B99L, 0x239B2B1DDA35C508L,
+			0x432DC3492DCDE2E1L, 0x02E288E4AE916A6DL, 0x6B7C6BA849496B01L, 0x516A74A1174F10AEL,
+			0x55FD22ED076DEF34L, 0x4121F6E745D8DA25L, 0x44CA82573924BF5DL, 0x1A8192529E4714EBL,
+			0x6E10D08B8EA1322EL, 0x5D9C1D50FD3E87DDL, 0x580D73A2D880F4F2L, 0x17B01773FDCB9FE4L,
+			0x4671294F139A5D8EL, 0x4626792997D61984L, 0x70B50EE4EC2A2F4AL, 0x3D0A5B75BFBCF59FL,
+			0x5A2A7250BCEE8C3BL, 0x4A6EAF916630C47FL, 0x4821F50D63F209C9L, 0x21F2260DEB5A36CCL,
+			0x736988156CB6760EL, 0x69837016455D247AL, 0x5C546CDDF091F80BL, 0x6E02C011D1175062L,
+			0x49DD23E4C074C66FL, 0x719BCCDB0DAC404EL, 0x762E9FD467213D7FL, 0x68F947C4E2AD33B0L,
+			0x5E8BB3105280FDFFL, 0x6D94396A4EF0F627L, 0x4BA2F5A6A8673199L, 0x3E102DEEA58D91B9L,
+			0x7904BC3DDA3EB5C2L, 0x3019E3176F48E927L, 0x60D09697E1CBC49BL, 0x4014B5AC590720ECL,
+			0x4D73ABACB4A303AFL, 0x4CDD5E237A6C1A57L, 0x7BEC45E12104D2B2L, 0x47C8969F2A46908AL,
+			0x63236B1A80D0A88EL, 0x6CA0787F5505406FL, 0x4F4F88E200A6ED3FL, 0x0A19F9FF773766BFL,
+			0x7EE5A7D0010B1531L, 0x5CF65CCBF1F23DFEL, 0x6584864000D5AA8EL, 0x172B7D6FF4C1CB32L,
+			0x5136D1CCCD77BBA4L, 0x78EF978CC3CE3C28L, 0x40F8A7D70AC62FB7L, 0x13F2DFA3CFD83020L,
+			0x67F43FBE77A37F8BL, 0x398499061959E699L, 0x5329CC985FB5FFA2L, 0x6136E0D1ADE18548L,
+			0x4287D6E04C91994FL, 0x00F8B3DAF181376DL, 0x6A72F166E0E8F54BL, 0x1B27862B1C01F247L,
+			0x5528C11F1A53F76FL, 0x2F52D1BC1667F506L, 0x44209A7F48432C59L, 0x0C424163451FF738L,
+			0x6D00F7320D3846F4L, 0x7A039BD208332526L, 0x5733F8F4D76038C3L, 0x7B361641A028EA85L,
+			0x45C32D90AC4CFA36L, 0x2F5E78348020BB9EL, 0x6F9EAF4DE07B29F0L, 0x4BCA59ED99CDF8FCL,
+			0x594BBF71806287F3L, 0x563B7B247B0B2D96L, 0x476FCC5ACD1B9FF6L, 0x11C92F50626F57ACL,
+			0x724C7A2AE1C5CCBDL, 0x02DB7EE703E55912L, 0x5B7061BBE7D17097L, 0x1BE2CBEC031DE0DCL,
+			0x4926B496530DF3ACL, 0x164F09899C17E716L, 0x750ABA8A1E7CB913L, 0x3D4B4275C68CA4F0L,
+			0x5DA22ED4E530940FL, 0x4AA29B916BA3B726L, 0x4AE825771DC07672L, 0x6EE87C74561C9285L,
+			0x77D9D58B62CD8A51L, 0x3173FA53BCFA8408L, 0x5FE177A2B5713B74L, 0x278FFB7630C869A0L,
+			0x4CB45FB55DF42F90L, 0x1FA662C4F3D387B3L, 0x7ABA32BBC986B280L, 0x32A3D13B1FB8D91FL,
+			0x622E8EFCA1388ECDL, 0x0EE9742F4C93E0E6L, 0x4E8BA596E760723DL, 0x58BAC3590A0FE71EL,
+			0x7DAC3C24A5671D2FL, 0x412AD228101971C9L, 0x6489C9B6EAB8E426L, 0x00EF0E8673478E3BL,
+			0x506E3AF8BBC71CEBL, 0x1A58D86B8F6C71C9L, 0x40582F2D6305B0BCL, 0x1513E0560C56C16EL,
+			0x66F37EAF04D5E793L, 0x3B530089AD579BE2L, 0x525C6558D0AB1FA9L, 0x15DC006E2446164FL,
+			0x41E384470D55B2EDL, 0x5E4999F1B69E783FL, 0x696C06D81555EB15L, 0x7D428FE92430C065L,
+			0x54566BE0111188DEL, 0x31020CBA835A3384L, 0x4378564CDA746D7EL, 0x5A680A2ECF7B5C69L,
+			0x6BF3BD47C3ED7BFDL, 0x770CDD17B25EFA42L, 0x565C976C9CBDFCCBL, 0x1270B0DFC1E59502L,
+			0x4516DF8A16FE63D5L, 0x5B8D5A4C9B1E10CEL, 0x6E8AFF4357FD6C89L, 0x127BC3ADC4FCE7B0L,
+			0x586F329C466456D4L, 0x0EC96957D0CA52F3L, 0x46BF5BB038504576L, 0x3F07877973D50F29L,
+			0x71322C4D26E6D58AL, 0x31A5A58F1FBB4B75L, 0x5A8E89D75252446EL, 0x5AEAEAD8E62F6F91L,
+			0x487207DF750E9D25L, 0x2F22557A51BF8C74L, 0x73E9A63254E42EA2L, 0x1836EF2A1C65AD86L,
+			0x5CBAEB5B771CF21BL, 0x2CF8BF54E3848AD2L, 0x4A2F22AF927D8E7CL, 0x23FA32AA4F9D3BDBL,
+			0x76B1D118EA627D93L, 0x5329EAAA18FB92F8L, 0x5EF4A74721E86476L, 0x0F54BBBB472FA8C6L,
+			0x4BF6EC38E7ED1D2BL, 0x25DD62FC38F2ED6CL, 0x798B138E3FE1C845L, 0x22FBD1938E517BDFL,
+			0x613C0FA4FFE7D36AL, 0x4F2FDADC71DAC97FL, 0x4DC9A61D998642BBL, 0x58F3157D27E23ACCL,
+			0x7C75D695C2706AC5L, 0x74B82261D969F7ADL, 0x63917877CEC0556BL, 0x10934EB4ADEE5FBEL,
+			0x4FA793930BCD1122L, 0x4075D8908B251965L, 0x7F7285B812E1B504L, 0x00BC8DB411D4F56EL,
+			0x65F537C675815D9CL, 0x66FD3E29A7DD9125L, 0x5190F96B91344AE3L, 0x6BFDCB54864ADA84L,
+			0x4140C78940F6A24FL, 0x6FFE3C439EA2486AL, 0x6867A5A867F103B2L, 0x7FFD2D38FDD073DCL,
+			0x53861E2053273628L, 0x6664242D97D9F64AL, 0x42D1B1B375B8F820L, 0x51E9B68ADFE191D5L,
+			0x6AE91C5255F4C034L, 0x1CA924116635B621L, 0x558749DB77F70029L, 0x63BA83411E915E81L,
+			0x446C3B15F9926687L, 0x6962029A7EDAB201L, 0x6D79F82328EA3DA6L, 0x0F03375D97C45001L,
+			0x5794C6828721CAEBL, 0x259C2C4ADFD04001L, 0x46109ECED2816F22L, 0x5149BD08B30D0001L,
+			0x701A97B150CF1837L, 0x3542C80DEB480001L, 0x59AEDFC10D7279C5L, 0x7768A00B22A00001L,
+			0x47BF19673DF52E37L, 0x79208008E8800001L, 0x72CB5BD86321E38CL, 0x5B67334174000001L,
+			0x5BD5E313828182D6L, 0x7C528F6790000001L, 0x4977E8DC68679BDFL, 0x16A872B940000001L,
+			0x758CA7C70D7292FEL, 0x5773EAC200000001L, 0x5E0A1FD271287598L, 0x45F6556800000001L,
+			0x4B3B4CA85A86C47AL, 0x04C5112000000001L, 0x785EE10D5DA46D90L, 0x07A1B50000000001L,
+			0x604BE73DE4838AD9L, 0x52E7C40000000001L, 0x4D0985CB1D3608AEL, 0x0F1FD00000000001L,
+			0x7B426FAB61F00DE3L, 0x31CC800000000001L, 0x629B8C891B267182L, 0x5B0A000000000001L,
+			0x4EE2D6D415B85ACEL, 0x7C08000000000001L, 0x7E37BE2022C0914BL, 0x1340000000000001L,
+			0x64F964E68233A76FL, 0x2900000000000001L, 0x50C783EB9B5C85F2L, 0x5400000000000001L,
+			0x409F9CBC7C4A04C2L, 0x1000000000000001L, 0x6765C793FA10079DL, 0x0000000000000001L,
+			0x52B7D2DCC80CD2E4L, 0x0000000000000001L, 0x422CA8B0A00A4250L, 0x0000000000000001L,
+			0x69E10DE76676D080L, 0x0000000000000001L, 0x54B40B1F852BDA00L, 0x0000000000000001L,
+			0x43C33C1937564800L, 0x0000000000000001L, 0x6C6B935B8BBD4000L, 0x0000000000000001L,
+			0x56BC75E2D6310000L, 0x0000000000000001L, 0x4563918244F40000L, 0x0000000000000001L,
+			0x6F05B59D3B200000L, 0x0000000000000001L, 0x58D15E1762800000L, 0x0000000000000001L,
+			0x470DE4DF82000000L, 0x0000000000000001L, 0x71AFD498D0000000L, 0x0000000000000001L,
+			0x5AF3107A40000000L, 0x0000000000000001L, 0x48C2739500000000L, 0x0000000000000001L,
+			0x746A528800000000L, 0x0000000000000001L, 0x5D21DBA000000000L, 0x0000000000000001L,
+			0x4A817C8000000000L, 0x0000000000000001L, 0x7735940000000000L, 0x0000000000000001L,
+			0x5F5E100000000000L, 0x0000000000000001L, 0x4C4B400000000000L, 0x0000000000000001L,
+			0x7A12000000000000L, 0x0000000000000001L, 0x61A8000000000000L, 0x0000000000000001L,
+			0x4E20000000000000L, 0x0000000000000001L, 0x7D00000000000000L, 0x0000000000000001L,
+			0x6400000000000000L, 0x0000000000000001L, 0x5000000000000000L, 0x0000000000000001L,
+			0x4000000000000000L, 0x0000000000000001L, 0x6666666666666666L, 0x3333333333333334L,
+			0x51EB851EB851EB85L, 0x0F5C28F5C28F5C29L, 0x4189374BC6A7EF9DL, 0x5916872B020C49BBL,
+			0x68DB8BAC710CB295L, 0x74F0D844D013A92BL, 0x53E2D6238DA3C211L, 0x43F3E0370CDC8755L,
+			0x431BDE82D7B634DAL, 0x698FE69270B06C44L, 0x6B5FCA6AF2BD215EL, 0x0F4CA41D811A46D4L,
+			0x55E63B88C230E77EL, 0x3F70834ACDAE9F10L, 0x44B82FA09B5A52CBL, 0x4C5A02A23E254C0DL,
+			0x6DF37F675EF6EADFL, 0x2D5CD10396A21347L, 0x57F5FF85E592557FL, 0x3DE3DA69454E75D3L,
+			0x465E6604B7A84465L, 0x7E4FE1EDD10B9175L, 0x709709A125DA0709L, 0x4A19697C81AC1BEFL,
+			0x5A126E1A84AE6C07L, 0x54E1213067BCE326L, 0x480EBE7B9D58566CL, 0x43E74DC052FD8285L,
+			0x734ACA5F6226F0ADL, 0x530BAF9A1E626A6DL, 0x5C3BD5191B525A24L, 0x426FBFAE7EB521F1L,
+			0x49C97747490EAE83L, 0x4EBFCC8B9890E7F4L, 0x760F253EDB4AB0D2L, 0x4ACC7A78F41B0CBAL,
+			0x5E72843249088D75L, 0x223D2EC729AF3D62L, 0x4B8ED0283A6D3DF7L, 0x34FDBF05BAF29781L,
+			0x78E480405D7B9658L, 0x54C931A2C4B758CFL, 0x60B6CD004AC94513L, 0x5D6DC14F03C5E0A5L,
+			0x4D5F0A66A23A9DA9L, 0x31249AA59C9E4D51L, 0x7BCB43D769F762A8L, 0x4EA0F76F60FD4882L,
+			0x63090312BB2C4EEDL, 0x254D92BF80CAA068L, 0x4F3A68DBC8F03F24L, 0x1DD7A89933D54D20L,
+			0x7EC3DAF941806506L, 0x62F2A75B86221500L, 0x65697BFA9ACD1D9FL, 0x025BB91604E810CDL,
+			0x51212FFBAF0A7E18L, 0x684960DE6A5340A4L, 0x40E7599625A1FE7AL, 0x203AB3E521DC33B6L,
+			0x67D88F56A29CCA5DL, 0x19F7863B696052BDL, 0x5313A5DEE87D6EB0L, 0x7B2C6B62BAB37564L,
+			0x42761E4BED31255AL, 0x2F56BC4EFBC2C450L, 0x6A5696DFE1E83BC3L, 0x655793B192D13A1AL,
+			0x5512124CB4B9C969L, 0x377942F475742E7BL, 0x440E750A2A2E3ABAL, 0x5F9435905DF68B96L,
+			0x6CE3EE76A9E3912AL, 0x65B9EF4D63241289L, 0x571CBEC554B60DBBL, 0x6AFB25D782834207L,
+			0x45B0989DDD5E7163L, 0x08C8EB12CECF6806L, 0x6F80F42FC8971BD1L, 0x5ADB11B7B14BD9A3L,
+			0x5933F68CA078E30EL, 0x157C0E2C8DD647B5L, 0x475CC53D4D2D8271L, 0x5DFCD823A4AB6C91L,
+			0x722E086215159D82L, 0x632E269F6DDF141BL, 0x5B5806B4DDAAE468L, 0x4F581EE5F17F4349L,
+			0x49133890B1558386L, 0x72ACE584C1329C3BL, 0x74EB8DB44EEF38D7L, 0x6AAE3C079B842D2AL,
+			0x5D893E29D8BF60ACL, 0x5558300616035755L, 0x4AD431BB13CC4D56L, 0x7779C004DE6912ABL,
+			0x77B9E92B52E07BBEL, 0x258F99A163DB5111L, 0x5FC7EDBC424D2FCBL, 0x37A614811CAF740DL,
+			0x4C9FF163683DBFD5L, 0x7951AA00E3BF900BL, 0x7A998238A6C932EFL, 0x754F7667D2CC19ABL,
+			0x6214682D523A8F26L, 0x2AA5F8530F09AE22L, 0x4E76B9BDDB620C1EL, 0x55519375A5A1581BL,
+			0x7D8AC2C95F034697L, 0x3BB5B8BC3C3559C5L, 0x646F023AB2690545L, 0x7C9160969691149EL,
+			0x5058CE955B87376BL, 0x16DAB3ABABA743B2L, 0x40470BAAAF9F5F88L, 0x78AEF622EFB902F5L,
+			0x66D812AAB29898DBL, 0x0DE4BD04B2C19E54L, 0x524675555BAD4715L, 0x57EA30D08F014B76L,
+			0x41D1F7777C8A9F44L, 0x4654F3DA0C01092CL, 0x694FF258C7443207L, 0x23BB1FC346680EACL,
+			0x543FF513D29CF4D2L, 0x4FC8E635D1ECD88AL, 0x43665DA9754A5D75L, 0x263A51C4A7F0AD3BL,
+			0x6BD6FC425543C8BBL, 0x56C3B607731AAEC4L, 0x5645969B77696D62L, 0x789C919F8F488BD0L,
+			0x4504787C5F878AB5L, 0x46E3A7B2D906D640L, 0x6E6D8D93CC0C1122L, 0x3E390C515B3E239AL,
+			0x5857A4763CD6741BL, 0x4B60D6A77C31B615L, 0x46AC8391CA4529AFL, 0x55E7121F968E2B44L,
+			0x711405B6106EA919L, 0x0971B698F0E3786DL, 0x5A766AF80D255414L, 0x078E2BAD8D82C6BDL,
+			0x485EBBF9A41DDCDCL, 0x6C71BC8AD79BD231L, 0x73CAC65C39C96161L, 0x2D82C7448C2C8382L,
+			0x5CA23849C7D44DE7L, 0x3E023903A356CF9BL, 0x4A1B603B06437185L, 0x7E682D9C82ABD949L,
+			0x76923391A39F1C09L, 0x4A4048FA6AAC8EDBL, 0x5EDB5C7482E5B007L, 0x55003A61EEF07249L,
+			0x4BE2B05D35848CD2L, 0x773361E7F259F507L, 0x796AB3C855A0E151L, 0x3EB89CA6508FEE71L,
+			0x6122296D114D810DL, 0x7EFA16EB73A6585BL, 0x4DB4EDF0DAA4673EL, 0x3261ABEF8FB846AFL,
+			0x7C54AFE7C43A3ECAL, 0x1D691318E5F3A44BL, 0x6376F31FD02E98A1L, 0x64540F471E5C836FL,
+			0x4F925C1973587A1BL, 0x0376729F4B7D35F3L, 0x7F50935BEBC0C35EL, 0x38BD84321261EFEBL,
+			0x65DA0F7CBC9A35E5L, 0x13CAD0280EB4BFEFL, 0x517B3F96FD482B1DL, 0x5CA240200BC3CCBFL,
+			0x412F66126439BC17L, 0x63B50019A3030A33L, 0x684BD683D38F9359L, 0x1F88002904D1A9EAL,
+			0x536FDECFDC72DC47L, 0x32D3335403DAEE55L, 0x42BFE57316C249D2L, 0x5BDC291003158B77L,
+			0x6ACCA251BE03A951L, 0x12F9DB4CD1BC1258L, 0x557081DAFE695440L, 0x7594AF70A7C9A847L,
+			0x445A017BFEBAA9CDL, 0x4476F2C0863AED06L, 0x6D5CCF2CCAC442E2L, 0x3A57EACDA3917B3CL,
+			0x577D728A3BD03581L, 0x7B7988A482DAC8FDL, 0x45FDF53B630CF79BL, 0x15FAD3B6CF156D97L,
+			0x6FFCBB923814BF5EL, 0x565E1F8AE4EF15BEL, 0x5996FC74F9AA32B2L, 0x11E4E608B725AAFFL,
+			0x47ABFD2A6154F55BL, 0x27EA51A0928488CCL, 0x72ACC843CEEE555EL, 0x7310829A84074146L,
+			0x5BBD6D030BF1DDE5L, 0x42739BAED005CDD2L, 0x49645735A327E4B7L, 0x4EC2E2F24004A4A8L,
+			0x756D5855D1D96DF2L, 0x4AD16B1D333AA10CL, 0x5DF11377DB1457F5L, 0x2241227DC2954DA3L,
+			0x4B2742C648DD132AL, 0x4E9A81FE35443E1CL, 0x783ED13D4161B844L, 0x175D9CC9EED39694L,
+			0x603240FDCDE7C69CL, 0x7917B0A18BDC7876L, 0x4CF500CB0B1FD217L, 0x1412F3B46FE39392L,
+			0x7B219ADE7832E9BEL, 0x535185ED7FD285B6L, 0x628148B1F9C25498L, 0x42A79E57997537C5L,
+			0x4ECDD3C1949B76E0L, 0x3552E512E12A9304L, 0x7E161F9C20F8BE33L, 0x6EEB081E3510EB39L,
+			0x64DE7FB01A609829L, 0x3F226CE4F740BC2EL, 0x50B1FFC0151A1354L, 0x3281F0B72C33C9BEL,
+			0x408E66334414DC43L, 0x42018D5F568FD498L, 0x674A3D1ED354939FL, 0x1CCF48988A7FBA8DL,
+			0x52A1CA7F0F76DC7FL, 0x30A5D3AD3B99620BL, 0x421B0865A5F8B065L, 0x73B7DC8A96144E6FL,
+			0x69C4DA3C3CC11A3CL, 0x52BFC7442353B0B1L, 0x549D7B6363CDAE96L, 0x756639034F7626F4L,
+			0x43B12F82B63E2545L, 0x4451C735D92B525DL, 0x6C4EB26ABD303BA2L, 0x3A1C71EFC1DEEA2EL,
+			0x56A55B889759C94EL, 0x61B05B2634B254F2L, 0x45511606DF7B0772L, 0x1AF37C1E908EAA5BL,
+			0x6EE8233E325E7250L, 0x2B1F2CFDB41776F8L, 0x58B9B5CB5B7EC1D9L, 0x6F4C23FE29AC5F2DL,
+			0x46FAF7D5E2CBCE47L, 0x72A34FFE87BD18F1L, 0x71918C896ADFB073L, 0x04387FFDA5FB5B1BL,
+			0x5ADAD6D4557FC05CL, 0x0360666484C915AFL, 0x48AF1243779966B0L, 0x02B3851D3707448CL,
+			0x744B506BF28F0AB3L, 0x1DEC082EBE720746L, 0x5D090D2328726EF5L, 0x64BCD358985B3905L,
+			0x4A6DA41C205B8BF7L, 0x6A30A913AD15C738L, 0x7715D36033C5ACBFL, 0x5D1AA81F7B560B8CL,
+			0x5F44A919C3048A32L, 0x7DAEECE5FC44D609L, 0x4C36EDAE359D3B5BL, 0x7E258A51969D7808L,
+			0x79F17C49EF61F893L, 0x16A276E8F0FBF33FL, 0x618DFD07F2B4C6DCL, 0x121B9253F3FCC299L,
+			0x4E0B30D328909F16L, 0x41AFA84329970214L, 0x7CDEB4850DB431BDL, 0x4F7F739EA8F19CEDL,
+			0x63E55D373E29C164L, 0x3F99294BBA5AE3F1L, 0x4FEAB0F8FE87CDE9L, 0x7FADBAA2FB7BE98DL,
+			0x7FDDE7F4CA72E30FL, 0x7F7C5DD1925FDC15L, 0x664B1FF7085BE8D9L, 0x4C637E4141E649ABL,
+			0x51D5B32C06AFED7AL, 0x704F983434B83AEFL, 0x4177C2899EF32462L, 0x26A6135CF6F9C8BFL,
+			0x68BF9DA8FE51D3D0L, 0x3DD685618B294132L, 0x53CC7E20CB74A973L, 0x4B12044E08EDCDC2L,
+			0x4309FE80A2C3BAC2L, 0x6F419D0B3A57D7CEL, 0x6B4330CDD1392AD1L, 0x320294DEC3BFBFB0L,
+			0x55CF5A3E40FA88A7L, 0x419BAA4BCFCC995AL, 0x44A5E1CB672ED3B9L, 0x1AE2EEA30CA3ADE1L,
+			0x6DD636123EB152C1L, 0x77D17DD1ADD2AFCFL, 0x57DE91A832277567L, 0x797464A7BE42263FL,
+			0x464BA7B9C1B92AB9L, 0x4790508631CE84FFL, 0x70790C5C6928445CL, 0x0C1A1A704FB0D4CCL,
+			0x59FA7049EDB9D049L, 0x567B4859D95A43D6L, 0x47FB8D07F161736EL, 0x11FC39E17AAE9CABL,
+			0x732C14D98235857DL, 0x032D2968C44A9445L, 0x5C2343E134F79DFDL, 0x4F575453D03BA9D1L,
+			0x49B5CFE75D92E4CAL, 0x72AC4376402FBB0EL, 0x75EFB30BC8EB07ABL, 0x0446D256CD192B49L,
+			0x5E595C096D88D2EFL, 0x1D0575123DADBC3AL, 0x4B7AB0078AD3DBF2L, 0x4A6AC40E97BE302FL,
+			0x78C44CD8DE1FC650L, 0x771139B0F2C9E6B1L, 0x609D0A4718196B73L, 0x78DA948D8F07EBC1L,
+			0x4D4A6E9F467ABC5CL, 0x60AEDD3E0C065634L, 0x7BAA4A9870C46094L, 0x344AFB9679A3BD20L,
+			0x62EEA2138D69E6DDL, 0x103BFC78614FCA80L, 0x4F254E760ABB1F17L, 0x26966393810CA200L,
+			0x7EA21723445E9825L, 0x2423D2859B476999L, 0x654E78E9037EE01DL, 0x69B642047C392148L,
+			0x510B93ED9C658017L, 0x6E2B680396941AA0L, 0x40D60FF149EACCDFL, 0x71BC53361210154DL,
+			0x67BCE64EDCAAE166L, 0x1C6085235019BBAEL, 0x52FD850BE3BBE784L, 0x7D1A041C40149625L,
+			0x42646A6FE9631F9DL, 0x4A7B367D0010781DL, 0x6A3A43E642383295L, 0x5D91F0C8001A59C8L,
+			0x54FB698501C68EDEL, 0x17A7F3D3334847D4L, 0x43FC546A67D20BE4L, 0x79532975C2A03976L,
+			0x6CC6ED770C83463BL, 0x0EEB75893766C256L, 0x57058AC5A39C382FL, 0x25892AD42C523512L,
+			0x459E089E1C7CF9BFL, 0x37A0EF102374F742L, 0x6F6340FCFA618F98L, 0x59017E8038BB2536L,
+			0x591C33FD951AD946L, 0x7A67986693C8EA91L, 0x4749C33144157A9FL, 0x151FAD1EDCA0BBA8L,
+			0x720F9EB539BBF765L, 0x0832AE97C76792A5L, 0x5B3FB22A94965F84L, 0x068EF21305EC7551L,
+			0x48FFC1BBAA11E603L, 0x1ED8C1A8D189F774L, 0x74CC692C434FD66BL, 0x4AF4690E1C0FF253L,
+			0x5D705423690CAB89L, 0x225D20D816732843L, 0x4AC0434F873D5607L, 0x35174D79AB8F5369L,
+			0x779A054C0B955672L, 0x21BEE25C45B21F0EL, 0x5FAE6AA33C77785BL, 0x3498B5169E2818D8L,
+			0x4C8B888296C5F9E2L, 0x5D46F7454B534713L, 0x7A78DA6A8AD65C9DL, 0x7BA4BED545520B52L,
+			0x61FA48553BDEB07EL, 0x2FB6FF110441A2A8L, 0x4E61D37763188D31L, 0x72F8CC0D9D014EEDL,
+			0x7D6952589E8DAEB6L, 0x1E5AE015C80217E1L, 0x645441E07ED7BEF8L, 0x1848B344A001ACB4L,
+			0x504367E6CBDFCBF9L, 0x603A2903B3348A2AL, 0x4035ECB8A3196FFBL, 0x002E873628F6D4EEL,
+			0x66BCADF43828B32BL, 0x19E40B89DB2487E3L, 0x52308B29C686F5BCL, 0x14B66FA17C1D3983L,
+			0x41C06F549ED25E30L, 0x1091F2E7967DC79CL, 0x6933E554315096B3L, 0x341CB7D8F0C93F5FL,
+			0x542984435AA6DEF5L, 0x767D5FE0C0A0FF80L, 0x435469CF7BB8B25EL, 0x2B977FE70080CC66L,
+			0x6BBA42E592C11D63L, 0x5F58CCA4CD9AE0A3L, 0x562E9BEADBCDB11CL, 0x4C470A1D7148B3B6L,
+			0x44F216557CA48DB0L, 0x3D05A1B1276D5C92L, 0x6E5023BBFAA0E2B3L, 0x7B3C35E83F1560E9L,
+			0x58401C96621A4EF6L, 0x2F635E5365AAB3EDL, 0x4699B0784E7B725EL, 0x591C4B75EAEEF658L,
+			0x70F5E726E3F8B6FDL, 0x74FA125644B18A26L, 0x5A5E5285832D5F31L, 0x43FB41DE9D5AD4EBL,
+			0x484B75379C244C27L, 0x4FFC34B2177BDD89L, 0x73ABEEBF603A1372L, 0x4CC6BAB68BF96274L,
+			0x5C898BCC4CFB42C2L, 0x0A38955ED6611B90L, 0x4A07A309D72F689BL, 0x21C6DDE5784DAFA7L,
+			0x76729E762518A75EL, 0x693E2FD58D49190BL, 0x5EC2185E8413B918L, 0x5431BFDE0AA0E0D5L,
+			0x4BCE79E536762DADL, 0x29C1664B3BB3E711L, 0x794A5CA1F0BD15E2L, 0x0F9BD6DEC5ECA4E8L,
+			0x61084A1B26FDAB1BL, 0x2616457F04BD50BAL, 0x4DA03B48EBFE227CL, 0x1E783798D09773C8L,
+			0x7C33920E46636A60L, 0x30C058F480F252D9L, 0x635C74D8384F884DL, 0x0D66AD9067284247L,
+			0x4F7D2A469372D370L, 0x711EF14052869B6CL, 0x7F2EAA0A85848581L, 0x34FE4ECD50D75F14L,
+			0x65BEEE6ED136D134L, 0x2A650BD773DF7F43L, 0x51658B8BDA9240F6L, 0x551DA312C319329CL,
+			0x411E093CAEDB672BL, 0x5DB14F4235ADC217L, 0x68300EC77E2BD845L, 0x7C4EE536BC49368AL,
+			0x5359A56C64EFE037L, 0x7D0BEA92303A9208L, 0x42AE1DF050BFE693L, 0x173CBBA8269541A0L,
+			0x6AB02FE6E79970EBL, 0x3EC792A6A422029AL, 0x5559BFEBEC7AC0BCL, 0x3239421EE9B4CEE1L,
+			0x4447CCBCBD2F0096L, 0x5B6101B25490A581L, 0x6D3FADFAC84B3424L, 0x2BCE691D541AA268L,
+			0x576624C8A03C29B6L, 0x563EBA7DDCE21B87L, 0x45EB50A08030215EL, 0x78322ECB171B4939L,
+			0x6FDEE76733803564L, 0x59E9E47824F87527L, 0x597F1F85C2CCF783L, 0x6187E9F9B72D2A86L,
+			0x4798E6049BD72C69L, 0x346CBB2E2C242205L, 0x728E3CD42C8B7A42L, 0x20ADF849E039D007L,
+			0x5BA4FD768A092E9BL, 0x33BE603B19C7D99FL, 0x4950CAC53B3A8BAFL, 0x42FEB3627B0647B3L,
+			0x754E113B91F745E5L, 0x5197856A5E7072B8L, 0x5DD80DC941929E51L, 0x27AC6ABB7EC05BC6L,
+			0x4B133E3A9ADBB1DAL, 0x52F05562CBCD1638L, 0x781EC9F75E2C4FC4L, 0x1E4D556ADFAE89F3L,
+			0x6018A192B1BD0C9CL, 0x7EA444557FBED4C3L, 0x4CE0814227CA707DL, 0x4BB69D1132FF109CL,
+			0x7B00CED03FAA4D95L, 0x5F8A94E851981A93L, 0x62670BD9CC883E11L, 0x32D543ED0E134875L,
+			0x4EB8D647D6D364DAL, 0x5BDDCFF0D80F6D2BL, 0x7DF48A0C8AEBD491L, 0x12FC7FE7C018AEABL,
+			0x64C3A1A3A25643A7L, 0x28C9FFEC99AD5889L, 0x509C814FB511CFB9L, 0x0707FFF07AF113A1L,
+			0x407D343FC40E3FC7L, 0x1F39998D2F2742E7L, 0x672EB9FFA016CC71L, 0x7EC28F484B7204A4L,
+			0x528BC7FFB345705BL, 0x189BA5D36F8E6A1DL, 0x42096CCC8F6AC048L, 0x7A161E42BFA521B1L,
+			0x69A8AE1418AACD41L, 0x435696D132A1CF81L, 0x5486F1A9AD557101L, 0x1C454574288172CEL,
+			0x439F27BAF1112734L, 0x169DD129BA0128A5L, 0x6C31D92B1B4EA520L, 0x242FB50F9001DAA1L,
+			0x568E4755AF721DB3L, 0x368C90D940017BB4L, 0x453E9F77BF8E7E29L, 0x120A0D7A999AC95DL,
+			0x6ECA98BF98E3FD0EL, 0x50101590F5C47561L, 0x58A213CC7A4FFDA5L, 0x26734473F7D05DE8L,
+			0x46E80FD6C83FFE1DL, 0x6B8F69F65FD9E4B9L, 0x71734C8AD9FFFCFCL, 0x45B24323CC8FD45CL,
+			0x5AC2A3A247FFFD96L, 0x6AF502830A0CA9E3L, 0x489BB61B6CCCCADFL, 0x08C402026E7087E9L,
+			0x742C569247AE1164L, 0x746CD003E3E73FDBL, 0x5CF04541D2F1A783L, 0x76BD73364FEC3315L,
+			0x4A59D101758E1F9CL, 0x5EFDF5C50CBCF5ABL, 0x76F61B3588E365C7L, 0x4B2FEFA1ADFB22ABL,
+			0x5F2B48F7A0B5EB06L, 0x08F3261AF195B555L, 0x4C22A0C61A2B226BL, 0x20C284E25ADE2AABL,
+			0x79D1013CF6AB6A45L, 0x1AD0D49D5E304444L, 0x617400FD9222BB6AL, 0x48A7107DE4F369D0L,
+			0x4DF6673141B562BBL, 0x53B8D9FE50C2BB0DL, 0x7CBD71E869223792L, 0x52C15CCA1AD12B48L,
+			0x63CAC186BA81C60EL, 0x75677D6E7BDA8906L, 0x4FD5679EFB9B04D8L, 0x5DEC645863153A6CL,
+			0x7FBBD8FE5F5E6E27L, 0x497A3A2704EEC3DFL
+		};
+	}
+	
+	/**
+	 * A {@link Scanner} over UTF-8 encoded bytes. The structure of a JSON document is 
+	 * all ASCII, so bytes are only decoded inside string literals. The input is consumed
+	 * from a <code>byte[]</code> window; subclasses can override {@link #fill()} to 
+	 * load successive windows from a larger source.
+	 */
+	static class Utf8Scanner extends Scanner
+	{
+		static final int WINDOW_SIZE = 8192;
+		
+		byte [] buf;
+		int pos, limit;
+		long consumed = 0; // number of input bytes before buf[0]
+		java.nio.ByteBuffer source; // for buffers that don't expose their array
+		
+		// In line mode, used for newline delimited JSON, a line feed outside of a
+		// value ends the input the same way the actual end of input does.
+		boolean lineMode = false;
+		boolean lineEnded = false;
+		long lines = 0; // number of line feeds consumed as white space
+		
+		Utf8Scanner(byte [] bytes, int offset, int length) { reset(bytes, offset, length); }
+		
+		Utf8Scanner reset(byte [] bytes, int offset, int length)
+		{
+			if (offset < 0 || length < 0 || offset + length > bytes.length)
+				throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + 
+						", array length " + bytes.length);
+			this.buf = bytes;
+			this.pos = offset;
+			this.limit = offset + length;
+			this.consumed = -offset;
+			return this;
+		}
+		
+		static final byte [] NO_BYTES = new byte[0];
+		
+		void release()
+		{
+			super.release();
+			buf = NO_BYTES;
+			pos = limit = 0;
+		}
+		
+		Utf8Scanner(int windowSize)
+		{
+			this.buf = new byte[windowSize];
+		}
+		
+		Utf8Scanner(java.nio.ByteBuffer bytes)
+		{
+			if (bytes.hasArray())
+			{
+				this.buf = bytes.array();
+				this.pos = bytes.arrayOffset() + bytes.position();
+				this.limit = bytes.arrayOffset() + bytes.limit();
+				this.consumed = -pos;
+			}
+			else
+			{
+				this.source = bytes.duplicate();
+				this.buf = new byte[Math.min(WINDOW_SIZE, Math.max(16, source.remaining()))];
+			}
+		}
+		
+		/**
+		 * Load more input into <code>buf</code>, resetting <code>pos</code> and <code>limit</code>. Return
+		 * <code>false</code> when the input is exhausted. Nothing before <code>pos</code> needs 
+		 * to be preserved.
+		 */
+		boolean fill()
+		{
+			if (source == null || !source.hasRemaining())
+				return false;
+			consumed += limit;
+			int n = Math.min(buf.length, source.remaining());
+			source.get(buf, 0, n);
+			pos = 0;
+			limit = n;
+			return true;
+		}
+		
+		long position() { return consumed + pos; }
+		
+		private int nextByte()
+		{
+			if (pos == limit && !fill())
+				return -1;
+			return buf[pos++] & 0xff;
+		}
+		
+		private int peek()
+		{
+			if (pos == limit && !fill())
+				return -1;
+			return buf[pos] & 0xff;
+		}
+		
+		static boolean isWhiteSpace(int b)
+		{
+			return b == ' ' || (b >= 0x09 && b <= 0x0d) || (b >= 0x1c && b <= 0x1f);
+		}
+		
+		// Return the first byte that is not white space or part of a comment, consuming it.
+		private int skipWhiteSpace()
+		{
+			for (;;)
+			{
+				int b = nextByte();
+				if (b == '\n')
+				{
+					lines++;
+					if (lineMode)
+					{
+						lineEnded = true;
+						return -1;
+					}
+				}
+				else if (isWhiteSpace(b))
+					continue;
+				else if (b == '/' && comments)
+				{
+					b = nextByte();
+					if (b == '*')
+					{
+						for (b = nextByte(); ; b = nextByte())
+						{
+							if (b == '\n')
+								lines++;
+							else if (b == -1)
+								throw error("Unterminated comment while parsing JSON");
+							else if (b == '*' && peek() == '/')
+							{
+								nextByte();
+								break;
+							}
+						}
+					}
+					else if (b == '/')
+					{
+						while (b != '\n' && b != -1)
+							b = nextByte();
+						if (b == '\n')
+						{
+							lines++;
+							if (lineMode)
+							{
+								lineEnded = true;
+								return -1;
+							}
+						}
+					}
+					else
+						throw error("Invalid JSON, unexpected '/'");
+				}
+				else
+					return b;
+			}
+		}
+		
+		// Scan the raw bytes rather than tokens, so nothing is decoded to the text buffer.
+		void skipContainer()
+		{
+			for (int level = 1; level > 0; )
+			{
+				if (pos == limit && !fill())
+					throw error("Reached end of input");
+				switch (buf[pos++])
+				{
+					case '{': case '[': level++; break;
+					case '}': case ']': level--; break;
+					case '"': skipString(); break;
+					case '/':
+						if (comments)
+							skipSpace();
+						break;
+					case '\n': skipSpace(); break;
+				}
+			}
+		}
+		
+		// Skip the white space and comments starting with the byte just read, in case a 
+		// line feed ends the input in line mode or a comment holds brackets.
+		private void skipSpace()
+		{
+			pos--;
+			if (skipWhiteSpace() == -1)
+				throw error("Reached end of input");
+			pos--;
+		}
+		
+		private void skipString()
+		{
+			for (;;)
+			{
+				int p = pos, lim = limit;
+				byte [] buf = this.buf;
+				while (p < lim && buf[p] != '"' && buf[p] != '\\')
+					p++;
+				pos = p;
+				if (p == lim)
+				{
+					if (!fill())
+						throw error("Unterminated string");
+				}
+				else if (buf[pos++] == '"')
+					return;
+				else if (nextByte() == -1)
+					throw error("Unterminated string");
+			}
+		}
+		
+		/**
+		 * Discard input up to and including the next line feed. Return <code>false</code>
+		 * if the end of input was reached instead.
+		 */
+		boolean skipLine()
+		{
+			for (int b = nextByte(); b != -1; b = nextByte())
+				if (b == '\n')
+				{
+					lines++;
+					return true;
+				}
+			return false;
+		}
+		
+		int nextToken()
+		{
+			int b = skipWhiteSpace();
+			switch (b)
+			{
+				case -1: return EOF;
+				case '{': return BEGIN_OBJECT;
+				case '}': return END_OBJECT;
+				case '[': return BEGIN_ARRAY;
+				case ']': return END_ARRAY;
+				case ':': return COLON;
+				case ',': return COMMA;
+				case '"': readString(); return STRING;
+				case 't': expect("rue", "true"); return TRUE;
+				case 'f': expect("alse", "false"); return FALSE;
+				case 'n': expect("ull", "null"); return NULL;
+				default:
+					if (b == '-' || (b >= '0' && b <= '9'))
+					{
+						readNumber(b);
+						return NUMBER;
+					}
+					throw error("Invalid JSON");
+			}
+		}
+		
+		private void expect(String rest, String keyword)
+		{
+			for (int i = 0; i < rest.length(); i++)
+				if (nextByte() != rest.charAt(i))
+					throw error("Invalid JSON token: expected '" + keyword + "' keyword");
+		}
+		
+		private int readDigits()
+		{
+			int n = 0;
+			for (int b = peek(); b >= '0' && b <= '9'; b = peek(), n++)
+			{
+				append((char)b);
+				pos++;
+			}
+			return n;
+		}
+		
+		private void readNumber(int first)
+		{
+			textLength = 0;
+			floatingPoint = false;
+			digits = 0;
+			if (first == '-')
+				append('-');
+			else
+			{
+				append((char)first);
+				digits++;
+			}
+			digits += readDigits();
+			if (digits == 0)
+				throw error("Invalid number, expected a digit after '-'");
+			int b = peek();
+			if (b == '.')
+			{
+				append('.');
+				pos++;
+				int fraction = readDigits();
+				if (fraction == 0)
+					throw error("Invalid number, expected a digit after '.'");
+				digits += fraction;
+				floatingPoint = true;
+				b = peek();
+			}
+			if (b == 'e' || b == 'E')
+			{
+				append((char)b);
+				pos++;
+				b = peek();
+				if (b == '+' || b == '-')
+				{
+					append((char)b);
+					pos++;
+				}
+				if (readDigits() == 0)
+					throw error("Invalid number, expected a digit in the exponent");
+				floatingPoint = true;
+			}
+		}
+		
+		void readString()
+		{
+			textLength = 0;
+			for (;;)
+			{
+				// copy runs of printable ASCII straight into the text buffer
+				byte [] buf = this.buf;
+				int p = pos, lim = limit;
+				char [] text = this.text;
+				int tl = textLength;
+				while (p < lim)
+				{
+					byte b = buf[p];
+					if (b < 0x20 || b == '"' || b == '\\')
+						break;
+					if (tl == text.length)
+						text = this.text = java.util.Arrays.copyOf(text, tl * 2);
+					text[tl++] = (char)b;
+					p++;
+				}
+				pos = p;
+				textLength = tl;
+				int b = nextByte();
+				if (b == '"')
+					return;
+				else if (b == '\\')
+					readEscape();
+				else if (b == -1)
+					throw error("Unterminated string");
+				else if (b == '\n' && lineMode)
+					throw endOfLineInString();
+				else if (b < 0x80)
+					append((char)b);
+				else
+					decode(b);
+			}
+		}
+		
+		private void readEscape()
+		{
+			int b = nextByte();
+			if (b == 'u')
+			{
+				int value = 0;
+				for (int i = 0; i < 4; i++)
+				{
+					int h = hexValue(nextByte());
+					if (h < 0)
+						throw error("Invalid unicode escape in string");
+					value = (value << 4) + h;
+				}
+				append((char)value);
+			}
+			else if (b == -1)
+				throw error("Unterminated string");
+			else if (b == '\n' && lineMode)
+				throw endOfLineInString();
+			else if (b < 0x80)
+				append(ESCAPES[b]);
+			else
+				decode(b);
+		}
+		
+		// In line mode, a line feed can't be part of a string: it ends the record, which is
+		// malformed, and the next one starts right after it.
+		private MJsonException endOfLineInString()
+		{
+			lines++;
+			lineEnded = true;
+			return error("Unterminated string at the end of the line");
+		}
+		
+		private int continuation()
+		{
+			int b = peek();
+			if ((b & 0xc0) != 0x80)
+				return -1;
+			pos++;
+			return b & 0x3f;
+		}
+		
+		// Decode a multi-byte UTF-8 sequence starting with the lead byte b. Malformed 
+		// sequences are replaced with U+FFFD like java.lang.String does.
+		private void decode(int b)
+		{
+			int cp;
+			if (b >= 0xc2 && b <= 0xdf)
+			{
+				int c1 = continuation();
+				cp = c1 < 0 ? -1 : ((b & 0x1f) << 6) | c1;
+			}
+			else if (b >= 0xe0 && b <= 0xef)
+			{
+				int c1 = continuation(), c2 = c1 < 0 ? -1 : continuation();
+				cp = c2 < 0 ? -1 : ((b & 0x0f) << 12) | (c1 << 6) | c2;
+				if (cp >= 0 && (cp < 0x800 || (cp >= 0xd800 && cp <= 0xdfff)))
+					cp = -1;
+			}
+			else if (b >= 0xf0 && b <= 0xf4)
+			{
+				int c1 = continuation(), c2 = c1 < 0 ? -1 : continuation(), c3 = c2 < 0 ? -1 : continuation();
+				cp = c3 < 0 ? -1 : ((b & 0x07) << 18) | (c1 << 12) | (c2 << 6) | c3;
+				if (cp >= 0 && (cp < 0x10000 || cp > 0x10ffff))
+					cp = -1;
+			}
+			else
+				cp = -1;
+			if (cp < 0)
+				append('\uFFFD');
+			else if (cp < 0x10000)
+				append((char)cp);
+			else
+			{
+				append(Character.highSurrogate(cp));
+				append(Character.lowSurrogate(cp));
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * First stage of the {@link IndexedScanner}: the offsets of all tokens of a UTF-8 
+	 * encoded document, that is the structural characters <code>{}[]:,</code> outside of 
+	 * string literals, the opening quotes of string literals and the first bytes of numbers
+	 * and literals. White space and the content of strings are never looked at again.
+	 * </p>
+	 * 
+	 * <p>
+	 * The input is classified 8 bytes at a time, SWAR style: each class of characters is 
+	 * matched on a whole <code>long</code> at once, the quotes that open or close a string
+	 * are turned into an "inside a string" mask with a prefix XOR across the bytes, and the 
+	 * offsets are extracted from the resulting bit masks. Escapes are resolved byte by byte, 
+	 * but only for words that contain a backslash. The last few bytes go through the same 
+	 * classification one byte at a time, which can also be used for the whole document.
+	 * </p>
+	 */
+	static final class StructuralIndex
+	{
+		static final long ONES = 0x0101010101010101L;
+		private static final long LOW_SEVEN = 0x7F7F7F7F7F7F7F7FL;
+		private static final long CASE_BIT = 0x2020202020202020L;
+		
+		int [] positions;
+		int count = 0;
+		boolean inString = false, escape = false, inScalar = false;
+		
+		// Bit 0 of each byte of the result is set when the matching byte of w is c.
+		static long matches(long w, int c)
+		{
+			long t = w ^ (c * ONES);
+			return ~(((t & LOW_SEVEN) + LOW_SEVEN) | t | LOW_SEVEN) >>> 7;
+		}
+		
+		// Bit 0 of each byte of the result is set when the matching byte of w is in [low, high].
+		static long between(long w, int low, int high)
+		{
+			long t = w & LOW_SEVEN;
+			return ((t + (0x80 - low) * ONES) & ~(t + (0x7F - high) * ONES) & ~w & ~LOW_SEVEN) >>> 7;
+		}
+		
+		private void add(int position)
+		{
+			if (count == positions.length)
+				positions = java.util.Arrays.copyOf(positions, count * 2);
+			positions[count++] = position;
+		}
+		
+		/**
+		 * Index <code>bytes[from..to)</code>. Return <code>null</code> if the document 
+		 * contains a comment, which is left to the regular scanner.
+		 */
+		static StructuralIndex build(byte [] bytes, int from, int to, boolean swar)
+		{
+			StructuralIndex index = new StructuralIndex();
+			index.positions = new int[Math.max(16, (to - from) / 4)];
+			int i = from;
+			if (swar)
+			{
+				java.nio.ByteBuffer words = java.nio.ByteBuffer.wrap(bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+				long inString = 0; // all ones in a string, otherwise 0
+				long inScalar = 0; // 1 when the last byte of the previous word was part of a scalar
+				for (; i + 8 <= to; i += 8)
+				{
+					long w = words.getLong(i);
+					long quotes = matches(w, '"');
+					if (index.escape || matches(w, '\\') != 0)
+						quotes &= ~index.escapes(bytes, i);
+					long strings = quotes;
+					strings ^= strings << 8;
+					strings ^= strings << 16;
+					strings ^= strings << 32;
+					strings ^= inString & ONES;
+					inString = -(strings >>> 56 & 1);
+					long outside = ~(strings | quotes) & ONES;
+					long structural = matches(w | CASE_BIT, '{') | matches(w | CASE_BIT, '}') | matches(w, ':') | matches(w, ',');
+					long space = matches(w, ' ') | between(w, 0x09, 0x0d) | between(w, 0x1c, 0x1f); // as Utf8Scanner
+					long scalars = outside & ~(structural | space);
+					if ((matches(w, '/') & outside) != 0)
+						return null;
+					long hits = (structural & outside) | (quotes & strings) | (scalars & ~(scalars << 8 | inScalar));
+					inScalar = scalars >>> 56;
+					while (hits != 0)
+					{
+						index.add(i + (Long.numberOfTrailingZeros(hits) >>> 3));
+						hits &= hits - 1;
+					}
+				}
+				index.inString = inString != 0;
+				index.inScalar = inScalar != 0;
+			}
+			for (; i < to; i++)
+			{
+				int b = bytes[i];
+				if (index.escape)
+					index.escape = false;
+				else if (index.inString)
+				{
+					if (b == '\\')
+						index.escape = true;
+					else if (b == '"')
+						index.inString = false;
+				}
+				else switch (b)
+				{
+					case '"': 
+						index.inString = true;
+						index.add(i); 
+						index.inScalar = false; 
+						break;
+					case '{': case '}': case '[': case ']': case ':': case ',': 
+						index.add(i); 
+						index.inScalar = false; 
+						break;
+					case '/': 
+						return null;
+					default:
+						if (Utf8Scanner.isWhiteSpace(b))
+							index.inScalar = false;
+						else if (!index.inScalar)
+						{
+							index.add(i);
+							index.inScalar = true;
+						}
+				}
+			}
+			return index;
+		}
+		
+		// Bit 0 of each byte of the result is set when the matching byte of the word at 
+		// offset i is escaped by a backslash.
+		private long escapes(byte [] bytes, int i)
+		{
+			long escaped = 0;
+			for (int k = 0; k < 8; k++)
+				if (escape)
+				{
+					escaped |= 1L << (8 * k);
+					escape = false;
+				}
+				else if (bytes[i + k] == '\\')
+					escape = true;
+			return escaped;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Second stage of the indexed engine: a {@link Utf8Scanner} over a byte array that 
+	 * takes the location of every token from a {@link StructuralIndex}, so it never skips 
+	 * white space or looks for the start of a token.
+	 * </p>
+	 */
+	static class IndexedScanner extends Utf8Scanner
+	{
+		final StructuralIndex index;
+		int next = 0;
+		
+		IndexedScanner(byte [] bytes, int offset, int length, StructuralIndex index)
+		{
+			super(bytes, offset, length);
+			this.index = index;
+		}
+		
+		int nextToken()
+		{
+			if (next == index.count)
+			{
+				pos = limit;
+				return EOF;
+			}
+			int p = index.positions[next++];
+			pos = p + 1;
+			switch (buf[p])
+			{
+				case '{': return BEGIN_OBJECT;
+				case '}': return END_OBJECT;
+				case '[': return BEGIN_ARRAY;
+				case ']': return END_ARRAY;
+				case ':': return COLON;
+				case ',': return COMMA;
+				case '"': readString(); return STRING;
+				default:
+					pos = p;
+					int token = super.nextToken();
+					// a number or literal must be followed by the next token or white space
+					if (pos < limit && (next == index.count || pos != index.positions[next]) && !isWhiteSpace(buf[pos]))
+						throw error("Invalid JSON");
+					return token;
+			}
+		}
+		
+		// Strings are indexed by their opening quote only, so skipping never looks at their content.
+		void skipContainer()
+		{
+			for (int level = 1; level > 0; )
+			{
+				if (next == index.count)
+				{
+					pos = limit;
+					throw error("Reached end of input");
+				}
+				int p = index.positions[next++];
+				pos = p + 1;
+				if (buf[p] == '{' || buf[p] == '[')
+					level++;
+				else if (buf[p] == '}' || buf[p] == ']')
+					level--;
+			}
+		}
+	}
+	
+	/**
+	 * A {@link Utf8Scanner} over a file that is memory mapped one region at a time, so files 
+	 * larger than 2GB can be parsed. The mapped bytes are copied through the scanner's small
+	 * window and are never loaded on the heap as a whole.
+	 */
+	static class MappedFileScanner extends Utf8Scanner
+	{
+		static final long MAPPING_SIZE = 1L << 28;
+		
+		final java.nio.channels.FileChannel channel;
+		final long size;
+		final long mappingSize;
+		long mapped = 0; // offset of the end of the last mapped region
+		
+		MappedFileScanner(java.nio.channels.FileChannel channel, long mappingSize) throws IOException
+		{
+			this(channel, 0, channel.size(), mappingSize);
+		}
+		
+		/**
+		 * Scan only the bytes between offsets <code>start</code> (inclusive) and 
+		 * <code>end</code> (exclusive) of the file. Positions are still reported relative to 
+		 * the beginning of the file.
+		 */
+		MappedFileScanner(java.nio.channels.FileChannel channel, long start, long end, long mappingSize)
+		{
+			super(WINDOW_SIZE);
+			this.channel = channel;
+			this.mapped = start;
+			this.consumed = start;
+			this.size = end;
+			this.mappingSize = mappingSize;
+		}
+		
+		boolean fill()
+		{
+			if ((source == null || !source.hasRemaining()) && mapped < size)
+			{
+				long length = Math.min(mappingSize, size - mapped);
+				try
+				{
+					source = channel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, mapped, length);
+				}
+				catch (IOException ex)
+				{
+					throw new MJsonException(ex);
+				}
+				mapped += length;
+			}
+			return super.fill();
+		}
+	}
+	
+	/**
+	 * A {@link Utf8Scanner} reading from an {@link java.io.InputStream} through its window.
+	 */
+	static class InputStreamScanner extends Utf8Scanner
+	{
+		final java.io.InputStream in;
+		
+		InputStreamScanner(java.io.InputStream in)
+		{
+			super(WINDOW_SIZE);
+			this.in = in;
+		}
+		
+		boolean fill()
+		{
+			int n;
+			try
+			{
+				do { n = in.read(buf, 0, buf.length); } while (n == 0);
+			}
+			catch (IOException ex)
+			{
+				throw new MJsonException(ex);
+			}
+			if (n < 0)
+				return false;
+			consumed += limit;
+			pos = 0;
+			limit = n;
+			return true;
+		}
+	}
+	
+	/**
+	 * Iterates over the records of newline delimited JSON, one value per line, reusing 
+	 * the same scanner and parser for all of them. Blank lines are ignored.
+	 */
+	static class LineIterator implements Iterator<Json>
+	{
+		final Utf8Scanner scanner;
+		final JsonParser parser;
+		final boolean skipMalformed;
+		final long startOffset; // where the first line starts in the whole input
+		Json next;
+		boolean done = false;
+		
+		LineIterator(Utf8Scanner scanner, boolean skipMalformed)
+		{
+			this.scanner = scanner;
+			this.parser = new JsonParser(scanner);
+			this.skipMalformed = skipMalformed;
+			this.startOffset = scanner.position();
+			scanner.lineMode = true;
+		}
+		
+		Json readRecord()
+		{
+			for (;;)
+			{
+				long line = scanner.lines + 1;
+				scanner.lineEnded = false;
+				parser.reset();
+				try
+				{
+					if (parser.next() == null)
+					{
+						if (scanner.lineEnded)
+							continue;
+						return null;
+					}
+					Json record = parser.getValue();
+					if (scanner.nextToken() != Scanner.EOF)
+						throw scanner.error("Unexpected content after the value");
+					return record;
+				}
+				catch (MJsonException ex)
+				{
+					if (!skipMalformed)
+						throw new MJsonException("Malformed JSON on line " + line + 
+								(startOffset > 0 ? " counting from byte offset " + startOffset : "") + 
+								": " + ex.getMessage(), ex);
+					if (!scanner.lineEnded && !scanner.skipLine())
+						return null;
+				}
+			}
+		}
+		
+		public boolean hasNext()
+		{
+			if (next == null && !done)
+				done = (next = readRecord()) == null;
+			return next != null;
+		}
+		
+		public Json next()
+		{
+			if (!hasNext())
+				throw new java.util.NoSuchElementException();
+			Json result = next;
+			next = null;
+			return result;
+		}
+	}
+	
+	/**
+	 * Splits the newline delimited JSON of a file region into records. The region can be 
+	 * split in two at a line boundary, so parallel streams parse separate chunks of the 
+	 * file concurrently on the fork-join pool.
+	 */
+	static class LineSpliterator implements java.util.Spliterator<Json>
+	{
+		static final long MIN_SPLIT_SIZE = 1L << 20;
+		
+		final java.nio.channels.FileChannel channel;
+		final boolean skipMalformed;
+		long start, end;
+		LineIterator records;
+		
+		LineSpliterator(java.nio.channels.FileChannel channel, long start, long end, boolean skipMalformed)
+		{
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.skipMalformed = skipMalformed;
+		}
+		
+		/**
+		 * Return the offset right after the first line feed at or after <code>from</code>, 
+		 * or <code>end</code> if there is none before it.
+		 */
+		static long lineBoundary(java.nio.channels.FileChannel channel, long from, long end)
+		{
+			java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocate(Utf8Scanner.WINDOW_SIZE);
+			try
+			{
+				while (from < end)
+				{
+					buf.clear();
+					if (end - from < buf.capacity())
+						buf.limit((int)(end - from));
+					int n = channel.read(buf, from);
+					if (n < 0)
+						break;
+					for (int i = 0; i < n; i++)
+						if (buf.get(i) == '\n')
+							return from + i + 1;
+					from += n;
+				}
+				return end;
+			}
+			catch (IOException ex)
+			{
+				throw new MJsonException(ex);
+			}
+		}
+		
+		public boolean tryAdvance(java.util.function.Consumer<? super Json> action)
+		{
+			if (records == null)
+				records = new LineIterator(new MappedFileScanner(channel, start, end, MappedFileScanner.MAPPING_SIZE), 
+										   skipMalformed);
+			if (!records.hasNext())
+				return false;
+			action.accept(records.next());
+			return true;
+		}
+		
+		public java.util.Spliterator<Json> trySplit()
+		{
+			if (records != null || end - start < 2 * MIN_SPLIT_SIZE)
+				return null;
+			long split = lineBoundary(channel, start + (end - start) / 2, end);
+			if (split >= end)
+				return null;
+			LineSpliterator prefix = new LineSpliterator(channel, start, split, skipMalformed);
+			start = split;
+			return prefix;
+		}
+		
+		public long estimateSize() { return end - start; }
+		
+		public int characteristics() { return ORDERED | NONNULL; }
+	}
+	
+	/**
+	 * A {@link Scanner} over characters, either from a <code>String</code> or from a 
+	 * {@link java.io.Reader}. The input is consumed through a fixed-size <code>char[]</code> window.
+	 */
+	static class CharScanner extends Scanner
+	{
+		static final int WINDOW_SIZE = 8192;
+		
+		char [] buf;
+		int pos, limit;
+		long consumed = 0; // number of input chars before buf[0]
+		String string;
+		int stringOffset;
+		java.io.Reader reader;
+		char [] window;    // the scanner's own buffer, for strings
+		
+		CharScanner() { }
+		
+		CharScanner(String string) { reset(string); }
+		
+		CharScanner(char [] chars, int offset, int length) { reset(chars, offset, length); }
+		
+		CharScanner reset(String string)
+		{
+			int size = Math.min(WINDOW_SIZE, Math.max(16, string.length()));
+			if (window == null || window.length < size)
+				window = new char[size];
+			this.buf = window;
+			this.string = string;
+			this.stringOffset = 0;
+			this.pos = this.limit = 0;
+			this.consumed = 0;
+			return this;
+		}
+		
+		CharScanner reset(char [] chars, int offset, int length)
+		{
+			if (offset < 0 || length < 0 || offset + length > chars.length)
+				throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + 
+						", array length " + chars.length);
+			this.buf = chars;
+			this.string = null;
+			this.pos = offset;
+			this.limit = offset + length;
+			this.consumed = -offset;
+			return this;
+		}
+		
+		void release()
+		{
+			super.release();
+			string = null;
+			reader = null;
+			buf = window;
+			pos = limit = 0;
+		}
+		
+		CharScanner(java.io.Reader reader)
+		{
+			this.reader = reader;
+			this.buf = new char[WINDOW_SIZE];
+		}
+		
+		boolean fill()
+		{
+			int n = -1;
+			if (string != null)
+			{
+				n = Math.min(buf.length, string.length() - stringOffset);
+				string.getChars(stringOffset, stringOffset + n, buf, 0);
+				stringOffset += n;
+			}
+			else if (reader != null)
+			{
+				try
+				{
+					do { n = reader.read(buf, 0, buf.length); } while (n == 0);
+				}
+				catch (IOException ex)
+				{
+					throw new MJsonException(ex);
+				}
+			}
+			if (n <= 0)
+				return false;
+			consumed += limit;
+			pos = 0;
+			limit = n;
+			return true;
+		}
+		
+		long position() { return consumed + pos; }
+		
+		private int nextChar()
+		{
+			if (pos == limit && !fill())
+				return -1;
+			return buf[pos++];
+		}
+		
+		private int peek()
+		{
+			if (pos == limit && !fill())
+				return -1;
+			return buf[pos];
+		}
+		
+		int nextToken()
+		{
+			for (;;)
+			{
+				if (pos == limit && !fill())
+					return EOF;
+				char c = buf[pos++];
+				switch (c)
+				{
+					case ' ': case '\n': case '\r': case '\t': break;
+					case '{': return BEGIN_OBJECT;
+					case '}': return END_OBJECT;
+					case '[': return BEGIN_ARRAY;
+					case ']': return END_ARRAY;
+					case ':': return COLON;
+					case ',': return COMMA;
+					case '"': readString(); return STRING;
+					case 't': expect("rue", "true"); return TRUE;
+					case 'f': expect("alse", "false"); return FALSE;
+					case 'n': expect("ull", "null"); return NULL;
+					case '/': skipComment(); break;
+					case '-': case '0': case '1': case '2': case '3': case '4': 
+					case '5': case '6': case '7': case '8': case '9':
+						readNumber(c);
+						return NUMBER;
+					default:
+						if (!Character.isWhitespace(c))
+							throw error("Invalid JSON");
+				}
+			}
+		}
+		
+		// Scan the raw characters rather than tokens, so nothing is copied to the text buffer.
+		void skipContainer()
+		{
+			for (int level = 1; level > 0; )
+			{
+				if (pos == limit && !fill())
+					throw error("Reached end of input");
+				switch (buf[pos++])
+				{
+					case '{': case '[': level++; break;
+					case '}': case ']': level--; break;
+					case '"': skipString(); break;
+					case '/': skipComment(); break;
+				}
+			}
+		}
+		
+		private void skipString()
+		{
+			for (;;)
+			{
+				int p = pos, lim = limit;
+				char [] buf = this.buf;
+				while (p < lim && buf[p] != '"' && buf[p] != '\\')
+					p++;
+				pos = p;
+				if (p == lim)
+				{
+					if (!fill())
+						throw error("Unterminated string");
+				}
+				else if (buf[pos++] == '"')
+					return;
+				else if (nextChar() == -1)
+					throw error("Unterminated string");
+			}
+		}
+		
+		private void skipComment()
+		{
+			if (!comments)
+				throw error("Invalid JSON, comments are not allowed");
+			int c = nextChar();
+			if (c == '*')
+			{
+				for (c = nextChar(); ; c = nextChar())
+				{
+					if (c == -1)
+						throw error("Unterminated comment while parsing JSON");
+					else if (c == '*' && peek() == '/')
+					{
+						nextChar();
+						return;
+					}
+				}
+			}
+			else if (c == '/')
+			{
+				while (c != '\n' && c != -1)
+					c = nextChar();
+			}
+			else
+				throw error("Invalid JSON, unexpected '/'");
+		}
+		
+		private void expect(String rest, String keyword)
+		{
+			for (int i = 0; i < rest.length(); i++)
+				if (nextChar() != rest.charAt(i))
+					throw error("Invalid JSON token: expected '" + keyword + "' keyword");
+		}
+		
+		private int readDigits()
+		{
+			int n = 0;
+			do
+			{
+				int p = pos, lim = limit;
+				char [] buf = this.buf;
+				while (p < lim && buf[p] <= '9' && buf[p] >= '0')
+					p++;
+				append(buf, pos, p - pos);
+				n += p - pos;
+				pos = p;
+			} while (pos == limit && fill());
+			return n;
+		}
+		
+		private void readNumber(char first)
+		{
+			textLength = 0;
+			floatingPoint = false;
+			digits = 0;
+			if (first == '-')
+				append('-');
+			else
+			{
+				append(first);
+				digits++;
+			}
+			digits += readDigits();
+			if (digits == 0)
+				throw error("Invalid number, expected a digit after '-'");
+			int c = peek();
+			if (c == '.')
+			{
+				append('.');
+				pos++;
+				int fraction = readDigits();
+				if (fraction == 0)
+					throw error("Invalid number, expected a digit after '.'");
+				digits += fraction;
+				floatingPoint = true;
+				c = peek();
+			}
+			if (c == 'e' || c == 'E')
+			{
+				append((char)c);
+				pos++;
+				c = peek();
+				if (c == '+' || c == '-')
+				{
+					append((char)c);
+					pos++;
+				}
+				if (readDigits() == 0)
+					throw error("Invalid number, expected a digit in the exponent");
+				floatingPoint = true;
+			}
+		}
+		
+		private void readString()
+		{
+			textLength = 0;
+			for (;;)
+			{
+				// copy runs without quotes or escapes in one go
+				int p = pos, lim = limit;
+				char [] buf = this.buf;
+				while (p < lim)
+				{
+					char c = buf[p];
+					if (c == '"' || c == '\\')
+						break;
+					p++;
+				}
+				append(buf, pos, p - pos);
+				pos = p;
+				if (p == lim)
+				{
+					if (!fill())
+						throw error("Unterminated string");
+					continue;
+				}
+				if (buf[pos++] == '"')
+					return;
+				int c = nextChar();
+				if (c == 'u')
+				{
+					int value = 0;
+					for (int i = 0; i < 4; i++)
+					{
+						int h = hexValue(nextChar());
+						if (h < 0)
+							throw error("Invalid unicode escape in string");
+						value = (value << 4) + h;
+					}
+					append((char)value);
+				}
+				else if (c == -1)
+					throw error("Unterminated string");
+				else
+					append(c < ESCAPES.length ? ESCAPES[c] : (char)c);
+			}
+		}
+	}
+
+	
+	/**
+	 * <p>
+	 * The source text of a document read with {@link Json#readLazy(String)}, along with a 
+	 * structural index of its containers: for every object or array, in document order, the
+	 * offset of its opening bracket, the offset right after its closing bracket and the index 
+	 * of the next container that isn't nested in it. 
+	 * </p>
+	 * 
+	 * <p>
+	 * The index is built in a single pass that only tracks brackets, string literals and 
+	 * comments. A container's members are parsed when it is first accessed, and the nested 
+	 * containers among them are skipped over by jumping to their recorded end. So the 
+	 * grammar of a region is only checked once it is touched.
+	 * </p>
+	 */
+	static final class LazyDocument
+	{
+		final char [] chars;
+		int [] starts = new int[16], ends = new int[16], nexts = new int[16];
+		int count = 0;
+		final CharScanner scanner;
+		
+		LazyDocument(char [] chars, int offset, int length)
+		{
+			this.chars = chars;
+			this.scanner = new CharScanner(chars, offset, length);
+			index(offset, offset + length);
+		}
+		
+		private void index(int from, int to)
+		{
+			int [] stack = new int[16];
+			int depth = 0;
+			for (int i = from; i < to; i++)
+			{
+				char c = chars[i];
+				switch (c)
+				{
+					case '{': case '[':
+						if (count == starts.length)
+						{
+							starts = java.util.Arrays.copyOf(starts, count * 2);
+							ends = java.util.Arrays.copyOf(ends, count * 2);
+							nexts = java.util.Arrays.copyOf(nexts, count * 2);
+						}
+						if (depth == stack.length)
+							stack = java.util.Arrays.copyOf(stack, depth * 2);
+						starts[count] = i;
+						stack[depth++] = count++;
+						break;
+					case '}': case ']':
+						if (depth == 0 || chars[starts[stack[depth - 1]]] != (c == '}' ? '{' : '['))
+							throw error("Unexpected '" + c + "'", i);
+						int node = stack[--depth];
+						ends[node] = i + 1;
+						nexts[node] = count;
+						if (depth == 0)
+							return; // the rest isn't part of the value, as in Json.read
+						break;
+					case '"':
+						for (i++; i < to && (c = chars[i]) != '"'; i++)
+							if (c == '\\')
+								i++;
+						if (i >= to)
+							throw error("Unterminated string", to);
+						break;
+					case '/':
+						if (i + 1 < to && chars[i + 1] == '/')
+							while (i < to && chars[i] != '\n')
+								i++;
+						else if (i + 1 < to && chars[i + 1] == '*')
+						{
+							for (i += 2; i + 1 < to && !(chars[i] == '*' && chars[i + 1] == '/'); i++)
+								;
+							if (i + 1 >= to)
+								throw error("Unterminated comment while parsing JSON", to);
+							i++;
+						}
+						break;
+				}
+				if (depth == 0 && count == 0 && c > ' ' && c != '/' && !Character.isWhitespace(c))
+					return; // a scalar document
+			}
+			if (depth > 0)
+				throw error("Reached end of input", to);
+		}
+		
+		private MJsonException error(String message, int offset)
+		{
+			return new MJsonException(message + " (at position " + (offset + scanner.consumed) + ")");
+		}
+		
+		Json root()
+		{
+			int token = scanner.nextToken();
+			if (token == Scanner.EOF)
+				throw scanner.error("Reached end of input");
+			return value(token, 0);
+		}
+		
+		// The value starting with token, where child is the index of the next container.
+		private Json value(int token, int child)
+		{
+			switch (token)
+			{
+				case Scanner.BEGIN_OBJECT: 
+				case Scanner.BEGIN_ARRAY:
+					if (child >= count || starts[child] != scanner.pos - 1)
+						throw scanner.error("Structural index out of sync");
+					scanner.pos = ends[child];
+					return token == Scanner.BEGIN_OBJECT ? new LazyObjectJson(this, child) : new LazyArrayJson(this, child);
+				case Scanner.STRING: return new StringJson(scanner.stringValue(), null);
+				case Scanner.NUMBER:
+					if (!scanner.floatingPoint && scanner.digits < 19)
+						return new NumberJson(scanner.longValue(), null);
+					else
+						return new NumberJson(scanner.stringValue(), null);
+				case Scanner.TRUE: return new BooleanJson(Boolean.TRUE, null);
+				case Scanner.FALSE: return new BooleanJson(Boolean.FALSE, null);
+				case Scanner.NULL: return nil();
+				default: 
+					throw scanner.error("Unexpected " + Scanner.describe(token));
+			}
+		}
+		
+		synchronized void members(int node, ObjectJson object)
+		{
+			scanner.pos = starts[node] + 1;
+			int child = node + 1;
+			for (int token = scanner.nextToken(); token != Scanner.END_OBJECT; )
+			{
+				if (token != Scanner.STRING)
+					throw scanner.error("Missing object key (don't forget to put quotes!), got " + 
+							Scanner.describe(token));
+				String key = scanner.keyValue();
+				if (scanner.nextToken() != Scanner.COLON)
+					throw scanner.error("Expected ':' after object key " + key);
+				token = scanner.nextToken();
+				Json value = value(token, child);
+				if (token == Scanner.BEGIN_OBJECT || token == Scanner.BEGIN_ARRAY)
+					child = nexts[child];
+				value.enclosing = object;
+				object.object.put(key, value);
+				token = scanner.nextToken();
+				if (token == Scanner.COMMA)
+					token = scanner.nextToken();
+				else if (token != Scanner.END_OBJECT)
+					throw scanner.error("Expected ',' or '}', got " + Scanner.describe(token));
+			}
+		}
+		
+		synchronized void elements(int node, ArrayJson array)
+		{
+			scanner.pos = starts[node] + 1;
+			int child = node + 1;
+			for (int token = scanner.nextToken(); token != Scanner.END_ARRAY; )
+			{
+				Json value = value(token, child);
+				if (token == Scanner.BEGIN_OBJECT || token == Scanner.BEGIN_ARRAY)
+					child = nexts[child];
+				value.enclosing = array;
+				array.L.add(value);
+				token = scanner.nextToken();
+				if (token == Scanner.COMMA)
+					token = scanner.nextToken();
+				else if (token != Scanner.END_ARRAY)
+					throw scanner.error("Expected ',' or ']', got " + Scanner.describe(token));
+			}
+		}
+		
+		String text(int node)
+		{
+			return new String(chars, starts[node], ends[node] - starts[node]);
+		}
+		
+		void write(int node, Appendable out) throws IOException
+		{
+			if (out instanceof StringBuilder)
+				((StringBuilder)out).append(chars, starts[node], ends[node] - starts[node]);
+			else
+				out.append(java.nio.CharBuffer.wrap(chars, starts[node], ends[node] - starts[node]));
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A parsed document laid out flat, as read by {@link Json#readTape(String)}. Every value 
+	 * takes one <code>long</code> of <code>entries</code>, in document order, and the text of 
+	 * keys, strings and numbers goes to a single <code>bytes</code> buffer, one byte per 
+	 * character when they are all Latin-1 and two otherwise, like with compact strings. The 
+	 * top four bits of an entry hold its type, the rest depends on it:
+	 * </p>
+	 * 
+	 * <ul>
+	 * <li>objects and arrays: the number of members or elements in bits 32 to 59 and the index
+	 * of the entry following the container in the low 32 bits, so that a container is skipped 
+	 * in one step. An object member is a key entry followed by the value.</li>
+	 * <li>keys, strings and numbers that don't fit in an <code>INTEGER</code>: the 
+	 * <code>WIDE</code> flag for text stored as UTF-16, the length of their text in bits 32 to 
+	 * 58 and its offset in <code>bytes</code> in the low bits. Repeated keys share their text.</li>
+	 * <li>integers: the value itself, as a 60 bit two's complement number.</li>
+	 * </ul>
+	 * 
+	 * <p>
+	 * A tape is never modified once built, so it can be shared between threads. The 
+	 * <code>Json</code> instances handed out for its values are created on access.
+	 * </p>
+	 */
+	static final class Tape
+	{
+		static final int OBJECT = 1, ARRAY = 2, KEY = 3, STRING = 4, INTEGER = 5, NUMBER = 6, 
+						 TRUE = 7, FALSE = 8, NULL = 9;
+		static final int MAX_COUNT = (1 << 28) - 1, MAX_LENGTH = (1 << 27) - 1;
+		static final long WIDE = 1L << 59;
+		
+		final long [] entries;
+		final byte [] bytes;
+		
+		Tape(long [] entries, byte [] bytes)
+		{
+			this.entries = entries;
+			this.bytes = bytes;
+		}
+		
+		static int type(long entry) { return (int)(entry >>> 60); }
+		static int count(long entry) { return (int)(entry >>> 32) & MAX_COUNT; }
+		static int length(long entry) { return (int)(entry >>> 32) & MAX_LENGTH; }
+		static int low(long entry) { return (int)entry; }
+		
+		static MJsonException readOnly()
+		{
+			return new MJsonException("A Json read with Json.readTape is read-only, use dup() for a mutable copy.");
+		}
+		
+		// The index of the entry following the value at i.
+		int next(int i)
+		{
+			long entry = entries[i];
+			int type = type(entry);
+			return type == OBJECT || type == ARRAY ? low(entry) : i + 1;
+		}
+		
+		String text(int i) { return text(i, Integer.MAX_VALUE); }
+		
+		// At most max characters of the text at i.
+		String text(int i, int max)
+		{
+			long entry = entries[i];
+			int length = Math.min(length(entry), max);
+			if ((entry & WIDE) == 0)
+				return new String(bytes, low(entry), length, java.nio.charset.StandardCharsets.ISO_8859_1);
+			char [] chars = new char[length];
+			for (int k = 0; k < chars.length; k++)
+				chars[k] = charAt(entry, k);
+			return new String(chars);
+		}
+		
+		char charAt(long entry, int k)
+		{
+			int offset = low(entry);
+			if ((entry & WIDE) == 0)
+				return (char)(bytes[offset + k] & 0xFF);
+			return (char)(bytes[offset + 2 * k] << 8 | bytes[offset + 2 * k + 1] & 0xFF);
+		}
+		
+		Json root() { return value(0, null); }
+		
+		Json value(int i, Json enclosing)
+		{
+			long entry = entries[i];
+			switch (type(entry))
+			{
+				case OBJECT: return new TapeObjectJson(this, i, enclosing);
+				case ARRAY: return new TapeArrayJson(this, i, enclosing);
+				case STRING: return new StringJson(text(i), enclosing);
+				case INTEGER: return new NumberJson(entry << 4 >> 4, enclosing);
+				case NUMBER: return new NumberJson(text(i), enclosing);
+				case TRUE: return new BooleanJson(Boolean.TRUE, enclosing);
+				case FALSE: return new BooleanJson(Boolean.FALSE, enclosing);
+				default: return new NullJson(enclosing);
+			}
+		}
+		
+		// The value of the last member named so, as Json.read keeps the last of duplicates, 
+		// or -1.
+		int find(int object, String name)
+		{
+			int found = -1, length = name.length();
+			for (int i = object + 1, end = low(entries[object]); i < end; i = next(i + 1))
+			{
+				long entry = entries[i];
+				if (length(entry) != length)
+					continue;
+				int k = 0;
+				while (k < length && charAt(entry, k) == name.charAt(k))
+					k++;
+				if (k == length)
+					found = i + 1;
+			}
+			return found;
+		}
+		
+		int element(int array, int index)
+		{
+			if (index < 0 || index >= count(entries[array]))
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count(entries[array]));
+			int i = array + 1;
+			while (index-- > 0)
+				i = next(i);
+			return i;
+		}
+		
+		Map<String, Json> members(int object, Json enclosing)
+		{
+			Map<String, Json> members = new java.util.LinkedHashMap<String, Json>();
+			for (int i = object + 1, end = low(entries[object]); i < end; i = next(i + 1))
+				members.put(text(i), value(i + 1, enclosing));
+			return Collections.unmodifiableMap(members);
+		}
+		
+		List<Json> elements(int array, Json enclosing)
+		{
+			List<Json> elements = new ArrayList<Json>(count(entries[array]));
+			for (int i = array + 1, end = low(entries[array]); i < end; i = next(i))
+				elements.add(value(i, enclosing));
+			return Collections.unmodifiableList(elements);
+		}
+		
+		// Report the value at node to a handler, as a parser would.
+		void replay(int node, JsonHandler handler)
+		{
+			int [] open = new int[16]; // the containers entered, innermost last
+			int depth = 0;
+			int i = node;
+			do
+			{
+				long entry = entries[i];
+				switch (type(entry))
+				{
+					case OBJECT: 
+					case ARRAY:
+						if (type(entry) == OBJECT) handler.startObject(); else handler.startArray();
+						if (depth == open.length)
+							open = java.util.Arrays.copyOf(open, depth * 2);
+						open[depth++] = i;
+						break;
+					case KEY: handler.key(text(i)); break;
+					case STRING: handler.string(text(i)); break;
+					case INTEGER: handler.number(entry << 4 >> 4); break;
+					case NUMBER: handler.number(text(i)); break;
+					case TRUE: handler.bool(true); break;
+					case FALSE: handler.bool(false); break;
+					default: handler.nil(); 
+				}
+				i++;
+				for (; depth > 0 && i == low(entries[open[depth - 1]]); depth--)
+					if (type(entries[open[depth - 1]]) == OBJECT) 
+						handler.endObject(); 
+					else 
+						handler.endArray();
+			} while (depth > 0);
+		}
+		
+		private void writeText(int i, Appendable out, Escaper escaper, java.nio.ByteBuffer words) throws IOException
+		{
+			long entry = entries[i];
+			if (words != null && (entry & WIDE) == 0)
+				Escaper.escapeLatin1(bytes, words, low(entry), low(entry) + length(entry), (Utf8Writer)out);
+			else
+				escaper.escapeJsonString(text(i, clip(out, length(entry))), out);
+		}
+		
+		// Serialize the value at node.
+		void write(int node, Appendable out, Escaper escaper) throws IOException
+		{
+			// Latin-1 text is escaped straight from the tape when it's going to UTF-8 anyway.
+			java.nio.ByteBuffer words = out instanceof Utf8Writer && escaper == Escaper.PLAIN 
+					? java.nio.ByteBuffer.wrap(bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN) : null;
+			int [] open = new int[16];
+			int depth = 0;
+			int i = node;
+			do
+			{
+				long entry = entries[i];
+				switch (type(entry))
+				{
+					case OBJECT: 
+					case ARRAY:
+						out.append(type(entry) == OBJECT ? '{' : '[');
+						if (depth == open.length)
+							open = java.util.Arrays.copyOf(open, depth * 2);
+						open[depth++] = i;
+						break;
+					case KEY: 
+						out.append('"');
+						writeText(i, out, escaper, words);
+						out.append("\":");
+						i++;
+						continue;
+					case STRING: 
+						out.append('"');
+						writeText(i, out, escaper, words);
+						out.append('"');
+						break;
+					case INTEGER: Json.write(entry << 4 >> 4, out); break;
+					case NUMBER: 
+						if (out instanceof Utf8Writer) 
+							((Utf8Writer)out).write(bytes, low(entry), length(entry)); // always ASCII
+						else
+							out.append(text(i)); 
+						break;
+					case TRUE: out.append("true"); break;
+					case FALSE: out.append("false"); break;
+					default: out.append("null"); 
+				}
+				i++;
+				for (; depth > 0 && i == low(entries[open[depth - 1]]); depth--)
+					out.append(type(entries[open[depth - 1]]) == OBJECT ? '}' : ']');
+				if (depth > 0 && i != open[depth - 1] + 1)
+					out.append(',');
+			} while (depth > 0);
+		}
+	}
+	
+	/**
+	 * The {@link JsonHandler} that lays out a parsed value as a {@link Tape}.
+	 */
+	static final class TapeBuilder implements JsonHandler
+	{
+		long [] entries = new long[64];
+		int size = 0;
+		byte [] bytes = new byte[256];
+		int length = 0;
+		int [] open = new int[16], counts = new int[16]; // the containers being filled, innermost last
+		int depth = 0;
+		HashMap<String, Long> keys = new HashMap<String, Long>();
+		
+		Tape tape()
+		{
+			return new Tape(java.util.Arrays.copyOf(entries, size), java.util.Arrays.copyOf(bytes, length));
+		}
+		
+		private void entry(long entry)
+		{
+			if (size == entries.length)
+			{
+				if (size == Integer.MAX_VALUE - 8)
+					throw new MJsonException("Document too large for a tape.");
+				entries = java.util.Arrays.copyOf(entries, (int)Math.min(Integer.MAX_VALUE - 8, size * 2L));
+			}
+			entries[size++] = entry;
+		}
+		
+		private void reserve(long n)
+		{
+			if (length + n > bytes.length)
+			{
+				if (length + n > Integer.MAX_VALUE - 8)
+					throw new MJsonException("Document too large for a tape.");
+				bytes = java.util.Arrays.copyOf(bytes, (int)Math.min(Integer.MAX_VALUE - 8, 
+																	  Math.max(length + n, length * 2L)));
+			}
+		}
+		
+		private long text(int type, CharSequence text)
+		{
+			int n = text.length();
+			if (n > Tape.MAX_LENGTH)
+				throw new MJsonException("String of " + n + " characters too long for a tape.");
+			reserve(n);
+			int k = 0;
+			for (char c; k < n && (c = text.charAt(k)) <= 0xFF; k++)
+				bytes[length + k] = (byte)c;
+			long entry = (long)type << 60 | (long)n << 32 | length;
+			if (k == n)
+				length += n;
+			else
+			{
+				reserve(2L * n);
+				for (k = 0; k < n; k++)
+				{
+					char c = text.charAt(k);
+					bytes[length + 2 * k] = (byte)(c >> 8);
+					bytes[length + 2 * k + 1] = (byte)c;
+				}
+				entry |= Tape.WIDE;
+				length += 2 * n;
+			}
+			return entry;
+		}
+		
+		private void value(long entry)
+		{
+			if (depth > 0)
+				counts[depth - 1]++;
+			entry(entry);
+		}
+		
+		private void start(int type)
+		{
+			value((long)type << 60);
+			if (depth == open.length)
+			{
+				open = java.util.Arrays.copyOf(open, depth * 2);
+				counts = java.util.Arrays.copyOf(counts, depth * 2);
+			}
+			open[depth] = size - 1;
+			counts[depth++] = 0;
+		}
+		
+		private void end()
+		{
+			int start = open[--depth], count = counts[depth];
+			if (count > Tape.MAX_COUNT)
+				throw new MJsonException("Container of " + count + " values too large for a tape.");
+			entries[start] |= (long)count << 32 | size;
+		}
+		
+		public void startObject() { start(Tape.OBJECT); }
+		public void key(CharSequence name) 
+		{
+			// Names come as the same String instance each time they repeat.
+			String key = name.toString();
+			Long entry = keys.get(key);
+			if (entry == null)
+				keys.put(key, entry = text(Tape.KEY, key));
+			entry(entry);
+		}
+		public void endObject() { end(); }
+		public void startArray() { start(Tape.ARRAY); }
+		public void endArray() { end(); }
+		public void string(CharSequence value) { value(text(Tape.STRING, value)); }
+		public void number(long value) 
+		{ 
+			if (value << 4 >> 4 == value)
+				value((long)Tape.INTEGER << 60 | value & 0x0FFFFFFFFFFFFFFFL);
+			else
+				value(text(Tape.NUMBER, Long.toString(value)));
+		}
+		public void number(double value) { value(text(Tape.NUMBER, DoubleConversion.toString(value))); }
+		public void number(CharSequence literal) { value(text(Tape.NUMBER, literal)); }
+		// Keeps the literal of every number that isn't a long.
+		public boolean wantsNumberText() { return true; }
+		public void bool(boolean value) { value((long)(value ? Tape.TRUE : Tape.FALSE) << 60); }
+		public void nil() { value((long)Tape.NULL << 60); }
+	}
+	
+	/**
+	 * A read-only object of a {@link Tape}. Its members are looked up in the tape on each 
+	 * access, mutators throw and {@link #dup()} makes a regular, mutable copy.
+	 */
+	static class TapeObjectJson extends ObjectJson
+	{
+		final Tape tape;
+		final int node;
+		
+		TapeObjectJson(Tape tape, int node, Json enclosing)
+		{
+			super(enclosing);
+			this.tape = tape;
+			this.node = node;
+		}
+		
+		public Json dup()
+		{
+			TreeBuilder builder = new TreeBuilder();
+			tape.replay(node, builder);
+			return builder.result;
+		}
+		public boolean has(String property) { return tape.find(node, property) >= 0; }
+		public boolean is(String property, Object value)
+		{
+			Json p = at(property);
+			return p != null && p.equals(make(value));
+		}
+		public Json at(String property)
+		{
+			int i = tape.find(node, property);
+			return i < 0 ? null : tape.value(i, this);
+		}
+		protected Json withOptions(Json other, Json allOptions, String path) { throw Tape.readOnly(); }
+		public Json with(Json x, Json...options) { throw Tape.readOnly(); }
+		public Json set(String property, Json el) { throw Tape.readOnly(); }
+		public Json atDel(String property) { throw Tape.readOnly(); }
+		public Json delAt(String property) { throw Tape.readOnly(); }
+		public Map<String, Object> asMap()
+		{
+			HashMap<String, Object> m = new HashMap<String, Object>();
+			for (Map.Entry<String, Json> e : asJsonMap().entrySet())
+				m.put(e.getKey(), e.getValue().getValue());
+			return m; 
+		}
+		public Map<String, Json> asJsonMap() { return tape.members(node, this); }
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			tape.write(node, out, escaper);
+			return true;
+		}
+		boolean memo(boolean on) { return false; }
+		public int hashCode() { return asJsonMap().hashCode(); }
+		public boolean equals(Object x)
+		{
+			return x instanceof ObjectJson && ((ObjectJson)x).asJsonMap().equals(asJsonMap());
+		}
+	}
+	
+	/**
+	 * A read-only array of a {@link Tape}. Its elements are looked up in the tape on each
+	 * access, mutators throw and {@link #dup()} makes a regular, mutable copy.
+	 */
+	static class TapeArrayJson extends ArrayJson
+	{
+		final Tape tape;
+		final int node;
+		
+		TapeArrayJson(Tape tape, int node, Json enclosing)
+		{
+			super(enclosing);
+			this.tape = tape;
+			this.node = node;
+		}
+		
+		public Json dup()
+		{
+			TreeBuilder builder = new TreeBuilder();
+			tape.replay(node, builder);
+			return builder.result;
+		}
+		public Json set(int index, Object value) { throw Tape.readOnly(); }
+		public List<Json> asJsonList() { return tape.elements(node, this); }
+		public List<Object> asList()
+		{
+			ArrayList<Object> A = new ArrayList<Object>();
+			for (Json x : asJsonList())
+				A.add(x.getValue());
+			return A;
+		}
+		public boolean is(int index, Object value)
+		{
+			if (index < 0 || index >= Tape.count(tape.entries[node]))
+				return false;
+			else
+				return at(index).equals(make(value));
+		}
+		public Json at(int index) { return tape.value(tape.element(node, index), this); }
+		public Json add(Json el) { throw Tape.readOnly(); }
+		public Json remove(Json el) { throw Tape.readOnly(); }
+		Json withOptions(Json array, Json allOptions, String path) { throw Tape.readOnly(); }
+		public Json with(Json object, Json...options) { throw Tape.readOnly(); }
+		public Json atDel(int index) { throw Tape.readOnly(); }
+		public Json delAt(int index) { throw Tape.readOnly(); }
+		boolean writeWhole(Appendable out, Escaper escaper) throws IOException
+		{
+			tape.write(node, out, escaper);
+			return true;
+		}
+		boolean memo(boolean on) { return false; }
+		public int hashCode() { return asJsonList().hashCode(); }
+		public boolean equals(Object x)
+		{
+			return x instanceof ArrayJson && ((ArrayJson)x).asJsonList().equals(asJsonList());
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A pull parser giving access to the stream of parsing events of a JSON text, without 
+	 * building the corresponding <code>Json</code> tree. Obtain one with one of the
+	 * <code>Json.parser</code> methods and call {@link #next()} repeatedly until it returns
+	 * <code>null</code>:
+	 * </p>
+	 * 
+	 * <pre><code>
+	 * Json.JsonParser parser = Json.parser(text);
+	 * for (Json.JsonParser.Event e = parser.next(); e != null; e = parser.next())
+	 *     if (e == Json.JsonParser.Event.KEY &amp;&amp; parser.getString().equals("id"))
+	 *     {
+	 *         parser.next();
+	 *         return parser.getValue();
+	 *     }
+	 *     else if (e == Json.JsonParser.Event.START_OBJECT &amp;&amp; parser.getDepth() &gt; 1)
+	 *         parser.skipChildren();
+	 * </code></pre>
+	 * 
+	 * <p>
+	 * Several top-level values may follow each other in the input, separated by white space.
+	 * The parser is not thread-safe.
+	 * </p>
+	 */
+	public static final class JsonParser
+	{
+		/**
+		 * The events reported by a {@link JsonParser}.
+		 */
+		public static enum Event 
+		{ 
+			START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, KEY, 
+			VALUE_STRING, VALUE_NUMBER, VALUE_TRUE, VALUE_FALSE, VALUE_NULL 
+		}
+		
+		private static final byte IN_OBJECT = 1;
+		private static final byte IN_ARRAY = 2;
+		
+		// The deepest container stack kept by a parser that is reused, see ReusableParser.
+		static final int MAX_RETAINED_DEPTH = 1024;
+		
+		final Scanner scanner;
+		private TreeBuilder builder; // reused by getValue
+		private Event current;
+		private byte [] containers = new byte[32];
+		private int depth = 0;
+		private int maxDepth = Integer.MAX_VALUE;
+		private ReadOptions options = ReadOptions.DEFAULTS;
+		private boolean strict = false;
+		private boolean afterKey = false;   // a key and its colon were read, the value comes next
+		private boolean afterValue = false; // a member was completed, a comma or the end comes next
+		private String key;                 // the name of the last KEY
+		
+		JsonParser(Scanner scanner) { this.scanner = scanner; }
+		
+		/**
+		 * <p>Advance to the next parsing event and return it. Return <code>null</code>
+		 * when the end of input has been reached after a complete top-level value.</p>
+		 * @throws MJsonException if the input is not valid JSON.
+		 */
+		public Event next()
+		{
+			int token = scanner.nextToken();
+			if (depth == 0)
+				return current = token == Scanner.EOF ? null : startValue(token);
+			boolean inObject = containers[depth - 1] == IN_OBJECT;
+			int end = inObject ? Scanner.END_OBJECT : Scanner.END_ARRAY;
+			if (afterValue)
+			{
+				afterValue = false;
+				if (token == Scanner.COMMA)
+				{
+					token = scanner.nextToken();
+					if (strict && token == end)
+						throw scanner.error("Trailing comma before " + Scanner.describe(end));
+				}
+				else if (token != end)
+					throw scanner.error("Expected ',' or " + Scanner.describe(end) + 
+							" but found " + Scanner.describe(token));
+			}
+			else if (afterKey)
+			{
+				afterKey = false;
+				return current = startValue(token);
+			}
+			if (token == end)
+				return current = endContainer();
+			else if (!inObject)
+				return current = startValue(token);
+			else if (token != Scanner.STRING)
+				throw scanner.error("Missing object key (don't forget to put quotes!), got " + 
+						Scanner.describe(token));
+			key = scanner.keyValue();
+			if (scanner.nextToken() != Scanner.COLON)
+				throw scanner.error("Expected ':' after object key " + key);
+			afterKey = true;
+			return current = Event.KEY;
+		}
+		
+		private Event startValue(int token)
+		{
+			switch (token)
+			{
+				case Scanner.BEGIN_OBJECT: push(IN_OBJECT); return Event.START_OBJECT;
+				case Scanner.BEGIN_ARRAY: push(IN_ARRAY); return Event.START_ARRAY;
+				case Scanner.STRING: afterValue = depth > 0; return Event.VALUE_STRING;
+				case Scanner.NUMBER: afterValue = depth > 0; return Event.VALUE_NUMBER;
+				case Scanner.TRUE: afterValue = depth > 0; return Event.VALUE_TRUE;
+				case Scanner.FALSE: afterValue = depth > 0; return Event.VALUE_FALSE;
+				case Scanner.NULL: afterValue = depth > 0; return Event.VALUE_NULL;
+				case Scanner.EOF: throw scanner.error("Reached end of input");
+				default: throw scanner.error("Unexpected token " + Scanner.describe(token));
+			}
+		}
+		
+		private void push(byte container)
+		{
+			if (depth == maxDepth)
+				throw scanner.error("Maximum depth of " + maxDepth + " exceeded");
+			if (depth == containers.length)
+				containers = java.util.Arrays.copyOf(containers, depth * 2);
+			containers[depth++] = container;
+			afterValue = afterKey = false;
+		}
+		
+		private Event endContainer()
+		{
+			byte container = containers[--depth];
+			afterValue = depth > 0;
+			return container == IN_OBJECT ? Event.END_OBJECT : Event.END_ARRAY;
+		}
+		
+		/**
+		 * <p>Limit the number of objects and arrays that may be open at once. Parsing fails 
+		 * with an {@link MJsonException} at the opening bracket of a container nested deeper,
+		 * before anything is allocated for it. Containers are tracked on an explicit stack, 
+		 * so there is no limit by default, but the recursive methods of <code>Json</code> 
+		 * itself (e.g. <code>equals</code> or <code>dup</code>) may overflow the call stack 
+		 * on documents nested many thousand levels deep.</p>
+		 * 
+		 * @return this
+		 */
+		public JsonParser setMaxDepth(int maxDepth)
+		{
+			if (maxDepth < 1)
+				throw new IllegalArgumentException("Maximum depth must be positive: " + maxDepth);
+			this.maxDepth = maxDepth;
+			return this;
+		}
+		
+		/**
+		 * <p>Apply a set of {@link ReadOptions}. Strict syntax and key caching apply from the
+		 * next event on, the factory and number mode to the values materialized with 
+		 * {@link #getValue()}.</p>
+		 * 
+		 * @return this
+		 */
+		public JsonParser setOptions(ReadOptions options)
+		{
+			this.options = options;
+			strict = options.strict;
+			scanner.comments = !options.strict;
+			scanner.cacheKeys = options.keyCaching;
+			return this;
+		}
+		
+		/**
+		 * <p>Return the event returned by the last call to {@link #next()}.</p>
+		 */
+		public Event current() { return current; }
+		
+		/**
+		 * <p>Return the number of objects and arrays enclosing the current position. The
+		 * <code>START_XXX</code> event of a container counts as being inside it.</p>
+		 */
+		public int getDepth() { return depth; }
+		
+		/**
+		 * <p>Return the offset in the input right after the current event.</p>
+		 */
+		public long getPosition() { return scanner.position(); }
+		
+		private void check(boolean ok, String expected)
+		{
+			if (!ok)
+				throw new MJsonException("Current event is " + current + ", expected " + expected);
+		}
+		
+		/**
+		 * <p>Return the name of the current <code>KEY</code>, the value of the current
+		 * <code>VALUE_STRING</code> or the literal text of the current <code>VALUE_NUMBER</code>.</p>
+		 */
+		public String getString() 
+		{ 
+			check(current == Event.KEY || current == Event.VALUE_STRING || current == Event.VALUE_NUMBER, 
+				  "a key, string or number");
+			return current == Event.KEY ? key : scanner.stringValue(); 
+		}
+		
+		/**
+		 * <p>Same as {@link #getString()}, but without allocating a new <code>String</code>. The 
+		 * returned sequence is only valid until the next call to {@link #next()}.</p>
+		 */
+		public CharSequence getText() 
+		{ 
+			check(current == Event.KEY || current == Event.VALUE_STRING || current == Event.VALUE_NUMBER, 
+				  "a key, string or number");
+			return scanner.textView; 
+		}
+		
+		/**
+		 * <p>Return <code>true</code> if the current <code>VALUE_NUMBER</code> has neither a fraction
+		 * nor an exponent and fits in a <code>long</code>.</p>
+		 */
+		public boolean isIntegral()
+		{
+			check(current == Event.VALUE_NUMBER, "a number");
+			return !scanner.floatingPoint && scanner.digits < 19; 
+		}
+		
+		/**
+		 * <p>Return the value of the current <code>VALUE_NUMBER</code> as the same <code>Number</code>
+		 * type {@link Json#read(String)} would produce.</p>
+		 */
+		public Number getNumber() 
+		{ 
+			check(current == Event.VALUE_NUMBER, "a number");
+			return scanner.numberValue(); 
+		}
+		
+		public long getLong() 
+		{ 
+			return isIntegral() ? scanner.longValue() : getNumber().longValue(); 
+		}
+		
+		public double getDouble() 
+		{ 
+			check(current == Event.VALUE_NUMBER, "a number");
+			return scanner.doubleValue(); 
+		}
+		
+		/**
+		 * <p>Materialize the value starting at the current event as a <code>Json</code> instance, 
+		 * using the current {@link Factory}. If the current event starts an object or an
+		 * array, the whole container is read and the parser is positioned at its end event.</p>
+		 */
+		public Json getValue()
+		{
+			if (current == null)
+				throw new MJsonException("No current value, call next() first.");
+			TreeBuilder builder = (this.builder == null ? this.builder = new TreeBuilder() : this.builder).reset(options);
+			pushValue(builder);
+			Json result = builder.result;
+			builder.result = null;
+			return result;
+		}
+		
+		/**
+		 * <p>Report the current event and all events up to the end of the value it starts 
+		 * to a {@link JsonHandler}. Afterwards, the parser is positioned at the last event of 
+		 * the value.</p>
+		 * 
+		 * @return this
+		 */
+		public JsonParser pushValue(JsonHandler handler)
+		{
+			if (current == null || current == Event.KEY || 
+				current == Event.END_OBJECT || current == Event.END_ARRAY)
+				throw new MJsonException("Current event " + current + " doesn't start a value.");
+			int base = current == Event.START_OBJECT || current == Event.START_ARRAY ? depth - 1 : depth;
+			for (;;)
+			{
+				report(handler);
+				if (depth == base)
+					return this;
+				next();
+			}
+		}
+		
+		// Pass the current event to a handler.
+		void report(JsonHandler handler)
+		{
+			switch (current)
+			{
+				case START_OBJECT: handler.startObject(); break;
+				case END_OBJECT: handler.endObject(); break;
+				case START_ARRAY: handler.startArray(); break;
+				case END_ARRAY: handler.endArray(); break;
+				case KEY: handler.key(key); break;
+				case VALUE_STRING: handler.string(scanner.textView); break;
+				case VALUE_NUMBER:
+					if (!scanner.floatingPoint && scanner.digits < 19)
+						handler.number(scanner.longValue());
+					else if (handler.wantsNumberText())
+						handler.number(scanner.textView);
+					else if (scanner.floatingPoint && scanner.digits < 17)
+						handler.number(scanner.doubleValue());
+					else
+						handler.number(scanner.textView);
+					break;
+				case VALUE_TRUE: handler.bool(true); break;
+				case VALUE_FALSE: handler.bool(false); break;
+				case VALUE_NULL: handler.nil(); break;
+			}
+		}
+		
+		private Event savedCurrent;
+		private int savedDepth;
+		private boolean savedAfterKey, savedAfterValue;
+		
+		// Remember the state between two events, so that an event whose tokens couldn't 
+		// be scanned completely can be scanned again. Containers are only pushed or popped 
+		// once all tokens of an event are in, so the depth is enough to restore the stack.
+		void mark()
+		{
+			savedCurrent = current;
+			savedDepth = depth;
+			savedAfterKey = afterKey;
+			savedAfterValue = afterValue;
+		}
+		
+		void rewind()
+		{
+			current = savedCurrent;
+			depth = savedDepth;
+			afterKey = savedAfterKey;
+			afterValue = savedAfterValue;
+		}
+		
+		// Forget about any partially parsed value, keeping the input where it is.
+		void reset()
+		{
+			current = null;
+			depth = 0;
+			afterKey = afterValue = false;
+			key = null;
+			if (containers.length > MAX_RETAINED_DEPTH)
+				containers = new byte[32];
+		}
+		
+		void pushAll(JsonHandler handler)
+		{
+			while (next() != null)
+				pushValue(handler);
+		}
+		
+		// Read the next complete value, failing if there is none.
+		Json readValue()
+		{
+			if (next() == null)
+				throw scanner.error("Reached end of input");
+			return getValue();
+		}
+		
+		Tape readTape()
+		{
+			if (next() == null)
+				throw scanner.error("Reached end of input");
+			TapeBuilder builder = new TapeBuilder();
+			pushValue(builder);
+			return builder.tape();
+		}
+		
+		/**
+		 * <p>If the current event is <code>START_OBJECT</code> or <code>START_ARRAY</code>, skip
+		 * everything up to the matching end event, which becomes the current one. Otherwise 
+		 * do nothing. Skipped content is only checked for matching brackets.</p>
+		 * 
+		 * @return this
+		 */
+		public JsonParser skipChildren()
+		{
+			if (current != Event.START_OBJECT && current != Event.START_ARRAY)
+				return this;
+			scanner.skipContainer();
+			current = endContainer();
+			return this;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A parser that keeps its scratch buffers (the scanner's window and text buffer, the 
+	 * container stacks and the cache of object keys) from one document to the next. 
+	 * Reading a stream of small documents with the same instance thus allocates little more
+	 * than the resulting <code>Json</code> trees. Buffers that grew past a fixed cap while 
+	 * parsing an exceptionally large or deep document are dropped at the next {@link #reset()}.
+	 * Nothing refers to the input once a read returns.
+	 * </p>
+	 * 
+	 * <p>
+	 * Instances are not thread-safe. The <code>read</code> methods of <code>Json</code> taking a 
+	 * string, a character or a byte array already go through one instance per thread, unless 
+	 * disabled with {@link Json#setParserPooling(boolean)}.
+	 * </p>
+	 */
+	public static final class ReusableParser
+	{
+		private CharScanner chars;
+		private JsonParser charParser;
+		private Utf8Scanner bytes;
+		private JsonParser byteParser;
+		private int maxDepth = Integer.MAX_VALUE;
+		boolean busy = false;
+		
+		/**
+		 * <p>Limit the nesting of the documents read, see {@link JsonParser#setMaxDepth(int)}.</p>
+		 * @return this
+		 */
+		public ReusableParser setMaxDepth(int maxDepth)
+		{
+			if (maxDepth < 1)
+				throw new IllegalArgumentException("Maximum depth must be positive: " + maxDepth);
+			this.maxDepth = maxDepth;
+			return this;
+		}
+		
+		/**
+		 * <p>Parse a JSON entity from its string representation.</p>
+		 * @see Json#read(String)
+		 */
+		public Json read(String jsonAsString) { return read(jsonAsString, ReadOptions.DEFAULTS); }
+		
+		/**
+		 * <p>Parse a JSON entity from its string representation, with the given options.</p>
+		 * @see Json#read(String, ReadOptions)
+		 */
+		public Json read(String jsonAsString, ReadOptions options)
+		{
+			if (chars == null)
+				charParser = new JsonParser(chars = new CharScanner());
+			chars.reset(jsonAsString);
+			return read(charParser, options);
+		}
+		
+		/**
+		 * <p>Parse a JSON entity from a range of characters.</p>
+		 * @see Json#read(char[], int, int)
+		 */
+		public Json read(char [] input, int offset, int length) 
+		{ 
+			return read(input, offset, length, ReadOptions.DEFAULTS); 
+		}
+		
+		/**
+		 * <p>Parse a JSON entity from a range of characters, with the given options.</p>
+		 * @see Json#read(char[], int, int, ReadOptions)
+		 */
+		public Json read(char [] input, int offset, int length, ReadOptions options)
+		{
+			if (chars == null)
+				charParser = new JsonParser(chars = new CharScanner());
+			chars.reset(input, offset, length);
+			return read(charParser, options);
+		}
+		
+		/**
+		 * <p>Parse a JSON entity from a range of UTF-8 encoded bytes.</p>
+		 * @see Json#read(byte[], int, int)
+		 */
+		public Json read(byte [] input, int offset, int length) 
+		{ 
+			return read(input, offset, length, ReadOptions.DEFAULTS); 
+		}
+		
+		/**
+		 * <p>Parse a JSON entity from a range of UTF-8 encoded bytes, with the given options.</p>
+		 * @see Json#read(byte[], int, int, ReadOptions)
+		 */
+		public Json read(byte [] input, int offset, int length, ReadOptions options)
+		{
+			if (bytes == null)
+				byteParser = new JsonParser(bytes = new Utf8Scanner(Utf8Scanner.NO_BYTES, 0, 0));
+			bytes.reset(input, offset, length);
+			return read(byteParser, options);
+		}
+		
+		private Json read(JsonParser parser, ReadOptions options)
+		{
+			busy = true;
+			try
+			{
+				parser.reset();
+				parser.maxDepth = maxDepth;
+				parser.setOptions(options);
+				return parser.readValue();
+			}
+			finally
+			{
+				parser.scanner.release();
+				busy = false;
+			}
+		}
+		
+		/**
+		 * <p>Return the parser to its initial state, dropping scratch buffers that grew past
+		 * their cap. This is done at the start of every <code>read</code> anyway.</p>
+		 * @return this
+		 */
+		public ReusableParser reset()
+		{
+			if (charParser != null)
+			{
+				charParser.reset();
+				chars.release();
+			}
+			if (byteParser != null)
+			{
+				byteParser.reset();
+				bytes.release();
+			}
+			return this;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * The JSON pointers requested from {@link Json#read(String, String...)}, merged into a tree of
+	 * path segments. A node is <code>whole</code> when a pointer ends there, in which case its
+	 * children are irrelevant.
+	 * </p>
+	 */
+	static final class Projection
+	{
+		final String name;
+		final int index; // name as an array index, -1 if it isn't one
+		boolean whole = false;
+		Projection [] children = new Projection[0];
+		
+		Projection(String name)
+		{
+			this.name = name;
+			int index = name.isEmpty() || name.length() > 9 ? -1 : 0;
+			for (int i = 0; i < name.length() && index >= 0; i++)
+			{
+				char c = name.charAt(i);
+				index = c >= '0' && c <= '9' ? index * 10 + (c - '0') : -1;
+			}
+			this.index = index;
+		}
+		
+		static Projection of(String... pointers)
+		{
+			Projection root = new Projection("");
+			for (String pointer : pointers)
+			{
+				Projection node = root;
+				for (String part : pointer.split("/"))
+				{
+					if (part.length() == 0)
+						continue;
+					node = node.child(part.replace("~1", "/").replace("~0", "~"));
+				}
+				node.whole = true;
+			}
+			return root;
+		}
+		
+		Projection child(String name)
+		{
+			for (Projection child : children)
+				if (child.name.equals(name))
+					return child;
+			children = java.util.Arrays.copyOf(children, children.length + 1);
+			return children[children.length - 1] = new Projection(name);
+		}
+		
+		Projection member(CharSequence key)
+		{
+			for (Projection child : children)
+				if (child.name.contentEquals(key))
+					return child;
+			return null;
+		}
+		
+		Projection element(int index)
+		{
+			for (Projection child : children)
+				if (child.index == index)
+					return child;
+			return null;
+		}
+		
+		int lastIndex()
+		{
+			int last = -1;
+			for (Projection child : children)
+				last = Math.max(last, child.index);
+			return last;
+		}
+		
+		static Json read(JsonParser parser, String [] pointers)
+		{
+			if (parser.next() == null)
+				throw parser.scanner.error("Reached end of input");
+			Json result = Projection.of(pointers).project(parser, factory());
+			return result == null ? factory().nil() : result;
+		}
+		
+		// Project the value starting at the parser's current event, leaving the parser at its 
+		// last event. Return null when nothing in it was requested.
+		Json project(JsonParser parser, Factory factory)
+		{
+			if (whole)
+				return parser.getValue();
+			switch (parser.current())
+			{
+				case START_OBJECT:
+				{
+					Json result = factory.object();
+					while (parser.next() == JsonParser.Event.KEY)
+					{
+						Projection child = member(parser.getText());
+						parser.next();
+						Json value = child == null ? null : child.project(parser, factory);
+						if (value != null)
+							result.set(child.name, value);
+						else
+							parser.skipChildren();
+					}
+					return result;
+				}
+				case START_ARRAY:
+				{
+					Json result = factory.array();
+					int last = lastIndex();
+					for (int i = 0; parser.next() != JsonParser.Event.END_ARRAY; i++)
+					{
+						Projection child = i > last ? null : element(i);
+						Json value = child == null ? null : child.project(parser, factory);
+						if (i <= last)
+							result.add(value == null ? factory.nil() : value);
+						if (value == null)
+							parser.skipChildren();
+					}
+					return result;
+				}
+				default:
+					return null;
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Converts parsing events into instances of a Java type for {@link Json#read(String, Class)}.
+	 * There is one binding per type, created on first use. Bindings of classes are cached 
+	 * per class, those of parameterized types with the property they are declared by.
+	 * </p>
+	 */
+	static abstract class Binding
+	{
+		/**
+		 * Convert the value starting at the parser's current event, leaving the parser at 
+		 * its last event.
+		 */
+		abstract Object bind(JsonParser parser);
+		
+		static final ClassValue<Binding> BINDINGS = new ClassValue<Binding>()
+		{
+			protected Binding computeValue(Class<?> type) { return create(type); }
+		};
+		
+		@SuppressWarnings("unchecked")
+		static <T> T read(JsonParser parser, Class<T> type)
+		{
+			if (parser.next() == null)
+				throw parser.scanner.error("Reached end of input");
+			return (T)BINDINGS.get(type).bind(parser);
+		}
+		
+		static Binding of(java.lang.reflect.Type type)
+		{
+			if (type instanceof Class)
+				return BINDINGS.get((Class<?>)type);
+			else if (type instanceof java.lang.reflect.ParameterizedType)
+			{
+				java.lang.reflect.ParameterizedType parameterized = (java.lang.reflect.ParameterizedType)type;
+				Class<?> raw = (Class<?>)parameterized.getRawType();
+				java.lang.reflect.Type [] arguments = parameterized.getActualTypeArguments();
+				if (Map.class.isAssignableFrom(raw))
+					return new MapBinding(raw, arguments[0], arguments[1]);
+				else if (Collection.class.isAssignableFrom(raw))
+					return new CollectionBinding(raw, arguments[0]);
+				else
+					return BINDINGS.get(raw);
+			}
+			else if (type instanceof java.lang.reflect.GenericArrayType)
+			{
+				java.lang.reflect.Type component = ((java.lang.reflect.GenericArrayType)type).getGenericComponentType();
+				return new ArrayBinding(erasure(component), component);
+			}
+			else
+				return BINDINGS.get(erasure(type));
+		}
+		
+		static Class<?> erasure(java.lang.reflect.Type type)
+		{
+			if (type instanceof Class)
+				return (Class<?>)type;
+			else if (type instanceof java.lang.reflect.ParameterizedType)
+				return (Class<?>)((java.lang.reflect.ParameterizedType)type).getRawType();
+			else if (type instanceof java.lang.reflect.GenericArrayType)
+				return java.lang.reflect.Array.newInstance(
+						erasure(((java.lang.reflect.GenericArrayType)type).getGenericComponentType()), 0).getClass();
+			else if (type instanceof java.lang.reflect.WildcardType)
+				return erasure(((java.lang.reflect.WildcardType)type).getUpperBounds()[0]);
+			else if (type instanceof java.lang.reflect.TypeVariable)
+				return erasure(((java.lang.reflect.TypeVariable<?>)type).getBounds()[0]);
+			else
+				return Object.class;
+		}
+		
+		static Binding create(Class<?> type)
+		{
+			if (type == String.class || type.isPrimitive() || type.isEnum() || type == Boolean.class || 
+				type == Character.class || Number.class.isAssignableFrom(type))
+				return new ScalarBinding(type);
+			else if (Json.class.isAssignableFrom(type))
+				return JSON;
+			else if (type == Object.class)
+				return OBJECT;
+			else if (type.isArray())
+				return new ArrayBinding(type.getComponentType(), type.getComponentType());
+			else if (Map.class.isAssignableFrom(type))
+				return new MapBinding(type, String.class, Object.class);
+			else if (Collection.class.isAssignableFrom(type))
+				return new CollectionBinding(type, Object.class);
+			else
+				return new ClassBinding(type);
+		}
+		
+		static final Binding JSON = new Binding()
+		{
+			Object bind(JsonParser parser) { return parser.getValue(); }
+		};
+		
+		static final Binding OBJECT = new Binding()
+		{
+			Object bind(JsonParser parser) { return parser.getValue().getValue(); }
+		};
+		
+		static MJsonException mismatch(JsonParser parser, java.lang.reflect.Type type)
+		{
+			return mismatch(parser, type.getTypeName());
+		}
+		
+		static MJsonException mismatch(JsonParser parser, String type)
+		{
+			return parser.scanner.error("Can't bind " + parser.current() + " to " + type);
+		}
+		
+		// What to throw for the failure of a method handle invocation.
+		static RuntimeException failure(Throwable t)
+		{
+			if (t instanceof RuntimeException)
+				return (RuntimeException)t;
+			else if (t instanceof Error)
+				throw (Error)t;
+			else
+				return new MJsonException(t);
+		}
+		
+		static java.lang.invoke.MethodHandle constructor(Class<?> type)
+		{
+			try
+			{
+				java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				return java.lang.invoke.MethodHandles.lookup().unreflectConstructor(constructor)
+						.asType(java.lang.invoke.MethodType.methodType(Object.class));
+			}
+			catch (NoSuchMethodException ex)
+			{
+				throw new MJsonException("Can't bind to " + type.getName() + ", it has no constructor without arguments.");
+			}
+			catch (Exception ex)
+			{
+				throw new MJsonException(ex);
+			}
+		}
+		
+		static Object newInstance(java.lang.invoke.MethodHandle constructor)
+		{
+			try
+			{
+				return (Object)constructor.invokeExact();
+			}
+			catch (Throwable t)
+			{
+				throw failure(t);
+			}
+		}
+	}
+	
+	static final class ScalarBinding extends Binding
+	{
+		static final int STRING = 0, ENUM = 1, CHAR = 2, BOOLEAN = 3, INT = 4, LONG = 5, DOUBLE = 6, 
+						 FLOAT = 7, SHORT = 8, BYTE = 9, BIG_DECIMAL = 10, BIG_INTEGER = 11, NUMBER = 12;
+		
+		final Class<?> type;
+		final int kind;
+		final Object zero;
+		final long min, max; // the values an integral kind can hold
+		
+		ScalarBinding(Class<?> type)
+		{
+			this.type = type;
+			this.zero = type.isPrimitive() ? java.lang.reflect.Array.get(java.lang.reflect.Array.newInstance(type, 1), 0) : null;
+			Class<?> boxed = zero == null ? type : zero.getClass();
+			if (type == String.class) kind = STRING;
+			else if (type.isEnum()) kind = ENUM;
+			else if (boxed == Character.class) kind = CHAR;
+			else if (boxed == Boolean.class) kind = BOOLEAN;
+			else if (boxed == Integer.class) kind = INT;
+			else if (boxed == Long.class) kind = LONG;
+			else if (boxed == Double.class) kind = DOUBLE;
+			else if (boxed == Float.class) kind = FLOAT;
+			else if (boxed == Short.class) kind = SHORT;
+			else if (boxed == Byte.class) kind = BYTE;
+			else if (type == BigDecimal.class) kind = BIG_DECIMAL;
+			else if (type == BigInteger.class) kind = BIG_INTEGER;
+			else if (type == Number.class) kind = NUMBER;
+			else throw new MJsonException("Can't bind to " + type.getName());
+			switch (kind)
+			{
+				case INT: min = Integer.MIN_VALUE; max = Integer.MAX_VALUE; break;
+				case SHORT: min = Short.MIN_VALUE; max = Short.MAX_VALUE; break;
+				case BYTE: min = Byte.MIN_VALUE; max = Byte.MAX_VALUE; break;
+				default: min = Long.MIN_VALUE; max = Long.MAX_VALUE; break;
+			}
+		}
+		
+		// Whether the current number is an integer, without fraction or exponent, that this
+		// integral kind can hold. Its value is then getLong().
+		boolean fits(JsonParser parser)
+		{
+			if (parser.isIntegral())
+			{
+				long value = parser.getLong();
+				return value >= min && value <= max;
+			}
+			else if (parser.scanner.floatingPoint)
+				return false;
+			BigInteger value = new BigInteger(parser.getString());
+			return value.bitLength() < 64 && value.longValue() >= min && value.longValue() <= max;
+		}
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Object bind(JsonParser parser)
+		{
+			switch (parser.current())
+			{
+				case VALUE_NULL: 
+					return zero;
+				case VALUE_STRING:
+					if (kind == STRING)
+						return parser.getString();
+					else if (kind == ENUM)
+					{
+						try { return Enum.valueOf((Class<Enum>)type, parser.getString()); }
+						catch (IllegalArgumentException ex) { break; }
+					}
+					else if (kind == CHAR && parser.getText().length() == 1)
+						return parser.getText().charAt(0);
+					break;
+				case VALUE_TRUE: case VALUE_FALSE:
+					if (kind == BOOLEAN)
+						return parser.current() == JsonParser.Event.VALUE_TRUE;
+					break;
+				case VALUE_NUMBER:
+					switch (kind)
+					{
+						case INT: 
+							if (fits(parser))
+								return (int)parser.getLong();
+							break;
+						case LONG: 
+							if (fits(parser))
+								return parser.getLong();
+							break;
+						case DOUBLE: return parser.getDouble();
+						case FLOAT: return (float)parser.getDouble();
+						case SHORT: 
+							if (fits(parser))
+								return (short)parser.getLong();
+							break;
+						case BYTE: 
+							if (fits(parser))
+								return (byte)parser.getLong();
+							break;
+						case BIG_DECIMAL: return new BigDecimal(parser.getString());
+						case BIG_INTEGER: 
+							if (parser.isIntegral())
+								return BigInteger.valueOf(parser.getLong());
+							else if (!parser.scanner.floatingPoint)
+								return new BigInteger(parser.getString());
+							break;
+						case NUMBER: return parser.getNumber();
+					}
+					break;
+				default:
+					break;
+			}
+			throw mismatch(parser, type);
+		}
+	}
+	
+	static final class ArrayBinding extends Binding
+	{
+		final Class<?> componentType;
+		final java.lang.reflect.Type elementType;
+		Binding elements;
+		
+		ArrayBinding(Class<?> componentType, java.lang.reflect.Type elementType)
+		{
+			this.componentType = componentType;
+			this.elementType = elementType;
+		}
+		
+		Object bind(JsonParser parser)
+		{
+			if (parser.current() == JsonParser.Event.VALUE_NULL)
+				return null;
+			else if (parser.current() != JsonParser.Event.START_ARRAY)
+				throw mismatch(parser, erasure(elementType).getName() + "[]");
+			if (elements == null)
+				elements = of(elementType);
+			ArrayList<Object> L = new ArrayList<Object>();
+			while (parser.next() != JsonParser.Event.END_ARRAY)
+				L.add(elements.bind(parser));
+			Object result = java.lang.reflect.Array.newInstance(componentType, L.size());
+			if (!componentType.isPrimitive())
+				return L.toArray((Object[])result);
+			for (int i = 0; i < L.size(); i++)
+				java.lang.reflect.Array.set(result, i, L.get(i));
+			return result;
+		}
+	}
+	
+	static final class CollectionBinding extends Binding
+	{
+		final Class<?> type;
+		final java.lang.reflect.Type elementType;
+		final java.lang.invoke.MethodHandle constructor;
+		Binding elements;
+		
+		CollectionBinding(Class<?> type, java.lang.reflect.Type elementType)
+		{
+			this.type = type;
+			this.elementType = elementType;
+			if (!type.isInterface() && !java.lang.reflect.Modifier.isAbstract(type.getModifiers()))
+				constructor = constructor(type);
+			else if (type.isAssignableFrom(ArrayList.class))
+				constructor = constructor(ArrayList.class);
+			else if (type.isAssignableFrom(java.util.TreeSet.class))
+				constructor = constructor(java.util.TreeSet.class);
+			else if (type.isAssignableFrom(java.util.LinkedHashSet.class))
+				constructor = constructor(java.util.LinkedHashSet.class);
+			else if (type.isAssignableFrom(java.util.ArrayDeque.class))
+				constructor = constructor(java.util.ArrayDeque.class);
+			else
+				throw new MJsonException("Can't bind to " + type.getName() + ", no implementation known.");
+		}
+		
+		@SuppressWarnings("unchecked")
+		Object bind(JsonParser parser)
+		{
+			if (parser.current() == JsonParser.Event.VALUE_NULL)
+				return null;
+			else if (parser.current() != JsonParser.Event.START_ARRAY)
+				throw mismatch(parser, type);
+			if (elements == null)
+				elements = of(elementType);
+			Collection<Object> result = (Collection<Object>)newInstance(constructor);
+			while (parser.next() != JsonParser.Event.END_ARRAY)
+				result.add(elements.bind(parser));
+			return result;
+		}
+	}
+	
+	static final class MapBinding extends Binding
+	{
+		final Class<?> type;
+		final java.lang.reflect.Type valueType;
+		final java.lang.invoke.MethodHandle constructor;
+		Binding values;
+		
+		MapBinding(Class<?> type, java.lang.reflect.Type keyType, java.lang.reflect.Type valueType)
+		{
+			this.type = type;
+			this.valueType = valueType;
+			if (!erasure(keyType).isAssignableFrom(String.class))
+				throw new MJsonException("Can't bind to " + type.getName() + " with " + keyType.getTypeName() + 
+						" keys, only String keys are supported.");
+			if (!type.isInterface() && !java.lang.reflect.Modifier.isAbstract(type.getModifiers()))
+				constructor = constructor(type);
+			else if (type.isAssignableFrom(java.util.LinkedHashMap.class))
+				constructor = constructor(java.util.LinkedHashMap.class);
+			else if (type.isAssignableFrom(java.util.TreeMap.class))
+				constructor = constructor(java.util.TreeMap.class);
+			else
+				throw new MJsonException("Can't bind to " + type.getName() + ", no implementation known.");
+		}
+		
+		@SuppressWarnings("unchecked")
+		Object bind(JsonParser parser)
+		{
+			if (parser.current() == JsonParser.Event.VALUE_NULL)
+				return null;
+			else if (parser.current() != JsonParser.Event.START_OBJECT)
+				throw mismatch(parser, type);
+			if (values == null)
+				values = of(valueType);
+			Map<String, Object> result = (Map<String, Object>)newInstance(constructor);
+			while (parser.next() == JsonParser.Event.KEY)
+			{
+				String key = parser.getString();
+				parser.next();
+				result.put(key, values.bind(parser));
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * Binds JSON objects to the fields of a class, or to the components of a record. Records
+	 * are recognized by reflection, so that this works on JVMs that predate them.
+	 */
+	static final class ClassBinding extends Binding
+	{
+		static final class Property
+		{
+			final String name;
+			final java.lang.reflect.Type type;
+			final int index;                             // component index of a record
+			final java.lang.invoke.MethodHandle setter;  // (Object, Object)void, null for a record
+			// Setters of integral and floating point fields taking a long or a double, so that
+			// numbers aren't boxed. Null for other fields.
+			java.lang.invoke.MethodHandle longSetter, doubleSetter;
+			ScalarBinding integral; // the binding of a field with a long setter, for its range
+			Binding binding;
+			
+			Property(String name, java.lang.reflect.Type type, int index, java.lang.invoke.MethodHandle setter)
+			{
+				this.name = name;
+				this.type = type;
+				this.index = index;
+				this.setter = setter;
+			}
+			
+			// Set the value starting at the parser's current event, if it is a number that
+			// can go to a primitive setter. Return false otherwise, and for an integral field
+			// that can't hold it, which is left to the checked binding.
+			boolean setPrimitive(Object target, JsonParser parser)
+			{
+				if (parser.current() != JsonParser.Event.VALUE_NUMBER || (longSetter == null && doubleSetter == null) ||
+					(longSetter != null && !integral.fits(parser)))
+					return false;
+				try
+				{
+					if (longSetter != null)
+						longSetter.invokeExact(target, parser.getLong());
+					else
+						doubleSetter.invokeExact(target, parser.getDouble());
+					return true;
+				}
+				catch (Throwable t)
+				{
+					throw failure(t);
+				}
+			}
+			
+			Binding binding()
+			{
+				if (binding == null)
+					binding = of(type);
+				return binding;
+			}
+			
+			void set(Object target, Object value)
+			{
+				try
+				{
+					setter.invokeExact(target, value);
+				}
+				catch (Throwable t)
+				{
+					throw failure(t);
+				}
+			}
+		}
+		
+		final Class<?> type;
+		final boolean record;
+		final java.lang.invoke.MethodHandle constructor; // ()Object or, for a record, (Object[])Object
+		final Map<String, Property> properties = new HashMap<String, Property>();
+		final Object [] defaults;                        // component values of a record by default
+		Property unknown;
+		
+		ClassBinding(Class<?> type)
+		{
+			this.type = type;
+			Class<?> superclass = type.getSuperclass();
+			this.record = superclass != null && superclass.getName().equals("java.lang.Record");
+			if (type.isInterface() || java.lang.reflect.Modifier.isAbstract(type.getModifiers()))
+				throw new MJsonException("Can't bind to abstract type " + type.getName());
+			try
+			{
+				java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();
+				if (record)
+				{
+					Object [] components = (Object[])Class.class.getMethod("getRecordComponents").invoke(type);
+					Class<?> [] types = new Class<?>[components.length];
+					defaults = new Object[components.length];
+					for (int i = 0; i < components.length; i++)
+					{
+						Class<?> componentClass = components[i].getClass();
+						String name = (String)componentClass.getMethod("getName").invoke(components[i]);
+						types[i] = (Class<?>)componentClass.getMethod("getType").invoke(components[i]);
+						Property property = new Property(name, 
+								(java.lang.reflect.Type)componentClass.getMethod("getGenericType").invoke(components[i]), i, null);
+						add(property, type.getDeclaredField(name));
+						if (types[i].isPrimitive())
+							defaults[i] = java.lang.reflect.Array.get(java.lang.reflect.Array.newInstance(types[i], 1), 0);
+					}
+					java.lang.reflect.Constructor<?> canonical = type.getDeclaredConstructor(types);
+					canonical.setAccessible(true);
+					java.lang.invoke.MethodHandle handle = lookup.unreflectConstructor(canonical);
+					constructor = handle.asType(handle.type().generic()).asSpreader(Object[].class, components.length)
+										.asType(java.lang.invoke.MethodType.methodType(Object.class, Object[].class));
+				}
+				else
+				{
+					defaults = null;
+					constructor = constructor(type);
+					java.lang.invoke.MethodType setterType = java.lang.invoke.MethodType.methodType(void.class, Object.class, Object.class);
+					for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+						for (java.lang.reflect.Field field : c.getDeclaredFields())
+						{
+							int modifiers = field.getModifiers();
+							if (java.lang.reflect.Modifier.isStatic(modifiers) || java.lang.reflect.Modifier.isTransient(modifiers) || 
+								field.isSynthetic() || properties.containsKey(field.getName()))
+								continue;
+							field.setAccessible(true);
+							java.lang.invoke.MethodHandle setter = lookup.unreflectSetter(field);
+							Property property = new Property(field.getName(), field.getGenericType(), -1, setter.asType(setterType));
+							Class<?> t = field.getType();
+							if (t == int.class || t == long.class || t == short.class || t == byte.class)
+							{
+								property.longSetter = java.lang.invoke.MethodHandles.explicitCastArguments(setter, 
+										java.lang.invoke.MethodType.methodType(void.class, Object.class, long.class));
+								property.binding = property.integral = new ScalarBinding(t);
+							}
+							else if (t == double.class || t == float.class)
+								property.doubleSetter = java.lang.invoke.MethodHandles.explicitCastArguments(setter, 
+										java.lang.invoke.MethodType.methodType(void.class, Object.class, double.class));
+							add(property, field);
+						}
+				}
+			}
+			catch (MJsonException ex)
+			{
+				throw ex;
+			}
+			catch (Exception ex)
+			{
+				throw new MJsonException("Can't bind to " + type.getName(), ex);
+			}
+		}
+		
+		private void add(Property property, java.lang.reflect.Field field)
+		{
+			if (field.isAnnotationPresent(UnknownProperties.class))
+			{
+				if (!field.getType().isAssignableFrom(ObjectJson.class))
+					throw new MJsonException("The field " + field + " marked with @UnknownProperties must be of type Json");
+				unknown = property;
+			}
+			else
+				properties.put(property.name, property);
+		}
+		
+		Object bind(JsonParser parser)
+		{
+			if (parser.current() == JsonParser.Event.VALUE_NULL)
+				return null;
+			else if (parser.current() != JsonParser.Event.START_OBJECT)
+				throw mismatch(parser, type);
+			Object target = record ? null : newInstance(constructor);
+			Object [] arguments = record ? defaults.clone() : null;
+			Json others = null;
+			while (parser.next() == JsonParser.Event.KEY)
+			{
+				String name = parser.getString();
+				Property property = properties.get(name);
+				if (property == null)
+				{
+					parser.next();
+					if (unknown == null)
+						parser.skipChildren();
+					else
+						(others == null ? others = object() : others).set(name, parser.getValue());
+					continue;
+				}
+				parser.next();
+				if (record)
+					arguments[property.index] = property.binding().bind(parser);
+				else if (!property.setPrimitive(target, parser))
+					property.set(target, property.binding().bind(parser));
+			}
+			if (others != null && record)
+				arguments[unknown.index] = others;
+			else if (others != null)
+				unknown.set(target, others);
+			if (!record)
+				return target;
+			try
+			{
+				return (Object)constructor.invokeExact(arguments);
+			}
+			catch (Throwable t)
+			{
+				throw failure(t);
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A parser that is given its input piece by piece, as it becomes available, instead of 
+	 * pulling it from a source. It never blocks: each call to one of the <code>feed</code> 
+	 * methods parses as far as the input received so far allows and returns. Parsing events
+	 * are reported to a {@link JsonHandler} as soon as they are complete, or alternatively 
+	 * each top-level value is handed over as a <code>Json</code> instance as soon as it ends.
+	 * Top-level values may follow each other, separated by white space:
+	 * </p>
+	 * 
+	 * <pre><code>
+	 * Json.IncrementalParser parser = Json.incrementalParser(value -&gt; process(value));
+	 * // on each chunk received
+	 * parser.feed(buffer);
+	 * // when the connection is closed
+	 * parser.endOfInput();
+	 * </code></pre>
+	 * 
+	 * <p>
+	 * Only the input of the token being scanned is retained between calls. A given parser
+	 * takes either bytes, which are decoded as UTF-8, or characters, not both. The parser is 
+	 * not thread-safe. 
+	 * </p>
+	 */
+	public static final class IncrementalParser
+	{
+		// Thrown by the scanners when a token goes past the input received so far.
+		static final class NeedInput extends RuntimeException
+		{
+			private static final long serialVersionUID = 1L;
+			NeedInput() { super(null, null, false, false); }
+		}
+		
+		static final NeedInput NEED_INPUT = new NeedInput();
+		
+		static final class ByteFeed extends Utf8Scanner
+		{
+			boolean ended = false;
+			
+			ByteFeed() { super(WINDOW_SIZE); }
+			
+			boolean fill()
+			{
+				if (ended)
+					return false;
+				throw NEED_INPUT;
+			}
+			
+			void feed(java.nio.ByteBuffer input)
+			{
+				int pending = limit - pos, n = input.remaining();
+				byte [] target = pending + n > buf.length ? new byte[Math.max(pending + n, buf.length * 2)] : buf;
+				System.arraycopy(buf, pos, target, 0, pending);
+				input.get(target, pending, n);
+				buf = target;
+				consumed += pos;
+				pos = 0;
+				limit = pending + n;
+			}
+			
+			boolean mayEndToken(int from)
+			{
+				for (int i = from; i < limit; i++)
+					if (buf[i] == '"' || buf[i] == '/')
+						return true;
+				return false;
+			}
+		}
+		
+		static final class CharFeed extends CharScanner
+		{
+			boolean ended = false;
+			
+			CharFeed() { super(new char[WINDOW_SIZE], 0, 0); }
+			
+			boolean fill()
+			{
+				if (ended)
+					return false;
+				throw NEED_INPUT;
+			}
+			
+			void feed(char [] input, int offset, int length)
+			{
+				int pending = limit - pos;
+				char [] target = pending + length > buf.length ? new char[Math.max(pending + length, buf.length * 2)] : buf;
+				System.arraycopy(buf, pos, target, 0, pending);
+				System.arraycopy(input, offset, target, pending, length);
+				buf = target;
+				consumed += pos;
+				pos = 0;
+				limit = pending + length;
+			}
+			
+			boolean mayEndToken(int from)
+			{
+				for (int i = from; i < limit; i++)
+					if (buf[i] == '"' || buf[i] == '/')
+						return true;
+				return false;
+			}
+		}
+		
+		private final JsonHandler handler;
+		private final java.util.function.Consumer<? super Json> values;
+		private ByteFeed bytes;
+		private CharFeed chars;
+		private JsonParser parser;
+		private int maxDepth = Integer.MAX_VALUE;
+		private int retryAt = 0; // pending input needed before scanning an incomplete token again
+		
+		/**
+		 * <p>Limit the nesting of the input, see {@link JsonParser#setMaxDepth(int)}.</p>
+		 * @return this
+		 */
+		public IncrementalParser setMaxDepth(int maxDepth)
+		{
+			if (maxDepth < 1)
+				throw new IllegalArgumentException("Maximum depth must be positive: " + maxDepth);
+			this.maxDepth = maxDepth;
+			if (parser != null)
+				parser.maxDepth = maxDepth;
+			return this;
+		}
+		
+		IncrementalParser(JsonHandler handler, java.util.function.Consumer<? super Json> values)
+		{
+			this.handler = handler;
+			this.values = values;
+		}
+		
+		/**
+		 * <p>Parse the remaining bytes of a buffer, decoded as UTF-8, as the continuation of
+		 * the input fed so far. The buffer's position is moved to its limit.</p>
+		 * @return this
+		 * @throws MJsonException if the input is not valid JSON.
+		 */
+		public IncrementalParser feed(java.nio.ByteBuffer input)
+		{
+			if (chars != null)
+				throw new MJsonException("Can't feed bytes to a parser fed with characters.");
+			if (bytes == null)
+				(parser = new JsonParser(bytes = new ByteFeed())).maxDepth = maxDepth;
+			if (bytes.ended)
+				throw new MJsonException("Input was already ended.");
+			int from = bytes.limit - bytes.pos;
+			bytes.feed(input);
+			return bytes.limit < retryAt && !bytes.mayEndToken(from) ? this : run();
+		}
+		
+		/**
+		 * <p>Parse a range of characters as the continuation of the input fed so far.</p>
+		 * @return this
+		 * @throws MJsonException if the input is not valid JSON.
+		 */
+		public IncrementalParser feed(char [] input, int offset, int length)
+		{
+			if (bytes != null)
+				throw new MJsonException("Can't feed characters to a parser fed with bytes.");
+			if (chars == null)
+				(parser = new JsonParser(chars = new CharFeed())).maxDepth = maxDepth;
+			if (chars.ended)
+				throw new MJsonException("Input was already ended.");
+			int from = chars.limit - chars.pos;
+			chars.feed(input, offset, length);
+			return chars.limit < retryAt && !chars.mayEndToken(from) ? this : run();
+		}
+		
+		/**
+		 * <p>Signal that there is no more input, completing a trailing top-level number if
+		 * need be.</p>
+		 * @throws MJsonException if the input ends in the middle of a value.
+		 */
+		public void endOfInput()
+		{
+			if (parser == null)
+				return;
+			if (bytes != null)
+				bytes.ended = true;
+			else
+				chars.ended = true;
+			run();
+			if (parser.getDepth() > 0)
+				throw parser.scanner.error("Reached end of input");
+		}
+		
+		private IncrementalParser run()
+		{
+			for (;;)
+			{
+				parser.mark();
+				int start = bytes != null ? bytes.pos : chars.pos;
+				JsonParser.Event event;
+				try
+				{
+					event = parser.next();
+				}
+				catch (NeedInput ex)
+				{
+					parser.rewind();
+					int pending;
+					if (bytes != null)
+						pending = bytes.limit - (bytes.pos = start);
+					else
+						pending = chars.limit - (chars.pos = start);
+					// A long token, in practice a string or a comment, is only scanned again 
+					// when its end may have been fed or its input has doubled. So the work 
+					// stays linear in its size.
+					retryAt = pending > CharScanner.WINDOW_SIZE ? 2 * pending : 0;
+					return this;
+				}
+				retryAt = 0;
+				if (event == null)
+					return this;
+				parser.report(handler);
+				if (values != null && parser.getDepth() == 0)
+				{
+					TreeBuilder builder = (TreeBuilder)handler;
+					Json value = builder.result;
+					builder.result = null;
+					values.accept(value);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The {@link JsonHandler} that builds a <code>Json</code> tree with the current {@link Factory}. 
+	 * Containers are tracked with an explicit stack. The top-level value ends up in 
+	 * <code>result</code>.
+	 */
+	static class TreeBuilder implements JsonHandler
+	{
+		Factory factory = factory();
+		ReadOptions.Numbers numbers = ReadOptions.Numbers.LAZY;
+		// Floating point and big numbers are kept as text until first accessed. Only done 
+		// with the stock factory, so that custom number representations aren't bypassed.
+		boolean lazyNumbers = factory.getClass() == DefaultFactory.class;
+		Json [] stack = new Json[16];
+		int depth = 0;
+		String key;
+		Json result;
+		
+		// Prepare to build another value, with the factory now in effect.
+		TreeBuilder reset() { return reset(ReadOptions.DEFAULTS); }
+		
+		TreeBuilder reset(ReadOptions options)
+		{
+			factory = options.factory();
+			numbers = options.numbers;
+			lazyNumbers = numbers == ReadOptions.Numbers.LAZY && factory.getClass() == DefaultFactory.class;
+			if (stack.length > JsonParser.MAX_RETAINED_DEPTH)
+				stack = new Json[16];
+			else
+				java.util.Arrays.fill(stack, 0, depth, null);
+			depth = 0;
+			key = null;
+			result = null;
+			return this;
+		}
+		
+		void value(Json x)
+		{
+			if (depth == 0)
+				result = x;
+			else if (key != null)
+			{
+				stack[depth - 1].set(key, x);
+				key = null;
+			}
+			else
+				stack[depth - 1].add(x);
+		}
+		
+		void push(Json container)
+		{
+			value(container);
+			if (depth == stack.length)
+				stack = java.util.Arrays.copyOf(stack, depth * 2);
+			stack[depth++] = container;
+		}
+		
+		public void startObject() { push(factory.object()); }
+		public void key(CharSequence name) { key = name.toString(); }
+		public void endObject() { stack[--depth] = null; }
+		public void startArray() { push(factory.array()); }
+		public void endArray() { stack[--depth] = null; }
+		public void string(CharSequence value) { value(factory.string(value.toString())); }
+		public boolean wantsNumberText() { return lazyNumbers || numbers == ReadOptions.Numbers.EXACT; }
+		
+		public void number(long value) 
+		{ 
+			value(numbers == ReadOptions.Numbers.DOUBLE ? factory.number((double)value) : factory.number(value)); 
+		}
+		public void number(double value) 
+		{ 
+			value(numbers == ReadOptions.Numbers.EXACT ? factory.number(BigDecimal.valueOf(value)) : factory.number(value)); 
+		}
+		public void number(CharSequence literal) 
+		{
+			if (lazyNumbers)
+				value(new NumberJson(literal.toString(), null));
+			else
+				value(factory.number(ReadOptions.number(literal.toString(), numbers)));
+		}
+		public void bool(boolean value) { value(factory.bool(value)); }
+		public void nil() { value(factory.nil()); }
+	}
 	
     /**
      * Runtime exception thrown by mJson when something goes awry (parsing, Json typecasting, etc...)
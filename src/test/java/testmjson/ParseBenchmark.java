@@ -0,0 +1,91 @@
+package testmjson;
+
+import java.nio.charset.StandardCharsets;
+import mjson.Json;
+import static mjson.Json.*;
+
+/**
+ * Compares Json.read(String), Json.read(byte[], int, int) and Json.readIndexed on a large
+ * minified document and on the same document pretty printed. Run with the test classpath:
+ *
+ * <pre>java -cp ... testmjson.ParseBenchmark [elements] [rounds]</pre>
+ */
+public class ParseBenchmark
+{
+    static String pretty(String s)
+    {
+        StringBuilder sb = new StringBuilder();
+        boolean inString = false, escape = false;
+        int indent = 0;
+        for (char c : s.toCharArray())
+        {
+            sb.append(c);
+            if (escape)
+                escape = false;
+            else if (inString)
+            {
+                if (c == '\\') escape = true;
+                else if (c == '"') inString = false;
+            }
+            else if (c == '"')
+                inString = true;
+            else if (c == '{' || c == '[')
+                newLine(sb, indent += 2);
+            else if (c == ',')
+                newLine(sb, indent);
+            else if (c == ':')
+                sb.append(' ');
+            else if (c == '}' || c == ']')
+            {
+                sb.setLength(sb.length() - 1);
+                newLine(sb, indent -= 2);
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static void newLine(StringBuilder sb, int indent)
+    {
+        sb.append('\n');
+        for (int i = 0; i < indent; i++)
+            sb.append(' ');
+    }
+
+    static double millis(long start, int times)
+    {
+        return (System.nanoTime() - start) / 1e6 / times;
+    }
+
+    public static void main(String [] argv)
+    {
+        int size = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+        int rounds = argv.length > 1 ? Integer.parseInt(argv[1]) : 10;
+        Json A = array();
+        for (int i = 0; i < size; i++)
+            A.add(object("id", i, "name", "item \"" + i + "\" \u00e9\u4e2d", "ratio", i / 7.0,
+                         "tags", array("a", "b", null, true, false), "nested", object()));
+        for (String text : new String[] { A.toString(), pretty(A.toString()) })
+        {
+            byte [] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (!Json.readIndexed(bytes, 0, bytes.length).equals(A))
+                throw new IllegalStateException("readIndexed disagrees with read");
+            System.out.println(bytes.length + " bytes");
+            for (int round = 0; round < rounds; round++)
+            {
+                long start = System.nanoTime();
+                for (int i = 0; i < 5; i++) Json.read(text);
+                double string = millis(start, 5);
+                start = System.nanoTime();
+                for (int i = 0; i < 5; i++) Json.read(bytes, 0, bytes.length);
+                double utf8 = millis(start, 5);
+                start = System.nanoTime();
+                for (int i = 0; i < 5; i++) Json.readIndexed(bytes, 0, bytes.length);
+                double indexed = millis(start, 5);
+                if (round >= rounds / 2)
+                    System.out.printf("read(String) %.1fms, read(byte[]) %.1fms, readIndexed %.1fms%n",
+                                      string, utf8, indexed);
+            }
+        }
+    }
+}
@@ -0,0 +1,1125 @@
+package testmjson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import junit.framework.Assert;
+import org.testng.annotations.Test;
+import mjson.Json;
+import mjson.Json.JsonParser.Event;
+import static mjson.Json.*;
+
+/**
+ * Parsing through the various input overloads of <code>Json.read</code>.
+ */
+public class TestParsing
+{
+    static Json sample(int size)
+    {
+        Json A = array();
+        for (int i = 0; i < size; i++)
+            A.add(object("id", i, "name", "item \"" + i + "\" \u00e9\u4e2d", "ratio", i / 7.0,
+                         "tags", array("a", "b", null, true, false), "nested", object()));
+        return A;
+    }
+
+    @Test
+    public void testReadFromReader()
+    {
+        Json expected = sample(500);
+        String text = expected.toString();
+        Assert.assertTrue(text.length() > 8192 * 4);
+        Assert.assertEquals(expected, Json.read(new StringReader(text)));
+        Assert.assertEquals(make(42), Json.read(new StringReader("42")));
+        Assert.assertEquals(make("x"), Json.read(new StringReader(" /* c */ \"x\"")));
+    }
+
+    @Test
+    public void testReadFromInputStream()
+    {
+        Charset utf8 = Charset.forName("UTF-8");
+        Json expected = sample(200);
+        byte [] bytes = expected.toString().getBytes(utf8);
+        Assert.assertEquals(expected, Json.read(new ByteArrayInputStream(bytes), utf8));
+    }
+
+    @Test
+    public void testReadUtf8Bytes()
+    {
+        Charset utf8 = Charset.forName("UTF-8");
+        Json expected = sample(300).add("\ud83d\ude00 \\ \t \u0001").add(12345678901234567890.0)
+                                   .add(-0.5e-3).add(Long.MIN_VALUE + 1);
+        String text = "  // leading comment\n" + expected.toString();
+        byte [] bytes = text.getBytes(utf8);
+        Assert.assertEquals(Json.read(text), Json.read(bytes, 0, bytes.length));
+        Assert.assertEquals(expected, Json.read(bytes, 0, bytes.length));
+        byte [] padded = ("xx" + text + "yy").getBytes(utf8);
+        Assert.assertEquals(expected, Json.read(padded, 2, bytes.length));
+        Assert.assertEquals(expected, Json.read(ByteBuffer.wrap(bytes)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        Assert.assertEquals(expected, Json.read(direct));
+        Assert.assertEquals(0, direct.position());
+        Assert.assertEquals(make("\u00e9\"/"), Json.read("\"\\u00e9\\\"\\/\"".getBytes(utf8), 0, 12));
+    }
+
+    @Test
+    public void testScannerAgreesWithCharacterIterator()
+    {
+        String text = sample(300).add("\ud83d\ude00 \\ \t \u0001 \u00ff").add(-0.5e-3).toString();
+        Json legacy = Json.read(new java.text.StringCharacterIterator(" " + text));
+        Assert.assertEquals(legacy, Json.read(text));
+        char [] padded = ("[[" + text + "]]").toCharArray();
+        Assert.assertEquals(legacy, Json.read(padded, 2, text.length()));
+        Assert.assertEquals(make("a\"b\u00e9"), Json.read("\"a\\\"b\\u00E9\""));
+    }
+
+    @Test
+    public void testRepeatedKeysAreShared()
+    {
+        String text = sample(50).toString();
+        byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+        for (Json A : new Json[] { Json.read(text), Json.read(bytes, 0, bytes.length) })
+        {
+            String first = A.at(0).asJsonMap().keySet().iterator().next();
+            for (Json x : A.asJsonList())
+            {
+                boolean found = false;
+                for (String key : x.asJsonMap().keySet())
+                    found |= key == first;
+                Assert.assertTrue(found);
+            }
+        }
+        Json many = object();
+        StringBuilder longKey = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            many.set("key" + i, i);
+        for (int i = 0; i < 100; i++)
+            longKey.append('k');
+        many.set(longKey.toString(), "long");
+        Assert.assertEquals(many, Json.read(many.toString()));
+        Assert.assertEquals(array(many, many), Json.read(array(many, many).toString()));
+    }
+
+    @Test
+    public void testNumbersKeepTheirLiteral()
+    {
+        String text = "[1.50,2E+3,-0.0,12345678901234567890123,0.12345678901234567890,42]";
+        Json A = Json.read(text);
+        Assert.assertEquals(text, A.toString());
+        Assert.assertEquals(text, A.dup().toString());
+        Assert.assertEquals(1.5, A.at(0).getValue());
+        Assert.assertEquals("1.5", A.at(0).asString());
+        Assert.assertEquals(2000, A.at(1).asInteger());
+        Assert.assertEquals(new java.math.BigInteger("12345678901234567890123"), A.at(3).getValue());
+        Assert.assertEquals(new java.math.BigDecimal("0.12345678901234567890"), A.at(4).getValue());
+        Assert.assertEquals(42L, A.at(5).getValue());
+        Assert.assertEquals(make(1.5), A.at(0));
+        Assert.assertEquals(make(2000), A.at(1));
+        Assert.assertEquals("1.50", Json.read("1.50").toString());
+        byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+        Assert.assertEquals(text, Json.read(bytes, 0, bytes.length).toString());
+    }
+
+    @Test
+    public void testMalformedNumbers()
+    {
+        for (String literal : new String[] { "1.", "1e", "1e+", "1.5e", "-2.E3", "3E-" })
+            for (String text : new String[] { literal, "[" + literal + "]", "{\"a\":" + literal + "}" })
+            {
+                byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+                char [] chars = text.toCharArray();
+                int rejected = 0;
+                try { Json.read(text); } catch (MJsonException ex) { rejected++; }
+                try { Json.read(bytes, 0, bytes.length); } catch (MJsonException ex) { rejected++; }
+                try { Json.read(chars, 0, chars.length); } catch (MJsonException ex) { rejected++; }
+                try { Json.read(new java.text.StringCharacterIterator(" " + text)); } catch (MJsonException ex) { rejected++; }
+                try { Json.readTape(text); } catch (MJsonException ex) { rejected++; }
+                Assert.assertEquals(text, 5, rejected);
+            }
+        Assert.assertEquals(make(1.5e-3), Json.read("1.5e-3"));
+        Assert.assertEquals(make(100.0), Json.read("1E+2"));
+    }
+
+    @Test
+    public void testUnknownEscapes()
+    {
+        // an unknown escape stands for the char itself, the known ones are decoded
+        String text = "[\"a\\qb\\\u00e9c\\\u20acd\", \"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u0041\"]";
+        Json expected = array("aqb\u00e9c\u20acd", "\"\\/\b\f\n\r\tA");
+        byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+        char [] chars = text.toCharArray();
+        Assert.assertEquals(expected, Json.read(text));
+        Assert.assertEquals(expected, Json.read(bytes, 0, bytes.length));
+        Assert.assertEquals(expected, Json.read(chars, 0, chars.length));
+        Assert.assertEquals(expected, Json.read(new java.text.StringCharacterIterator(" " + text)));
+        Assert.assertEquals(expected, Json.readTape(text));
+    }
+
+    @Test
+    public void testDoublesAgainstJdk()
+    {
+        java.util.Random random = new java.util.Random(11);
+        for (int i = 0; i < 50000; i++)
+        {
+            double d = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) 
+                                  : Math.round(random.nextDouble() * 1e7) / 1e7 - 90;
+            if (Double.isNaN(d) || Double.isInfinite(d))
+                continue;
+            String jdk = Double.toString(d), text = make(d).toString();
+            Assert.assertEquals(jdk, d, Double.parseDouble(text));
+            Assert.assertTrue(jdk + " vs " + text, text.length() <= jdk.length());
+            Assert.assertEquals(Double.doubleToLongBits(d), Double.doubleToLongBits(Json.read(jdk).asDouble()));
+            String digits = new java.math.BigDecimal(d).round(new java.math.MathContext(1 + i % 19)).toString();
+            Assert.assertEquals(digits, Double.parseDouble(digits), Json.read(digits).asDouble());
+        }
+        for (double d : new double[] { 0.0, -0.0, 1.0, 100.0, 1e7, 9999999.0, 0.001, 1e-4, 
+                                       Double.MIN_VALUE, Double.MAX_VALUE, Double.MIN_NORMAL, 0.1 })
+            Assert.assertEquals(Double.toString(d), make(d).toString());
+        Assert.assertEquals("1.0E23", make(1e23).toString());
+        Assert.assertEquals("0.002", make(Json.read("2E-3").asDouble()).toString());
+        Assert.assertEquals(9.007199254740992E15, Json.read("9007199254740993.0").asDouble());
+        Assert.assertEquals(Double.POSITIVE_INFINITY, Json.read("1e400").asDouble());
+        Assert.assertEquals(-0.0, Json.read("-0.0e5").asDouble());
+    }
+
+    static List<Json> readAll(String text, ReadOptions options)
+    {
+        byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+        return Arrays.asList(Json.read(text, options), Json.read(bytes, 0, bytes.length, options),
+                             Json.read(new StringReader(text), options),
+                             Json.read(ByteBuffer.wrap(bytes), options),
+                             Json.read(new java.text.StringCharacterIterator(" " + text), options));
+    }
+
+    @Test
+    public void testReadOptions()
+    {
+        ReadOptions strict = new ReadOptions().setStrict(true);
+        String text = sample(20).toString();
+        for (Json x : readAll(text, strict))
+            Assert.assertEquals(Json.read(text), x);
+        for (String lenient : new String[] { "[1, /* two */ 2]", "[1, 2 // two\n]", "[1, 2,]", "{\"a\": 1,}" })
+        {
+            for (Json x : readAll(lenient, new ReadOptions()))
+                Assert.assertEquals(Json.read(lenient), x);
+            for (int i = 0; i < 5; i++)
+                try
+                {
+                    byte [] bytes = lenient.getBytes(Charset.forName("UTF-8"));
+                    switch (i)
+                    {
+                        case 0: Json.read(lenient, strict); break;
+                        case 1: Json.read(bytes, 0, bytes.length, strict); break;
+                        case 2: Json.read(new StringReader(lenient), strict); break;
+                        case 3: Json.read(ByteBuffer.wrap(bytes), strict); break;
+                        default: Json.read(new java.text.StringCharacterIterator(" " + lenient), strict);
+                    }
+                    Assert.fail("Expected strict parsing to reject " + lenient + " (" + i + ")");
+                }
+                catch (MJsonException ex) { }
+        }
+        Assert.assertEquals(Json.read("[1]"), Json.read("[1]", strict));
+        Assert.assertEquals(Json.read("[1, 2,]"), Json.read("[1, 2,]"));
+
+        String numbers = "[1, 2.50, 1e3, 12345678901234567890, 0.1234567890123456789]";
+        for (Json x : readAll(numbers, new ReadOptions().setNumbers(ReadOptions.Numbers.DOUBLE)))
+            for (Json n : x.asJsonList())
+                Assert.assertTrue(n.getValue() instanceof Double);
+        for (Json x : readAll(numbers, new ReadOptions().setNumbers(ReadOptions.Numbers.EXACT)))
+        {
+            Assert.assertEquals(1L, ((Number)x.at(0).getValue()).longValue());
+            Assert.assertFalse(x.at(0).getValue() instanceof BigDecimal);
+            Assert.assertEquals(new BigDecimal("2.50"), x.at(1).getValue());
+            Assert.assertEquals(new BigDecimal("1e3"), x.at(2).getValue());
+            Assert.assertEquals(new BigInteger("12345678901234567890"), x.at(3).getValue());
+            Assert.assertEquals(new BigDecimal("0.1234567890123456789"), x.at(4).getValue());
+        }
+        for (Json x : readAll(numbers, new ReadOptions()))
+            Assert.assertEquals(Json.read(numbers), x);
+
+        Factory upper = new DefaultFactory()
+        {
+            public Json string(String x) { return super.string(x.toUpperCase()); }
+        };
+        for (Json x : readAll("[\"b\", 1, null, true, [\"c\"]]", new ReadOptions().setFactory(upper)))
+            Assert.assertEquals(array("B", 1, null, true, array("C")), x);
+        Assert.assertEquals(array("b"), Json.read("[\"b\"]"));
+
+        Json uncached = Json.read("[{\"key\": 1}, {\"key\": 2}]", new ReadOptions().setKeyCaching(false));
+        Assert.assertNotSame(uncached.at(0).asJsonMap().keySet().iterator().next(),
+                             uncached.at(1).asJsonMap().keySet().iterator().next());
+        Assert.assertEquals(2, uncached.at(1).at("key").asInteger());
+    }
+
+    @Test
+    public void testWriteTo()
+    {
+        Json doc = object("s", "a\"b\\c\n\u00e9", "n", array(1, 2.5, null, true, object(), array()), 
+                          "big", sample(500));
+        String text = doc.toString();
+        Assert.assertEquals(text, doc.writeTo(new StringBuilder()).toString());
+        Assert.assertEquals(text, doc.writeTo(new java.io.StringWriter()).toString());
+        Assert.assertEquals(doc, Json.read(text));
+        Assert.assertEquals("\"x\"", make("x").writeTo(new StringBuilder()).toString());
+        Assert.assertEquals("[]", array().writeTo(new java.io.StringWriter()).toString());
+        Assert.assertEquals(text, Json.readLazy(text).writeTo(new StringBuilder()).toString());
+        Assert.assertEquals(doc, Json.read(Json.readTape(text).writeTo(new java.io.StringWriter()).toString()));
+        Json lazy = Json.readLazy("{\"a\": [1, 2], \"b\": {}}");
+        lazy.at("a").add(3);
+        Assert.assertEquals(object("a", array(1, 2, 3), "b", object()), Json.read(lazy.writeTo(new StringBuilder()).toString()));
+
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 100000; i++)
+            deep.append("[{\"a\":");
+        deep.append(0);
+        for (int i = 0; i < 100000; i++)
+            deep.append("}]");
+        Assert.assertEquals(deep.toString(), Json.read(deep.toString()).toString());
+
+        try
+        {
+            doc.writeTo(new java.io.Writer()
+            {
+                public void write(char[] cbuf, int off, int len) throws IOException { throw new IOException("full"); }
+                public void flush() { }
+                public void close() { }
+            });
+            Assert.fail("Expected the writer's failure to be reported");
+        }
+        catch (MJsonException ex) { Assert.assertTrue(ex.getCause() instanceof IOException); }
+    }
+
+    @Test
+    public void testWriteUtf8()
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++)
+            text.append("a\u00e9\u4e2d\ud83d\ude00\"\n");
+        Json doc = object("s", text.toString(), "\u00e9", array(0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 2.5, null, false),
+                          "lone", "x\ud83dy\ude00", "big", sample(300));
+        byte [] expected = doc.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        byte [] bytes = doc.writeUtf8(new java.io.ByteArrayOutputStream()).toByteArray();
+        Assert.assertTrue(Arrays.equals(expected, bytes));
+        Assert.assertEquals(doc.dup().delAt("lone"), Json.read(bytes, 0, bytes.length).delAt("lone"));
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.put((byte)' ');
+        Assert.assertSame(buffer, doc.writeUtf8(buffer));
+        Assert.assertEquals(expected.length + 1, buffer.position());
+        Assert.assertTrue(Arrays.equals(expected, Arrays.copyOfRange(buffer.array(), 1, buffer.position())));
+
+        String tape = Json.readTape(doc.toString()).toString();
+        bytes = Json.readTape(tape).writeUtf8(new java.io.ByteArrayOutputStream()).toByteArray();
+        Assert.assertTrue(Arrays.equals(tape.getBytes(java.nio.charset.StandardCharsets.UTF_8), bytes));
+        Assert.assertEquals("\"\u00e9\"", new String(make("\u00e9").writeUtf8(ByteBuffer.allocate(4)).array(),
+                                                      java.nio.charset.StandardCharsets.UTF_8));
+        try
+        {
+            doc.writeUtf8(ByteBuffer.allocate(100));
+            Assert.fail("Expected the buffer to overflow");
+        }
+        catch (java.nio.BufferOverflowException ex) { }
+
+        // in place in a slice of an array, to the last byte, and through a direct buffer
+        ByteBuffer slice = ByteBuffer.allocate(expected.length + 5);
+        slice.position(5);
+        slice = slice.slice();
+        doc.writeUtf8(slice);
+        Assert.assertFalse(slice.hasRemaining());
+        Assert.assertTrue(Arrays.equals(expected, Arrays.copyOfRange(slice.array(), 5, slice.array().length)));
+        try
+        {
+            doc.writeUtf8(ByteBuffer.allocate(expected.length - 1));
+            Assert.fail("Expected the buffer to overflow");
+        }
+        catch (java.nio.BufferOverflowException ex) { }
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+        doc.writeUtf8(direct).flip();
+        bytes = new byte[direct.remaining()];
+        direct.get(bytes);
+        Assert.assertTrue(Arrays.equals(expected, bytes));
+        // again on the thread's buffer, left by the writes above
+        Assert.assertTrue(Arrays.equals(expected, doc.writeUtf8(new java.io.ByteArrayOutputStream()).toByteArray()));
+    }
+
+    @Test
+    public void testEscaping()
+    {
+        String plain = "plain text, \u00e9\u4e2d\ud83d\ude00 and <b>='&'</b>";
+        Assert.assertEquals('"' + plain + '"', make(plain).toString());
+        Assert.assertEquals("\"\\\"\\\\/\\b\\t\\n\\f\\r\\u0000\\u001f\\u007f\\u0080\\u009f\u00a0\\u2028\\u2029\ud83d\"",
+                            make("\"\\/\b\t\n\f\r\u0000\u001f\u007f\u0080\u009f\u00a0\u2028\u2029\ud83d").toString());
+
+        Json doc = object("<k>", array("a<b", "'x'", "c=&d", plain, 1));
+        String safe = "{\"\\u003ck\\u003e\":[\"a\\u003cb\",\"\\u0027x\\u0027\",\"c\\u003d\\u0026d\",\""
+                    + plain.replace("<", "\\u003c").replace(">", "\\u003e").replace("=", "\\u003d")
+                           .replace("'", "\\u0027").replace("&", "\\u0026") + "\",1]}";
+        WriteOptions html = new WriteOptions().setHtmlSafe(true);
+        Assert.assertEquals(safe, doc.writeTo(new StringBuilder(), html).toString());
+        Assert.assertEquals(doc.toString(), doc.writeTo(new StringBuilder(), new WriteOptions()).toString());
+        Assert.assertEquals(safe, Json.readTape(doc.toString()).writeTo(new StringBuilder(), html).toString());
+        Assert.assertEquals(safe, Json.readLazy(doc.toString()).writeTo(new java.io.StringWriter(), html).toString());
+        Assert.assertEquals(safe, new String(doc.writeUtf8(new java.io.ByteArrayOutputStream(), html).toByteArray(),
+                                             java.nio.charset.StandardCharsets.UTF_8));
+        Assert.assertEquals(doc, Json.read(safe));
+
+        // Latin-1 text of a tape, on both sides of 8 byte boundaries
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++)
+            text.append(i % 7 == 0 ? "\"" : i % 5 == 0 ? "\u00e9\u0085" : "abc\\".substring(i % 4));
+        Json strings = array(text.toString(), text.substring(3), text.substring(0, 13));
+        byte [] bytes = Json.readTape(strings.toString()).writeUtf8(new java.io.ByteArrayOutputStream()).toByteArray();
+        Assert.assertTrue(Arrays.equals(strings.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8), bytes));
+    }
+
+    @Test
+    public void testTruncatedToString()
+    {
+        char [] chars = new char[1 << 20];
+        Arrays.fill(chars, '"');
+        String quotes = new String(chars);
+        Json doc = object("first", array(object("deep", array(1, quotes, 2))), "second", sample(100));
+        String text = doc.toString();
+        for (int max : new int[] { 0, 1, 10, 31, 32, 33, 100 })
+        {
+            String cut = text.substring(0, max) + "...";
+            Assert.assertEquals(cut, doc.toString(max));
+            Assert.assertEquals(cut, Json.readLazy(text).toString(max));
+            Assert.assertEquals(cut, Json.readTape(text).toString(max));
+        }
+        String small = sample(3).toString();
+        Assert.assertEquals(small, sample(3).toString(small.length()));
+        Assert.assertEquals(small, Json.readTape(small).toString(small.length() + 1));
+        Assert.assertEquals(small.substring(0, small.length() - 1) + "...", sample(3).toString(small.length() - 1));
+        Assert.assertEquals("[]", array().toString(2));
+
+        Json nested = array();
+        for (int i = 0; i < 100000; i++)
+            nested = array(nested, quotes);
+        Assert.assertEquals("[[[[[...", nested.toString(5));
+    }
+
+    @Test
+    public void testMemoize()
+    {
+        for (Json doc : new Json[] { object("config", sample(20), "n", 1, "s", "x\"<y>"),
+                                     Json.readLazy(object("config", sample(20), "n", 1, "s", "x\"<y>").toString()) })
+        {
+            Assert.assertSame(doc, doc.memoize(true));
+            Assert.assertEquals(doc.dup().toString(), doc.toString());
+            doc.at("config").at(3).set("name", "changed");
+            doc.at("config").at(4).at("tags").set(0, object("deep", array()));
+            doc.at("config").at(4).at("tags").at(0).at("deep").add(42);
+            doc.at("config").at(5).at("tags").delAt(1).add(array(1)).atDel(0);
+            doc.at("config").at(6).delAt("ratio").with(object("ratio", 0.5, "extra", "e"));
+            doc.at("config").at(7).at("tags").with(array("x", object("y", 1)));
+            doc.at("config").at(7).at("tags").at(6).set("y", 2);
+            doc.at("config").at(8).atDel("nested");
+            doc.at("config").remove(doc.at("config").at(9));
+            doc.set("s", "new");
+            Json expected = Json.read(doc.dup().toString());
+            Assert.assertEquals(expected, Json.read(doc.toString()));
+            Assert.assertEquals(42, expected.at("config").at(4).at("tags").at(0).at("deep").at(0).asInteger());
+            Assert.assertEquals(2, expected.at("config").at(7).at("tags").at(6).at("y").asInteger());
+            Assert.assertEquals(doc.dup().toString(), doc.toString());
+            Assert.assertEquals(doc.dup().toString(), new String(doc.writeUtf8(new java.io.ByteArrayOutputStream()).toByteArray(),
+                                                                 java.nio.charset.StandardCharsets.UTF_8));
+            Assert.assertEquals(doc.dup().toString(30), doc.toString(30));
+            WriteOptions html = new WriteOptions().setHtmlSafe(true);
+            Assert.assertEquals(doc.dup().writeTo(new StringBuilder(), html).toString(),
+                                doc.writeTo(new StringBuilder(), html).toString());
+
+            // the kept text is written as is, changes that bypass the mutators aren't seen
+            String text = doc.toString();
+            doc.at("config").at(0).asJsonMap().put("hidden", make(true));
+            Assert.assertEquals(text, doc.toString());
+            doc.at("config").at(0).memoize(false);
+            Assert.assertFalse(text.equals(doc.toString()));
+            Assert.assertEquals(doc.dup().toString(), doc.toString());
+        }
+    }
+
+    @Test
+    public void testMemoizeDeep() throws Exception
+    {
+        // every level gets its text kept, on a small stack
+        final Json inner = array();
+        Json nested = inner;
+        for (int i = 0; i < 2000; i++)
+            nested = array(nested);
+        final Json doc = nested.memoize(true);
+        final String [] texts = new String[2];
+        Thread thread = new Thread(null, new Runnable() {
+            public void run()
+            {
+                texts[0] = doc.toString();
+                inner.add(1);
+                texts[1] = doc.toString();
+            }
+        }, "memoize", 128 * 1024);
+        thread.start();
+        thread.join();
+        Assert.assertEquals(doc.dup().toString(), texts[1]);
+        Assert.assertEquals(texts[0].replace("[]", "[1]"), texts[1]);
+        Assert.assertEquals("[[1]]", inner.up().toString());
+    }
+
+    @Test
+    public void testReadLazy()
+    {
+        String big = sample(200).toString();
+        String text = "{\"big\" : " + big + ",\n \"meta\": { \"id\" : 42, \"tags\": [ \"a\", \"}]\\\"\" ] /* ] */ },"
+                    + " \"bad\": [1 2], \"n\": 2.50}";
+        Json doc = Json.readLazy(text);
+        Assert.assertEquals("{ \"id\" : 42, \"tags\": [ \"a\", \"}]\\\"\" ] /* ] */ }", doc.at("meta").toString());
+        Assert.assertEquals(42, doc.at("meta").at("id").asInteger());
+        Assert.assertEquals(big, doc.at("big").toString());
+        Assert.assertEquals("2.50", doc.at("n").toString());
+        Assert.assertEquals(Json.read(big), doc.at("big"));
+        Assert.assertEquals("}]\"", doc.at("meta").at("tags").at(1).asString());
+        Assert.assertSame(doc, doc.at("meta").up());
+        try
+        {
+            doc.at("bad").at(0);
+            Assert.fail("Expected a syntax error in the accessed array.");
+        }
+        catch (MJsonException ex) { }
+
+        Json meta = Json.readLazy(text).at("meta");
+        Json copy = meta.dup();
+        meta.set("id", 43);
+        Assert.assertEquals(43, meta.at("id").asInteger());
+        Assert.assertEquals(42, copy.at("id").asInteger());
+        Assert.assertEquals(Json.read(big), Json.readLazy(big));
+        Assert.assertEquals(Json.readLazy(big), Json.read(big));
+        Assert.assertEquals(array(1, "x").with(Json.readLazy("[2, 3]")), array(1, "x", 2, 3));
+        Assert.assertEquals(make("x"), Json.readLazy(" // comment\n \"x\" "));
+        Assert.assertEquals(make(5), Json.readLazy("5"));
+        for (String bad : new String[] { "[1, 2", "{\"a\": [}", "]", "[\"x]", "[/* x" })
+            try
+            {
+                Json.readLazy(bad);
+                Assert.fail("Expected failure on " + bad);
+            }
+            catch (MJsonException ex) { }
+    }
+
+    @Test
+    public void testReadTape()
+    {
+        String big = sample(200).toString();
+        String text = "{\"big\": " + big + ", \"meta\": {\"id\": 42, \"tags\": [\"a\", \"\\u4e2d\\\"\", [], {}]}, " 
+                    + "\"n\": 2.50, \"m\": -1152921504606846977, \"x\": 1, \"x\": null}";
+        Json doc = Json.readTape(text);
+        Assert.assertEquals(Json.read(text), doc);
+        Assert.assertEquals(doc, Json.read(text));
+        Assert.assertEquals(Json.read(text).hashCode(), doc.hashCode());
+        Assert.assertEquals(Json.read(text), Json.read(doc.toString()));
+        Assert.assertEquals(big, doc.at("big").toString());
+        Assert.assertEquals("2.50", doc.at("n").toString());
+        Assert.assertEquals(-1152921504606846977L, doc.at("m").asLong());
+        Assert.assertTrue(doc.at("x").isNull());
+        Assert.assertTrue(doc.has("meta") && !doc.has("met") && !doc.has("metas"));
+        Assert.assertEquals(42, doc.at("meta").at("id").asInteger());
+        Assert.assertEquals("\u4e2d\"", doc.at("meta").at("tags").at(1).asString());
+        Assert.assertEquals(4, doc.at("meta").at("tags").asJsonList().size());
+        Assert.assertTrue(doc.at("meta").is("id", 42));
+        Assert.assertEquals(42, doc.at("meta").at("tags").up().at("id").asInteger());
+        Assert.assertEquals(doc.at("big").at(3).asMap(), Json.read(big).at(3).asMap());
+        Assert.assertTrue(doc.toString(20).length() <= 23);
+        byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(doc, Json.readTape(bytes, 0, bytes.length));
+        Assert.assertEquals(make(5), Json.readTape(" 5 "));
+        Assert.assertEquals(array(), Json.readTape("[]"));
+
+        for (Runnable mutation : new Runnable[] { () -> doc.set("id", 1), () -> doc.delAt("n"), 
+                                                  () -> doc.at("big").add(1), () -> doc.at("big").atDel(0),
+                                                  () -> doc.at("meta").with(object("a", 1)) })
+            try
+            {
+                mutation.run();
+                Assert.fail("Expected a read-only Json");
+            }
+            catch (MJsonException ex) { }
+        Json meta = doc.at("meta").dup();
+        meta.set("id", 43).at("tags").add(1);
+        Assert.assertEquals(43, meta.at("id").asInteger());
+        Assert.assertEquals(5, meta.at("tags").asJsonList().size());
+        Assert.assertEquals(42, doc.at("meta").at("id").asInteger());
+
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 50000; i++)
+            deep.append("[{\"a\":");
+        deep.append(0);
+        for (int i = 0; i < 50000; i++)
+            deep.append("}]");
+        Assert.assertEquals(deep.toString(), Json.readTape(deep.toString()).toString());
+    }
+
+    @Test
+    public void testReadIndexed()
+    {
+        String text = "[ {\"x\" :[ true , null , 1.5e3] , \"}{\\\\\" :922}, \"\\\\\", \"\\u00e9\\\"\\\\\\\"\" ,\n\t-0 ] ";
+        for (String s : new String[] { text, sample(300).toString(), sample(20).toString().replace(",", " ,\n  "), 
+                                       "42", " \"abcdefghijklmnopqrstuvwxyz\" ", "[1, /* two */ 2]" })
+        {
+            byte [] bytes = ("  " + s + "  ").getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            Assert.assertEquals(Json.read(s), Json.readIndexed(bytes, 2, bytes.length - 4));
+        }
+        for (String bad : new String[] { "[1 2]", "[truex, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0]", 
+                                         "{\"a\" 1}", "[\"abc\", \"def\", \"ghi\", \"jkl\", \"mno\", \"pqr\", \"stu\"" })
+            try
+            {
+                byte [] bytes = bad.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                Json.readIndexed(bytes, 0, bytes.length);
+                Assert.fail("Expected failure on " + bad);
+            }
+            catch (MJsonException ex) { }
+    }
+
+    @Test
+    public void testReadPointers()
+    {
+        Json doc = object("id", 7, "a/b", "slash", "items", sample(5), "meta", object("tags", array("x", "y"), "n", 1.5),
+                          "skip", array(object("}", "]\"["), "{"));
+        String text = doc.toString();
+        Json sparse = Json.read(text, "/id", "/a~1b", "/items/2/name", "/items/3/tags/1", "/meta", "/meta/n", "/missing", "/id/deeper");
+        Assert.assertEquals(object("id", 7, "a/b", "slash", "meta", doc.at("meta"),
+                                   "items", array(null, null, object("name", doc.at("items").at(2).at("name")),
+                                                  object("tags", array(null, "b")))), sparse);
+        Assert.assertEquals(doc.at("items").at(3).at("tags").at(1), sparse.at("items").at(3).at("tags").at(1));
+        byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(sparse, Json.read(bytes, 0, bytes.length, "/id", "/a~1b", "/items/2/name", "/items/3/tags/1", "/meta"));
+        Assert.assertEquals(doc, Json.read(new java.io.StringReader(text), "/items", ""));
+        Assert.assertEquals(object(), Json.read(text, new String[0]));
+        Assert.assertEquals(array(null, object("x", 1)), Json.read("[[1, {\"x\": 2}], {\"x\": 1, \"y\": [[[]]]}, 3]", "/1/x"));
+        Assert.assertEquals(Json.nil(), Json.read("\"abc\"", "/0"));
+        Assert.assertEquals(make("abc"), Json.read("\"abc\"", "/"));
+        String big = "[" + sample(400) + ", [1, /* ] */ 2 // ]\n ], \"x\"]";
+        Assert.assertEquals(object("id", 300), Json.read(new java.io.StringReader(big), "/0/300/id").at(0).at(300));
+        bytes = big.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(array(null, null, "x"), Json.read(bytes, 0, bytes.length, "/2"));
+        Assert.assertEquals(array(null, null, "x"), Json.read(big, "/2"));
+    }
+
+    @Test
+    public void testIncrementalParser()
+    {
+        Json big = sample(300);
+        String text = big + "\n{\"s\": \"" + new String(new char[20000]).replace('\0', '\u00e9') + "\"} 1.5e3 true [] \"\\u00e9\\\"\" 42";
+        List<Json> expected = Arrays.asList(big, Json.read(text.substring(text.indexOf('\n'))), make(1500.0), make(true), 
+                                            array(), make("\u00e9\""), make(42));
+        byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        char [] chars = text.toCharArray();
+        for (int chunk : new int[] { 1, 7, 4096, bytes.length })
+        {
+            List<Json> fromBytes = new ArrayList<Json>(), fromChars = new ArrayList<Json>();
+            Json.IncrementalParser byteParser = Json.incrementalParser(fromBytes::add);
+            Json.IncrementalParser charParser = Json.incrementalParser(fromChars::add);
+            for (int i = 0; i < bytes.length; i += chunk)
+            {
+                byteParser.feed(java.nio.ByteBuffer.wrap(bytes, i, Math.min(chunk, bytes.length - i)));
+                if (i < chars.length)
+                    charParser.feed(chars, i, Math.min(chunk, chars.length - i));
+            }
+            Assert.assertEquals(expected.subList(0, 6), fromBytes);
+            Assert.assertEquals(expected.subList(0, 6), fromChars);
+            byteParser.endOfInput();
+            charParser.endOfInput();
+            Assert.assertEquals(expected, fromBytes);
+            Assert.assertEquals(expected, fromChars);
+        }
+
+        Aggregator events = new Aggregator();
+        Json.IncrementalParser parser = Json.incrementalParser(events);
+        parser.feed("{\"a\": [1, tr".toCharArray(), 0, 12);
+        parser.feed("ue, \"x\"".toCharArray(), 0, 7);
+        parser.feed("], \"b\"".toCharArray(), 0, 6);
+        Assert.assertEquals(1, events.strings);
+        Assert.assertEquals(1, events.depth);
+        Assert.assertEquals(2, events.maxDepth);
+        parser.feed(": 2}".toCharArray(), 0, 4).endOfInput();
+        Assert.assertEquals(0, events.depth);
+        for (String bad : new String[] { "[1, 2", "\"abc", "[1 2]", "{\"a\" 1}" })
+            try
+            {
+                Json.incrementalParser(events).feed(bad.toCharArray(), 0, bad.length()).endOfInput();
+                Assert.fail("Expected failure on " + bad);
+            }
+            catch (MJsonException ex) { }
+    }
+
+    enum Kind { SMALL, LARGE }
+
+    static class Item
+    {
+        private int id;
+        String name;
+        double ratio;
+        List<Object> tags;
+        Map<String, Object> nested;
+        transient int ignored = 7;
+        @UnknownProperties Json extra;
+    }
+
+    static class Order
+    {
+        long number;
+        Item [] items;
+        java.util.Set<Kind> kinds;
+        Map<String, List<Integer>> counts;
+        Json raw;
+        java.math.BigDecimal total;
+        Integer missing = 5;
+        char grade;
+        Order parent;
+    }
+
+    static class Sizes
+    {
+        int i;
+        short s;
+        byte b;
+        long l;
+        java.math.BigInteger big;
+    }
+
+    @Test
+    public void testReadIntoClass()
+    {
+        String text = "{\"number\": 12345678901, \"items\": " + sample(3) + ", \"kinds\": [\"LARGE\", \"SMALL\", \"LARGE\"],"
+                    + "\"counts\": {\"x\": [1, 2], \"y\": []}, \"raw\": {\"a\": [true]}, \"total\": 0.10000000000000000001,"
+                    + "\"grade\": \"B\", \"parent\": {\"number\": 1, \"parent\": null, \"unused\": {\"deep\": [[]]}}}";
+        Order order = Json.read(text, Order.class);
+        Assert.assertEquals(12345678901L, order.number);
+        Assert.assertEquals(3, order.items.length);
+        Assert.assertEquals(2, order.items[2].id);
+        Assert.assertEquals("item \"2\" \u00e9\u4e2d", order.items[2].name);
+        Assert.assertEquals(2 / 7.0, order.items[2].ratio);
+        Assert.assertEquals(Arrays.asList("a", "b", null, true, false), order.items[1].tags);
+        Assert.assertEquals(Collections.emptyMap(), order.items[0].nested);
+        Assert.assertNull(order.items[0].extra);
+        Assert.assertEquals(7, order.items[0].ignored);
+        Assert.assertEquals(new java.util.LinkedHashSet<Kind>(Arrays.asList(Kind.LARGE, Kind.SMALL)), order.kinds);
+        Assert.assertEquals(Arrays.asList(1, 2), order.counts.get("x"));
+        Assert.assertEquals(object("a", array(true)), order.raw);
+        Assert.assertEquals(new java.math.BigDecimal("0.10000000000000000001"), order.total);
+        Assert.assertEquals(Integer.valueOf(5), order.missing);
+        Assert.assertEquals('B', order.grade);
+        Assert.assertEquals(1, order.parent.number);
+        Assert.assertNull(order.parent.parent);
+
+        Item item = Json.read("{\"id\": 3, \"color\": \"red\", \"size\": [1, {}], \"ignored\": 1}", Item.class);
+        Assert.assertEquals(3, item.id);
+        Assert.assertEquals(object("color", "red", "size", array(1, object()), "ignored", 1), item.extra);
+        Assert.assertEquals(7, item.ignored);
+        byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(12345678901L, Json.read(bytes, 0, bytes.length, Order.class).number);
+        Assert.assertEquals(Arrays.asList(2.5, "x", null), Json.read(new java.io.StringReader("[2.5, \"x\", null]"), List.class));
+        Assert.assertEquals(Integer.valueOf(42), Json.read("42", int.class));
+        for (String bad : new String[] { "{\"id\": \"3\"}", "{\"name\": 3}", "[]", "{\"tags\": {}}", "{\"id\": 1", "{\"nested\": 1}",
+                                         "{\"id\": 3000000000}", "{\"id\": 1.9}", "{\"id\": 1e3}" })
+            try
+            {
+                Json.read(bad, Item.class);
+                Assert.fail("Expected failure on " + bad);
+            }
+            catch (MJsonException ex) { }
+
+        // integers are bound only to types that can hold them exactly
+        Sizes sizes = Json.read("{\"i\": -2147483648, \"s\": 32767, \"b\": -128, \"l\": 9223372036854775807,"
+                                + " \"big\": 123456789012345678901234567890}", Sizes.class);
+        Assert.assertEquals(Integer.MIN_VALUE, sizes.i);
+        Assert.assertEquals(Short.MAX_VALUE, sizes.s);
+        Assert.assertEquals(Byte.MIN_VALUE, sizes.b);
+        Assert.assertEquals(Long.MAX_VALUE, sizes.l);
+        Assert.assertEquals(new java.math.BigInteger("123456789012345678901234567890"), sizes.big);
+        Assert.assertEquals(Long.valueOf(Long.MIN_VALUE), Json.read("-9223372036854775808", long.class));
+        Assert.assertEquals(Byte.valueOf((byte)127), Json.read("127", Byte.class));
+        for (Object [] bad : new Object[][] { { "3000000000", Integer.class }, { "3000000000", int.class }, { "70000", short.class }, 
+                                              { "1.9", byte.class }, { "128", Byte.class }, { "1e400", long.class }, 
+                                              { "9223372036854775808", long.class }, { "1.5", java.math.BigInteger.class }, 
+                                              { "1e3", java.math.BigInteger.class }, { "{\"i\": 3000000000}", Sizes.class }, 
+                                              { "{\"s\": 70000}", Sizes.class }, { "{\"b\": 1.9}", Sizes.class }, 
+                                              { "{\"l\": 1e400}", Sizes.class }, { "{\"l\": 99999999999999999999}", Sizes.class } })
+            try
+            {
+                Json.read((String)bad[0], (Class<?>)bad[1]);
+                Assert.fail("Expected failure on " + bad[0] + " to " + bad[1]);
+            }
+            catch (MJsonException ex) { }
+    }
+
+    @Test
+    public void testReusableParser()
+    {
+        Json.ReusableParser parser = new Json.ReusableParser();
+        String longString = new String(new char[100000]).replace('\0', 'x');
+        Json deep = array();
+        for (int i = 0; i < 2000; i++)
+            deep = array(deep);
+        for (Json doc : new Json[] { sample(3), make(longString), deep, object("a", 1), make(2.5) })
+        {
+            String text = doc.toString();
+            byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            Assert.assertEquals(doc, parser.read(text));
+            Assert.assertEquals(doc, parser.read(bytes, 0, bytes.length));
+            Assert.assertEquals(doc, parser.read(("  " + text).toCharArray(), 2, text.length()));
+            try
+            {
+                parser.read("{\"a\": [1, ");
+                Assert.fail("Expected a syntax error");
+            }
+            catch (MJsonException ex) { }
+            parser.reset();
+        }
+
+        // a factory reading JSON while the thread's parser is busy gets a parser of its own
+        Json.attachFactory(new DefaultFactory() 
+        {
+            public Json string(String value) { return value.startsWith("[") ? Json.read(value) : super.string(value); }
+        });
+        try
+        {
+            Assert.assertEquals(array(array(1, 2), "x"), Json.read("[\"[1, 2]\", \"x\"]"));
+        }
+        finally
+        {
+            Json.detachFactory();
+        }
+        Json.setParserPooling(false);
+        try
+        {
+            Assert.assertNotSame(Json.reusableParser(), Json.reusableParser());
+            Assert.assertEquals(sample(2), Json.read(sample(2).toString()));
+        }
+        finally
+        {
+            Json.setParserPooling(true);
+        }
+        Assert.assertSame(Json.reusableParser(), Json.reusableParser());
+    }
+
+    static int depth(Json x)
+    {
+        int depth = 0;
+        for (; x.isArray() || x.isObject(); depth++)
+            x = x.isArray() ? (x.asJsonList().isEmpty() ? nil() : x.at(0)) : x.at("a");
+        return depth;
+    }
+
+    @Test
+    public void testDeepNesting()
+    {
+        int levels = 100000;
+        StringBuilder sb = new StringBuilder(" ");
+        for (int i = 0; i < levels; i++)
+            sb.append(i % 2 == 0 ? "[" : "{\"a\":");
+        sb.append(0);
+        for (int i = levels - 1; i >= 0; i--)
+            sb.append(i % 2 == 0 ? "]" : "}");
+        String text = sb.toString();
+        Assert.assertEquals(levels, depth(Json.read(text)));
+        Assert.assertEquals(levels, depth(Json.read(new java.text.StringCharacterIterator(text))));
+        byte [] bytes = text.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        Assert.assertEquals(levels, depth(Json.read(bytes, 0, bytes.length)));
+        Assert.assertEquals(levels, depth(new Json.ReusableParser().setMaxDepth(levels).read(text)));
+
+        try
+        {
+            new Json.ReusableParser().setMaxDepth(levels - 1).read(text);
+            Assert.fail("Expected the maximum depth to be exceeded");
+        }
+        catch (MJsonException ex) { Assert.assertTrue(ex.getMessage().contains("depth")); }
+        JsonParser parser = Json.parser("[[1], [[2]], 3]").setMaxDepth(2);
+        Assert.assertEquals(Event.START_ARRAY, parser.next());
+        Assert.assertEquals(array(1), parser.next().equals(Event.START_ARRAY) ? parser.getValue() : null);
+        Assert.assertEquals(Event.START_ARRAY, parser.next());
+        try
+        {
+            parser.next();
+            Assert.fail("Expected the maximum depth to be exceeded");
+        }
+        catch (MJsonException ex) { }
+        try
+        {
+            Json.incrementalParser(x -> { }).setMaxDepth(3).feed("[[[[]]]]".toCharArray(), 0, 8);
+            Assert.fail("Expected the maximum depth to be exceeded");
+        }
+        catch (MJsonException ex) { }
+    }
+
+    static List<Event> events(JsonParser parser)
+    {
+        List<Event> L = new ArrayList<Event>();
+        for (Event e = parser.next(); e != null; e = parser.next())
+            L.add(e);
+        return L;
+    }
+
+    @Test
+    public void testPullParserEvents()
+    {
+        String text = "{\"a\":[1,2.5,\"x\",true,false,null],\"b\":{}}";
+        List<Event> expected = Arrays.asList(Event.START_OBJECT, Event.KEY, Event.START_ARRAY,
+                Event.VALUE_NUMBER, Event.VALUE_NUMBER, Event.VALUE_STRING, Event.VALUE_TRUE,
+                Event.VALUE_FALSE, Event.VALUE_NULL, Event.END_ARRAY, Event.KEY, Event.START_OBJECT,
+                Event.END_OBJECT, Event.END_OBJECT);
+        Assert.assertEquals(expected, events(Json.parser(text)));
+        byte [] bytes = text.getBytes(Charset.forName("UTF-8"));
+        Assert.assertEquals(expected, events(Json.parser(bytes, 0, bytes.length)));
+        Assert.assertEquals(expected, events(Json.parser(new StringReader(text))));
+        Assert.assertEquals(Arrays.asList(Event.VALUE_NUMBER, Event.START_ARRAY, Event.END_ARRAY),
+                            events(Json.parser(" 1 [] ")));
+    }
+
+    @Test
+    public void testPullParserSkipAndMaterialize()
+    {
+        Json doc = object("big", sample(100), "meta", object("id", 42, "tags", array("x")), "n", -3);
+        JsonParser parser = Json.parser(doc.toString());
+        Json meta = null;
+        long n = 0;
+        Assert.assertEquals(Event.START_OBJECT, parser.next());
+        for (Event e = parser.next(); e != Event.END_OBJECT; e = parser.next())
+        {
+            Assert.assertEquals(Event.KEY, e);
+            String key = parser.getString();
+            e = parser.next();
+            if (key.equals("meta"))
+                meta = parser.getValue();
+            else if (key.equals("n"))
+                n = parser.getLong();
+            else
+                parser.skipChildren();
+            Assert.assertEquals(1, parser.getDepth());
+        }
+        Assert.assertNull(parser.next());
+        Assert.assertEquals(doc.at("meta"), meta);
+        Assert.assertEquals(-3, n);
+    }
+
+    @Test
+    public void testPullParserErrors()
+    {
+        for (String bad : new String[] { "{\"a\" 1}", "[1 2]", "{1:2}", "[1,", "{\"a\":}", "[}" })
+            try
+            {
+                events(Json.parser(bad));
+                Assert.fail("Expected failure on " + bad);
+            }
+            catch (MJsonException ex) { }
+        try
+        {
+            events(Json.parser("{\"name\" 1}"));
+            Assert.fail();
+        }
+        catch (MJsonException ex) 
+        { 
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Expected ':' after object key name ")); 
+        }
+    }
+
+    static class Aggregator implements JsonHandler
+    {
+        boolean idNext = false;
+        long idSum = 0;
+        int strings = 0, objects = 0, depth = 0, maxDepth = 0;
+        String big;
+        public void startObject() { objects++; maxDepth = Math.max(maxDepth, ++depth); }
+        public void key(CharSequence name) { idNext = "id".contentEquals(name); }
+        public void endObject() { depth--; }
+        public void startArray() { maxDepth = Math.max(maxDepth, ++depth); }
+        public void endArray() { depth--; }
+        public void string(CharSequence value) { strings++; }
+        public void number(long value) { if (idNext) idSum += value; }
+        public void number(double value) { }
+        public void number(CharSequence literal) { big = literal.toString(); }
+        public void bool(boolean value) { }
+        public void nil() { }
+    }
+
+    @Test
+    public void testPushParsing()
+    {
+        Json doc = sample(100).add(new java.math.BigInteger("123456789012345678901234567890"));
+        Aggregator agg = new Aggregator();
+        Json.parse(doc.toString(), agg);
+        Assert.assertEquals(99 * 100 / 2, agg.idSum);
+        Assert.assertEquals(100 * 3, agg.strings);
+        Assert.assertEquals(200, agg.objects);
+        Assert.assertEquals(3, agg.maxDepth);
+        Assert.assertEquals(0, agg.depth);
+        Assert.assertEquals("123456789012345678901234567890", agg.big);
+        byte [] bytes = doc.toString().getBytes(Charset.forName("UTF-8"));
+        agg = new Aggregator();
+        Json.parse(bytes, 0, bytes.length, agg);
+        Assert.assertEquals(99 * 100 / 2, agg.idSum);
+        Assert.assertEquals(doc, Json.read(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void testReadFromFile() throws IOException
+    {
+        Json expected = sample(1000);
+        Path file = Files.createTempFile("mjson", ".json");
+        try
+        {
+            Files.write(file, expected.toString().getBytes(Charset.forName("UTF-8")));
+            Assert.assertEquals(expected, Json.read(file));
+            Files.write(file, "[1, \"two\"]".getBytes(Charset.forName("UTF-8")));
+            Assert.assertEquals(array(1, "two"), Json.read(file));
+            Assert.assertEquals(array(1, "two"), Json.read(file.toUri().toURL()));
+            Files.write(file, "[1 2]".getBytes(Charset.forName("UTF-8")));
+            try { Json.read(file.toUri().toURL()); Assert.fail(); }
+            catch (MJsonException ex) { Assert.assertFalse(ex.getCause() instanceof MJsonException); }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+        try { Json.read(file.toUri().toURL()); Assert.fail(); }
+        catch (MJsonException ex) { Assert.assertTrue(ex.getCause() instanceof IOException); }
+
+        // a stream that fails to close doesn't hide the parse error
+        java.net.URL url = new java.net.URL(null, "test:bad", new java.net.URLStreamHandler()
+        {
+            protected java.net.URLConnection openConnection(java.net.URL u)
+            {
+                return new java.net.URLConnection(u)
+                {
+                    public void connect() { }
+                    public Object getContent()
+                    {
+                        return new java.io.ByteArrayInputStream("[1 2]".getBytes(Charset.forName("UTF-8")))
+                        {
+                            public void close() throws IOException { throw new IOException("close"); }
+                        };
+                    }
+                };
+            }
+        });
+        try { Json.read(url); Assert.fail(); }
+        catch (MJsonException ex) 
+        { 
+            Assert.assertFalse(ex.getCause() instanceof IOException);
+            Assert.assertEquals("close", ex.getSuppressed()[0].getMessage());
+        }
+    }
+
+    static ByteArrayInputStream utf8(String s)
+    {
+        return new ByteArrayInputStream(s.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void testReadLines()
+    {
+        String text = "{\"a\":1}\r\n\n  [1, 2]  \n\"x\"\n{\"b\" 2}\n42";
+        try
+        {
+            Json.readLines(utf8(text)).collect(Collectors.toList());
+            Assert.fail("Expected a malformed record failure.");
+        }
+        catch (MJsonException ex)
+        {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Malformed JSON on line 5"));
+        }
+        Assert.assertEquals(Arrays.asList(object("a", 1), array(1, 2), make("x"), make(42)),
+                            Json.readLines(utf8(text), true).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList(make(2), make(3)),
+                            Json.readLines(utf8("1 2\n[\n2\n3"), true).collect(Collectors.toList()));
+        Assert.assertEquals(0, Json.readLines(utf8("")).count());
+
+        String unterminated = "{\"a\":1}\n{\"a\":\"xx\n{\"b\":2}\n{\"c\":3}\n";
+        Assert.assertEquals(Arrays.asList(object("a", 1), object("b", 2), object("c", 3)),
+                            Json.readLines(utf8(unterminated), true).collect(Collectors.toList()));
+        try
+        {
+            Json.readLines(utf8(unterminated)).collect(Collectors.toList());
+            Assert.fail("Expected a malformed record failure.");
+        }
+        catch (MJsonException ex)
+        {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Malformed JSON on line 2"));
+        }
+    }
+
+    @Test
+    public void testReadLinesFromFile() throws IOException
+    {
+        Path file = Files.createTempFile("mjson", ".ndjson");
+        try
+        {
+            StringBuilder sb = new StringBuilder();
+            for (Json x : sample(2000).asJsonList())
+                sb.append(x.toString()).append('\n');
+            Files.write(file, sb.toString().getBytes(Charset.forName("UTF-8")));
+            java.util.stream.Stream<Json> records = Json.readLines(file);
+            try
+            {
+                Assert.assertEquals(sample(2000).asJsonList(), records.collect(Collectors.toList()));
+            }
+            finally
+            {
+                records.close();
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelReadLines() throws IOException
+    {
+        Path file = Files.createTempFile("mjson", ".ndjson");
+        try
+        {
+            int count = 80000;
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < count; i++)
+                sb.append(object("id", i, "payload", "record number " + i, "values", array(i, i / 2.0)))
+                  .append('\n');
+            Files.write(file, sb.toString().getBytes(Charset.forName("UTF-8")));
+            Assert.assertTrue(Files.size(file) > 4 << 20);
+            final List<Json> inOrder = new ArrayList<Json>();
+            Json.readLines(file, inOrder::add, true);
+            Assert.assertEquals(count, inOrder.size());
+            for (int i = 0; i < count; i++)
+                Assert.assertEquals(i, inOrder.get(i).at("id").asInteger());
+            final java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+            Json.readLines(file, x -> sum.addAndGet(x.at("id").asLong()), false);
+            Assert.assertEquals((long)count * (count - 1) / 2, sum.get());
+            java.util.stream.Stream<Json> records = Json.readLines(file).parallel();
+            try
+            {
+                List<Json> L = records.collect(Collectors.toList());
+                Assert.assertEquals(inOrder, L);
+            }
+            finally
+            {
+                records.close();
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}